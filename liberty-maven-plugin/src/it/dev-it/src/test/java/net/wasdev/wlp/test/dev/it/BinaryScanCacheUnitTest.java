@@ -0,0 +1,127 @@
+/*******************************************************************************
+ * (c) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package net.wasdev.wlp.test.dev.it;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.openliberty.tools.maven.server.BinaryScanCache;
+
+public class BinaryScanCacheUnitTest {
+
+   @Rule
+   public TemporaryFolder temp = new TemporaryFolder();
+
+   private File classes;
+   private File cacheFile;
+
+   @Before
+   public void setUp() throws Exception {
+      classes = temp.newFolder("classes");
+      cacheFile = new File(temp.getRoot(), "cache/binary-scanner.properties");
+      write(new File(classes, "com/demo/A.class"), "A1");
+      write(new File(classes, "com/demo/B.class"), "B1");
+      write(new File(classes, "com/demo/readme.txt"), "not a class");
+   }
+
+   /**
+    * Unit test for the fingerprint of the class files
+    */
+   @Test
+   public void fingerprintTest() throws Exception {
+      BinaryScanCache cache = new BinaryScanCache(cacheFile, new SystemStreamLog());
+      String fingerprint = cache.fingerprint(classes);
+      assertEquals(fingerprint, cache.fingerprint(classes));
+
+      // only class files are scanned
+      write(new File(classes, "com/demo/readme.txt"), "changed");
+      assertEquals(fingerprint, cache.fingerprint(classes));
+
+      write(new File(classes, "com/demo/A.class"), "A2");
+      String changed = cache.fingerprint(classes);
+      assertNotEquals(fingerprint, changed);
+
+      write(new File(classes, "com/demo/C.class"), "C1");
+      assertNotEquals(changed, cache.fingerprint(classes));
+   }
+
+   /**
+    * Unit test for the class file digests reused from the cache file
+    */
+   @Test
+   public void classDigestTest() throws Exception {
+      BinaryScanCache cache = new BinaryScanCache(cacheFile, new SystemStreamLog());
+      String fingerprint = cache.fingerprint(classes);
+      cache.save();
+
+      // a class file with the same time and size is not read again
+      File classFile = new File(classes, "com/demo/A.class");
+      long lastModified = classFile.lastModified();
+      Files.write(classFile.toPath(), "A2".getBytes(StandardCharsets.UTF_8));
+      assertTrue(classFile.setLastModified(lastModified));
+      assertEquals(fingerprint, new BinaryScanCache(cacheFile, new SystemStreamLog()).fingerprint(classes));
+
+      assertTrue(classFile.setLastModified(lastModified + 2000));
+      assertNotEquals(fingerprint, new BinaryScanCache(cacheFile, new SystemStreamLog()).fingerprint(classes));
+   }
+
+   /**
+    * Unit test for the features cached by scanner inputs
+    */
+   @Test
+   public void featuresTest() throws Exception {
+      BinaryScanCache cache = new BinaryScanCache(cacheFile, new SystemStreamLog());
+      assertNull(cache.getFeatures("key1"));
+      cache.putFeatures("key1", new HashSet<String>(Arrays.asList("servlet-4.0", "jaxrs-2.1")));
+      cache.putFeatures("key2", Collections.<String> emptySet());
+      assertEquals(new HashSet<String>(Arrays.asList("servlet-4.0", "jaxrs-2.1")), cache.getFeatures("key1"));
+      cache.save();
+
+      cache = new BinaryScanCache(cacheFile, new SystemStreamLog());
+      assertEquals(Collections.<String> emptySet(), cache.getFeatures("key2"));
+      cache.save();
+
+      // entries that were not used since the cache was loaded are dropped
+      cache = new BinaryScanCache(cacheFile, new SystemStreamLog());
+      assertNull(cache.getFeatures("key1"));
+      Set<String> features = cache.getFeatures("key2");
+      assertTrue(features != null && features.isEmpty());
+   }
+
+   private static void write(File file, String content) throws IOException {
+      file.getParentFile().mkdirs();
+      long lastModified = file.lastModified();
+      Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+      assertTrue(file.setLastModified(Math.max(lastModified + 2000, System.currentTimeMillis())));
+   }
+}
@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * (c) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package net.wasdev.wlp.test.dev.it;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.junit.Test;
+
+import io.openliberty.tools.maven.server.BuildFileDiff;
+import io.openliberty.tools.maven.server.BuildFileDiff.Change;
+import io.openliberty.tools.maven.server.ServerPropertyClassifier.Category;
+
+public class BuildFileDiffUnitTest {
+
+   private static final List<String> COMPILER_OPTIONS = Arrays.asList("-source", "1.8");
+
+   /**
+    * Unit test for an unchanged project
+    */
+   @Test
+   public void noChangeTest() throws Exception {
+      MavenProject oldProject = project("liberty.var.name", "value");
+      MavenProject newProject = project("liberty.var.name", "value");
+      addDependency(oldProject, "junit", "4.13.2", "test", "jar");
+      addDependency(newProject, "junit", "4.13.2", "test", "jar");
+      BuildFileDiff diff = diff(oldProject, newProject, plugin(null), plugin(null));
+      assertTrue(diff.toString(), diff.isEmpty());
+      assertTrue(diff.getServerPropertyChanges().isEmpty());
+   }
+
+   /**
+    * Unit test for changes of liberty.* properties
+    */
+   @Test
+   public void serverPropertiesTest() throws Exception {
+      BuildFileDiff diff = diff(project(), project("liberty.jvm.maxHeap", "-Xmx1g"), plugin(null), plugin(null));
+      assertEquals(EnumSet.of(Change.SERVER_PROPERTY), changes(diff));
+      assertEquals(Collections.singletonMap("liberty.jvm.maxHeap", Category.JVM_RESTART), diff.getServerPropertyChanges());
+
+      diff = diff(project("liberty.bootstrap.com.ibm.ws.logging.trace.specification", "*=info"),
+            project("liberty.bootstrap.com.ibm.ws.logging.trace.specification", "*=fine"), plugin(null), plugin(null));
+      assertEquals(EnumSet.of(Change.DYNAMIC_SERVER_PROPERTY), changes(diff));
+
+      diff = diff(project("liberty.env.WLP_LOGGING_CONSOLE_LOGLEVEL", "INFO"), project(), plugin(null), plugin(null));
+      assertEquals(EnumSet.of(Change.DYNAMIC_SERVER_PROPERTY), changes(diff));
+
+      diff = diff(project(), project("liberty.var.name", "value"), plugin(null), plugin(null));
+      assertEquals(EnumSet.of(Change.SERVER_VARIABLE), changes(diff));
+      assertEquals(Collections.singletonMap("liberty.var.name", Category.CONFIG_VARIABLE), diff.getServerPropertyChanges());
+
+      // other properties are not server properties
+      diff = diff(project(), project("other.property", "value"), plugin(null), plugin(null));
+      assertTrue(diff.toString(), diff.isEmpty());
+   }
+
+   /**
+    * Unit test for changes of the liberty plugin configuration
+    */
+   @Test
+   public void pluginConfigurationTest() throws Exception {
+      BuildFileDiff diff = diff(project(), project(), plugin(bootstrapProperties("app.mode", "dev")),
+            plugin(bootstrapProperties("app.mode", "test")));
+      assertTrue(diff.toString(), diff.contains(Change.CREATE_CONFIG));
+      assertTrue(diff.toString(), diff.contains(Change.SERVER_STARTUP_CONFIG));
+      assertFalse(diff.toString(), diff.contains(Change.DYNAMIC_SERVER_PROPERTY));
+      assertEquals(Collections.singletonMap("bootstrapProperties.app.mode", Category.JVM_RESTART),
+            diff.getServerPropertyChanges());
+
+      diff = diff(project(), project(), plugin(null),
+            plugin(bootstrapProperties("com.ibm.ws.logging.console.log.level", "AUDIT")));
+      assertTrue(diff.toString(), diff.contains(Change.CREATE_CONFIG));
+      assertTrue(diff.toString(), diff.contains(Change.DYNAMIC_SERVER_PROPERTY));
+      assertFalse(diff.toString(), diff.contains(Change.SERVER_STARTUP_CONFIG));
+
+      Xpp3Dom configuration = new Xpp3Dom("configuration");
+      Xpp3Dom features = new Xpp3Dom("features");
+      configuration.addChild(features);
+      Xpp3Dom feature = new Xpp3Dom("feature");
+      feature.setValue("mpHealth-2.0");
+      features.addChild(feature);
+      diff = diff(project(), project(), plugin(null), plugin(configuration));
+      assertEquals(EnumSet.of(Change.FEATURE_CONFIG), changes(diff));
+
+      diff = diff(project(), project(), plugin(null), plugin(null), COMPILER_OPTIONS, Arrays.asList("-source", "11"));
+      assertEquals(EnumSet.of(Change.COMPILER_OPTIONS), changes(diff));
+   }
+
+   /**
+    * Unit test for BuildFileDiff.diffDependencies
+    */
+   @Test
+   public void diffDependenciesTest() throws Exception {
+      List<Dependency> dependencies = Arrays.asList(dependency("a", "1.0", "compile", "jar"),
+            dependency("b", "1.0", "test", "jar"));
+      List<Dependency> reordered = Arrays.asList(dependency("b", "1.0", "test", "jar"),
+            dependency("a", "1.0", "compile", "jar"));
+      assertTrue(BuildFileDiff.diffDependencies(dependencies, reordered).isEmpty());
+
+      assertEquals(EnumSet.of(Change.DEPENDENCY, Change.COMPILE_DEPENDENCY),
+            BuildFileDiff.diffDependencies(dependencies, Arrays.asList(dependency("a", "2.0", "compile", "jar"),
+                  dependency("b", "1.0", "test", "jar"))));
+
+      assertEquals(EnumSet.of(Change.DEPENDENCY), BuildFileDiff.diffDependencies(dependencies,
+            Arrays.asList(dependency("a", "1.0", "compile", "jar"), dependency("b", "2.0", "test", "jar"))));
+
+      // a scope change is a change of the dependency
+      assertEquals(EnumSet.of(Change.DEPENDENCY, Change.COMPILE_DEPENDENCY), BuildFileDiff.diffDependencies(
+            dependencies, Arrays.asList(dependency("a", "1.0", "compile", "jar"), dependency("b", "1.0", "provided", "jar"))));
+
+      assertEquals(EnumSet.of(Change.DEPENDENCY, Change.COMPILE_DEPENDENCY, Change.ESA_DEPENDENCY),
+            BuildFileDiff.diffDependencies(Collections.<Dependency> emptyList(),
+                  Arrays.asList(dependency("mpHealth-2.0", "22.0.0.1", "provided", "esa"))));
+   }
+
+   private static BuildFileDiff diff(MavenProject oldProject, MavenProject newProject, Plugin oldPlugin,
+         Plugin newPlugin) {
+      return diff(oldProject, newProject, oldPlugin, newPlugin, COMPILER_OPTIONS, COMPILER_OPTIONS);
+   }
+
+   private static BuildFileDiff diff(MavenProject oldProject, MavenProject newProject, Plugin oldPlugin,
+         Plugin newPlugin, List<String> oldCompilerOptions, List<String> newCompilerOptions) {
+      return BuildFileDiff.compute(oldProject, newProject, oldPlugin, newPlugin, oldCompilerOptions,
+            newCompilerOptions, new SystemStreamLog());
+   }
+
+   private static EnumSet<Change> changes(BuildFileDiff diff) {
+      EnumSet<Change> changes = EnumSet.noneOf(Change.class);
+      for (Change change : Change.values()) {
+         if (diff.contains(change)) {
+            changes.add(change);
+         }
+      }
+      return changes;
+   }
+
+   private static MavenProject project(String... properties) {
+      MavenProject project = new MavenProject();
+      for (int i = 0; i < properties.length; i += 2) {
+         project.getProperties().setProperty(properties[i], properties[i + 1]);
+      }
+      return project;
+   }
+
+   private static Plugin plugin(Xpp3Dom configuration) {
+      Plugin plugin = new Plugin();
+      plugin.setGroupId("io.openliberty.tools");
+      plugin.setArtifactId("liberty-maven-plugin");
+      plugin.setVersion("1.0");
+      plugin.setConfiguration(configuration);
+      return plugin;
+   }
+
+   private static Xpp3Dom bootstrapProperties(String name, String value) {
+      Xpp3Dom configuration = new Xpp3Dom("configuration");
+      Xpp3Dom bootstrapProperties = new Xpp3Dom("bootstrapProperties");
+      configuration.addChild(bootstrapProperties);
+      Xpp3Dom property = new Xpp3Dom(name);
+      property.setValue(value);
+      bootstrapProperties.addChild(property);
+      return configuration;
+   }
+
+   private static void addDependency(MavenProject project, String artifactId, String version, String scope,
+         String type) {
+      project.getModel().addDependency(dependency(artifactId, version, scope, type));
+   }
+
+   private static Dependency dependency(String artifactId, String version, String scope, String type) {
+      Dependency dependency = new Dependency();
+      dependency.setGroupId("test");
+      dependency.setArtifactId(artifactId);
+      dependency.setVersion(version);
+      dependency.setScope(scope);
+      dependency.setType(type);
+      return dependency;
+   }
+}
@@ -0,0 +1,138 @@
+/*******************************************************************************
+ * (c) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package net.wasdev.wlp.test.dev.it;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.openliberty.tools.maven.server.ChangeEventPipeline;
+import io.openliberty.tools.maven.server.ChangeEventPipeline.Stage;
+import io.openliberty.tools.maven.utils.DigestUtil;
+
+public class ChangeEventPipelineUnitTest {
+
+   @Rule
+   public TemporaryFolder temp = new TemporaryFolder();
+
+   private final List<String> dispatched = Collections.synchronizedList(new ArrayList<String>());
+   private ChangeEventPipeline pipeline = new ChangeEventPipeline(new SystemStreamLog(), 2000);
+
+   @After
+   public void tearDown() throws Exception {
+      pipeline.shutdown();
+   }
+
+   /**
+    * Unit test for the events of a burst that are merged into one batch
+    */
+   @Test
+   public void coalesceTest() throws Exception {
+      CountDownLatch latch = new CountDownLatch(1);
+      for (int i = 0; i < 5; i++) {
+         pipeline.submit(Stage.RESOURCE, "module", new RecordingBatch("resources", latch), "file" + i);
+      }
+      // the pipeline dispatches the batch once the burst is over
+      assertTrue(latch.await(10, TimeUnit.SECONDS));
+      assertEquals(Arrays.asList("resources [file0, file1, file2, file3, file4]"), dispatched);
+   }
+
+   /**
+    * Unit test for the dispatch order of the stages and keys
+    */
+   @Test
+   public void stageOrderTest() throws Exception {
+      pipeline.submit(Stage.TESTS, "module", new RecordingBatch("tests", null), "run");
+      pipeline.submit(Stage.RESOURCE, "module1", new RecordingBatch("resources1", null), "a");
+      pipeline.submit(Stage.BUILD_FILE, "module", new RecordingBatch("pom", null), "pom.xml");
+      pipeline.submit(Stage.RESOURCE, "module2", new RecordingBatch("resources2", null), "b");
+      pipeline.submit(Stage.RESOURCE, "module1", new RecordingBatch("unused", null), "c");
+      pipeline.flush();
+      assertEquals(Arrays.asList("pom [pom.xml]", "resources1 [a, c]", "resources2 [b]", "tests [run]"), dispatched);
+
+      // a failed batch does not stop the batches after it
+      pipeline.submit(Stage.RESOURCE, "module", new RecordingBatch("failing", null) {
+         @Override
+         protected void dispatch() throws Exception {
+            throw new Exception("expected failure");
+         }
+      }, "d");
+      pipeline.submit(Stage.TESTS, "module", new RecordingBatch("tests", null), "run");
+      pipeline.flush();
+      assertEquals("tests [run]", dispatched.get(dispatched.size() - 1));
+   }
+
+   /**
+    * Unit test for the batches that are pending when the pipeline stops
+    */
+   @Test
+   public void shutdownTest() throws Exception {
+      pipeline.submit(Stage.RESOURCE, "module", new RecordingBatch("resources", null), "file");
+      pipeline.shutdown();
+      pipeline.flush();
+      Thread.sleep(500);
+      assertTrue(dispatched.toString(), dispatched.isEmpty());
+   }
+
+   /**
+    * Unit test for ChangeEventPipeline.awaitStable
+    */
+   @Test
+   public void awaitStableTest() throws Exception {
+      File file = temp.newFile("pom.xml");
+      Files.write(file.toPath(), "<project/>".getBytes(StandardCharsets.UTF_8));
+      assertEquals(DigestUtil.digest(file), pipeline.awaitStable(file));
+   }
+
+   private class RecordingBatch extends ChangeEventPipeline.Batch<String> {
+      private final String name;
+      private final CountDownLatch latch;
+      private final List<String> events = new ArrayList<String>();
+
+      RecordingBatch(String name, CountDownLatch latch) {
+         this.name = name;
+         this.latch = latch;
+      }
+
+      @Override
+      protected void add(String event) {
+         events.add(event);
+      }
+
+      @Override
+      protected void dispatch() throws Exception {
+         dispatched.add(name + " " + events);
+         if (latch != null) {
+            latch.countDown();
+         }
+      }
+   }
+}
@@ -0,0 +1,75 @@
+/*******************************************************************************
+ * (c) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package net.wasdev.wlp.test.dev.it;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import io.openliberty.tools.maven.server.ChangeLog;
+
+public class ChangeLogUnitTest {
+
+   /**
+    * Unit test for the changes read by several consumers
+    */
+   @Test
+   public void positionsTest() throws Exception {
+      ChangeLog<String> changes = new ChangeLog<String>(10);
+      changes.register("war");
+      changes.register("ear");
+      assertEquals(1, changes.append("a"));
+      assertEquals(2, changes.append("b"));
+      assertEquals(Arrays.asList("a", "b"), changes.get(0, changes.getEnd()));
+
+      // a change is kept until every consumer has read it
+      changes.setPosition("war", 2);
+      assertEquals(Arrays.asList("a", "b"), changes.get(changes.getPosition("ear"), changes.getEnd()));
+      changes.setPosition("ear", 1);
+      assertNull(changes.get(0, 2));
+      assertEquals(Arrays.asList("b"), changes.get(1, 2));
+
+      // registering again keeps the position of the consumer
+      changes.register("ear");
+      assertEquals(Long.valueOf(1), changes.getPosition("ear"));
+
+      // a removed consumer does not keep changes
+      changes.remove("ear");
+      assertNull(changes.getPosition("ear"));
+      assertNull(changes.get(1, 2));
+      assertEquals(2, changes.getEnd());
+      assertEquals(Arrays.<String> asList(), changes.get(2, 2));
+   }
+
+   /**
+    * Unit test for the changes dropped when the maximum size is reached
+    */
+   @Test
+   public void maxSizeTest() throws Exception {
+      ChangeLog<String> changes = new ChangeLog<String>(2);
+      changes.register("war");
+      changes.append("a");
+      changes.append("b");
+      changes.append("c");
+      assertEquals(3, changes.getEnd());
+      // the consumer missed a change, so it has to treat everything as changed
+      assertNull(changes.get(changes.getPosition("war"), changes.getEnd()));
+      assertEquals(Arrays.asList("b", "c"), changes.get(1, 3));
+   }
+}
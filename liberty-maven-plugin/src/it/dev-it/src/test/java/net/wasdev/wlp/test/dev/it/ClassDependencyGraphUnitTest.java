@@ -0,0 +1,201 @@
+/*******************************************************************************
+ * (c) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package net.wasdev.wlp.test.dev.it;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.openliberty.tools.maven.server.ClassDependencyGraph;
+
+public class ClassDependencyGraphUnitTest {
+
+   @Rule
+   public TemporaryFolder temp = new TemporaryFolder();
+
+   private File sourceDirectory;
+   private File classesDirectory;
+   private File graphFile;
+   private ClassDependencyGraph graph;
+   private long generation = 0;
+
+   @Before
+   public void setUp() throws Exception {
+      sourceDirectory = temp.newFolder("src");
+      classesDirectory = temp.newFolder("classes");
+      graphFile = new File(temp.getRoot(), "graph/classes.graph");
+
+      compile("A", "package demo; public class A { public static final int LIMIT = 1; public int value() { return 1; } }");
+      compile("B", "package demo; public class B { public int get() { return new A().value(); } }");
+      compile("C", "package demo; public class C extends Thread { public int get() { return new B().get(); } }");
+      compile("D", "package demo; public class D { }");
+
+      graph = new ClassDependencyGraph(classesDirectory, graphFile, new SystemStreamLog());
+      // every class is new on the first update
+      ClassDependencyGraph.Changes changes = graph.update();
+      assertTrue(changes.getModifiedTypes().toString(), changes.getModifiedTypes().isEmpty());
+      assertTrue(changes.isEmpty());
+   }
+
+   /**
+    * Unit test for the references read from the class files
+    */
+   @Test
+   public void referencesTest() throws Exception {
+      assertEquals(new HashSet<String>(Arrays.asList("demo/A", "demo/B", "demo/C", "demo/D")), graph.getClassNames());
+      assertEquals(new HashSet<String>(Arrays.asList("demo/A.java", "demo/B.java", "demo/C.java", "demo/D.java")),
+            graph.getSources());
+      assertTrue(graph.getReferences("demo/B").contains("demo/A"));
+      assertFalse(graph.getReferences("demo/A").contains("demo/A"));
+      assertFalse(graph.getReferences("demo/C").contains("demo/A"));
+      assertTrue(graph.getSupertypes("demo/C").contains("java/lang/Thread"));
+
+      assertEquals(Collections.singleton("demo/B.java"), graph.getDependentSources(Arrays.asList("demo/A")));
+      assertTrue(graph.getDependentSources(Collections.<String> emptyList()).isEmpty());
+      assertEquals(new HashSet<String>(Arrays.asList("demo/B.java", "demo/C.java")),
+            graph.getTransitiveDependentSources(Arrays.asList("demo/A.java")));
+      assertTrue(graph.getTransitiveDependentSources(Arrays.asList("demo/D.java")).isEmpty());
+   }
+
+   /**
+    * Unit test for the kinds of class changes
+    */
+   @Test
+   public void changesTest() throws Exception {
+      // a method body change does not change the API
+      compile("A", "package demo; public class A { public static final int LIMIT = 1; public int value() { return 2; } }");
+      ClassDependencyGraph.Changes changes = graph.update();
+      assertEquals(Collections.singleton("demo/A"), changes.getModifiedTypes());
+      assertTrue(changes.getTypes().isEmpty());
+      assertTrue(changes.getSchemaChangedTypes().isEmpty());
+      assertFalse(changes.isConstantsChanged());
+
+      // a private method changes the schema but not the API
+      compile("A", "package demo; public class A { public static final int LIMIT = 1; public int value() { return helper(); } private int helper() { return 2; } }");
+      changes = graph.update();
+      assertTrue(changes.getTypes().isEmpty());
+      assertEquals(Collections.singleton("demo/A"), changes.getSchemaChangedTypes());
+
+      // a public method changes the API
+      compile("A", "package demo; public class A { public static final int LIMIT = 1; public int value() { return helper(); } private int helper() { return 2; } public void added() { } }");
+      changes = graph.update();
+      assertEquals(Collections.singleton("demo/A"), changes.getTypes());
+      assertEquals(Collections.singleton("demo/A"), changes.getSchemaChangedTypes());
+
+      // an inlined constant change cannot be traced through references
+      compile("A", "package demo; public class A { public static final int LIMIT = 2; public int value() { return helper(); } private int helper() { return 2; } public void added() { } }");
+      changes = graph.update();
+      assertTrue(changes.isConstantsChanged());
+      assertFalse(changes.isEmpty());
+
+      // added and removed classes
+      compile("E", "package demo; public class E { }");
+      assertTrue(new File(classesDirectory, "demo/D.class").delete());
+      changes = graph.update();
+      assertEquals(Collections.singleton("demo/E"), changes.getAddedTypes());
+      assertEquals(new HashSet<String>(Arrays.asList("demo/D", "demo/E")), changes.getModifiedTypes());
+      assertEquals(Collections.singleton("demo/D"), changes.getTypes());
+      assertEquals(Collections.singleton("demo/D"), changes.getSchemaChangedTypes());
+
+      assertTrue(graph.update().getModifiedTypes().isEmpty());
+   }
+
+   /**
+    * Unit test for saving and loading the graph file
+    */
+   @Test
+   public void saveTest() throws Exception {
+      graph.save();
+      assertTrue(graphFile.isFile());
+
+      ClassDependencyGraph loaded = new ClassDependencyGraph(classesDirectory, graphFile, new SystemStreamLog());
+      assertEquals(graph.getClassNames(), loaded.getClassNames());
+      assertEquals(graph.getReferences("demo/B"), loaded.getReferences("demo/B"));
+      assertTrue(loaded.isUpToDate(sourceDirectory));
+
+      // the loaded graph only reports the changes since it was saved
+      compile("B", "package demo; public class B { public int get() { return new A().value() + 1; } }");
+      ClassDependencyGraph.Changes changes = loaded.update();
+      assertEquals(Collections.singleton("demo/B"), changes.getModifiedTypes());
+      assertTrue(changes.getAddedTypes().isEmpty());
+   }
+
+   /**
+    * Unit test for ClassDependencyGraph.isUpToDate
+    */
+   @Test
+   public void isUpToDateTest() throws Exception {
+      assertTrue(graph.isUpToDate(sourceDirectory));
+
+      File source = new File(sourceDirectory, "demo/B.java");
+      assertTrue(source.setLastModified(new File(classesDirectory, "demo/B.class").lastModified() + 10000));
+      assertFalse(graph.isUpToDate(sourceDirectory));
+
+      compile("B", "package demo; public class B { public int get() { return new A().value(); } }");
+      graph.update();
+      assertTrue(graph.isUpToDate(sourceDirectory));
+
+      // a class whose source was deleted
+      assertTrue(new File(sourceDirectory, "demo/D.java").delete());
+      assertFalse(graph.isUpToDate(sourceDirectory));
+
+      // a graph that has not been updated or loaded is never up to date
+      assertFalse(new ClassDependencyGraph(classesDirectory, new File(temp.getRoot(), "missing.graph"),
+            new SystemStreamLog()).isUpToDate(sourceDirectory));
+   }
+
+   /**
+    * Compile a class of the demo package against the classes directory, and give
+    * the class file a time after every earlier class file, since a class file is
+    * only read again when its time changes.
+    */
+   private void compile(String name, String source) throws IOException {
+      File sourceFile = new File(sourceDirectory, "demo/" + name + ".java");
+      sourceFile.getParentFile().mkdirs();
+      Files.write(sourceFile.toPath(), source.getBytes(StandardCharsets.UTF_8));
+
+      JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+      assertNotNull("The tests must run on a JDK", compiler);
+      List<String> arguments = new ArrayList<String>(Arrays.asList("-d", classesDirectory.getAbsolutePath(), "-cp",
+            classesDirectory.getAbsolutePath(), "-implicit:none", sourceFile.getAbsolutePath()));
+      assertEquals(0, compiler.run(null, null, null, arguments.toArray(new String[arguments.size()])));
+
+      generation++;
+      long time = System.currentTimeMillis() + generation * 10000;
+      assertTrue(sourceFile.setLastModified(time - 5000));
+      assertTrue(new File(classesDirectory, "demo/" + name + ".class").setLastModified(time));
+   }
+}
@@ -0,0 +1,76 @@
+/*******************************************************************************
+ * (c) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package net.wasdev.wlp.test.dev.it;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+
+import io.openliberty.tools.maven.server.ClasspathIndex;
+
+public class ClasspathIndexUnitTest {
+
+   /**
+    * Unit test for the contributions of several build files
+    */
+   @Test
+   public void setContributionTest() throws Exception {
+      Set<String> entries = new LinkedHashSet<String>(Arrays.asList("module.jar", "shared.jar"));
+      ClasspathIndex index = new ClasspathIndex(entries, "module/pom.xml");
+
+      assertTrue(index.setContribution("parent/pom.xml", Arrays.asList("shared.jar", "parent.jar")));
+      assertEquals(Arrays.asList("module.jar", "shared.jar", "parent.jar"), new ArrayList<String>(entries));
+      assertFalse(index.setContribution("parent/pom.xml", Arrays.asList("shared.jar", "parent.jar")));
+
+      // an element that another build file still contributes stays on the classpath
+      assertTrue(index.setContribution("parent/pom.xml", Arrays.asList("other.jar")));
+      assertEquals(Arrays.asList("module.jar", "shared.jar", "other.jar"), new ArrayList<String>(entries));
+
+      // the owner's elements stay first
+      assertTrue(index.setContribution("module/pom.xml", Arrays.asList("module.jar", "added.jar")));
+      assertEquals(Arrays.asList("module.jar", "added.jar", "other.jar"), new ArrayList<String>(entries));
+
+      // a contribution that does not change the classpath
+      assertFalse(index.setContribution("other/pom.xml", Arrays.asList("other.jar")));
+   }
+
+   /**
+    * Unit test for ClasspathIndex.snapshot
+    */
+   @Test
+   public void snapshotTest() throws Exception {
+      Set<String> entries = new LinkedHashSet<String>(Arrays.asList("a.jar", "b.jar"));
+      ClasspathIndex index = new ClasspathIndex(entries, "module/pom.xml");
+      List<String> snapshot = index.snapshot();
+      index.setContribution("module/pom.xml", Arrays.asList("c.jar"));
+      assertEquals(Arrays.asList("a.jar", "b.jar"), snapshot);
+      assertEquals(Arrays.asList("c.jar"), index.snapshot());
+      try {
+         snapshot.add("d.jar");
+         assertTrue("The snapshot should not be modifiable", false);
+      } catch (UnsupportedOperationException e) {
+         // expected
+      }
+   }
+}
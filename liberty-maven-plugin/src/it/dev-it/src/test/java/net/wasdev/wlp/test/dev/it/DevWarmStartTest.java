@@ -0,0 +1,68 @@
+/*******************************************************************************
+ * (c) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package net.wasdev.wlp.test.dev.it;
+
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class DevWarmStartTest extends BaseDevTest {
+
+   @BeforeClass
+   public static void setUpBeforeClass() throws Exception {
+      setUpBeforeClass("-DwarmStart=true");
+   }
+
+   @AfterClass
+   public static void cleanUpAfterClass() throws Exception {
+      BaseDevTest.cleanUpAfterClass();
+   }
+
+   @Test
+   public void warmStartTest() throws Exception {
+      // the first run has no inputs from an earlier run to compare against
+      assertTrue(getLogTail(), !verifyLogMessageExists("since its inputs have not changed", 2000));
+      stopDevMode();
+
+      // a restart without changes skips the steps whose inputs have not changed
+      startProcess("-DwarmStart=true", true);
+      assertTrue(getLogTail(), verifyLogMessageExists(
+            "Skipping liberty:create since its inputs have not changed since dev mode last ran.", 10000));
+      assertTrue(getLogTail(), verifyLogMessageExists(
+            "Skipping liberty:deploy since its inputs have not changed since dev mode last ran.", 10000));
+      testModifyJavaFile();
+      stopDevMode();
+
+      // a change of the pom is a change of the inputs of every step
+      replaceString("<!-- ADDITIONAL_CONFIGURATION -->",
+            "<!-- ADDITIONAL_CONFIGURATION -->\n          <jvmOptions><param>-Xms64m</param></jvmOptions>", pom);
+      startProcess("-DwarmStart=true", true);
+      assertTrue(getLogTail(), !verifyLogMessageExists("Skipping liberty:create", 2000));
+   }
+
+   private static void stopDevMode() throws Exception {
+      int serverStoppedOccurrences = countOccurrences("CWWKE0036I", logFile);
+      writer.write("exit\n");
+      writer.flush();
+      writer.close();
+      process.waitFor(120, TimeUnit.SECONDS);
+      assertTrue(getLogTail(), verifyLogMessageExists("CWWKE0036I", 20000, ++serverStoppedOccurrences));
+   }
+}
@@ -0,0 +1,67 @@
+/*******************************************************************************
+ * (c) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package net.wasdev.wlp.test.dev.it;
+
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class DevWarmTestJvmTest extends BaseDevTest {
+
+   @BeforeClass
+   public static void setUpBeforeClass() throws Exception {
+      setUpBeforeClass(null, "../resources/basic-dev-project", true, false, null, null);
+
+      File unitTest = new File(tempProj, "src/test/java/com/demo/HelloUnitTest.java");
+      unitTest.getParentFile().mkdirs();
+      String source = "package com.demo;\n\n"
+            + "import static org.junit.Assert.assertEquals;\n\n"
+            + "import org.junit.Test;\n\n"
+            + "public class HelloUnitTest {\n\n"
+            + "   @Test\n"
+            + "   public void helloWorldTest() {\n"
+            + "      assertEquals(\"helloWorld\", new HelloWorld().helloWorld());\n"
+            + "   }\n"
+            + "}\n";
+      Files.write(unitTest.toPath(), source.getBytes(StandardCharsets.UTF_8));
+
+      startProcess("-DwarmTestJvm=true", true);
+   }
+
+   @AfterClass
+   public static void cleanUpAfterClass() throws Exception {
+      BaseDevTest.cleanUpAfterClass();
+   }
+
+   @Test
+   public void warmTestJvmTest() throws Exception {
+      // every run of the unit tests uses the same test JVM
+      for (int run = 1; run <= 2; run++) {
+         writer.write("\n");
+         writer.flush();
+         assertTrue(getLogTail(), verifyLogMessageExists("Tests run: 1, Failures: 0, Errors: 0, Skipped: 0", 30000, run));
+         assertTrue(getLogTail(), verifyLogMessageExists("Unit tests finished.", 30000, run));
+      }
+      assertTrue(getLogTail(), verifyFileExists(
+            new File(targetDir, "test-reports/unit/TEST-com.demo.HelloUnitTest.xml"), 5000));
+   }
+}
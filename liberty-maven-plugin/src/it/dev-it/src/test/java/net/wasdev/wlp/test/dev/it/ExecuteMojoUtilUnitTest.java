@@ -0,0 +1,115 @@
+/*******************************************************************************
+ * (c) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package net.wasdev.wlp.test.dev.it;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.junit.Test;
+
+import io.openliberty.tools.maven.utils.ExecuteMojoUtil;
+
+public class ExecuteMojoUtilUnitTest {
+
+   private final List<String> computed = Collections.synchronizedList(new ArrayList<String>());
+
+   private final SystemStreamLog log = new SystemStreamLog() {
+      @Override
+      public void debug(CharSequence content) {
+         if (content.toString().contains(" configuration\n")) {
+            computed.add(content.toString());
+         }
+      }
+   };
+
+   /**
+    * Unit test for the goal configurations computed once per plugin
+    * configuration
+    */
+   @Test
+   public void memoizeTest() throws Exception {
+      Plugin plugin = compilerPlugin("1.8", "-parameters");
+      Xpp3Dom config = ExecuteMojoUtil.getPluginGoalConfig(plugin, "compile", log);
+      assertEquals("1.8", config.getChild("source").getValue());
+      // an element that is not a parameter of the goal is removed
+      assertNull(config.getChild("notAParameter"));
+      assertEquals(1, computed.size());
+
+      // each caller gets its own copy of the configuration
+      config.getChild("source").setValue("11");
+      config = ExecuteMojoUtil.getPluginGoalConfig(plugin, "compile", log);
+      assertEquals("1.8", config.getChild("source").getValue());
+      assertEquals(1, computed.size());
+
+      // the configuration of each goal is computed separately
+      ExecuteMojoUtil.getPluginGoalConfig(plugin, "testCompile", log);
+      assertEquals(2, computed.size());
+
+      // a rebuilt project model has new configuration objects
+      config = ExecuteMojoUtil.getPluginGoalConfig(compilerPlugin("11", "-parameters"), "compile", log);
+      assertEquals("11", config.getChild("source").getValue());
+      assertEquals(3, computed.size());
+   }
+
+   /**
+    * Unit test for the configuration of the execution that binds the goal
+    */
+   @Test
+   public void executionTest() throws Exception {
+      Plugin plugin = compilerPlugin("1.8", "-parameters");
+      PluginExecution execution = new PluginExecution();
+      execution.setId("default-compile");
+      execution.addGoal("compile");
+      execution.setConfiguration(configuration("17", "-Xlint"));
+      plugin.addExecution(execution);
+
+      assertEquals("17", ExecuteMojoUtil.getPluginGoalConfig(plugin, "compile", log).getChild("source").getValue());
+      assertEquals("1.8", ExecuteMojoUtil.getPluginGoalConfig(plugin, "testCompile", log).getChild("source").getValue());
+
+      // a changed execution configuration is seen
+      execution.setConfiguration(configuration("21", "-Xlint"));
+      assertEquals("21", ExecuteMojoUtil.getPluginGoalConfig(plugin, "compile", log).getChild("source").getValue());
+   }
+
+   private static Plugin compilerPlugin(String source, String compilerArgument) {
+      Plugin plugin = new Plugin();
+      plugin.setGroupId("org.apache.maven.plugins");
+      plugin.setArtifactId("maven-compiler-plugin");
+      plugin.setVersion("3.8.1");
+      plugin.setConfiguration(configuration(source, compilerArgument));
+      return plugin;
+   }
+
+   private static Xpp3Dom configuration(String source, String compilerArgument) {
+      Xpp3Dom configuration = new Xpp3Dom("configuration");
+      Xpp3Dom sourceElement = new Xpp3Dom("source");
+      sourceElement.setValue(source);
+      configuration.addChild(sourceElement);
+      Xpp3Dom argument = new Xpp3Dom("compilerArgument");
+      argument.setValue(compilerArgument);
+      configuration.addChild(argument);
+      configuration.addChild(new Xpp3Dom("notAParameter"));
+      return configuration;
+   }
+}
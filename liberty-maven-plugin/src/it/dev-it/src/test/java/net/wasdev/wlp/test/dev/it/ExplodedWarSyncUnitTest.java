@@ -0,0 +1,189 @@
+/*******************************************************************************
+ * (c) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package net.wasdev.wlp.test.dev.it;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.openliberty.tools.maven.server.ExplodedWarSync;
+import io.openliberty.tools.maven.server.ExplodedWarSync.Root;
+
+public class ExplodedWarSyncUnitTest {
+
+   @Rule
+   public TemporaryFolder temp = new TemporaryFolder();
+
+   private File webResources;
+   private File webapp;
+   private File classes;
+   private File webAppDirectory;
+   private Root webResourcesRoot;
+   private Root webappRoot;
+   private Root classesRoot;
+   private ExplodedWarSync sync;
+
+   @Before
+   public void setUp() throws Exception {
+      webResources = temp.newFolder("webResources");
+      webapp = temp.newFolder("webapp");
+      classes = temp.newFolder("classes");
+      webAppDirectory = temp.newFolder("exploded");
+      webResourcesRoot = new Root(webResources.toPath(), null, false, "config/app.properties");
+      webappRoot = new Root(webapp.toPath(), null, false, "WEB-INF/web.xml");
+      classesRoot = new Root(classes.toPath(), "WEB-INF/classes", false);
+
+      write(webapp, "index.html", "index");
+      write(webapp, "WEB-INF/web.xml", "<web-app/>");
+      write(classes, "com/demo/Hello.class", "hello");
+      sync = new ExplodedWarSync(webAppDirectory.toPath(), new SystemStreamLog());
+      assertFalse(sync.isCurrent("config"));
+      sync.reset("config", Arrays.asList(webResourcesRoot, webappRoot, classesRoot), false);
+   }
+
+   /**
+    * Unit test for the configuration fingerprint
+    */
+   @Test
+   public void isCurrentTest() throws Exception {
+      assertTrue(sync.isCurrent("config"));
+      assertFalse(sync.isCurrent("changed"));
+      assertFalse(sync.isCurrent(null));
+      sync.invalidate();
+      assertFalse(sync.isCurrent("config"));
+   }
+
+   /**
+    * Unit test for the files copied and deleted by a sync
+    */
+   @Test
+   public void syncTest() throws Exception {
+      // files present when the state was recorded are left to the exploded goal
+      assertTrue(sync.sync().isEmpty());
+      assertFalse(new File(webAppDirectory, "index.html").exists());
+
+      write(webapp, "index.html", "changed index");
+      write(webapp, "css/site.css", "body");
+      write(classes, "com/demo/Other.class", "other");
+      assertTrue(sync.sync().isEmpty());
+      assertEquals("changed index", read(webAppDirectory, "index.html"));
+      assertEquals("body", read(webAppDirectory, "css/site.css"));
+      assertEquals("other", read(webAppDirectory, "WEB-INF/classes/com/demo/Other.class"));
+
+      assertTrue(new File(webapp, "css/site.css").delete());
+      assertTrue(sync.sync().isEmpty());
+      assertFalse(new File(webAppDirectory, "css/site.css").exists());
+      assertTrue(sync.isCurrent("config"));
+   }
+
+   /**
+    * Unit test for the changed files that are returned to be filtered
+    */
+   @Test
+   public void filteredTest() throws Exception {
+      write(webapp, "WEB-INF/web.xml", "<web-app version=\"${version}\"/>");
+      write(webResources, "config/app.properties", "name=${name}");
+      Map<Root, List<String>> filtered = sync.sync();
+      assertEquals(Arrays.asList(webResourcesRoot, webappRoot), Arrays.asList(filtered.keySet().toArray()));
+      assertEquals(Collections.singletonList("config/app.properties"), filtered.get(webResourcesRoot));
+      assertEquals(Collections.singletonList("WEB-INF/web.xml"), filtered.get(webappRoot));
+      assertFalse(new File(webAppDirectory, "WEB-INF/web.xml").exists());
+   }
+
+   /**
+    * Unit test for files provided by more than one source directory
+    */
+   @Test
+   public void precedenceTest() throws Exception {
+      // an earlier source directory takes precedence
+      write(webResources, "about.html", "web resource");
+      write(webapp, "about.html", "webapp");
+      sync.sync();
+      assertEquals("web resource", read(webAppDirectory, "about.html"));
+
+      write(webapp, "about.html", "changed webapp");
+      sync.sync();
+      assertEquals("web resource", read(webAppDirectory, "about.html"));
+
+      // a deleted file that another source directory provides needs the exploded goal
+      assertTrue(new File(webResources, "about.html").delete());
+      assertNull(sync.sync());
+      assertFalse(sync.isCurrent("config"));
+   }
+
+   /**
+    * Unit test for deleted files of a WAR with overlays
+    */
+   @Test
+   public void overlaysTest() throws Exception {
+      sync.reset("config", Arrays.asList(webResourcesRoot, webappRoot, classesRoot), true);
+      write(webapp, "overlay.html", "overlay");
+      assertTrue(sync.sync().isEmpty());
+      // an overlay may provide a deleted file
+      assertTrue(new File(webapp, "overlay.html").delete());
+      assertNull(sync.sync());
+   }
+
+   /**
+    * Unit test for the files that the maven-war-plugin excludes by default
+    */
+   @Test
+   public void defaultExcludesTest() throws Exception {
+      write(webapp, "index.html~", "backup");
+      write(webapp, "css/.DS_Store", "finder");
+      write(webapp, ".git/HEAD", "ref");
+      write(webapp, "css/.svn/entries", "entries");
+      write(webapp, "css/site.css", "body");
+      assertTrue(sync.sync().isEmpty());
+      assertEquals("body", read(webAppDirectory, "css/site.css"));
+      assertFalse(new File(webAppDirectory, "index.html~").exists());
+      assertFalse(new File(webAppDirectory, "css/.DS_Store").exists());
+      assertFalse(new File(webAppDirectory, ".git").exists());
+      assertFalse(new File(webAppDirectory, "css/.svn").exists());
+   }
+
+   /**
+    * Write a file with a time after its previous time, since the sync finds
+    * changed files by their time and size.
+    */
+   private static void write(File directory, String path, String content) throws IOException {
+      File file = new File(directory, path);
+      file.getParentFile().mkdirs();
+      long lastModified = file.lastModified();
+      Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+      assertTrue(file.setLastModified(Math.max(lastModified + 2000, System.currentTimeMillis())));
+   }
+
+   private static String read(File directory, String path) throws IOException {
+      return new String(Files.readAllBytes(new File(directory, path).toPath()), StandardCharsets.UTF_8);
+   }
+}
@@ -0,0 +1,203 @@
+/*******************************************************************************
+ * (c) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package net.wasdev.wlp.test.dev.it;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.openliberty.tools.maven.server.FeatureIndex;
+
+public class FeatureIndexUnitTest {
+
+   private static final String PREFIX = "com.ibm.websphere.appserver.";
+
+   @Rule
+   public TemporaryFolder temp = new TemporaryFolder();
+
+   private File installDirectory;
+   private File userDirectory;
+   private File indexFile;
+
+   @Before
+   public void setUp() throws Exception {
+      installDirectory = temp.newFolder("wlp");
+      userDirectory = new File(installDirectory, "usr");
+      indexFile = new File(temp.getRoot(), "feature-index/test.index");
+
+      writeFeature("servlet-4.0", true, true, "com.ibm.ws.webcontainer;version=\"[1,1.0.100)\", "
+            + PREFIX + "javaeePlatform-8.0;type=\"osgi.subsystem.feature\"");
+      writeFeature("servlet-3.1", true, true, "com.ibm.ws.webcontainer.servlet.3.1;version=\"[1,1.0.100)\"");
+      writeFeature("javaeePlatform-8.0", false, true, "com.ibm.ws.javaee.platform;type=\"osgi.bundle\"");
+      writeFeature("jaxrs-2.1", true, true, "com.ibm.ws.jaxrs;version=\"[1,1.0.100)\", " + PREFIX
+            + "servlet-4.0;type=\"osgi.subsystem.feature\";ibm.tolerates:=\"3.1\"");
+      writeFeature("oldApi-1.0", true, false, PREFIX + "servlet-3.1;type=\"osgi.subsystem.feature\"");
+      writeFeature("newApi-1.0", true, false, PREFIX + "servlet-4.0;type=\"osgi.subsystem.feature\"");
+
+      File userFeatures = new File(userDirectory, "extension/lib/features");
+      writeManifest(new File(userFeatures, "myFeature-1.0.mf"), "Subsystem-SymbolicName: my.feature-1.0; visibility:=public",
+            "IBM-ShortName: myFeature-1.0", "Subsystem-Content: my.bundle");
+   }
+
+   /**
+    * Unit test for the parsing of the feature manifests
+    */
+   @Test
+   public void parseManifestsTest() throws Exception {
+      FeatureIndex index = load();
+      assertEquals(7, index.size());
+
+      FeatureIndex.Feature servlet = index.getFeature("servlet-4.0");
+      assertNotNull(servlet);
+      assertEquals(PREFIX + "servlet-4.0", servlet.getSymbolicName());
+      assertTrue(servlet.isPublic());
+      assertTrue(servlet.isSingleton());
+      assertEquals(Arrays.asList("com.ibm.ws.webcontainer"), servlet.getBundles());
+      assertEquals(Arrays.asList(Arrays.asList(PREFIX + "javaeePlatform-8.0")), servlet.getDependencies());
+
+      // features can be named by short name, in any case, or by symbolic name
+      assertEquals(servlet, index.getFeature("Servlet-4.0"));
+      assertEquals(servlet, index.getFeature(PREFIX + "servlet-4.0"));
+
+      FeatureIndex.Feature platform = index.getFeature(PREFIX + "javaeePlatform-8.0");
+      assertNotNull(platform);
+      assertFalse(platform.isPublic());
+      assertNull(platform.getShortName());
+      assertNull(index.getFeature("javaeePlatform-8.0"));
+
+      // user features are only found with the usr: prefix
+      assertNotNull(index.getFeature("usr:myFeature-1.0"));
+      assertNull(index.getFeature("myFeature-1.0"));
+
+      Set<String> publicFeatures = new TreeSet<String>();
+      for (FeatureIndex.Feature feature : index.getPublicFeatures()) {
+         publicFeatures.add(feature.getShortName());
+      }
+      assertEquals(new TreeSet<String>(Arrays.asList("jaxrs-2.1", "newApi-1.0", "oldApi-1.0", "servlet-3.1",
+            "servlet-4.0", "usr:myFeature-1.0")), publicFeatures);
+
+      assertEquals(Collections.singleton("mpHealth-2.0"),
+            index.getMissingFeatures(Arrays.asList("servlet-4.0", "mpHealth-2.0", "usr:myFeature-1.0")));
+   }
+
+   /**
+    * Unit test for the tolerated versions of a feature dependency
+    */
+   @Test
+   public void toleratedVersionsTest() throws Exception {
+      FeatureIndex index = load();
+      List<List<String>> dependencies = index.getFeature("jaxrs-2.1").getDependencies();
+      assertEquals(Arrays.asList(Arrays.asList(PREFIX + "servlet-4.0", PREFIX + "servlet-3.1")), dependencies);
+
+      Set<String> enabled = index.getEnabledFeatures(Arrays.asList("jaxrs-2.1"));
+      assertTrue(enabled.toString(), enabled.contains(PREFIX + "jaxrs-2.1"));
+      assertTrue(enabled.toString(), enabled.contains(PREFIX + "servlet-4.0"));
+      assertTrue(enabled.toString(), enabled.contains(PREFIX + "javaeePlatform-8.0"));
+      assertFalse(enabled.toString(), enabled.contains(PREFIX + "servlet-3.1"));
+
+      Set<String> bundles = index.getBundles(Arrays.asList("jaxrs-2.1"));
+      assertTrue(bundles.toString(), bundles.contains("com.ibm.ws.jaxrs"));
+      assertTrue(bundles.toString(), bundles.contains("com.ibm.ws.webcontainer"));
+      assertTrue(bundles.toString(), bundles.contains("com.ibm.ws.javaee.platform"));
+      assertFalse(bundles.toString(), bundles.contains(PREFIX + "servlet-4.0"));
+   }
+
+   /**
+    * Unit test for the singleton conflict check
+    */
+   @Test
+   public void conflictsTest() throws Exception {
+      FeatureIndex index = load();
+
+      // jaxrs-2.1 tolerates the servlet-3.1 that oldApi-1.0 requires
+      assertTrue(index.getConflicts(Arrays.asList("jaxrs-2.1", "oldApi-1.0")).isEmpty());
+      assertTrue(index.getConflicts(Arrays.asList("jaxrs-2.1", "newApi-1.0")).isEmpty());
+
+      Map<String, Set<String>> conflicts = index.getConflicts(Arrays.asList("oldApi-1.0", "newApi-1.0"));
+      assertEquals(Collections.singleton(PREFIX + "servlet"), conflicts.keySet());
+      assertEquals(new TreeSet<String>(Arrays.asList("servlet-3.1", "servlet-4.0")), conflicts.get(PREFIX + "servlet"));
+
+      // a singleton feature conflicts with another version of itself
+      conflicts = index.getConflicts(Arrays.asList("servlet-3.1", "newApi-1.0"));
+      assertEquals(Collections.singleton(PREFIX + "servlet"), conflicts.keySet());
+   }
+
+   /**
+    * Unit test for writing the index file and rebuilding it when the manifests
+    * change
+    */
+   @Test
+   public void indexFileTest() throws Exception {
+      FeatureIndex index = load();
+      assertTrue(indexFile.isFile());
+      List<String> lines = Files.readAllLines(indexFile.toPath(), StandardCharsets.UTF_8);
+      assertTrue(lines.get(0), lines.get(0).startsWith("liberty-feature-index-"));
+      assertEquals(index.size() + 1, lines.size());
+
+      // loading again without a change returns the same index
+      assertTrue(index == load());
+
+      writeFeature("servlet-5.0", true, true, "com.ibm.ws.webcontainer.servlet.5.0");
+      FeatureIndex updated = load();
+      assertEquals(8, updated.size());
+      assertNotNull(updated.getFeature("servlet-5.0"));
+      assertEquals(updated.size() + 1, Files.readAllLines(indexFile.toPath(), StandardCharsets.UTF_8).size());
+   }
+
+   private FeatureIndex load() {
+      return FeatureIndex.load(installDirectory, userDirectory, indexFile, new SystemStreamLog());
+   }
+
+   private void writeFeature(String shortName, boolean isPublic, boolean singleton, String content) throws IOException {
+      String symbolicName = PREFIX + shortName;
+      String header = "Subsystem-SymbolicName: " + symbolicName + "; visibility:=" + (isPublic ? "public" : "private")
+            + (singleton ? "; singleton:=true" : "");
+      File manifest = new File(installDirectory, "lib/features/" + symbolicName + ".mf");
+      if (isPublic) {
+         writeManifest(manifest, header, "IBM-ShortName: " + shortName, "Subsystem-Content: " + content);
+      } else {
+         writeManifest(manifest, header, "Subsystem-Content: " + content);
+      }
+   }
+
+   private static void writeManifest(File file, String... headers) throws IOException {
+      StringBuilder manifest = new StringBuilder("Manifest-Version: 1.0\n");
+      for (String header : headers) {
+         manifest.append(header).append('\n');
+      }
+      file.getParentFile().mkdirs();
+      Files.write(file.toPath(), manifest.toString().getBytes(StandardCharsets.UTF_8));
+   }
+}
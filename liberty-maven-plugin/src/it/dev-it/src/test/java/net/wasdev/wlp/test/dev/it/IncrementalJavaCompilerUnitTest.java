@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * (c) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package net.wasdev.wlp.test.dev.it;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.openliberty.tools.maven.server.ClassDependencyGraph;
+import io.openliberty.tools.maven.server.IncrementalJavaCompiler;
+
+public class IncrementalJavaCompilerUnitTest {
+
+   private static final List<String> OPTIONS = Arrays.asList("-implicit:none");
+   // the time given to the class files before a compilation, to tell which ones were written
+   private static final long MARKER = 1000000000000L;
+
+   @Rule
+   public TemporaryFolder temp = new TemporaryFolder();
+
+   private Log log = new SystemStreamLog();
+   private File sourceDirectory;
+   private File classesDirectory;
+   private ClassDependencyGraph graph;
+   private IncrementalJavaCompiler compiler;
+   private ClassDependencyGraph.Changes changes;
+   private long generation = 0;
+
+   @Before
+   public void setUp() throws Exception {
+      sourceDirectory = temp.newFolder("src");
+      classesDirectory = temp.newFolder("classes");
+      graph = new ClassDependencyGraph(classesDirectory, new File(temp.getRoot(), "classes.graph"), log);
+      compiler = new IncrementalJavaCompiler(sourceDirectory, classesDirectory, graph);
+
+      write("A", "package demo; public class A { public static final int LIMIT = 1; public int value() { return 1; } }");
+      write("B", "package demo; public class B { public int get() { return new A().value(); } }");
+      write("C", "package demo; public class C { public int get() { return new B().get(); } }");
+      write("D", "package demo; public class D { }");
+      // every source is compiled on the first compilation since there are no class files
+      assertEquals(set("A", "B", "C", "D"), compile(true));
+   }
+
+   /**
+    * Unit test for the sources compiled after a change
+    */
+   @Test
+   public void staleSourcesTest() throws Exception {
+      assertTrue(compile(true).isEmpty());
+
+      // the changed source and the sources that reference its classes, directly or not
+      write("A", "package demo; public class A { public static final int LIMIT = 1; public int value() { return 2; } }");
+      assertEquals(set("A", "B", "C"), compile(true));
+
+      write("C", "package demo; public class C { public int get() { return new B().get() + 1; } }");
+      assertEquals(set("C"), compile(true));
+
+      // the class files of a deleted source are deleted
+      write("E", "package demo; public class E { class Inner { } }");
+      assertEquals(set("E"), compile(true));
+      assertTrue(classFile("E$Inner").isFile());
+      assertTrue(new File(sourceDirectory, "demo/E.java").delete());
+      assertTrue(compile(true).isEmpty());
+      assertFalse(classFile("E").exists());
+      assertFalse(classFile("E$Inner").exists());
+   }
+
+   /**
+    * Unit test for the sources that are compiled again after a failed
+    * compilation
+    */
+   @Test
+   public void failedSourcesTest() throws Exception {
+      write("C", "package demo; public class C { public int get() { return new E().get(); } }");
+      compile(false);
+
+      // the failed source is compiled again with the next change although it did not change itself
+      write("E", "package demo; public class E { public int get() { return 1; } }");
+      assertEquals(set("C", "E"), compile(true));
+      assertTrue(compile(true).isEmpty());
+   }
+
+   /**
+    * Unit test for sources marked stale by the caller, for example after a
+    * constant of an upstream module changed
+    */
+   @Test
+   public void markStaleTest() throws Exception {
+      compiler.markStale(Collections.singleton("demo/D.java"));
+      assertEquals(set("D"), compile(true));
+
+      // a changed constant may be inlined in classes that do not reference its class, so
+      // dev mode compiles every source when a constant changes
+      write("A", "package demo; public class A { public static final int LIMIT = 2; public int value() { return 1; } }");
+      assertEquals(set("A", "B", "C"), compile(true));
+      assertTrue(changes.isConstantsChanged());
+      compiler.markAllStale();
+      assertEquals(set("A", "B", "C", "D"), compile(true));
+      assertTrue(compile(true).isEmpty());
+   }
+
+   /**
+    * Compile and update the class dependency graph, as dev mode does.
+    *
+    * @return the names of the classes that were written
+    */
+   private Set<String> compile(boolean success) throws IOException {
+      File[] classFiles = new File(classesDirectory, "demo").listFiles();
+      if (classFiles != null) {
+         for (File classFile : classFiles) {
+            assertTrue(classFile.setLastModified(MARKER));
+         }
+      }
+      assertEquals(success, compiler.compile(Collections.<String> emptyList(), null, OPTIONS, log));
+      Set<String> compiled = new HashSet<String>();
+      classFiles = new File(classesDirectory, "demo").listFiles();
+      if (classFiles != null) {
+         for (File classFile : classFiles) {
+            if (classFile.lastModified() != MARKER && !classFile.getName().contains("$")) {
+               compiled.add(classFile.getName().substring(0, classFile.getName().length() - ".class".length()));
+            }
+         }
+      }
+      changes = graph.update();
+      return compiled;
+   }
+
+   /**
+    * Write a source of the demo package with a time after every earlier source,
+    * since the compiler finds the changed sources by their time.
+    */
+   private void write(String name, String source) throws IOException {
+      File sourceFile = new File(sourceDirectory, "demo/" + name + ".java");
+      sourceFile.getParentFile().mkdirs();
+      Files.write(sourceFile.toPath(), source.getBytes(StandardCharsets.UTF_8));
+      generation++;
+      assertTrue(sourceFile.setLastModified(System.currentTimeMillis() + generation * 10000));
+   }
+
+   private File classFile(String name) {
+      return new File(classesDirectory, "demo/" + name + ".class");
+   }
+
+   private static Set<String> set(String... names) {
+      return new HashSet<String>(Arrays.asList(names));
+   }
+}
@@ -0,0 +1,63 @@
+/*******************************************************************************
+ * (c) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package net.wasdev.wlp.test.dev.it;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class MultiModuleHotSwapTest extends BaseMultiModuleTest {
+
+   @BeforeClass
+   public static void setUpBeforeClass() throws Exception {
+      setUpMultiModule("typeA", "ear", null);
+      run("-DhotSwap=true");
+   }
+
+   @Test
+   public void hotSwapTest() throws Exception {
+      assertTrue(getLogTail(), verifyLogMessageExists("Hot swap is enabled.", 20000));
+      assertEndpointContent("http://localhost:9080/converter/heights.jsp?heightCm=3048", "100");
+
+      // a method body change is applied to the running application without restarting it
+      int appUpdatedCount = countOccurrences(SERVER_CONFIG_SUCCESS, logFile);
+      File srcClass = new File(tempProj, "jar/src/main/java/io/openliberty/guides/multimodules/lib/Converter.java");
+      File targetClass = getTargetFileForModule(
+            "jar/src/main/java/io/openliberty/guides/multimodules/lib/Converter.java",
+            "jar/target/classes/io/openliberty/guides/multimodules/lib/Converter.class");
+      long lastModified = targetClass.lastModified();
+      waitLongEnough();
+      replaceString("return feet;", "return feet*2;", srcClass);
+      assertTrue(getLogTail(), waitForCompilation(targetClass, lastModified, 10000));
+      assertTrue(getLogTail(), verifyLogMessageExists("Hot swapped", 10000));
+      assertEndpointContent("http://localhost:9080/converter/heights.jsp?heightCm=3048", "200");
+      assertEquals(getLogTail(), appUpdatedCount, countOccurrences(SERVER_CONFIG_SUCCESS, logFile));
+
+      // a new method cannot be hot swapped, so the application is restarted
+      waitLongEnough();
+      replaceString("public static int sum(int a, int b) {",
+            "public static int twice(int a) {\n        return a * 2;\n    }\n\n    public static int sum(int a, int b) {",
+            srcClass);
+      assertTrue(getLogTail(), verifyLogMessageExists(
+            "Restarting the application since the class changes cannot be hot swapped", 10000));
+      assertTrue(getLogTail(), verifyLogMessageExists(SERVER_CONFIG_SUCCESS, 20000, logFile, ++appUpdatedCount));
+      assertEndpointContent("http://localhost:9080/converter/heights.jsp?heightCm=3048", "200");
+   }
+}
@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * (c) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package net.wasdev.wlp.test.dev.it;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class MultiModuleIncrementalCompileTest extends BaseMultiModuleTest {
+
+   private static final String COMPILER_PLUGIN_COMPILE = "Running maven-compiler-plugin:compile on";
+
+   @BeforeClass
+   public static void setUpBeforeClass() throws Exception {
+      setUpMultiModule("typeA", "ear", null);
+      run("-DincrementalCompile=true");
+   }
+
+   @Test
+   public void incrementalCompileTest() throws Exception {
+      assertEndpointContent("http://localhost:9080/converter/heights.jsp?heightCm=3048", "100");
+
+      File targetWarClass = getTargetFileForModule(
+            "war/src/main/java/io/openliberty/guides/multimodules/web/HeightsBean.java",
+            "war/target/classes/io/openliberty/guides/multimodules/web/HeightsBean.class");
+      long warLastModified = targetWarClass.lastModified();
+      int compilerPluginRuns = countOccurrences(COMPILER_PLUGIN_COMPILE, logFile);
+
+      // a method body change in the jar module only recompiles the changed class
+      modifyJarClass();
+      assertEndpointContent("http://localhost:9080/converter/heights.jsp?heightCm=3048", "200");
+      assertTrue(targetWarClass.lastModified() == warLastModified);
+      assertEquals(getLogTail(), compilerPluginRuns, countOccurrences(COMPILER_PLUGIN_COMPILE, logFile));
+
+      // an API change in the jar module recompiles the classes of the war module that reference it
+      waitLongEnough();
+      modifyFileForModule("jar/src/main/java/io/openliberty/guides/multimodules/lib/Converter.java",
+            "public static int sum(int a, int b) {",
+            "public static int twice(int a) {\n        return a * 2;\n    }\n\n    public static int sum(int a, int b) {");
+      assertTrue(getLogTail(), waitForCompilation(targetWarClass, warLastModified, 10000));
+      assertEquals(getLogTail(), compilerPluginRuns, countOccurrences(COMPILER_PLUGIN_COMPILE, logFile));
+   }
+}
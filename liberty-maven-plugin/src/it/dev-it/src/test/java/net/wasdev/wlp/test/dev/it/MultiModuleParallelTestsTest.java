@@ -0,0 +1,46 @@
+/*******************************************************************************
+ * (c) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package net.wasdev.wlp.test.dev.it;
+
+import static org.junit.Assert.assertTrue;
+
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+public class MultiModuleParallelTestsTest extends BaseMultiModuleTest {
+
+   @BeforeClass
+   public static void setUpBeforeClass() throws Exception {
+      setUpMultiModule("typeA", "ear", null);
+      run("-DparallelTests=true");
+   }
+
+   @Test
+   public void runTest() throws Exception {
+      // the tests of every module still run and report their results when run in parallel
+      manualTestsInvocation("guide-maven-multimodules-jar", "guide-maven-multimodules-war",
+            "guide-maven-multimodules-ear");
+
+      // a later run is not blocked by the tests of the previous run
+      clearLogFile();
+      testEndpointsAndUpstreamRecompile();
+      writer.write("\n");
+      writer.flush();
+      // the jar unit tests fail on the changed conversion, which does not stop the tests of the other modules
+      assertTrue(getLogTail(), verifyLogMessageExists("Unit tests failed: There are test failures.", 40000));
+      verifyTestsRan("guide-maven-multimodules-war", "guide-maven-multimodules-ear");
+   }
+}
@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * (c) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package net.wasdev.wlp.test.dev.it;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.openliberty.tools.maven.server.PhaseTrace;
+
+public class PhaseTraceUnitTest {
+
+   @Rule
+   public TemporaryFolder temp = new TemporaryFolder();
+
+   private final List<String> messages = Collections.synchronizedList(new ArrayList<String>());
+
+   private final SystemStreamLog log = new SystemStreamLog() {
+      @Override
+      public void info(CharSequence content) {
+         messages.add(content.toString());
+      }
+   };
+
+   /**
+    * Unit test for the trace file
+    */
+   @Test
+   public void traceFileTest() throws Exception {
+      File traceFile = new File(temp.getRoot(), "liberty-dev/dev-trace.json");
+      PhaseTrace trace = new PhaseTrace(traceFile, log);
+      PhaseTrace.Span span = trace.start("compile \"war\"");
+      span.close();
+      // closing a span again does not record it again
+      span.close();
+      trace.record("wait", System.nanoTime() - 1000000);
+      trace.close();
+
+      List<String> lines = Files.readAllLines(traceFile.toPath(), StandardCharsets.UTF_8);
+      assertEquals("[", lines.get(0));
+      assertTrue(lines.get(1), lines.get(1).startsWith("{\"name\":\"compile \\\"war\\\"\",\"ph\":\"X\""));
+      assertTrue(lines.get(1), lines.get(1).endsWith("\"args\":{\"iteration\":1}},"));
+      assertTrue(lines.get(2), lines.get(2).startsWith("{\"name\":\"wait\""));
+      assertEquals("]", lines.get(3));
+      assertEquals(4, lines.size());
+   }
+
+   /**
+    * Unit test for the summary logged once dev mode is idle
+    */
+   @Test
+   public void summaryTest() throws Exception {
+      PhaseTrace trace = new PhaseTrace(new File(temp.getRoot(), "dev-trace.json"), log);
+      try {
+         PhaseTrace.Span outer = trace.start("file change");
+         trace.start("compile").close();
+         trace.start("compile").close();
+         // nothing is logged while a phase is open
+         Thread.sleep(1500);
+         assertTrue(messages.toString(), messages.isEmpty());
+         outer.close();
+
+         Thread.sleep(2000);
+         assertEquals(messages.toString(), 1, messages.size());
+         String summary = messages.get(0);
+         assertTrue(summary, summary.startsWith("Dev mode phases of iteration 1, "));
+         assertTrue(summary, summary.contains("compile: "));
+         assertTrue(summary, summary.contains(" (2 times)"));
+         assertTrue(summary, summary.contains("file change: "));
+
+         // a phase after the idle gap begins the next iteration
+         trace.start("deploy").close();
+         Thread.sleep(2000);
+         assertEquals(messages.toString(), 2, messages.size());
+         assertTrue(messages.get(1), messages.get(1).startsWith("Dev mode phases of iteration 2, "));
+      } finally {
+         trace.close();
+      }
+   }
+}
@@ -0,0 +1,180 @@
+/*******************************************************************************
+ * (c) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package net.wasdev.wlp.test.dev.it;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.artifact.DefaultArtifact;
+import org.apache.maven.artifact.handler.DefaultArtifactHandler;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.apache.maven.project.MavenProject;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.openliberty.tools.maven.server.ProjectModelCache;
+
+public class ProjectModelCacheUnitTest {
+
+   @Rule
+   public TemporaryFolder temp = new TemporaryFolder();
+
+   private final Map<File, Integer> builds = new HashMap<File, Integer>();
+   private final Map<File, Set<String>> dependencies = new HashMap<File, Set<String>>();
+   private File parentPom;
+   private File jarPom;
+   private File warPom;
+   private ProjectModelCache cache;
+
+   @Before
+   public void setUp() throws Exception {
+      parentPom = write("pom.xml", "<project>parent</project>");
+      jarPom = write("jar/pom.xml", "<project>jar</project>");
+      warPom = write("war/pom.xml", "<project>war</project>");
+      dependencies.put(warPom, Collections.singleton("jar"));
+
+      cache = new ProjectModelCache(new SystemStreamLog()) {
+         @Override
+         protected MavenProject build(File buildFile) {
+            synchronized (builds) {
+               Integer count = builds.get(buildFile);
+               builds.put(buildFile, count == null ? 1 : count + 1);
+            }
+            MavenProject project = new MavenProject();
+            project.setFile(buildFile);
+            project.setGroupId("test");
+            project.setArtifactId(buildFile.getParentFile().getName());
+            project.setVersion("1.0");
+            Set<Artifact> artifacts = new HashSet<Artifact>();
+            if (dependencies.containsKey(buildFile)) {
+               for (String artifactId : dependencies.get(buildFile)) {
+                  artifacts.add(new DefaultArtifact("test", artifactId, "1.0", "compile", "jar", null,
+                        new DefaultArtifactHandler("jar")));
+               }
+            }
+            project.setArtifacts(artifacts);
+            return project;
+         }
+      };
+   }
+
+   /**
+    * Unit test for the reuse of a cached model until its pom.xml changes
+    */
+   @Test
+   public void getTest() throws Exception {
+      MavenProject project = cache.get(jarPom);
+      assertTrue(project == cache.get(jarPom));
+      assertEquals(1, builds(jarPom));
+      assertEquals(1, cache.size());
+
+      write("jar/pom.xml", "<project>changed jar</project>");
+      assertTrue(project != cache.get(jarPom));
+      assertEquals(2, builds(jarPom));
+
+      // a project built outside of the cache
+      MavenProject war = new MavenProject();
+      war.setFile(warPom);
+      cache.put(warPom, war);
+      assertTrue(war == cache.get(warPom));
+      assertEquals(0, builds(warPom));
+   }
+
+   /**
+    * Unit test for models built ahead of time
+    */
+   @Test
+   public void prefetchTest() throws Exception {
+      ExecutorService executor = Executors.newFixedThreadPool(2);
+      try {
+         cache.prefetch(Arrays.asList(jarPom, warPom), executor);
+         MavenProject jar = cache.get(jarPom);
+         MavenProject war = cache.get(warPom);
+         assertEquals("jar", jar.getArtifactId());
+         assertEquals("war", war.getArtifactId());
+         assertTrue(jar == cache.get(jarPom));
+         // cached models are not built again
+         cache.prefetch(Arrays.asList(jarPom, warPom), executor);
+      } finally {
+         executor.shutdown();
+         assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+      }
+      assertEquals(1, builds(jarPom));
+      assertEquals(1, builds(warPom));
+   }
+
+   /**
+    * Unit test for the models invalidated by a changed pom.xml
+    */
+   @Test
+   public void invalidateTest() throws Exception {
+      cache.get(parentPom);
+      cache.get(jarPom);
+      cache.get(warPom);
+
+      // the modules that depend on the invalidated module are invalidated too
+      cache.invalidate(jarPom, null);
+      cache.get(jarPom);
+      cache.get(warPom);
+      cache.get(parentPom);
+      assertEquals(2, builds(jarPom));
+      assertEquals(2, builds(warPom));
+      assertEquals(1, builds(parentPom));
+
+      // the child modules of an invalidated parent are invalidated too
+      Map<String, List<String>> parentBuildFiles = new HashMap<String, List<String>>();
+      parentBuildFiles.put(parentPom.getCanonicalPath(), Collections.singletonList(jarPom.getCanonicalPath()));
+      cache.invalidate(parentPom, parentBuildFiles);
+      cache.get(parentPom);
+      cache.get(jarPom);
+      cache.get(warPom);
+      assertEquals(2, builds(parentPom));
+      assertEquals(3, builds(jarPom));
+      assertEquals(3, builds(warPom));
+   }
+
+   private int builds(File buildFile) {
+      synchronized (builds) {
+         Integer count = builds.get(buildFile);
+         return count == null ? 0 : count;
+      }
+   }
+
+   private File write(String path, String content) throws IOException {
+      File file = new File(temp.getRoot(), path);
+      file.getParentFile().mkdirs();
+      Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+      return file;
+   }
+}
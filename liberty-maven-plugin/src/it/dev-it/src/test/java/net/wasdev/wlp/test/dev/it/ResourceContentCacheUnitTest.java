@@ -0,0 +1,103 @@
+/*******************************************************************************
+ * (c) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package net.wasdev.wlp.test.dev.it;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.openliberty.tools.maven.server.ResourceContentCache;
+
+public class ResourceContentCacheUnitTest {
+
+   @Rule
+   public TemporaryFolder temp = new TemporaryFolder();
+
+   private ResourceContentCache cache = new ResourceContentCache();
+   private File source;
+   private File target;
+
+   @Before
+   public void setUp() throws Exception {
+      source = new File(temp.newFolder("resources"), "app.properties");
+      target = new File(temp.newFolder("classes"), "app.properties");
+      write(source, "name=one");
+   }
+
+   /**
+    * Unit test for a resource saved without changing its content
+    */
+   @Test
+   public void unchangedTest() throws Exception {
+      // nothing to compare with before the first copy
+      assertFalse(cache.isUnchanged(source, target));
+      copy();
+      write(source, "name=one");
+      assertTrue(cache.isUnchanged(source, target));
+   }
+
+   /**
+    * Unit test for changed resources
+    */
+   @Test
+   public void changedTest() throws Exception {
+      copy();
+      // a change with the same size
+      write(source, "name=two");
+      assertFalse(cache.isUnchanged(source, target));
+      copy();
+      assertTrue(cache.isUnchanged(source, target));
+
+      write(source, "name=three");
+      assertFalse(cache.isUnchanged(source, target));
+      copy();
+
+      // a target changed by something other than dev mode is hashed again
+      write(target, "name=other");
+      assertFalse(cache.isUnchanged(source, target));
+
+      // a removed target is copied again
+      copy();
+      cache.remove(target);
+      assertTrue(target.delete());
+      assertFalse(cache.isUnchanged(source, target));
+   }
+
+   /**
+    * Copy the source to the target as dev mode does after asking the cache.
+    */
+   private void copy() throws IOException {
+      cache.isUnchanged(source, target);
+      Files.copy(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      cache.copied(target);
+   }
+
+   private static void write(File file, String content) throws IOException {
+      long lastModified = file.lastModified();
+      Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+      assertTrue(file.setLastModified(Math.max(lastModified + 2000, System.currentTimeMillis())));
+   }
+}
@@ -0,0 +1,126 @@
+/*******************************************************************************
+ * (c) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package net.wasdev.wlp.test.dev.it;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.openliberty.tools.maven.server.ServerPropertyClassifier;
+import io.openliberty.tools.maven.server.ServerPropertyClassifier.Category;
+
+public class ServerPropertyClassifierUnitTest {
+
+   @Rule
+   public TemporaryFolder temp = new TemporaryFolder();
+
+   /**
+    * Unit test for ServerPropertyClassifier.classify
+    */
+   @Test
+   public void classifyTest() throws Exception {
+      assertEquals(Category.DYNAMIC_CONFIG, ServerPropertyClassifier.classify("liberty.bootstrap.com.ibm.ws.logging.trace.specification"));
+      assertEquals(Category.DYNAMIC_CONFIG, ServerPropertyClassifier.classify("liberty.env.WLP_LOGGING_CONSOLE_FORMAT"));
+      assertEquals(Category.CONFIG_VARIABLE, ServerPropertyClassifier.classify("liberty.var.httpPort"));
+      assertEquals(Category.CONFIG_VARIABLE, ServerPropertyClassifier.classify("liberty.defaultVar.httpPort"));
+
+      // the log directory and message log settings are read by dev mode, so they need a restart
+      assertEquals(Category.JVM_RESTART, ServerPropertyClassifier.classify("liberty.bootstrap.com.ibm.ws.logging.log.directory"));
+      assertEquals(Category.JVM_RESTART, ServerPropertyClassifier.classify("liberty.bootstrap.default.http.port"));
+      assertEquals(Category.JVM_RESTART, ServerPropertyClassifier.classify("liberty.env.WLP_LOGGING_MESSAGE_FORMAT"));
+      assertEquals(Category.JVM_RESTART, ServerPropertyClassifier.classify("liberty.jvm.maxHeap"));
+   }
+
+   /**
+    * Unit test for ServerPropertyClassifier.getLoggingAttribute
+    */
+   @Test
+   public void getLoggingAttributeTest() throws Exception {
+      assertEquals("traceSpecification", ServerPropertyClassifier.getLoggingAttribute("liberty.bootstrap.com.ibm.ws.logging.trace.specification"));
+      assertEquals("consoleLogLevel", ServerPropertyClassifier.getLoggingAttribute("liberty.env.WLP_LOGGING_CONSOLE_LOGLEVEL"));
+      assertNull(ServerPropertyClassifier.getLoggingAttribute("liberty.bootstrap.default.http.port"));
+      assertNull(ServerPropertyClassifier.getLoggingAttribute("liberty.jvm.com.ibm.ws.logging.trace.specification"));
+   }
+
+   /**
+    * Unit test for the precedence of ServerPropertyClassifier.getLoggingConfig
+    */
+   @Test
+   public void getLoggingConfigTest() throws Exception {
+      Properties projectProperties = new Properties();
+      projectProperties.setProperty("liberty.env.WLP_LOGGING_CONSOLE_LOGLEVEL", "INFO");
+      projectProperties.setProperty("liberty.env.WLP_LOGGING_CONSOLE_FORMAT", "json");
+      projectProperties.setProperty("liberty.bootstrap.com.ibm.ws.logging.trace.specification", "*=info");
+      projectProperties.setProperty("liberty.var.httpPort", "9080");
+      Properties userProperties = new Properties();
+      userProperties.setProperty("liberty.bootstrap.com.ibm.ws.logging.trace.specification", "*=fine");
+      Map<String, String> bootstrapProperties = new HashMap<String, String>();
+      bootstrapProperties.put("com.ibm.ws.logging.console.log.level", "AUDIT");
+
+      Map<String, String> config = ServerPropertyClassifier.getLoggingConfig(
+            new Properties[] { projectProperties, userProperties }, bootstrapProperties);
+      assertEquals(3, config.size());
+      // later properties take precedence
+      assertEquals("*=fine", config.get("traceSpecification"));
+      // bootstrap properties take precedence over server.env variables
+      assertEquals("AUDIT", config.get("consoleLogLevel"));
+      assertEquals("json", config.get("consoleFormat"));
+
+      assertTrue(ServerPropertyClassifier.getLoggingConfig(new Properties[] { new Properties() }, null).isEmpty());
+   }
+
+   /**
+    * Unit test for ServerPropertyClassifier.writeLoggingConfig
+    */
+   @Test
+   public void writeLoggingConfigTest() throws Exception {
+      File serverDirectory = temp.newFolder("defaultServer");
+      File file = new File(serverDirectory, ServerPropertyClassifier.LOGGING_CONFIG_DEFAULTS_XML);
+
+      ServerPropertyClassifier.writeLoggingConfig(serverDirectory,
+            Collections.singletonMap("traceSpecification", "com.demo.*=all"));
+      assertTrue(file.isFile());
+      String content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+      assertTrue(content, content.contains("<logging"));
+      assertTrue(content, content.contains("traceSpecification=\"com.demo.*=all\""));
+
+      // only file paths are converted to forward slashes
+      Map<String, String> loggingConfig = new TreeMap<String, String>();
+      loggingConfig.put("traceFileName", "C:\\logs\\trace.log");
+      loggingConfig.put("jsonFieldMappings", "message:\\msg");
+      ServerPropertyClassifier.writeLoggingConfig(serverDirectory, loggingConfig);
+      content = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+      assertTrue(content, content.contains("traceFileName=\"C:/logs/trace.log\""));
+      assertTrue(content, content.contains("jsonFieldMappings=\"message:\\msg\""));
+
+      ServerPropertyClassifier.writeLoggingConfig(serverDirectory, Collections.<String, String> emptyMap());
+      assertFalse(file.exists());
+   }
+}
@@ -0,0 +1,132 @@
+/*******************************************************************************
+ * (c) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *******************************************************************************/
+package net.wasdev.wlp.test.dev.it;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.apache.maven.shared.utils.io.FileUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import io.openliberty.tools.maven.utils.SourceTreeIndex;
+
+public class SourceTreeIndexUnitTest {
+
+   @Rule
+   public TemporaryFolder temp = new TemporaryFolder();
+
+   private SourceTreeIndex index = SourceTreeIndex.getInstance();
+   private File sourceDirectory;
+   private File testSourceDirectory;
+
+   @Before
+   public void setUp() throws Exception {
+      sourceDirectory = temp.newFolder("java");
+      testSourceDirectory = temp.newFolder("test");
+      createFile(new File(sourceDirectory, "com/demo/HelloWorld.java"));
+      index.reindex(Arrays.asList(sourceDirectory, testSourceDirectory));
+   }
+
+   @After
+   public void tearDown() throws Exception {
+      index.clear();
+   }
+
+   /**
+    * Unit test for the Java files found when a directory is indexed
+    */
+   @Test
+   public void reindexTest() throws Exception {
+      assertTrue(index.containsJavaFiles(sourceDirectory));
+      assertFalse(index.containsJavaFiles(testSourceDirectory));
+
+      // an indexed directory is not walked again, so a file that is not reported is not seen
+      createFile(new File(testSourceDirectory, "com/demo/HelloTest.java"));
+      assertFalse(index.containsJavaFiles(testSourceDirectory));
+
+      index.reindex(Arrays.asList(sourceDirectory, testSourceDirectory));
+      assertTrue(index.containsJavaFiles(testSourceDirectory));
+   }
+
+   /**
+    * Unit test for the updates of the index from file changes
+    */
+   @Test
+   public void fileChangedTest() throws Exception {
+      File resource = new File(testSourceDirectory, "com/demo/test.properties");
+      createFile(resource);
+      index.fileChanged(resource);
+      assertFalse(index.containsJavaFiles(testSourceDirectory));
+
+      File test = new File(testSourceDirectory, "com/demo/HelloTest.java");
+      createFile(test);
+      index.fileChanged(test);
+      assertTrue(index.containsJavaFiles(testSourceDirectory));
+
+      assertTrue(test.delete());
+      index.fileChanged(test);
+      assertFalse(index.containsJavaFiles(testSourceDirectory));
+
+      // deleting a directory removes the files under it
+      File source = new File(sourceDirectory, "com/demo/HelloWorld.java");
+      File other = new File(sourceDirectory, "com/other/Other.java");
+      createFile(other);
+      index.filesChanged(Arrays.asList(other));
+      FileUtils.deleteDirectory(new File(sourceDirectory, "com/demo"));
+      index.filesChanged(Collections.singletonList(source.getParentFile()));
+      assertTrue(index.containsJavaFiles(sourceDirectory));
+      assertTrue(other.delete());
+      index.fileChanged(other);
+      assertFalse(index.containsJavaFiles(sourceDirectory));
+   }
+
+   /**
+    * Unit test for directories that are not indexed
+    */
+   @Test
+   public void notIndexedTest() throws Exception {
+      File resourceDirectory = temp.newFolder("resources");
+      assertFalse(index.containsJavaFiles(resourceDirectory));
+      assertFalse(index.containsJavaFiles(new File(temp.getRoot(), "missing")));
+
+      File file = new File(resourceDirectory, "com/demo/Generated.java");
+      createFile(file);
+      assertTrue(index.containsJavaFiles(resourceDirectory));
+
+      // a subdirectory of an indexed directory is walked
+      assertTrue(index.containsJavaFiles(new File(sourceDirectory, "com")));
+
+      // after the index is cleared every directory is walked
+      createFile(new File(testSourceDirectory, "com/demo/HelloTest.java"));
+      assertFalse(index.containsJavaFiles(testSourceDirectory));
+      index.clear();
+      assertTrue(index.containsJavaFiles(testSourceDirectory));
+   }
+
+   private static void createFile(File file) throws IOException {
+      file.getParentFile().mkdirs();
+      assertTrue(file.createNewFile());
+   }
+}
@@ -225,6 +225,11 @@ public class BaseGenerateFeaturesTest {
         runProcess("liberty:generate-features");
     }
 
+    // the generate-features goal, for commands that run it more than once or with options
+    protected String getGenerateFeaturesGoal() {
+        return "liberty:generate-features";
+    }
+
     // Format the output to help debug test failures.
     // The problem is that the test case log looks just like the JUnit log of
     // the calling process.
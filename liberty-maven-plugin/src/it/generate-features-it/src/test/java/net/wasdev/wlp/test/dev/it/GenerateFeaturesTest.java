@@ -157,6 +157,51 @@ public class GenerateFeaturesTest extends BaseGenerateFeaturesTest {
             verifyLogMessageExists(GenerateFeaturesMojo.FEATURES_FILE_MESSAGE, 100, serverXmlFile));
     }
 
+    @Test
+    public void reuseBinaryScannerTest() throws Exception {
+        // run the goal twice in the same Maven session with debug output
+        runProcess("compile " + getGenerateFeaturesGoal() + " " + getGenerateFeaturesGoal() + " -X");
+        assertTrue(formatOutput(processOutput), newFeatureFile.exists());
+
+        // the second execution uses the handler that the first execution released
+        int index = processOutput.indexOf("Creating a binary scanner handler");
+        assertTrue(formatOutput(processOutput), index >= 0);
+        assertEquals(formatOutput(processOutput), -1,
+                processOutput.indexOf("Creating a binary scanner handler", index + 1));
+        assertEquals(getExpectedGeneratedFeaturesSet(), readFeatures(newFeatureFile));
+    }
+
+    @Test
+    public void parallelFeatureScanTest() throws Exception {
+        runProcess("compile " + getGenerateFeaturesGoal() + " -DparallelFeatureScan=true");
+        assertTrue(formatOutput(processOutput), newFeatureFile.exists());
+
+        // the features of the modules scanned concurrently are resolved together
+        assertEquals(formatOutput(processOutput), getExpectedGeneratedFeaturesSet(), readFeatures(newFeatureFile));
+    }
+
+    @Test
+    public void featurePruningReportTest() throws Exception {
+        // the application has no API usage for jsonb-1.0
+        replaceString("<!--replaceable-->",
+                "<featureManager>\n" +
+                        getExpectedFeatureElementString() +
+                        "  <feature>jsonb-1.0</feature>\n" +
+                        "</featureManager>\n",
+                serverXmlFile);
+        File minimalFeaturesFile = new File(tempProj, "minimal-features.xml");
+        runProcess("compile " + getGenerateFeaturesGoal() + " -DfeaturePruningReport=true -DminimalFeaturesFile="
+                + minimalFeaturesFile.getAbsolutePath());
+
+        assertTrue(formatOutput(processOutput),
+                processOutput.contains("Feature pruning report: no API usage was detected for the following features"));
+        assertTrue(formatOutput(processOutput), processOutput.contains("\n    jsonb-1.0"));
+
+        // the proposed minimal features are the features the application uses
+        assertTrue(formatOutput(processOutput), minimalFeaturesFile.exists());
+        assertEquals(getExpectedGeneratedFeaturesSet(), readFeatures(minimalFeaturesFile));
+    }
+
     /**
      * Conflict between user specified features.
      * Check for BINARY_SCANNER_CONFLICT_MESSAGE2 (conflict between configured features)
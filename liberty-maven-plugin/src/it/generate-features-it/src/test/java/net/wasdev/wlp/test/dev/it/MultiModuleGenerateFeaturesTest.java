@@ -58,6 +58,12 @@ public class MultiModuleGenerateFeaturesTest extends GenerateFeaturesTest {
                 + ":generate-features");
     }
 
+    @Override
+    protected String getGenerateFeaturesGoal() {
+        return "io.openliberty.tools:liberty-maven-plugin:" + System.getProperty("mavenPluginVersion")
+                + ":generate-features";
+    }
+
     @Override
     protected Set<String> getExpectedGeneratedFeaturesSet() {
         return new HashSet<String>(Arrays.asList("cdi-2.0", "jaxrs-2.1"));
@@ -20,18 +20,31 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.maven.execution.ProjectDependencyGraph;
 import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 
+import io.openliberty.tools.common.plugins.util.InstallFeatureUtil;
+import io.openliberty.tools.common.plugins.util.PluginExecutionException;
 import io.openliberty.tools.common.plugins.util.ServerFeatureUtil;
+import io.openliberty.tools.maven.server.FeatureIndex;
 
 public class ServerFeatureSupport extends BasicSupport {
 
     private ServerFeatureUtil servUtil;
 
+    /**
+     * Check the configured features against an index of the features that are
+     * installed in the runtime, and skip installing features that are already
+     * installed.
+     */
+    @Parameter(property = "useFeatureIndex", defaultValue = "false")
+    protected boolean useFeatureIndex;
+
     protected class ServerFeatureMojoUtil extends ServerFeatureUtil {
 
         @Override
@@ -95,6 +108,56 @@ public class ServerFeatureSupport extends BasicSupport {
         return servUtil;
     }
 
+    /**
+     * Get the index of the features that are installed in the runtime. The index
+     * is written to the target directory for each runtime version, and is rebuilt
+     * when the feature manifests of the runtime change.
+     * 
+     * @return the feature index
+     * @throws PluginExecutionException if the runtime properties cannot be read
+     */
+    protected FeatureIndex getFeatureIndex() throws PluginExecutionException {
+        return getFeatureIndex(installDirectory);
+    }
+
+    /**
+     * Get the index of the features that are installed in a runtime.
+     * 
+     * @param installDir the wlp directory of the runtime
+     * @return the feature index
+     * @throws PluginExecutionException if the runtime properties cannot be read
+     */
+    protected FeatureIndex getFeatureIndex(File installDir) throws PluginExecutionException {
+        String version = InstallFeatureUtil.getOpenLibertyVersion(InstallFeatureUtil.loadProperties(installDir));
+        File indexFile = new File(project.getBuild().getDirectory(),
+                "feature-index/" + (version == null ? "runtime" : version) + ".index");
+        File userDir = userDirectory != null ? userDirectory : new File(installDir, "usr");
+        return FeatureIndex.load(installDir, userDir, indexFile, log);
+    }
+
+    /**
+     * Check the features against the index of the features in the runtime, and
+     * warn about the features that may require conflicting versions of a
+     * singleton feature.
+     * 
+     * @param features the configured features
+     * @return true if all the features are installed in the runtime
+     * @throws PluginExecutionException if the runtime properties cannot be read
+     */
+    protected boolean checkInstalledFeatures(Set<String> features) throws PluginExecutionException {
+        FeatureIndex index = getFeatureIndex();
+        Set<String> missing = index.getMissingFeatures(features);
+        if (!missing.isEmpty()) {
+            log.debug("Features that are not installed in the runtime: " + missing);
+            return false;
+        }
+        for (Map.Entry<String, Set<String>> conflict : index.getConflicts(features).entrySet()) {
+            log.warn("The configured features may require conflicting versions of " + conflict.getKey() + ": "
+                    + conflict.getValue());
+        }
+        return true;
+    }
+
     /**
      * Check the Reactor build order for multi module conflicts. Multi module logic
      * is utilized by DevMojo, RunMojo and GenerateFeaturesMojo.
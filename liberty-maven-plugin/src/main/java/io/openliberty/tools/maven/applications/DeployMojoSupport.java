@@ -37,6 +37,7 @@ import io.openliberty.tools.ant.SpringBootUtilTask;
 import io.openliberty.tools.maven.server.LooseAppSupport;
 import io.openliberty.tools.maven.utils.CommonLogger;
 import io.openliberty.tools.maven.utils.MavenProjectUtil;
+import io.openliberty.tools.maven.utils.SourceTreeIndex;
 import io.openliberty.tools.common.plugins.config.ApplicationXmlDocument;
 import io.openliberty.tools.common.plugins.config.LooseApplication;
 import io.openliberty.tools.common.plugins.config.LooseConfigData;
@@ -360,25 +361,13 @@ public class DeployMojoSupport extends LooseAppSupport {
         List<String> srcDirs = proj.getCompileSourceRoots();
         for (String dir : srcDirs) {
             File javaSourceDir = new File(dir);
-            if (javaSourceDir.exists() && javaSourceDir.isDirectory() && containsJavaSource(javaSourceDir)) {
+            if (javaSourceDir.isDirectory() && SourceTreeIndex.getInstance().containsJavaFiles(javaSourceDir)) {
                 return true;
             }
         }
         return false;
     }
 
-    private boolean containsJavaSource(File dir) {
-        File[] files = dir.listFiles();
-        for (File file : files) {
-            if (file.isFile() && file.getName().toLowerCase().endsWith(".java")) {
-                return true;
-            } else if (file.isDirectory()) {
-                return containsJavaSource(file);
-            }
-        }
-        return false;
-    }
-
     protected void validateAppConfig(String fileName, String artifactId) throws Exception {
         validateAppConfig(fileName, artifactId, false);
     }
@@ -75,7 +75,7 @@ public class LooseWarApplication extends LooseApplication {
         return getWarSourceDirectory(project);
     }
 
-    private static Path getWarSourceDirectory(MavenProject project) {
+    public static Path getWarSourceDirectory(MavenProject project) {
         Path baseDir = Paths.get(project.getBasedir().getAbsolutePath());
         String warSourceDir = MavenProjectUtil.getPluginConfiguration(project, "org.apache.maven.plugins", "maven-war-plugin", "warSourceDirectory");
         if (warSourceDir == null) {
@@ -85,7 +85,7 @@ public class LooseWarApplication extends LooseApplication {
         return baseDir.resolve(warSourceDir);
     }
 
-    private Path getWebAppDirectory(MavenProject project) {
+    public static Path getWebAppDirectory(MavenProject project) {
         Xpp3Dom dom = project.getGoalConfiguration("org.apache.maven.plugins", "maven-war-plugin", null, null);
         String webAppDirStr = null;
         if (dom != null) {
@@ -132,7 +132,7 @@ public class LooseWarApplication extends LooseApplication {
     	return getFilteredWebSourceDirectories(project);
     }
     
-    private static boolean isFilteringDeploymentDescriptors(MavenProject project) {
+    public static boolean isFilteringDeploymentDescriptors(MavenProject project) {
         Boolean retVal = false;
         Xpp3Dom dom = project.getGoalConfiguration("org.apache.maven.plugins", "maven-war-plugin", null, null);
         if (dom != null) {
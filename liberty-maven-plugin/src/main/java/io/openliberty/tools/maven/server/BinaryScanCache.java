@@ -0,0 +1,168 @@
+/**
+ * (C) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openliberty.tools.maven.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.maven.plugin.logging.Log;
+
+import io.openliberty.tools.maven.utils.DigestUtil;
+
+/**
+ * The features that the binary scanner reported for a set of class files, keyed
+ * by a digest of the contents of the class files and the other scanner inputs.
+ * <p>
+ * The digest of each class file is cached together with its modification time
+ * and size, so that only the class files that changed since the last scan are
+ * read. Entries that were not used by a scan are dropped when the cache is
+ * saved.
+ */
+public class BinaryScanCache {
+
+    private static final String HEADER = "liberty generate-features binary scanner cache";
+    private static final String CLASS_PREFIX = "class.";
+    private static final String FEATURES_PREFIX = "features.";
+
+    private final File file;
+    private final Log log;
+    private final Properties previous = new Properties();
+    private final Properties current = new Properties();
+
+    /**
+     * Load the cache.
+     *
+     * @param file the cache file
+     * @param log  the log
+     */
+    public BinaryScanCache(File file, Log log) {
+        this.file = file;
+        this.log = log;
+        if (file.isFile()) {
+            try (InputStream in = Files.newInputStream(file.toPath())) {
+                previous.load(in);
+            } catch (IOException e) {
+                log.debug("Could not read the binary scanner cache " + file, e);
+                previous.clear();
+            }
+        }
+    }
+
+    /**
+     * Compute the digest of the class files in a directory tree.
+     *
+     * @param directory the classes directory
+     * @return the hex encoded digest
+     * @throws IOException if a class file cannot be read
+     */
+    public synchronized String fingerprint(File directory) throws IOException {
+        Map<String, File> classFiles = new TreeMap<String, File>();
+        listClassFiles(directory, "", classFiles);
+        MessageDigest digest = DigestUtil.newDigest();
+        DigestUtil.update(digest, directory.getAbsolutePath());
+        for (Map.Entry<String, File> entry : classFiles.entrySet()) {
+            DigestUtil.update(digest, entry.getKey());
+            DigestUtil.update(digest, getClassFileDigest(entry.getValue()));
+        }
+        return DigestUtil.toHex(digest.digest());
+    }
+
+    /**
+     * @param key the digest of the scanner inputs
+     * @return the features reported for the inputs, or null if they were not
+     *         scanned before
+     */
+    public synchronized Set<String> getFeatures(String key) {
+        String value = previous.getProperty(FEATURES_PREFIX + key);
+        if (value == null) {
+            value = current.getProperty(FEATURES_PREFIX + key);
+        }
+        if (value == null) {
+            return null;
+        }
+        current.setProperty(FEATURES_PREFIX + key, value);
+        Set<String> features = new HashSet<String>();
+        if (!value.isEmpty()) {
+            features.addAll(Arrays.asList(value.split(",")));
+        }
+        return features;
+    }
+
+    /**
+     * @param key      the digest of the scanner inputs
+     * @param features the features the scanner reported for the inputs
+     */
+    public synchronized void putFeatures(String key, Set<String> features) {
+        StringBuilder value = new StringBuilder();
+        for (String feature : features) {
+            if (value.length() > 0) {
+                value.append(',');
+            }
+            value.append(feature);
+        }
+        current.setProperty(FEATURES_PREFIX + key, value.toString());
+    }
+
+    /**
+     * Write the entries that were used since the cache was loaded.
+     */
+    public synchronized void save() {
+        file.getParentFile().mkdirs();
+        try (OutputStream out = Files.newOutputStream(file.toPath())) {
+            current.store(out, HEADER);
+        } catch (IOException e) {
+            log.debug("Could not write the binary scanner cache " + file, e);
+        }
+    }
+
+    private String getClassFileDigest(File classFile) throws IOException {
+        String key = CLASS_PREFIX + classFile.getAbsolutePath();
+        String stamp = classFile.lastModified() + " " + classFile.length() + " ";
+        String entry = previous.getProperty(key);
+        String digest;
+        if (entry != null && entry.startsWith(stamp)) {
+            digest = entry.substring(stamp.length());
+        } else {
+            digest = DigestUtil.digest(classFile);
+        }
+        current.setProperty(key, stamp + digest);
+        return digest;
+    }
+
+    private static void listClassFiles(File directory, String path, Map<String, File> classFiles) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File f : files) {
+            if (f.isDirectory()) {
+                listClassFiles(f, path + f.getName() + "/", classFiles);
+            } else if (f.getName().endsWith(".class")) {
+                classFiles.put(path + f.getName(), f);
+            }
+        }
+    }
+}
@@ -0,0 +1,298 @@
+/**
+ * (C) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openliberty.tools.maven.server;
+
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+
+import io.openliberty.tools.maven.utils.ExecuteMojoUtil;
+
+/**
+ * The changes between two versions of a project model that dev mode reacts
+ * to. Properties, goal configurations and dependencies are each compared once,
+ * through maps keyed by property name, configuration parameter and dependency
+ * coordinates.
+ */
+public class BuildFileDiff {
+
+    /**
+     * A kind of change, named after what it affects.
+     */
+    public enum Change {
+        /** liberty.bootstrap.*, liberty.jvm.* or liberty.env.* properties that the server JVM reads on startup; requires a server restart */
+        SERVER_PROPERTY,
+        /** logging bootstrap properties or server.env variables; requires liberty:create and updating the logging configuration */
+        DYNAMIC_SERVER_PROPERTY,
+        /** liberty.var.* or liberty.defaultVar.* properties; requires liberty:create */
+        SERVER_VARIABLE,
+        /** liberty:create parameters, or bootstrapProperties entries, that the server only reads on startup; requires a server restart */
+        SERVER_STARTUP_CONFIG,
+        /** other liberty:create parameters; requires liberty:create */
+        CREATE_CONFIG,
+        /** liberty:install-feature parameters; requires liberty:install-feature */
+        FEATURE_CONFIG,
+        /** liberty:deploy parameters; requires liberty:deploy */
+        DEPLOY_CONFIG,
+        /** liberty:generate-features parameters; requires regenerating features */
+        GENERATE_FEATURES_CONFIG,
+        /** any dependency; requires boost:package for Boost projects */
+        DEPENDENCY,
+        /** compile or provided scope dependencies; requires redeploying the loose application and regenerating features */
+        COMPILE_DEPENDENCY,
+        /** esa dependencies; requires liberty:install-feature */
+        ESA_DEPENDENCY,
+        /** maven-compiler-plugin options; requires updating the compiler options */
+        COMPILER_OPTIONS
+    }
+
+    private static final String[] SERVER_PROPERTY_PREFIXES = { "liberty.bootstrap.", "liberty.jvm.", "liberty.env.",
+            "liberty.var.", "liberty.defaultVar." };
+    private static final Set<String> SERVER_STARTUP_PARAMETERS = new HashSet<String>(Arrays.asList(
+            "bootstrapProperties", "bootstrapPropertiesFile", "jvmOptions", "jvmOptionsFile", "serverEnv",
+            "serverEnvFile", "configDirectory"));
+
+    private final EnumSet<Change> changes = EnumSet.noneOf(Change.class);
+    private final Map<String, ServerPropertyClassifier.Category> serverPropertyChanges = new TreeMap<String, ServerPropertyClassifier.Category>();
+
+    private BuildFileDiff() {
+    }
+
+    /**
+     * Compute the changes between two versions of a project model.
+     *
+     * @param oldProject         the project before the change
+     * @param newProject         the project after the change
+     * @param oldLibertyPlugin   the liberty plugin of the old project
+     * @param newLibertyPlugin   the liberty plugin of the new project
+     * @param oldCompilerOptions the compiler options of the old project
+     * @param newCompilerOptions the compiler options of the new project
+     * @param log                the log
+     * @return the changes
+     */
+    public static BuildFileDiff compute(MavenProject oldProject, MavenProject newProject, Plugin oldLibertyPlugin,
+            Plugin newLibertyPlugin, List<String> oldCompilerOptions, List<String> newCompilerOptions, Log log) {
+        BuildFileDiff diff = new BuildFileDiff();
+        if (!Objects.equals(oldCompilerOptions, newCompilerOptions)) {
+            diff.changes.add(Change.COMPILER_OPTIONS);
+        }
+
+        Set<String> changedProperties = changedKeys(libertyProperties(oldProject.getProperties()),
+                libertyProperties(newProject.getProperties()));
+        for (String property : changedProperties) {
+            if (startsWithAny(property, SERVER_PROPERTY_PREFIXES)) {
+                diff.addServerPropertyChange(property, ServerPropertyClassifier.classify(property), Change.SERVER_PROPERTY);
+            }
+        }
+
+        Map<String, Xpp3Dom> oldCreateParameters = parameters(ExecuteMojoUtil.getPluginGoalConfig(oldLibertyPlugin, "create", log));
+        Map<String, Xpp3Dom> newCreateParameters = parameters(ExecuteMojoUtil.getPluginGoalConfig(newLibertyPlugin, "create", log));
+        Set<String> createParameters = changedKeys(oldCreateParameters, newCreateParameters);
+        if (!createParameters.isEmpty()) {
+            diff.changes.add(Change.CREATE_CONFIG);
+            for (String parameter : createParameters) {
+                if ("bootstrapProperties".equals(parameter)) {
+                    // classify each bootstrap property like a liberty.bootstrap.* property
+                    for (String property : changedKeys(parameters(oldCreateParameters.get(parameter)),
+                            parameters(newCreateParameters.get(parameter)))) {
+                        diff.addServerPropertyChange(parameter + "." + property,
+                                ServerPropertyClassifier.classify(ServerPropertyClassifier.BOOTSTRAP_PREFIX + property),
+                                Change.SERVER_STARTUP_CONFIG);
+                    }
+                } else if (SERVER_STARTUP_PARAMETERS.contains(parameter)) {
+                    diff.addServerPropertyChange(parameter, ServerPropertyClassifier.Category.JVM_RESTART,
+                            Change.SERVER_STARTUP_CONFIG);
+                }
+            }
+        }
+        if (!changedParameters(oldLibertyPlugin, newLibertyPlugin, "install-feature", log).isEmpty()) {
+            diff.changes.add(Change.FEATURE_CONFIG);
+        }
+        if (!changedParameters(oldLibertyPlugin, newLibertyPlugin, "deploy", log).isEmpty()) {
+            diff.changes.add(Change.DEPLOY_CONFIG);
+        }
+        if (!changedParameters(oldLibertyPlugin, newLibertyPlugin, "generate-features", log).isEmpty()) {
+            diff.changes.add(Change.GENERATE_FEATURES_CONFIG);
+        }
+
+        diff.changes.addAll(diffDependencies(oldProject.getDependencies(), newProject.getDependencies()));
+        return diff;
+    }
+
+    /**
+     * Compare two dependency lists by coordinates. The order of the dependencies
+     * does not matter.
+     *
+     * @param oldDependencies the dependencies before the change
+     * @param newDependencies the dependencies after the change
+     * @return DEPENDENCY if any dependency changed, together with
+     *         COMPILE_DEPENDENCY and ESA_DEPENDENCY if a changed dependency is of
+     *         that kind
+     */
+    public static EnumSet<Change> diffDependencies(List<Dependency> oldDependencies,
+            List<Dependency> newDependencies) {
+        EnumSet<Change> result = EnumSet.noneOf(Change.class);
+        Map<String, Dependency> oldByKey = dependenciesByKey(oldDependencies);
+        Map<String, Dependency> newByKey = dependenciesByKey(newDependencies);
+        for (String key : changedKeys(oldByKey, newByKey)) {
+            result.add(Change.DEPENDENCY);
+            for (Dependency dependency : Arrays.asList(oldByKey.get(key), newByKey.get(key))) {
+                if (dependency == null) {
+                    continue;
+                }
+                if ("compile".equals(dependency.getScope()) || "provided".equals(dependency.getScope())) {
+                    result.add(Change.COMPILE_DEPENDENCY);
+                }
+                if ("esa".equals(dependency.getType())) {
+                    result.add(Change.ESA_DEPENDENCY);
+                }
+            }
+        }
+        return result;
+    }
+
+    private void addServerPropertyChange(String name, ServerPropertyClassifier.Category category, Change restartChange) {
+        serverPropertyChanges.put(name, category);
+        switch (category) {
+        case JVM_RESTART:
+            changes.add(restartChange);
+            break;
+        case DYNAMIC_CONFIG:
+            changes.add(Change.DYNAMIC_SERVER_PROPERTY);
+            break;
+        case CONFIG_VARIABLE:
+            changes.add(Change.SERVER_VARIABLE);
+            break;
+        }
+    }
+
+    /**
+     * @return the changed server properties and liberty:create parameters that
+     *         the server reads, with how each change is applied
+     */
+    public Map<String, ServerPropertyClassifier.Category> getServerPropertyChanges() {
+        return serverPropertyChanges;
+    }
+
+    public boolean contains(Change change) {
+        return changes.contains(change);
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return changes.toString();
+    }
+
+    private static Map<String, String> libertyProperties(Properties properties) {
+        Map<String, String> result = new HashMap<String, String>();
+        if (properties != null) {
+            for (String name : properties.stringPropertyNames()) {
+                if (name.startsWith("liberty.")) {
+                    result.put(name, properties.getProperty(name));
+                }
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> changedParameters(Plugin oldPlugin, Plugin newPlugin, String goal, Log log) {
+        return changedKeys(parameters(ExecuteMojoUtil.getPluginGoalConfig(oldPlugin, goal, log)),
+                parameters(ExecuteMojoUtil.getPluginGoalConfig(newPlugin, goal, log)));
+    }
+
+    /**
+     * Key the top level parameters of a goal configuration by name. Repeated
+     * parameters are keyed by name and occurrence.
+     */
+    private static Map<String, Xpp3Dom> parameters(Xpp3Dom config) {
+        Map<String, Xpp3Dom> result = new HashMap<String, Xpp3Dom>();
+        if (config != null) {
+            for (Xpp3Dom child : config.getChildren()) {
+                String key = child.getName();
+                for (int i = 1; result.containsKey(key); i++) {
+                    key = child.getName() + "#" + i;
+                }
+                result.put(key, child);
+            }
+        }
+        return result;
+    }
+
+    private static Map<String, Dependency> dependenciesByKey(List<Dependency> dependencies) {
+        Map<String, Dependency> result = new HashMap<String, Dependency>();
+        if (dependencies != null) {
+            for (Dependency dependency : dependencies) {
+                result.put(dependency.getManagementKey(), dependency);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the keys that are only in one of the maps or whose values differ
+     */
+    private static <V> Set<String> changedKeys(Map<String, V> oldValues, Map<String, V> newValues) {
+        Set<String> changed = new HashSet<String>();
+        for (Map.Entry<String, V> e : oldValues.entrySet()) {
+            V newValue = newValues.get(e.getKey());
+            if (newValue == null || !valueEquals(e.getValue(), newValue)) {
+                changed.add(e.getKey());
+            }
+        }
+        for (String key : newValues.keySet()) {
+            if (!oldValues.containsKey(key)) {
+                changed.add(key);
+            }
+        }
+        return changed;
+    }
+
+    private static boolean valueEquals(Object oldValue, Object newValue) {
+        if (oldValue instanceof Dependency) {
+            Dependency oldDependency = (Dependency) oldValue;
+            Dependency newDependency = (Dependency) newValue;
+            return Objects.equals(oldDependency.getVersion(), newDependency.getVersion())
+                    && Objects.equals(oldDependency.getScope(), newDependency.getScope());
+        }
+        return oldValue.equals(newValue);
+    }
+
+    private static boolean startsWithAny(String value, String[] prefixes) {
+        for (String prefix : prefixes) {
+            if (value.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
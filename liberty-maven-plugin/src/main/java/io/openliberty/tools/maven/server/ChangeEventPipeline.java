@@ -0,0 +1,295 @@
+/**
+ * (C) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openliberty.tools.maven.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.logging.Log;
+
+import io.openliberty.tools.maven.utils.DigestUtil;
+
+/**
+ * Collects dev mode change events and dispatches them in batches. Events are
+ * merged into one batch per stage and key, for example per module, and the
+ * batches are dispatched once no event has arrived for a quiet window, in
+ * stage order. The quiet window adapts to the gaps between the events of a
+ * burst, so a burst of saves from a branch switch or a refactoring is handled
+ * by one action per stage instead of one action per file.
+ */
+public class ChangeEventPipeline {
+
+    /**
+     * Stages of the pipeline, in dispatch order.
+     */
+    public enum Stage {
+        BUILD_FILE, RESOURCE, TESTS
+    }
+
+    /**
+     * Events of one stage and key that are handled by a single action.
+     *
+     * @param <E> the type of the events
+     */
+    public abstract static class Batch<E> {
+        private Stage stage;
+        private Object key;
+        private long firstEvent;
+        private int events;
+
+        /**
+         * Merge an event into the batch.
+         */
+        protected abstract void add(E event);
+
+        /**
+         * Handle all events of the batch.
+         */
+        protected abstract void dispatch() throws Exception;
+    }
+
+    private static final long MIN_WINDOW = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private final Log log;
+    private final long maxWindow;
+    private final long maxDelay;
+    private final Map<List<Object>, Batch<?>> pending = new LinkedHashMap<List<Object>, Batch<?>>();
+    private final Object dispatchLock = new Object();
+    private final Thread dispatcher;
+
+    private long window = MIN_WINDOW;
+    private long averageGap;
+    private long lastEvent;
+    private boolean stopped;
+
+    /**
+     * @param log       the log
+     * @param maxWindow the longest quiet window in milliseconds
+     */
+    public ChangeEventPipeline(Log log, long maxWindow) {
+        this.log = log;
+        this.maxWindow = Math.max(TimeUnit.MILLISECONDS.toNanos(maxWindow), MIN_WINDOW);
+        // dispatch long bursts periodically rather than waiting for them to end
+        this.maxDelay = this.maxWindow * 10;
+        this.dispatcher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                dispatchLoop();
+            }
+        }, "liberty-dev-events");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * Record an event.
+     *
+     * @param stage    the stage that handles the event
+     * @param key      the key of the batch within the stage, for example the
+     *                 module the event belongs to
+     * @param newBatch the batch to use if there is no pending batch for the stage
+     *                 and key
+     * @param event    the event
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized <E> void submit(Stage stage, Object key, Batch<E> newBatch, E event) {
+        long now = System.nanoTime();
+        if (lastEvent != 0) {
+            long gap = now - lastEvent;
+            // longer gaps separate bursts rather than events of a burst
+            if (gap < maxWindow) {
+                averageGap = averageGap == 0 ? gap : (averageGap * 3 + gap) / 4;
+                window = Math.min(Math.max(averageGap * 2, MIN_WINDOW), maxWindow);
+            }
+        }
+        lastEvent = now;
+
+        List<Object> batchKey = Arrays.asList((Object) stage, key);
+        Batch<E> batch = (Batch<E>) pending.get(batchKey);
+        if (batch == null) {
+            batch = newBatch;
+            batch.stage = stage;
+            batch.key = key;
+            batch.firstEvent = now;
+            pending.put(batchKey, batch);
+        }
+        batch.add(event);
+        batch.events++;
+        notifyAll();
+    }
+
+    /**
+     * Dispatch all pending batches on the calling thread and wait for batches
+     * being dispatched by the pipeline, so that the caller sees the effects of
+     * all events recorded so far.
+     */
+    public void flush() {
+        synchronized (dispatchLock) {
+            dispatch(takePending());
+        }
+    }
+
+    /**
+     * Get the lock that is held while batches are dispatched. Actions that must
+     * not run concurrently with the batches, for example because they share the
+     * Maven session, hold it too.
+     *
+     * @return the dispatch lock
+     */
+    public Object getDispatchLock() {
+        return dispatchLock;
+    }
+
+    /**
+     * Wait until the contents of the file stop changing, so that a file that is
+     * written in several steps is handled once.
+     *
+     * @param file the file
+     * @return the digest of the settled contents of the file
+     * @throws IOException if the file cannot be read
+     */
+    public String awaitStable(File file) throws IOException {
+        long start = System.nanoTime();
+        String digest = DigestUtil.digest(file);
+        while (System.nanoTime() - start < maxDelay) {
+            try {
+                Thread.sleep(TimeUnit.NANOSECONDS.toMillis(getWindow()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            String current = DigestUtil.digest(file);
+            if (current.equals(digest)) {
+                break;
+            }
+            digest = current;
+        }
+        return digest;
+    }
+
+    /**
+     * Log an event that was absorbed by an earlier action of the stage.
+     *
+     * @param stage the stage
+     * @param key   the key of the batch within the stage
+     */
+    public void coalesced(Stage stage, Object key) {
+        log.debug("Coalesced " + stage + " event for " + key + " into the previous batch");
+    }
+
+    /**
+     * Log the statistics of an action that a stage ran on the calling thread.
+     *
+     * @param stage      the stage
+     * @param key        the key of the batch within the stage
+     * @param firstEvent the {@link System#nanoTime()} of the event that started
+     *                   the action
+     */
+    public void dispatched(Stage stage, Object key, long firstEvent) {
+        logBatch(stage, key, 1, firstEvent, firstEvent);
+    }
+
+    /**
+     * Stop the pipeline. Pending batches are discarded.
+     */
+    public void shutdown() {
+        synchronized (this) {
+            stopped = true;
+            if (!pending.isEmpty()) {
+                log.debug("Discarding " + pending.size() + " pending change event batches");
+                pending.clear();
+            }
+            notifyAll();
+        }
+        dispatcher.interrupt();
+    }
+
+    private synchronized long getWindow() {
+        return window;
+    }
+
+    private void dispatchLoop() {
+        while (true) {
+            synchronized (this) {
+                try {
+                    while (!stopped && pending.isEmpty()) {
+                        wait();
+                    }
+                    if (stopped) {
+                        return;
+                    }
+                    long now = System.nanoTime();
+                    long oldest = Long.MAX_VALUE;
+                    for (Batch<?> batch : pending.values()) {
+                        oldest = Math.min(oldest, batch.firstEvent);
+                    }
+                    long remaining = Math.min(lastEvent + window - now, oldest + maxDelay - now);
+                    if (remaining > 0) {
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                        continue;
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+            synchronized (dispatchLock) {
+                dispatch(takePending());
+            }
+        }
+    }
+
+    private synchronized List<Batch<?>> takePending() {
+        List<Batch<?>> batches = new ArrayList<Batch<?>>(pending.values());
+        pending.clear();
+        Collections.sort(batches, new Comparator<Batch<?>>() {
+            @Override
+            public int compare(Batch<?> b1, Batch<?> b2) {
+                return b1.stage.compareTo(b2.stage);
+            }
+        });
+        return batches;
+    }
+
+    private void dispatch(List<Batch<?>> batches) {
+        for (Batch<?> batch : batches) {
+            long start = System.nanoTime();
+            try {
+                batch.dispatch();
+            } catch (Exception e) {
+                log.error("Failed to process " + batch.events + " change events for " + batch.key, e);
+            }
+            logBatch(batch.stage, batch.key, batch.events, batch.firstEvent, start);
+        }
+    }
+
+    private void logBatch(Stage stage, Object key, int events, long firstEvent, long start) {
+        if (log.isDebugEnabled()) {
+            long end = System.nanoTime();
+            log.debug("Dispatched " + stage + " batch for " + key + ": coalesced " + events
+                    + " event(s), latency " + TimeUnit.NANOSECONDS.toMillis(end - firstEvent) + " ms, action "
+                    + TimeUnit.NANOSECONDS.toMillis(end - start) + " ms, quiet window "
+                    + TimeUnit.NANOSECONDS.toMillis(getWindow()) + " ms");
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/**
+ * (C) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openliberty.tools.maven.server;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A sequence of changes that several consumers read in order, each from its
+ * own position. Positions count every change that was appended, so they stay
+ * valid when the changes that every consumer has read are dropped.
+ *
+ * At most a fixed number of changes is kept, so that a consumer that stops
+ * reading does not keep every change alive. A consumer whose position is
+ * before the oldest kept change cannot read the changes it missed, and has to
+ * treat everything as changed.
+ */
+public class ChangeLog<T> {
+
+    private final int maxSize;
+    private final List<T> changes = new ArrayList<T>();
+    private final Map<Object, Long> positions = new HashMap<Object, Long>();
+
+    /** Position of the first kept change */
+    private long start = 0;
+
+    /**
+     * @param maxSize the maximum number of changes to keep
+     */
+    public ChangeLog(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Add a change.
+     *
+     * @param change the change
+     * @return the position after the change
+     */
+    public synchronized long append(T change) {
+        changes.add(change);
+        if (changes.size() > maxSize) {
+            drop(changes.size() - maxSize);
+        }
+        return getEnd();
+    }
+
+    /**
+     * @return the position after the last change
+     */
+    public synchronized long getEnd() {
+        return start + changes.size();
+    }
+
+    /**
+     * Get the changes between two positions.
+     *
+     * @param from the position of the first change
+     * @param to   the position after the last change
+     * @return the changes, or null if some of them were dropped
+     */
+    public synchronized List<T> get(long from, long to) {
+        if (from < start) {
+            return null;
+        }
+        return new ArrayList<T>(changes.subList((int) (from - start), (int) (to - start)));
+    }
+
+    /**
+     * @param consumer the consumer
+     * @return the position the consumer read up to, or null if it has no
+     *         position
+     */
+    public synchronized Long getPosition(Object consumer) {
+        return positions.get(consumer);
+    }
+
+    /**
+     * Record the position the consumer read up to, and drop the changes that
+     * every consumer has read.
+     *
+     * @param consumer the consumer
+     * @param position the position after the last change it read
+     */
+    public synchronized void setPosition(Object consumer, long position) {
+        positions.put(consumer, position);
+        compact();
+    }
+
+    /**
+     * Give the consumer the position before the first change that was ever
+     * appended, unless it already has a position, so that the changes it has not
+     * read are kept from now on.
+     *
+     * @param consumer the consumer
+     */
+    public synchronized void register(Object consumer) {
+        if (!positions.containsKey(consumer)) {
+            positions.put(consumer, 0L);
+        }
+    }
+
+    /**
+     * Remove the position of the consumer, and drop the changes that every other
+     * consumer has read.
+     *
+     * @param consumer the consumer
+     */
+    public synchronized void remove(Object consumer) {
+        positions.remove(consumer);
+        compact();
+    }
+
+    private void compact() {
+        long read = getEnd();
+        for (long position : positions.values()) {
+            read = Math.min(read, position);
+        }
+        if (read > start) {
+            drop((int) (read - start));
+        }
+    }
+
+    private void drop(int count) {
+        changes.subList(0, count).clear();
+        start += count;
+    }
+}
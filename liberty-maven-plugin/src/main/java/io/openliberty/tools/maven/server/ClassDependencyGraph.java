@@ -0,0 +1,604 @@
+/**
+ * (C) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openliberty.tools.maven.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.maven.plugin.logging.Log;
+
+import io.openliberty.tools.maven.utils.DigestUtil;
+
+/**
+ * Class-to-class dependency graph of a classes output directory, built from the
+ * constant pool of each class file. For every class the graph records the types
+ * it references, a hash of its non-private API and a hash of its compile time
+ * constants, so that a change in an upstream module only needs to recompile the
+ * classes that reference an upstream type whose API changed. A hash of the
+ * schema of the class, which includes its private members, tells whether a
+ * changed class can be redefined in a running JVM.
+ *
+ * The graph is persisted to a file in the build directory and only class files
+ * that changed since the graph was last saved are read again.
+ */
+public class ClassDependencyGraph {
+
+    private static final String HEADER = "# liberty dev class dependencies v3";
+    private static final Pattern TYPE_DESCRIPTOR = Pattern.compile("L([^;<>\\[()]+)[;<]");
+    private static final int ACC_PRIVATE = 0x0002;
+
+    private final File classesDirectory;
+    private final File graphFile;
+    private final Log log;
+    private final Map<String, ClassEntry> classes = new HashMap<String, ClassEntry>();
+    private boolean loaded = false;
+
+    private static class ClassEntry {
+        long lastModified;
+        String abi;
+        String schema;
+        String constants;
+        String source;
+        Set<String> supertypes;
+        Set<String> references;
+    }
+
+    /**
+     * Types whose API changed in an update of the graph.
+     */
+    public static class Changes {
+        private final Set<String> types = new HashSet<String>();
+        private final Set<String> modifiedTypes = new HashSet<String>();
+        private final Set<String> addedTypes = new HashSet<String>();
+        private final Set<String> schemaChangedTypes = new HashSet<String>();
+        private boolean constantsChanged = false;
+
+        /**
+         * @return internal names of the types whose API changed or that were removed
+         */
+        public Set<String> getTypes() {
+            return types;
+        }
+
+        /**
+         * @return internal names of the types whose class file was added, changed
+         *         or removed, whether or not their API changed
+         */
+        public Set<String> getModifiedTypes() {
+            return modifiedTypes;
+        }
+
+        /**
+         * @return internal names of the modified types that were not in the graph
+         *         before
+         */
+        public Set<String> getAddedTypes() {
+            return addedTypes;
+        }
+
+        /**
+         * @return internal names of the types whose modifiers, supertypes, fields or
+         *         methods changed, including private ones, or that were removed.
+         *         Such changes cannot be applied to a class that is already loaded.
+         */
+        public Set<String> getSchemaChangedTypes() {
+            return schemaChangedTypes;
+        }
+
+        /**
+         * @return true if a compile time constant changed, in which case
+         *         references to it cannot be found in the class files
+         */
+        public boolean isConstantsChanged() {
+            return constantsChanged;
+        }
+
+        public boolean isEmpty() {
+            return types.isEmpty() && !constantsChanged;
+        }
+
+        public void add(Changes changes) {
+            types.addAll(changes.types);
+            modifiedTypes.addAll(changes.modifiedTypes);
+            addedTypes.addAll(changes.addedTypes);
+            schemaChangedTypes.addAll(changes.schemaChangedTypes);
+            constantsChanged |= changes.constantsChanged;
+        }
+    }
+
+    public ClassDependencyGraph(File classesDirectory, File graphFile, Log log) {
+        this.classesDirectory = classesDirectory;
+        this.graphFile = graphFile;
+        this.log = log;
+        load();
+    }
+
+    /**
+     * Read the class files that changed since the last update and return the
+     * types whose API changed. Types that are new to the graph are not reported
+     * since no existing class can have been compiled against them.
+     *
+     * @return the API changes
+     * @throws IOException if the classes directory or a class file cannot be read
+     */
+    public synchronized Changes update() throws IOException {
+        long start = System.currentTimeMillis();
+        // on the first update of a graph without a file every class is new
+        boolean isNew = !loaded;
+        Changes changes = new Changes();
+        final Map<String, File> classFiles = new HashMap<String, File>();
+        if (classesDirectory.isDirectory()) {
+            final Path root = classesDirectory.toPath();
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    String name = root.relativize(file).toString().replace(File.separatorChar, '/');
+                    if (attrs.isRegularFile() && name.endsWith(".class") && !name.endsWith("module-info.class")) {
+                        classFiles.put(name.substring(0, name.length() - ".class".length()), file.toFile());
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+
+        for (String removed : new ArrayList<String>(classes.keySet())) {
+            if (!classFiles.containsKey(removed)) {
+                classes.remove(removed);
+                changes.types.add(removed);
+                changes.modifiedTypes.add(removed);
+                changes.schemaChangedTypes.add(removed);
+            }
+        }
+
+        int read = 0;
+        for (Map.Entry<String, File> e : classFiles.entrySet()) {
+            ClassEntry previous = classes.get(e.getKey());
+            long lastModified = e.getValue().lastModified();
+            if (previous != null && previous.lastModified == lastModified) {
+                continue;
+            }
+            ClassEntry entry = readClass(e.getKey(), e.getValue());
+            entry.lastModified = lastModified;
+            classes.put(e.getKey(), entry);
+            read++;
+            if (previous != null || !isNew) {
+                changes.modifiedTypes.add(e.getKey());
+            }
+            if (previous == null && !isNew) {
+                changes.addedTypes.add(e.getKey());
+            }
+            if (previous != null) {
+                if (!previous.abi.equals(entry.abi)) {
+                    changes.types.add(e.getKey());
+                }
+                if (!previous.schema.equals(entry.schema)) {
+                    changes.schemaChangedTypes.add(e.getKey());
+                }
+                if (!previous.constants.equals(entry.constants)) {
+                    changes.constantsChanged = true;
+                }
+            }
+        }
+        loaded = true;
+        log.debug("Updated class dependency graph of " + classesDirectory + " from " + read + " class file(s) in "
+                + (System.currentTimeMillis() - start) + " ms");
+        return changes;
+    }
+
+    /**
+     * Get the source files of the classes that reference any of the given types.
+     *
+     * @param types internal names of the changed types
+     * @return source file paths relative to the source directory
+     */
+    public synchronized Set<String> getDependentSources(Collection<String> types) {
+        Set<String> sources = new HashSet<String>();
+        if (types.isEmpty()) {
+            return sources;
+        }
+        for (ClassEntry entry : classes.values()) {
+            if (!Collections.disjoint(entry.references, types)) {
+                sources.add(entry.source);
+            }
+        }
+        return sources;
+    }
+
+    /**
+     * Get the source files of the classes that reference a class of the given
+     * source files, directly or through other classes.
+     *
+     * @param changedSources source file paths relative to the source directory
+     * @return source file paths relative to the source directory, not including
+     *         the given source files
+     */
+    public synchronized Set<String> getTransitiveDependentSources(Collection<String> changedSources) {
+        Set<String> sources = new HashSet<String>(changedSources);
+        Set<String> types = new HashSet<String>();
+        boolean added = true;
+        while (added) {
+            added = false;
+            for (Map.Entry<String, ClassEntry> e : classes.entrySet()) {
+                ClassEntry entry = e.getValue();
+                if (!types.contains(e.getKey())
+                        && (sources.contains(entry.source) || !Collections.disjoint(entry.references, types))) {
+                    types.add(e.getKey());
+                    sources.add(entry.source);
+                    added = true;
+                }
+            }
+        }
+        sources.removeAll(changedSources);
+        return sources;
+    }
+
+    /**
+     * @return the internal names of all classes in the graph
+     */
+    public synchronized Set<String> getClassNames() {
+        return new HashSet<String>(classes.keySet());
+    }
+
+    /**
+     * @param className internal name of a class in the graph
+     * @return the types the class references, or an empty set if the class is
+     *         not in the graph
+     */
+    public synchronized Set<String> getReferences(String className) {
+        ClassEntry entry = classes.get(className);
+        return entry == null ? Collections.<String> emptySet() : entry.references;
+    }
+
+    /**
+     * @param className internal name of a class in the graph
+     * @return the superclass and interfaces of the class, or an empty set if the
+     *         class is not in the graph
+     */
+    public synchronized Set<String> getSupertypes(String className) {
+        ClassEntry entry = classes.get(className);
+        return entry == null ? Collections.<String> emptySet() : entry.supertypes;
+    }
+
+    /**
+     * @return the source files of all classes in the graph, relative to the
+     *         source directory
+     */
+    public synchronized Set<String> getSources() {
+        Set<String> sources = new HashSet<String>();
+        for (ClassEntry entry : classes.values()) {
+            sources.add(entry.source);
+        }
+        return sources;
+    }
+
+    /**
+     * Check whether every source file has a class file that is newer than the
+     * source file, and every class in the graph still has its source file.
+     *
+     * @param sourceDirectory the source directory compiled to the classes directory
+     * @return true if no source file needs to be compiled
+     * @throws IOException if the source directory cannot be read
+     */
+    public synchronized boolean isUpToDate(File sourceDirectory) throws IOException {
+        if (!loaded) {
+            return false;
+        }
+        final Path root = sourceDirectory.toPath();
+        final Set<String> sources = new HashSet<String>();
+        final boolean[] stale = { false };
+        if (sourceDirectory.isDirectory()) {
+            Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    String name = root.relativize(file).toString().replace(File.separatorChar, '/');
+                    if (!attrs.isRegularFile() || !name.endsWith(".java")) {
+                        return FileVisitResult.CONTINUE;
+                    }
+                    sources.add(name);
+                    if (name.equals("package-info.java") || name.endsWith("/package-info.java")) {
+                        // only produces a class file if the package is annotated
+                        return FileVisitResult.CONTINUE;
+                    }
+                    File classFile = new File(classesDirectory,
+                            name.substring(0, name.length() - ".java".length()) + ".class");
+                    if (!classFile.exists() || classFile.lastModified() < attrs.lastModifiedTime().toMillis()) {
+                        stale[0] = true;
+                        return FileVisitResult.TERMINATE;
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+        return !stale[0] && sources.containsAll(getSources());
+    }
+
+    /**
+     * Write the graph to its file.
+     */
+    public synchronized void save() {
+        try {
+            Files.createDirectories(graphFile.getParentFile().toPath());
+            try (BufferedWriter writer = Files.newBufferedWriter(graphFile.toPath(), StandardCharsets.UTF_8)) {
+                writer.write(HEADER);
+                writer.newLine();
+                for (Map.Entry<String, ClassEntry> e : classes.entrySet()) {
+                    ClassEntry entry = e.getValue();
+                    StringBuilder line = new StringBuilder();
+                    line.append(e.getKey()).append('\t').append(entry.lastModified).append('\t').append(entry.abi)
+                            .append('\t').append(entry.schema).append('\t').append(entry.constants).append('\t').append(entry.source).append('\t');
+                    appendNames(line, entry.supertypes);
+                    line.append('\t');
+                    appendNames(line, entry.references);
+                    writer.write(line.toString());
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not write the class dependency graph " + graphFile + ": " + e.getMessage());
+            log.debug(e);
+        }
+    }
+
+    private static void appendNames(StringBuilder line, Set<String> names) {
+        boolean first = true;
+        for (String name : new TreeSet<String>(names)) {
+            if (!first) {
+                line.append(',');
+            }
+            line.append(name);
+            first = false;
+        }
+    }
+
+    private static Set<String> splitNames(String value) {
+        Set<String> names = new HashSet<String>();
+        if (!value.isEmpty()) {
+            Collections.addAll(names, value.split(","));
+        }
+        return names;
+    }
+
+    private void load() {
+        if (!graphFile.isFile()) {
+            return;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(graphFile.toPath(), StandardCharsets.UTF_8)) {
+            if (!HEADER.equals(reader.readLine())) {
+                log.debug("Ignoring class dependency graph " + graphFile + " written by another version");
+                return;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split("\t", -1);
+                if (parts.length != 8) {
+                    throw new IOException("Malformed line: " + line);
+                }
+                ClassEntry entry = new ClassEntry();
+                entry.lastModified = Long.parseLong(parts[1]);
+                entry.abi = parts[2];
+                entry.schema = parts[3];
+                entry.constants = parts[4];
+                entry.source = parts[5];
+                entry.supertypes = splitNames(parts[6]);
+                entry.references = splitNames(parts[7]);
+                classes.put(parts[0], entry);
+            }
+            loaded = true;
+        } catch (IOException | NumberFormatException e) {
+            log.debug("Could not read the class dependency graph " + graphFile + ", it will be rebuilt", e);
+            classes.clear();
+        }
+    }
+
+    /**
+     * Read the constant pool, fields, methods and attributes of a class file.
+     */
+    private static ClassEntry readClass(String className, File classFile) throws IOException {
+        ClassEntry entry = new ClassEntry();
+        MessageDigest abi = DigestUtil.newDigest();
+        MessageDigest schema = DigestUtil.newDigest();
+        MessageDigest constants = DigestUtil.newDigest();
+        Set<String> references = new HashSet<String>();
+        Set<String> supertypes = new HashSet<String>();
+        String sourceFile = null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(classFile.toPath())))) {
+            if (in.readInt() != 0xCAFEBABE) {
+                throw new IOException("Not a class file: " + classFile);
+            }
+            in.readUnsignedShort(); // minor version
+            in.readUnsignedShort(); // major version
+
+            int count = in.readUnsignedShort();
+            int[] tags = new int[count];
+            int[] indexes = new int[count];
+            Object[] values = new Object[count];
+            for (int i = 1; i < count; i++) {
+                tags[i] = in.readUnsignedByte();
+                switch (tags[i]) {
+                case 1: // Utf8
+                    values[i] = in.readUTF();
+                    break;
+                case 3: // Integer
+                    values[i] = in.readInt();
+                    break;
+                case 4: // Float
+                    values[i] = in.readFloat();
+                    break;
+                case 5: // Long
+                    values[i++] = in.readLong();
+                    break;
+                case 6: // Double
+                    values[i++] = in.readDouble();
+                    break;
+                case 7: // Class
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    indexes[i] = in.readUnsignedShort();
+                    break;
+                case 15: // MethodHandle
+                    in.readUnsignedByte();
+                    in.readUnsignedShort();
+                    break;
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    in.readInt();
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tags[i] + " in " + classFile);
+                }
+            }
+
+            for (int i = 1; i < count; i++) {
+                if (tags[i] == 7) {
+                    String name = (String) values[indexes[i]];
+                    if (name.startsWith("[")) {
+                        addDescriptorReferences(name, references);
+                    } else {
+                        references.add(name);
+                    }
+                } else if (tags[i] == 1) {
+                    // field, method and generic signature descriptors
+                    addDescriptorReferences((String) values[i], references);
+                }
+            }
+
+            String classAccess = Integer.toString(in.readUnsignedShort());
+            DigestUtil.update(abi, classAccess);
+            DigestUtil.update(schema, classAccess);
+            in.readUnsignedShort(); // this class
+            int superClass = in.readUnsignedShort();
+            if (superClass != 0) {
+                supertypes.add((String) values[indexes[superClass]]);
+            }
+            DigestUtil.update(abi, superClass == 0 ? "" : (String) values[indexes[superClass]]);
+            DigestUtil.update(schema, superClass == 0 ? "" : (String) values[indexes[superClass]]);
+            int interfaces = in.readUnsignedShort();
+            for (int i = 0; i < interfaces; i++) {
+                String name = (String) values[indexes[in.readUnsignedShort()]];
+                supertypes.add(name);
+                DigestUtil.update(abi, name);
+                DigestUtil.update(schema, name);
+            }
+
+            for (int member = 0; member < 2; member++) {
+                int members = in.readUnsignedShort();
+                List<String> signatures = new ArrayList<String>();
+                List<String> schemaMembers = new ArrayList<String>();
+                for (int i = 0; i < members; i++) {
+                    int access = in.readUnsignedShort();
+                    String name = (String) values[in.readUnsignedShort()];
+                    String descriptor = (String) values[in.readUnsignedShort()];
+                    String signature = "";
+                    int attributes = in.readUnsignedShort();
+                    for (int a = 0; a < attributes; a++) {
+                        String attribute = (String) values[in.readUnsignedShort()];
+                        int length = in.readInt();
+                        if ("Signature".equals(attribute)) {
+                            signature = (String) values[in.readUnsignedShort()];
+                        } else if ("ConstantValue".equals(attribute)) {
+                            int index = in.readUnsignedShort();
+                            Object value = tags[index] == 8 ? values[indexes[index]] : values[index];
+                            DigestUtil.update(constants, name + "=" + value);
+                        } else {
+                            in.skipBytes(length);
+                        }
+                    }
+                    if ((access & ACC_PRIVATE) == 0) {
+                        signatures.add(access + " " + name + " " + descriptor + " " + signature);
+                    }
+                    schemaMembers.add(member + " " + access + " " + name + " " + descriptor);
+                }
+                // member order in the class file is not significant
+                Collections.sort(signatures);
+                for (String signature : signatures) {
+                    DigestUtil.update(abi, signature);
+                }
+                Collections.sort(schemaMembers);
+                for (String schemaMember : schemaMembers) {
+                    DigestUtil.update(schema, schemaMember);
+                }
+            }
+
+            int attributes = in.readUnsignedShort();
+            for (int a = 0; a < attributes; a++) {
+                String attribute = (String) values[in.readUnsignedShort()];
+                int length = in.readInt();
+                if ("SourceFile".equals(attribute)) {
+                    sourceFile = (String) values[in.readUnsignedShort()];
+                } else if ("Signature".equals(attribute)) {
+                    DigestUtil.update(abi, (String) values[in.readUnsignedShort()]);
+                } else {
+                    in.skipBytes(length);
+                }
+            }
+        }
+
+        references.remove(className);
+        int packageEnd = className.lastIndexOf('/');
+        String packagePath = packageEnd < 0 ? "" : className.substring(0, packageEnd + 1);
+        if (sourceFile == null) {
+            String simpleName = className.substring(packageEnd + 1);
+            int nested = simpleName.indexOf('$');
+            sourceFile = (nested > 0 ? simpleName.substring(0, nested) : simpleName) + ".java";
+        }
+        entry.source = packagePath + sourceFile;
+        entry.supertypes = supertypes;
+        entry.references = references;
+        entry.abi = DigestUtil.toHex(abi.digest());
+        entry.schema = DigestUtil.toHex(schema.digest());
+        entry.constants = DigestUtil.toHex(constants.digest());
+        return entry;
+    }
+
+    private static void addDescriptorReferences(String descriptor, Set<String> references) {
+        if (descriptor.isEmpty() || "(L[<".indexOf(descriptor.charAt(0)) < 0) {
+            return;
+        }
+        Matcher m = TYPE_DESCRIPTOR.matcher(descriptor);
+        while (m.find()) {
+            references.add(m.group(1));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/**
+ * (C) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openliberty.tools.maven.server;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Maintains a classpath that is made up of the classpath elements of several
+ * build files, such as a module and its parent projects. Each build file's
+ * contribution is recorded separately, so that replacing a contribution drops
+ * the elements that no build file contributes anymore.
+ * <p>
+ * The classpath lists the elements of the owner, the module whose classpath it
+ * is, in the order of the module's classpath, followed by the elements that
+ * only other build files contribute, in the order they were first contributed.
+ * <p>
+ * The classpath elements are kept in a set that is owned by the dev mode
+ * utility. The set is only modified through the index, and code that uses the
+ * classpath while it may be updated, including the dev mode utility, should
+ * use {@link #snapshot()}.
+ */
+public class ClasspathIndex {
+
+    private final Set<String> entries;
+    private final Map<String, Set<String>> contributions = new LinkedHashMap<String, Set<String>>();
+
+    /**
+     * @param entries the classpath elements to maintain
+     * @param owner   the build file that contributed the current elements
+     */
+    public ClasspathIndex(Set<String> entries, String owner) {
+        this.entries = entries;
+        // the owner's elements come first even if it contributes after other build files
+        contributions.put(owner, new LinkedHashSet<String>(entries));
+    }
+
+    /**
+     * Replace the classpath elements contributed by a build file.
+     *
+     * @param contributor the canonical path of the build file
+     * @param elements    the classpath elements of the build file, in classpath
+     *                    order
+     * @return true if the classpath changed
+     */
+    public synchronized boolean setContribution(String contributor, Collection<String> elements) {
+        Set<String> current = new LinkedHashSet<String>(elements);
+        if (current.equals(contributions.get(contributor))) {
+            return false;
+        }
+        contributions.put(contributor, current);
+
+        Set<String> classpath = new LinkedHashSet<String>();
+        for (Set<String> contribution : contributions.values()) {
+            classpath.addAll(contribution);
+        }
+        if (new ArrayList<String>(classpath).equals(new ArrayList<String>(entries))) {
+            return false;
+        }
+        entries.clear();
+        entries.addAll(classpath);
+        return true;
+    }
+
+    /**
+     * @return a copy of the classpath elements in classpath order
+     */
+    public synchronized List<String> snapshot() {
+        return Collections.unmodifiableList(new ArrayList<String>(entries));
+    }
+}
@@ -24,22 +24,43 @@ import static org.twdata.maven.mojoexecutor.MojoExecutor.name;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
 import java.text.MessageFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
-import java.util.Enumeration;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.TransformerException;
 
 import org.apache.maven.artifact.Artifact;
 import org.apache.maven.artifact.DependencyResolutionRequiredException;
@@ -51,15 +72,19 @@ import org.apache.maven.model.Plugin;
 import org.apache.maven.model.Resource;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.plugins.annotations.ResolutionScope;
+import org.apache.maven.project.DefaultProjectBuildingRequest;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuilder;
 import org.apache.maven.project.ProjectBuildingException;
+import org.apache.maven.project.ProjectBuildingRequest;
 import org.apache.maven.project.ProjectBuildingResult;
 import org.apache.maven.rtinfo.RuntimeInformation;
+import org.codehaus.plexus.util.StringUtils;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
 import org.twdata.maven.mojoexecutor.MojoExecutor.Element;
 
@@ -76,7 +101,10 @@ import io.openliberty.tools.common.plugins.util.ServerStatusUtil;
 import io.openliberty.tools.maven.BasicSupport;
 import io.openliberty.tools.maven.applications.DeployMojoSupport;
 import io.openliberty.tools.maven.applications.LooseWarApplication;
+import io.openliberty.tools.maven.utils.DaemonThreadFactory;
+import io.openliberty.tools.maven.utils.DigestUtil;
 import io.openliberty.tools.maven.utils.ExecuteMojoUtil;
+import io.openliberty.tools.maven.utils.SourceTreeIndex;
 
 /**
  * Start a liberty server in dev mode import to set ResolutionScope for TEST as
@@ -102,6 +130,26 @@ public class DevMojo extends LooseAppSupport {
     @Parameter(property = "hotTests", defaultValue = "false")
     private boolean hotTests;
 
+    /**
+     * Only run the unit tests that reference a class that changed since the last
+     * successful test run, directly or through other project classes. Set to
+     * false to always run all unit tests.
+     */
+    @Parameter(property = "testImpactAnalysis", defaultValue = "false")
+    private boolean testImpactAnalysis;
+
+    /**
+     * Run JUnit 4 unit tests in a long-lived JVM per module instead of forking a
+     * new JVM with the maven-surefire-plugin on every run.
+     */
+    @Parameter(property = "warmTestJvm", defaultValue = "false")
+    private boolean warmTestJvm;
+
+    private final Map<File, WarmTestJvm> warmTestJvms = new ConcurrentHashMap<File, WarmTestJvm>();
+
+    /** Modules whose unit tests cannot run in a warm test JVM */
+    private final Set<File> warmTestJvmUnsupported = Collections.synchronizedSet(new HashSet<File>());
+
     @Parameter(property = "skipTests", defaultValue = "false")
     private boolean skipTests;
 
@@ -138,6 +186,160 @@ public class DevMojo extends LooseAppSupport {
     @Parameter(property = "compileWait", defaultValue = "0.5")
     private double compileWait;
 
+    /**
+     * Compile Java source changes with an in-process compiler that only compiles
+     * stale source files and the source files that depend on them, instead of
+     * running the maven-compiler-plugin.
+     */
+    @Parameter(property = "incrementalCompile", defaultValue = "false")
+    private boolean incrementalCompile;
+
+    private final Map<File, IncrementalJavaCompiler> incrementalCompilers = new HashMap<File, IncrementalJavaCompiler>();
+
+    /** Resolved annotation processor paths by their maven-compiler-plugin configuration */
+    private final Map<String, String> annotationProcessorPaths = new HashMap<String, String>();
+
+    private ModuleCompileScheduler moduleCompileScheduler;
+
+    /**
+     * Collect resource changes, pom.xml changes and test runs over a quiet window
+     * and handle each module's changes with a single action.
+     */
+    @Parameter(property = "coalesceChanges", defaultValue = "false")
+    private boolean coalesceChanges;
+
+    private ChangeEventPipeline changeEventPipeline;
+
+    /** Digests of the build files as last loaded by dev mode */
+    private final Map<File, String> buildFileDigests = new HashMap<File, String>();
+
+    /** Classpath indexes keyed by the compile and test artifact sets they maintain */
+    private final Map<Set<String>, ClasspathIndex> classpathIndexes = new IdentityHashMap<Set<String>, ClasspathIndex>();
+
+    /**
+     * Record the time spent in each dev mode phase to
+     * target/liberty-dev/dev-trace.json in the Chrome trace event format.
+     */
+    @Parameter(property = "timingTrace", defaultValue = "false")
+    private boolean timingTrace;
+
+    /** When tests waiting for the application to be updated were requested */
+    private volatile long applicationUpdateRequested;
+
+    /**
+     * Skip liberty:generate-features, liberty:create, liberty:install-feature and
+     * liberty:deploy on startup if their inputs have not changed since dev mode
+     * last shut down cleanly.
+     */
+    @Parameter(property = "warmStart", defaultValue = "false")
+    private boolean warmStart;
+
+    private WarmStartManifest warmStartManifest;
+
+    private static final String[] WARM_START_STEPS = { "generate-features", "create", "install-feature", "deploy" };
+
+    /**
+     * Copy only the changed files into the webapp directory of an exploded WAR
+     * instead of running the maven-war-plugin's exploded goal on every change.
+     * The exploded goal still runs when the overlays, web resources, filters or
+     * dependencies change.
+     */
+    @Parameter(property = "incrementalExplodedWar", defaultValue = "false")
+    private boolean incrementalExplodedWar;
+
+    private ExplodedWarSync explodedWarSync;
+
+    /**
+     * Do not copy a changed resource, or run the tests for it, if the output
+     * directory already has a resource with the same content.
+     */
+    @Parameter(property = "skipUnchangedResources", defaultValue = "false")
+    private boolean skipUnchangedResources;
+
+    private ResourceContentCache resourceContentCache;
+
+    /** Changed resources that were not copied since their content is unchanged */
+    private final Set<File> unchangedResources = Collections.synchronizedSet(new HashSet<File>());
+
+    /** The resource change that the next test run on the file watcher thread is requested for */
+    private final ThreadLocal<File> changedResource = new ThreadLocal<File>();
+
+    /**
+     * Redefine changed classes in the running server through its debug port
+     * instead of restarting the application, if only method bodies changed. The
+     * application still restarts for changes that add or remove fields or
+     * methods, or change supertypes or modifiers.
+     */
+    @Parameter(property = "hotSwap", defaultValue = "false")
+    private boolean hotSwap;
+
+    private volatile HotSwapAgent hotSwapAgent;
+
+    /** The debug port the server was started with */
+    private int serverDebugPort;
+
+    /** Whether classes were hot swapped since the last test run */
+    private boolean classesHotSwapped;
+
+    /** Whether the application was restarted since the last test run */
+    private boolean applicationRestarted;
+
+    /** Whether the logging configuration of the server was written by dev mode */
+    private boolean loggingConfigWritten;
+
+    /**
+     * Snapshots of the upstream modules as of their last build file change, keyed
+     * by the canonical path of the build file. The reactor projects are kept in
+     * the upstream projects list, which the session references anyway, so that
+     * rebuilt models are only held by the project model cache.
+     */
+    private final Map<String, ProjectSnapshot> projectSnapshots = new ConcurrentHashMap<String, ProjectSnapshot>();
+
+    private static final long HEAP_USAGE_INTERVAL_SECONDS = 60;
+
+    /**
+     * Run the tests of the affected modules of a multi-module project
+     * concurrently instead of one module after another. The unit tests and test
+     * reports of each module still run in that module.
+     */
+    @Parameter(property = "parallelTests", defaultValue = "false")
+    private boolean parallelTests;
+
+    /**
+     * The number of modules that can run their integration tests against the
+     * server at the same time if parallelTests is enabled.
+     */
+    @Parameter(property = "integrationTestPermits", defaultValue = "1")
+    private int integrationTestPermits;
+
+    /** Runs the tests of each module of a test run, if parallelTests is enabled */
+    private ExecutorService moduleTestExecutor;
+
+    /** The module tests of the current test run that are still running */
+    private final List<Future<?>> moduleTests = new ArrayList<Future<?>>();
+
+    private Semaphore integrationTestSemaphore;
+
+    private final Map<File, ClassDependencyGraph> classDependencyGraphs = new HashMap<File, ClassDependencyGraph>();
+
+    /** Maximum number of changes that are kept for a module that did not read them */
+    private static final int MAX_KEPT_CHANGES = 1000;
+
+    /**
+     * API changes of module classes, in the order the modules were compiled. The
+     * position of each classes output directory is the number of changes already
+     * applied to it.
+     */
+    private final ChangeLog<ClassDependencyGraph.Changes> upstreamChanges = new ChangeLog<ClassDependencyGraph.Changes>(
+            MAX_KEPT_CHANGES);
+
+    /**
+     * Classes modified in each update of a class dependency graph. The position of
+     * each build file is the number of modifications covered by the last
+     * successful unit test run of the module.
+     */
+    private final ChangeLog<Set<String>> classModifications = new ChangeLog<Set<String>>(MAX_KEPT_CHANGES);
+
     private int runId = 0;
 
     private ServerTask serverTask = null;
@@ -147,6 +349,8 @@ public class DevMojo extends LooseAppSupport {
     @Component
     protected ProjectBuilder mavenProjectBuilder;
 
+    private ProjectModelCache projectModelCache;
+
     @Component
     private RuntimeInformation runtime;
 
@@ -261,6 +465,104 @@ public class DevMojo extends LooseAppSupport {
         project.getProperties().setProperty("container", Boolean.toString(container));
     }
 
+    /**
+     * Assemble the dev mode module of an upstream project.
+     * 
+     * @param p     the upstream project
+     * @param graph the project dependency graph of the reactor
+     * @return the module
+     */
+    private ProjectModule getUpstreamProjectModule(MavenProject p, ProjectDependencyGraph graph) {
+        // get compiler options for upstream project
+        JavaCompilerOptions upstreamCompilerOptions = getMavenCompilerOptions(p);
+
+        Set<String> compileArtifacts = new LinkedHashSet<String>();
+        Set<String> testArtifacts = new LinkedHashSet<String>();
+        Build build = p.getBuild();
+        File upstreamSourceDir = new File(build.getSourceDirectory());
+        File upstreamOutputDir = new File(build.getOutputDirectory());
+        File upstreamTestSourceDir = new File(build.getTestSourceDirectory());
+        File upstreamTestOutputDir = new File(build.getTestOutputDirectory());
+        // resource directories
+        List<File> upstreamResourceDirs = getResourceDirectories(p, upstreamOutputDir);
+
+        // properties that are set in the pom file
+        Properties props = p.getProperties();
+
+        // properties that are set by user via CLI parameters
+        Properties userProps = session.getUserProperties();
+
+        Plugin libertyPlugin = getLibertyPluginForProject(p);
+        // use "dev" goal, although we don't expect the skip tests flags to be bound to any goal
+        Xpp3Dom config = ExecuteMojoUtil.getPluginGoalConfig(libertyPlugin, "dev", log);
+        
+        boolean upstreamSkipTests = getBooleanFlag(config, userProps, props, "skipTests");
+        boolean upstreamSkipITs = getBooleanFlag(config, userProps, props, "skipITs");
+        boolean upstreamSkipUTs = getBooleanFlag(config, userProps, props, "skipUTs");
+
+        // only force skipping unit test for ear modules otherwise honour existing skip
+        // test params
+        if (p.getPackaging().equals("ear")) {
+            upstreamSkipUTs = true;
+        }
+
+        // build list of dependent modules
+        List<MavenProject> dependentProjects = graph.getDownstreamProjects(p, true);
+        List<File> dependentModules = new ArrayList<File>();
+        for (MavenProject depProj : dependentProjects) {
+            dependentModules.add(depProj.getFile());
+        }
+
+        return new ProjectModule(p.getFile(), p.getArtifactId(), p.getPackaging(),
+                compileArtifacts, testArtifacts, upstreamSourceDir, upstreamOutputDir, upstreamTestSourceDir,
+                upstreamTestOutputDir, upstreamResourceDirs, upstreamSkipTests, upstreamSkipUTs,
+                upstreamSkipITs, upstreamCompilerOptions, dependentModules);
+    }
+
+    /**
+     * Create a bounded pool of daemon threads for the startup work of a
+     * multi-module project, such as assembling the modules and building their
+     * project models.
+     * 
+     * @param tasks the number of modules
+     * @return the executor
+     */
+    private ExecutorService newStartupExecutor(int tasks) {
+        int threads = Math.max(1, Math.min(tasks, Runtime.getRuntime().availableProcessors()));
+        return Executors.newFixedThreadPool(threads, new DaemonThreadFactory("liberty-dev-startup"));
+    }
+
+    /**
+     * Create the executor that runs the tests of the modules of a test run
+     * concurrently.
+     *
+     * @param modules the number of modules
+     * @return the executor
+     */
+    private ExecutorService newModuleTestExecutor(int modules) {
+        int threads = Math.max(1, Math.min(modules, Runtime.getRuntime().availableProcessors()));
+        return Executors.newFixedThreadPool(threads, new DaemonThreadFactory("liberty-dev-tests"));
+    }
+
+    /**
+     * Log the heap usage periodically, to verify the memory use of long running
+     * dev mode sessions.
+     */
+    private void startHeapUsageLog() {
+        ScheduledExecutorService heapUsageExecutor = Executors
+                .newSingleThreadScheduledExecutor(new DaemonThreadFactory("liberty-dev-heap-usage"));
+        heapUsageExecutor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                MemoryUsage heap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage();
+                log.debug("Heap usage: " + (heap.getUsed() >> 20) + " MB used, " + (heap.getCommitted() >> 20)
+                        + " MB committed, " + (heap.getMax() < 0 ? "no" : (heap.getMax() >> 20) + " MB") + " maximum; "
+                        + (projectModelCache == null ? 0 : projectModelCache.size()) + " cached project models, "
+                        + projectSnapshots.size() + " project snapshots");
+            }
+        }, HEAP_USAGE_INTERVAL_SECONDS, HEAP_USAGE_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
     protected List<File> getResourceDirectories(MavenProject project, File outputDir) {
         // Let's just add resources directories unconditionally, the dev util already checks the directories actually exist
         // before adding them to the watch list.   If we avoid checking here we allow for creating them later on.
@@ -353,68 +655,85 @@ public class DevMojo extends LooseAppSupport {
             return project.getArtifactId();
         }
 
+        /**
+         * Get the lock that serializes the actions that run goals or change the
+         * project, such as compiling and reloading the build file, with the change
+         * batches that the change event pipeline dispatches on its own thread.
+         */
+        private Object getBuildLock() {
+            return changeEventPipeline != null ? changeEventPipeline.getDispatchLock() : this;
+        }
+
         @Override
         public void libertyCreate() throws PluginExecutionException {
-            try {
-                if (isUsingBoost()) {
-                    log.info("Running boost:package");
-                    runBoostMojo("package");
-                } else {
-                    runLibertyMojoCreate();
+            synchronized (getBuildLock()) {
+                try {
+                    if (isUsingBoost()) {
+                        log.info("Running boost:package");
+                        runBoostMojo("package");
+                    } else {
+                        runLibertyMojoCreate();
+                    }
+                } catch (MojoExecutionException | ProjectBuildingException e) {
+                    throw new PluginExecutionException(e);
                 }
-            } catch (MojoExecutionException | ProjectBuildingException e) {
-                throw new PluginExecutionException(e);
             }
         }
 
         @Override
         public boolean libertyGenerateFeatures(Collection<String> classes, boolean optimize) {
-            try {
-                if (classes != null) {
-                    Element[] classesElem = new Element[classes.size()];
-                    int i = 0;
-                    for (String classPath : classes) {
-                        classesElem[i] = element(name("classFile"), classPath);
-                        i++;
+            synchronized (getBuildLock()) {
+                try {
+                    if (classes != null) {
+                        Element[] classesElem = new Element[classes.size()];
+                        int i = 0;
+                        for (String classPath : classes) {
+                            classesElem[i] = element(name("classFile"), classPath);
+                            i++;
+                        }
+                        // generate features for only the classFiles passed
+                        runLibertyMojoGenerateFeatures(element(name("classFiles"), classesElem), optimize);
+                    } else {
+                        // pass null for classFiles so that features are generated for ALL of the
+                        // classes
+                        runLibertyMojoGenerateFeatures(null, optimize);
                     }
-                    // generate features for only the classFiles passed
-                    runLibertyMojoGenerateFeatures(element(name("classFiles"), classesElem), optimize);
-                } else {
-                    // pass null for classFiles so that features are generated for ALL of the
-                    // classes
-                    runLibertyMojoGenerateFeatures(null, optimize);
-                }
-                return true; // successfully generated features
-            } catch (MojoExecutionException e) {
-                // log errors instead of throwing an exception so we do not flood console with
-                // stacktrace
-                if (e.getCause() != null && e.getCause() instanceof PluginExecutionException) {
-                    // PluginExecutionException indicates that the binary scanner jar could not be found
-                    log.error(e.getMessage() + ".\nDisabling the automatic generation of features.");
-                    setFeatureGeneration(false);
-                } else {
-                    log.error(e.getMessage()
-                    + "\nTo disable the automatic generation of features, type 'g' and press Enter.");
+                    return true; // successfully generated features
+                } catch (MojoExecutionException e) {
+                    // log errors instead of throwing an exception so we do not flood console with
+                    // stacktrace
+                    if (e.getCause() != null && e.getCause() instanceof PluginExecutionException) {
+                        // PluginExecutionException indicates that the binary scanner jar could not be found
+                        log.error(e.getMessage() + ".\nDisabling the automatic generation of features.");
+                        setFeatureGeneration(false);
+                    } else {
+                        log.error(e.getMessage()
+                        + "\nTo disable the automatic generation of features, type 'g' and press Enter.");
+                    }
+                    return false;
                 }
-                return false;
             }
         }
 
         @Override
         public void libertyInstallFeature() throws PluginExecutionException {
-            try {
-                runLibertyMojoInstallFeature(null, null, container ? super.getContainerName() : null);
-            } catch (MojoExecutionException e) {
-                throw new PluginExecutionException(e);
+            synchronized (getBuildLock()) {
+                try {
+                    runLibertyMojoInstallFeature(null, null, container ? super.getContainerName() : null);
+                } catch (MojoExecutionException e) {
+                    throw new PluginExecutionException(e);
+                }
             }
         }
 
         @Override
         public void libertyDeploy() throws PluginExecutionException {
-            try {
-                runLibertyMojoDeploy();
-            } catch (MojoExecutionException e) {
-                throw new PluginExecutionException(e);
+            synchronized (getBuildLock()) {
+                try {
+                    runLibertyMojoDeploy();
+                } catch (MojoExecutionException e) {
+                    throw new PluginExecutionException(e);
+                }
             }
         }
 
@@ -449,7 +768,9 @@ public class DevMojo extends LooseAppSupport {
 
                     // set environment variables for server start task
                     serverTask.setOperation("debug");
-                    serverTask.setEnvironmentVariables(getDebugEnvironmentVariables());
+                    Map<String, String> debugEnvironmentVariables = getDebugEnvironmentVariables();
+                    serverDebugPort = Integer.parseInt(debugEnvironmentVariables.get("WLP_DEBUG_ADDRESS"));
+                    serverTask.setEnvironmentVariables(debugEnvironmentVariables);
                 } else {
                     serverTask.setOperation("run");
                 }
@@ -458,20 +779,6 @@ public class DevMojo extends LooseAppSupport {
             }
         }
 
-        private Properties getPropertiesWithKeyPrefix(Properties p, String prefix) {
-            Properties result = new Properties();
-            if (p != null) {
-                Enumeration<?> e = p.propertyNames();
-                while (e.hasMoreElements()) {
-                    String key = (String) e.nextElement();
-                    if (key.startsWith(prefix)) {
-                        result.put(key, p.get(key));
-                    }
-                }
-            }
-            return result;
-        }
-
         private List<Dependency> getEsaDependency(List<Dependency> dependencies) {
             List<Dependency> deps = new ArrayList<Dependency>();
             if (dependencies != null) {
@@ -484,226 +791,151 @@ public class DevMojo extends LooseAppSupport {
             return deps;
         }
 
-        // returns a list of dependencies used to build the project (scope compile or provided)
-        private List<Dependency> getCompileDependency(List<Dependency> dependencies) {
-            List<Dependency> deps = new ArrayList<Dependency>();
-            if (dependencies != null) {
-                for (Dependency d : dependencies) {
-                    if ("compile".equals(d.getScope()) || "provided".equals(d.getScope())) {
-                        deps.add(d);
+        @Override
+        public boolean updateArtifactPaths(ProjectModule projectModule, boolean redeployCheck, boolean generateFeatures, ThreadPoolExecutor executor)
+                throws PluginExecutionException {
+            synchronized (getBuildLock()) {
+                try {
+                    File buildFile = projectModule.getBuildFile();
+                    if (buildFile == null) {
+                        buildFile = this.buildFile;
+                    }
+                    if (redeployCheck) {
+                        // the build file changed, so the cached models of the modules that depend on it are stale
+                        projectModelCache.invalidate(buildFile, this.parentBuildFiles);
+                    }
+                    MavenProject upstreamProject = getMavenProject(buildFile);
+                    JavaCompilerOptions compilerOptions = getMavenCompilerOptions(upstreamProject);
+                    ProjectSnapshot snapshot = new ProjectSnapshot(upstreamProject, compilerOptions.getOptions());
+                    ProjectSnapshot backupSnapshot = getProjectSnapshot(buildFile, snapshot);
+
+                    // TODO rebuild the corresponding module if the compiler options have changed
+                    if (!backupSnapshot.getCompilerOptions().equals(snapshot.getCompilerOptions())) {
+                        log.debug("Maven compiler options have been modified: " + compilerOptions.getOptions());
+                        util.getProjectModule(buildFile).setCompilerOptions(compilerOptions);
                     }
-                }
-            }
-            return deps;
-        }
 
-        // retun false if dependency lists are not equal, true if they are
-        private boolean dependencyListsEquals(List<Dependency> oldDeps, List<Dependency> deps) {
-            if (oldDeps.size() != deps.size()) {
-                return false;
-            }
-            for (int i = 0; i < oldDeps.size(); i++) {
-                if (!dependencyEquals(oldDeps.get(i), deps.get(i))) {
+                    // replace this module's contribution, the contributions of parent projects are kept
+                    String contributor = buildFile.getCanonicalPath();
+                    getClasspathIndex(projectModule.getTestArtifacts(), contributor).setContribution(contributor,
+                            upstreamProject.getTestClasspathElements());
+                    getClasspathIndex(projectModule.getCompileArtifacts(), contributor).setContribution(contributor,
+                            upstreamProject.getCompileClasspathElements());
+
+                    // check if project module is a parent project and update child modules' artifacts
+                    if (!this.parentBuildFiles.isEmpty()
+                            && this.parentBuildFiles.containsKey(projectModule.getBuildFile().getCanonicalPath())) {
+                        updateArtifactPaths(projectModule.getBuildFile());
+                    }
+
+                    // check if compile dependencies have changed, regenerate features and redeploy if they have
+                    if (redeployCheck) {
+                        projectSnapshots.put(buildFile.getCanonicalPath(), snapshot);
+
+                        List<Dependency> deps = snapshot.getDependencies();
+                        List<Dependency> oldDeps = backupSnapshot.getDependencies();
+
+                        // detect compile dependency changes
+                        if (BuildFileDiff.diffDependencies(oldDeps, deps).contains(BuildFileDiff.Change.COMPILE_DEPENDENCY)) {
+                            // optimize generate features
+                            if (generateFeatures) {
+                                log.debug("Detected a change in the compile dependencies for "
+                                        + buildFile + " , regenerating features");
+                                boolean generateFeaturesSuccess = libertyGenerateFeatures(null, true);
+                                if (generateFeaturesSuccess) {
+                                    util.getJavaSourceClassPaths().clear();
+                                }
+                                // install new generated features, will not trigger install-feature if the feature list has not changed
+                                util.installFeaturesToTempDir(generatedFeaturesFile, configDirectory, null,
+                                    generateFeaturesSuccess);
+                            }
+                            runLibertyMojoDeploy();
+                        }
+                    }
+                } catch (ProjectBuildingException | DependencyResolutionRequiredException | IOException
+                        | MojoExecutionException e) {
+                    log.error("An unexpected error occurred while processing changes in " + buildFile.getAbsolutePath()
+                            + ": " + e.getMessage());
+                    log.debug(e);
                     return false;
                 }
+                return true;
             }
-            return true;
         }
 
         /**
-         * Determines if dependency are equal if their groupId, artifactId, version,
-         * type and scope are equal
+         * Get the snapshot of an upstream module that the changes of its build file
+         * are compared to. The first snapshot is taken of the project in the reactor.
          * 
-         * @param dep1
-         * @param dep2
-         * @return return false if dependency objects are not equal, true if they are
+         * @param buildFile the build file of the module
+         * @param current   the snapshot of the current project, used if the module
+         *                  is not in the reactor
+         * @return the snapshot
          */
-        private boolean dependencyEquals(Dependency dep1, Dependency dep2) {
-            if (!dep1.toString().equals(dep2.toString())) {
-                // compares groupId, artifactId, version, type
-                return false;
-            }
-            if (!dep1.getScope().equals(dep2.getScope())) {
-                return false;
-            }
-            return true;
-        }
-
-        private static final String LIBERTY_BOOTSTRAP_PROP = "liberty.bootstrap.";
-        private static final String LIBERTY_JVM_PROP = "liberty.jvm.";
-        private static final String LIBERTY_ENV_PROP = "liberty.env.";
-        private static final String LIBERTY_VAR_PROP = "liberty.var.";
-        private static final String LIBERTY_DEFAULT_VAR_PROP = "liberty.defaultVar.";
-
-        private boolean hasServerPropertyChanged(MavenProject project, MavenProject backupProject) {
-            Properties projProp = project.getProperties();
-            Properties backupProjProp = backupProject.getProperties();
-
-            if (!Objects.equals(getPropertiesWithKeyPrefix(projProp, LIBERTY_BOOTSTRAP_PROP),
-                    getPropertiesWithKeyPrefix(backupProjProp, LIBERTY_BOOTSTRAP_PROP))) {
-                return true;
-            }
-
-            if (!Objects.equals(getPropertiesWithKeyPrefix(projProp, LIBERTY_JVM_PROP),
-                    getPropertiesWithKeyPrefix(backupProjProp, LIBERTY_JVM_PROP))) {
-                return true;
-            }
-
-            if (!Objects.equals(getPropertiesWithKeyPrefix(projProp, LIBERTY_ENV_PROP),
-                    getPropertiesWithKeyPrefix(backupProjProp, LIBERTY_ENV_PROP))) {
-                return true;
-            }
-            return false;
-        }
-
-        private boolean hasServerVariableChanged(MavenProject project, MavenProject backupProject) {
-            Properties projProp = project.getProperties();
-            Properties backupProjProp = backupProject.getProperties();
-
-            if (!Objects.equals(getPropertiesWithKeyPrefix(projProp, LIBERTY_VAR_PROP),
-                    getPropertiesWithKeyPrefix(backupProjProp, LIBERTY_VAR_PROP))) {
-                return true;
-            }
-            if (!Objects.equals(getPropertiesWithKeyPrefix(projProp, LIBERTY_DEFAULT_VAR_PROP),
-                    getPropertiesWithKeyPrefix(backupProjProp, LIBERTY_DEFAULT_VAR_PROP))) {
-                return true;
-            }
-            return false;
-        }
-
-        private boolean restartForLibertyMojoConfigChanged(Xpp3Dom config, Xpp3Dom oldConfig) {
-            if (!Objects.equals(config.getChild("bootstrapProperties"), oldConfig.getChild("bootstrapProperties"))) {
-                return true;
-            } else if (!Objects.equals(config.getChild("bootstrapPropertiesFile"),
-                    oldConfig.getChild("bootstrapPropertiesFile"))) {
-                return true;
-            } else if (!Objects.equals(config.getChild("jvmOptions"), oldConfig.getChild("jvmOptions"))) {
-                return true;
-            } else if (!Objects.equals(config.getChild("jvmOptionsFile"), oldConfig.getChild("jvmOptionsFile"))) {
-                return true;
-            } else if (!Objects.equals(config.getChild("serverEnv"), oldConfig.getChild("serverEnv"))) {
-                return true;
-            } else if (!Objects.equals(config.getChild("serverEnvFile"), oldConfig.getChild("serverEnvFile"))) {
-                return true;
-            } else if (!Objects.equals(config.getChild("configDirectory"), oldConfig.getChild("configDirectory"))) {
-                return true;
-            }
-            return false;
-        }
-
-        @Override
-        public boolean updateArtifactPaths(ProjectModule projectModule, boolean redeployCheck, boolean generateFeatures, ThreadPoolExecutor executor)
-                throws PluginExecutionException {
-            try {
-                File buildFile = projectModule.getBuildFile();
-                if (buildFile == null) {
-                    buildFile = this.buildFile;
-                }
-                MavenProject upstreamProject = getMavenProject(buildFile);
-                MavenProject backupUpstreamProject = upstreamProject;
+        private ProjectSnapshot getProjectSnapshot(File buildFile, ProjectSnapshot current) throws IOException {
+            String key = buildFile.getCanonicalPath();
+            ProjectSnapshot snapshot = projectSnapshots.get(key);
+            if (snapshot == null) {
+                snapshot = current;
                 for (MavenProject p : upstreamMavenProjects) {
-                    if (buildFile != null && p.getFile().getCanonicalPath().equals(buildFile.getCanonicalPath())) {
-                        backupUpstreamProject = p;
-                    }
-                }
-
-
-                // TODO rebuild the corresponding module if the compiler options have changed
-                JavaCompilerOptions oldCompilerOptions = getMavenCompilerOptions(backupUpstreamProject);
-                JavaCompilerOptions compilerOptions = getMavenCompilerOptions(upstreamProject);
-                if (!oldCompilerOptions.getOptions().equals(compilerOptions.getOptions())) {
-                    log.debug("Maven compiler options have been modified: " + compilerOptions.getOptions());
-                    util.getProjectModule(buildFile).setCompilerOptions(compilerOptions);
-                }
-
-                Set<String> testArtifactPaths = projectModule.getTestArtifacts();
-                Set<String> compileArtifactPaths = projectModule.getCompileArtifacts();
-
-                if (this.parentBuildFiles.isEmpty()) {
-                    compileArtifactPaths.clear();
-                    testArtifactPaths.clear();
-                } else {
-                    // remove past artifacts and add the newest calculated (covers the case where a
-                    // dependency was deleted)
-                    // do not clear list as it may contain dependencies from parent projects
-                    // update classpath for dependencies changes
-                    testArtifactPaths.removeAll(backupUpstreamProject.getTestClasspathElements());
-                    compileArtifactPaths.removeAll(backupUpstreamProject.getCompileClasspathElements());
-                }
-                testArtifactPaths.addAll(upstreamProject.getTestClasspathElements());
-                compileArtifactPaths.addAll(upstreamProject.getCompileClasspathElements());
-
-                // check if project module is a parent project and update child modules' artifacts
-                if (!this.parentBuildFiles.isEmpty()
-                        && this.parentBuildFiles.containsKey(projectModule.getBuildFile().getCanonicalPath())) {
-                    updateArtifactPaths(projectModule.getBuildFile());
-                }
-
-                // check if compile dependencies have changed, regenerate features and redeploy if they have
-                if (redeployCheck) {
-                    // update upstream Maven projects list
-                    int index = upstreamMavenProjects.indexOf(backupUpstreamProject);
-                    upstreamMavenProjects.set(index, upstreamProject);
-
-                    List<Dependency> deps = upstreamProject.getDependencies();
-                    List<Dependency> oldDeps = backupUpstreamProject.getDependencies();
-
-                    // detect compile dependency changes
-                    if (!dependencyListsEquals(getCompileDependency(deps), getCompileDependency(oldDeps))) {
-                        // optimize generate features
-                        if (generateFeatures) {
-                            log.debug("Detected a change in the compile dependencies for "
-                                    + buildFile + " , regenerating features");
-                            boolean generateFeaturesSuccess = libertyGenerateFeatures(null, true);
-                            if (generateFeaturesSuccess) {
-                                util.getJavaSourceClassPaths().clear();
-                            }
-                            // install new generated features, will not trigger install-feature if the feature list has not changed
-                            util.installFeaturesToTempDir(generatedFeaturesFile, configDirectory, null,
-                                generateFeaturesSuccess);
-                        }
-                        runLibertyMojoDeploy();
+                    if (p.getFile().getCanonicalPath().equals(key)) {
+                        snapshot = new ProjectSnapshot(p, getMavenCompilerOptions(p).getOptions());
                     }
                 }
-            } catch (ProjectBuildingException | DependencyResolutionRequiredException | IOException
-                    | MojoExecutionException e) {
-                log.error("An unexpected error occurred while processing changes in " + buildFile.getAbsolutePath()
-                        + ": " + e.getMessage());
-                log.debug(e);
-                return false;
+                projectSnapshots.put(key, snapshot);
             }
-            return true;
+            return snapshot;
         }
 
         @Override
         public boolean updateArtifactPaths(File buildFile) {
-            try {
-                MavenProject parentProject = getMavenProject(buildFile);
-                updateChildProjectArtifactPaths(buildFile, parentProject.getCompileClasspathElements(),
-                        parentProject.getTestClasspathElements());
-            } catch (ProjectBuildingException | IOException | DependencyResolutionRequiredException e) {
-                log.error("An unexpected error occurred while processing changes in " + buildFile.getAbsolutePath()
-                        + ": " + e.getMessage());
-                log.debug(e);
-                return false;
+            synchronized (getBuildLock()) {
+                try {
+                    // a parent pom changed, the cached models of all of its child modules are stale
+                    projectModelCache.invalidate(buildFile, this.parentBuildFiles);
+                    MavenProject parentProject = getMavenProject(buildFile);
+                    Map<String, List<String>> compileContributions = new LinkedHashMap<String, List<String>>();
+                    Map<String, List<String>> testContributions = new LinkedHashMap<String, List<String>>();
+                    compileContributions.put(buildFile.getCanonicalPath(), parentProject.getCompileClasspathElements());
+                    testContributions.put(buildFile.getCanonicalPath(), parentProject.getTestClasspathElements());
+                    updateChildProjectArtifactPaths(buildFile, compileContributions, testContributions);
+                } catch (ProjectBuildingException | IOException | DependencyResolutionRequiredException e) {
+                    log.error("An unexpected error occurred while processing changes in " + buildFile.getAbsolutePath()
+                            + ": " + e.getMessage());
+                    log.debug(e);
+                    return false;
+                }
+                return true;
             }
-            return true;
         }
 
-        private void updateChildProjectArtifactPaths(File parentBuildFile, List<String> compileClasspathElements,
-                List<String> testClasspathElements) throws IOException, ProjectBuildingException, DependencyResolutionRequiredException {
+        /**
+         * Update the classpath of the child modules of a parent project.
+         * 
+         * @param parentBuildFile      the build file of the parent project
+         * @param compileContributions the compile classpath elements of the parent
+         *                             project and its ancestors, keyed by build file
+         * @param testContributions    the test classpath elements of the parent
+         *                             project and its ancestors, keyed by build file
+         */
+        private void updateChildProjectArtifactPaths(File parentBuildFile, Map<String, List<String>> compileContributions,
+                Map<String, List<String>> testContributions) throws IOException, ProjectBuildingException, DependencyResolutionRequiredException {
             // search for child projects
             List<String> childBuildFiles = this.parentBuildFiles.get(parentBuildFile.getCanonicalPath());
             if (childBuildFiles != null) {
                 for (String childBuildPath : childBuildFiles) {
                     if (this.parentBuildFiles.containsKey(childBuildPath)) {
                         MavenProject project = getMavenProject(new File(childBuildPath));
+                        Map<String, List<String>> childCompileContributions = new LinkedHashMap<String, List<String>>(
+                                compileContributions);
+                        Map<String, List<String>> childTestContributions = new LinkedHashMap<String, List<String>>(
+                                testContributions);
                         if (project != null) {
-                            compileClasspathElements.addAll(project.getCompileClasspathElements());
-                            testClasspathElements.addAll(project.getTestClasspathElements());
+                            childCompileContributions.put(childBuildPath, project.getCompileClasspathElements());
+                            childTestContributions.put(childBuildPath, project.getTestClasspathElements());
                         }
-                        updateChildProjectArtifactPaths(new File(childBuildPath), compileClasspathElements,
-                                testClasspathElements);
+                        updateChildProjectArtifactPaths(new File(childBuildPath), childCompileContributions,
+                                childTestContributions);
                     } else {
                         // update artifacts on this project
                         Set<String> compileArtifacts = null;
@@ -720,14 +952,18 @@ public class DevMojo extends LooseAppSupport {
                             project = getMavenProject(projectModule.getBuildFile());
                         }
                         if (compileArtifacts != null && testArtifacts != null && project != null) {
-                            compileArtifacts.clear();
-                            testArtifacts.clear();
-                            // TODO if a dependency is deleted from a parent project, it will still be in
-                            // the child projects classpath elements
-                            compileClasspathElements.addAll(project.getCompileClasspathElements());
-                            testClasspathElements.addAll(project.getTestClasspathElements());
-                            compileArtifacts.addAll(compileClasspathElements);
-                            testArtifacts.addAll(testClasspathElements);
+                            // replacing the parents' contributions drops dependencies that were
+                            // deleted from a parent project
+                            ClasspathIndex compileIndex = getClasspathIndex(compileArtifacts, childBuildPath);
+                            ClasspathIndex testIndex = getClasspathIndex(testArtifacts, childBuildPath);
+                            for (Map.Entry<String, List<String>> e : compileContributions.entrySet()) {
+                                compileIndex.setContribution(e.getKey(), e.getValue());
+                            }
+                            for (Map.Entry<String, List<String>> e : testContributions.entrySet()) {
+                                testIndex.setContribution(e.getKey(), e.getValue());
+                            }
+                            compileIndex.setContribution(childBuildPath, project.getCompileClasspathElements());
+                            testIndex.setContribution(childBuildPath, project.getTestClasspathElements());
                         }
                     }
                 }
@@ -735,74 +971,62 @@ public class DevMojo extends LooseAppSupport {
         }
         
         private MavenProject getMavenProject(File buildFile) throws ProjectBuildingException {
-            ProjectBuildingResult build = mavenProjectBuilder.build(buildFile,
-                    session.getProjectBuildingRequest().setResolveDependencies(true));
-            MavenProject builtProject = build.getProject();
-            updateUpstreamProjectsArtifactPathToOutputDirectory(builtProject);
-            return builtProject;
-        }
-
-        /**
-         * From the project we're running dev mode from, get the artifact representing each of the upstream modules
-         * and make sure the artifact File is associated to the build output (target/classes, not the .m2 repo).
-         * 
-         * Because of the way we dynamically build new model objects we need to do this from a given model's perspective.
-         * 
-         * @param startingProject 
-         */
-        private void updateUpstreamProjectsArtifactPathToOutputDirectory(MavenProject startingProject){
-            Map<String,Artifact> artifactMap = startingProject.getArtifactMap();
-            for (MavenProject p : upstreamMavenProjects) {
-                Artifact projArtifact = artifactMap.get(p.getGroupId() + ":" + p.getArtifactId());
-                if (projArtifact != null) {
-                	updateArtifactPathToOutputDirectory(p, projArtifact);
-                }
-            }
+            // the upstream artifacts of cached models already point to their output directories
+            return projectModelCache.get(buildFile);
         }
         
         @Override
         protected void updateLooseApp() throws PluginExecutionException {
-            // Only perform operations if we are a war type application
-            if (project.getPackaging().equals("war")) {
-                // Check if we are using an exploded loose app
-                if (LooseWarApplication.isExploded(project)) {
-                    if (!isExplodedLooseWarApp) {
-                        // The project was previously running with a "non-exploded" loose app.
-                        // Update this flag and redeploy as an exploded loose app.
-                        isExplodedLooseWarApp = true;
+            synchronized (getBuildLock()) {
+                // Only perform operations if we are a war type application
+                if (project.getPackaging().equals("war")) {
+                    // Check if we are using an exploded loose app
+                    if (LooseWarApplication.isExploded(project)) {
+                        if (!isExplodedLooseWarApp) {
+                            // The project was previously running with a "non-exploded" loose app.
+                            // Update this flag and redeploy as an exploded loose app.
+                            isExplodedLooseWarApp = true;
+                            explodedWarSync = null;
                         
-                        // Validate maven-war-plugin version
-                        Plugin warPlugin = getPlugin("org.apache.maven.plugins", "maven-war-plugin");
-                        if (!validatePluginVersion(warPlugin.getVersion(), "3.3.1")) {
-                            log.warn("Exploded WAR functionality is enabled. Please use maven-war-plugin version 3.3.1 or greater for best results.");
-                        }
+                            // Validate maven-war-plugin version
+                            Plugin warPlugin = getPlugin("org.apache.maven.plugins", "maven-war-plugin");
+                            if (!validatePluginVersion(warPlugin.getVersion(), "3.3.1")) {
+                                log.warn("Exploded WAR functionality is enabled. Please use maven-war-plugin version 3.3.1 or greater for best results.");
+                            }
                         
-                        redeployApp();
+                            redeployApp();
+                        } else {
+                            try {
+                                syncExplodedWar();
+                            } catch (MojoExecutionException e) {
+                                log.error("Failed to run war:exploded goal", e);
+                            }
+                        }
                     } else {
-                        try {
-                            runExplodedMojo();
-                        } catch (MojoExecutionException e) {
-                            log.error("Failed to run war:exploded goal", e);
+                        if (isExplodedLooseWarApp) {
+                            // Dev mode was previously running with an exploded loose war app. The app
+                            // must have been updated to remove any exploded war capabilities 
+                            // (filtering, overlay, etc). Update this flag and redeploy.
+                            isExplodedLooseWarApp = false;
+                            explodedWarSync = null;
+                            redeployApp();
                         }
                     }
-                } else {
-                    if (isExplodedLooseWarApp) {
-                        // Dev mode was previously running with an exploded loose war app. The app
-                        // must have been updated to remove any exploded war capabilities 
-                        // (filtering, overlay, etc). Update this flag and redeploy.
-                        isExplodedLooseWarApp = false;
-                        redeployApp();
-                    }
                 }
             }
         }
 
         @Override
         protected void resourceDirectoryCreated() throws IOException {
+            if (changeEventPipeline != null) {
+                changeEventPipeline.submit(ChangeEventPipeline.Stage.RESOURCE, outputDirectory, new ResourceBatch(),
+                        new ResourceChange(null, null, null, false));
+                return;
+            }
             if (project.getPackaging().equals("war") && LooseWarApplication.isExploded(project)) {
                 try {
                     runMojo("org.apache.maven.plugins", "maven-resources-plugin", "resources");
-                    runExplodedMojo();
+                    syncExplodedWar();
                 } catch (MojoExecutionException e) {
                     log.error("Failed to run goal(s)", e);
                 }
@@ -811,33 +1035,289 @@ public class DevMojo extends LooseAppSupport {
 
         @Override
         protected void resourceModifiedOrCreated(File fileChanged, File resourceParent, File outputDirectory) throws IOException {
+            if (resourceContentCache != null) {
+                changedResource.set(fileChanged);
+            }
+            if (changeEventPipeline != null) {
+                changeEventPipeline.submit(ChangeEventPipeline.Stage.RESOURCE, outputDirectory, new ResourceBatch(),
+                        new ResourceChange(fileChanged, resourceParent, outputDirectory, false));
+                return;
+            }
             if (project.getPackaging().equals("war") && LooseWarApplication.isExploded(project)) {
                 try {
-                    runMojo("org.apache.maven.plugins", "maven-resources-plugin", "resources");
-                    runExplodedMojo();
+                    if (incrementalExplodedWar) {
+                        copyExplodedResource(fileChanged, resourceParent, outputDirectory);
+                    } else {
+                        runMojo("org.apache.maven.plugins", "maven-resources-plugin", "resources");
+                    }
+                    syncExplodedWar();
                 } catch (MojoExecutionException e) {
                     log.error("Failed to run goal(s)", e);
                 }
             } else {
-                copyFile(fileChanged, resourceParent, outputDirectory, null);
+                try (PhaseTrace.Span span = startPhase("resources")) {
+                    copyResource(fileChanged, resourceParent, outputDirectory);
+                }
             }
         }
 
         @Override
         protected void resourceDeleted(File fileChanged, File resourceParent, File outputDirectory) throws IOException {
-            deleteFile(fileChanged, resourceParent, outputDirectory, null);
+            if (changeEventPipeline != null) {
+                changeEventPipeline.submit(ChangeEventPipeline.Stage.RESOURCE, outputDirectory, new ResourceBatch(),
+                        new ResourceChange(fileChanged, resourceParent, outputDirectory, true));
+                return;
+            }
+            deleteResource(fileChanged, resourceParent, outputDirectory);
             if (project.getPackaging().equals("war") && LooseWarApplication.isExploded(project)) {
                 try {
-                    runExplodedMojo();
+                    syncExplodedWar();
                 } catch (MojoExecutionException e) {
                     log.error("Failed to run goal(s)", e);
                 }
             } 
         }
 
+        /**
+         * Copy a changed resource to the output directory, unless the output
+         * directory already has a resource with the same content.
+         */
+        private void copyResource(File fileChanged, File resourceParent, File outputDirectory) throws IOException {
+            if (resourceContentCache == null) {
+                copyFile(fileChanged, resourceParent, outputDirectory, null);
+                return;
+            }
+            File target = getResourceTarget(fileChanged, resourceParent, outputDirectory);
+            if (resourceContentCache.isUnchanged(fileChanged, target)) {
+                log.debug("Resource file " + fileChanged + " is unchanged, skipping the copy");
+                unchangedResources.add(fileChanged);
+                return;
+            }
+            unchangedResources.remove(fileChanged);
+            copyFile(fileChanged, resourceParent, outputDirectory, null);
+            resourceContentCache.copied(target);
+        }
+
+        private void deleteResource(File fileChanged, File resourceParent, File outputDirectory) throws IOException {
+            if (resourceContentCache != null) {
+                unchangedResources.remove(fileChanged);
+                resourceContentCache.remove(getResourceTarget(fileChanged, resourceParent, outputDirectory));
+            }
+            deleteFile(fileChanged, resourceParent, outputDirectory, null);
+        }
+
+        private File getResourceTarget(File fileChanged, File resourceParent, File outputDirectory) throws IOException {
+            return new File(outputDirectory, resourceParent.getCanonicalFile().toPath()
+                    .relativize(fileChanged.getCanonicalFile().toPath()).toString());
+        }
+
+        /**
+         * A resource change recorded by the change event pipeline. A null file
+         * records the creation of a resource directory.
+         */
+        private class ResourceChange {
+            final File fileChanged;
+            final File resourceParent;
+            final File outputDirectory;
+            final boolean deleted;
+
+            ResourceChange(File fileChanged, File resourceParent, File outputDirectory, boolean deleted) {
+                this.fileChanged = fileChanged;
+                this.resourceParent = resourceParent;
+                this.outputDirectory = outputDirectory;
+                this.deleted = deleted;
+            }
+        }
+
+        /**
+         * Resource changes of one output directory. Only the last change of each
+         * file is applied, and an exploded WAR is rebuilt once per batch.
+         */
+        private class ResourceBatch extends ChangeEventPipeline.Batch<ResourceChange> {
+            private final Map<File, ResourceChange> changes = new LinkedHashMap<File, ResourceChange>();
+            private boolean directoryCreated;
+
+            @Override
+            protected void add(ResourceChange change) {
+                if (change.fileChanged == null) {
+                    directoryCreated = true;
+                } else {
+                    changes.remove(change.fileChanged);
+                    changes.put(change.fileChanged, change);
+                }
+            }
+
+            @Override
+            protected void dispatch() throws Exception {
+                try (PhaseTrace.Span span = startPhase("resources")) {
+                    dispatchChanges();
+                }
+            }
+
+            private void dispatchChanges() throws IOException {
+                boolean exploded = project.getPackaging().equals("war") && LooseWarApplication.isExploded(project);
+                boolean runResources = directoryCreated;
+                for (ResourceChange change : changes.values()) {
+                    if (change.deleted) {
+                        deleteResource(change.fileChanged, change.resourceParent, change.outputDirectory);
+                    } else if (exploded && !incrementalExplodedWar) {
+                        runResources = true;
+                    } else if (exploded) {
+                        try {
+                            copyExplodedResource(change.fileChanged, change.resourceParent, change.outputDirectory);
+                        } catch (MojoExecutionException e) {
+                            log.error("Failed to run goal(s)", e);
+                        }
+                    } else {
+                        copyResource(change.fileChanged, change.resourceParent, change.outputDirectory);
+                    }
+                }
+                if (exploded) {
+                    try {
+                        if (runResources) {
+                            runMojo("org.apache.maven.plugins", "maven-resources-plugin", "resources");
+                        }
+                        syncExplodedWar();
+                    } catch (MojoExecutionException e) {
+                        log.error("Failed to run goal(s)", e);
+                    }
+                }
+            }
+        }
+
+        /**
+         * A test run requested by a change, recorded by the change event pipeline.
+         */
+        private class TestRun {
+            final boolean waitForApplicationUpdate;
+            final ThreadPoolExecutor executor;
+            final int messageOccurrences;
+            final boolean skipUTs;
+            final File[] buildFiles;
+            /** the changed resource that requested the run, if any */
+            final File resource;
+
+            TestRun(boolean waitForApplicationUpdate, ThreadPoolExecutor executor, int messageOccurrences,
+                    boolean skipUTs, File[] buildFiles, File resource) {
+                this.waitForApplicationUpdate = waitForApplicationUpdate;
+                this.executor = executor;
+                this.messageOccurrences = messageOccurrences;
+                this.skipUTs = skipUTs;
+                this.buildFiles = buildFiles;
+                this.resource = resource;
+            }
+        }
+
+        /**
+         * Test runs requested by a burst of changes, merged into one run of the
+         * tests of all affected modules.
+         */
+        private class TestBatch extends ChangeEventPipeline.Batch<TestRun> {
+            private boolean waitForApplicationUpdate;
+            private ThreadPoolExecutor executor;
+            private int messageOccurrences = Integer.MAX_VALUE;
+            private boolean skipUTs = true;
+            private final Set<File> buildFiles = new LinkedHashSet<File>();
+            private final Set<File> resources = new HashSet<File>();
+            private boolean otherChanges;
+
+            @Override
+            protected void add(TestRun run) {
+                if (run.resource != null) {
+                    resources.add(run.resource);
+                } else {
+                    otherChanges = true;
+                }
+                waitForApplicationUpdate |= run.waitForApplicationUpdate;
+                executor = run.executor;
+                // the first change of the batch determines which application
+                // update to wait for
+                messageOccurrences = Math.min(messageOccurrences, run.messageOccurrences);
+                skipUTs &= run.skipUTs;
+                buildFiles.addAll(Arrays.asList(run.buildFiles));
+            }
+
+            @Override
+            protected void dispatch() {
+                if (!otherChanges && unchangedResources.containsAll(resources)) {
+                    // the resource batch did not copy anything the application would pick up
+                    log.debug("Not running tests since the changed resources " + resources + " are unchanged");
+                    applicationUpdateRequested = 0;
+                    return;
+                }
+                if (!requestApplicationUpdate(waitForApplicationUpdate)) {
+                    waitForApplicationUpdate = false;
+                    applicationUpdateRequested = 0;
+                }
+                DevMojoUtil.super.runTestThread(waitForApplicationUpdate, executor, messageOccurrences, skipUTs, false,
+                        buildFiles.toArray(new File[buildFiles.size()]));
+            }
+        }
+
+        @Override
+        public void runTestThread(boolean waitForApplicationUpdate, ThreadPoolExecutor executor, int messageOccurrences,
+                boolean skipUTs, boolean manualInvocation, File... buildFiles) {
+            File resource = changedResource.get();
+            changedResource.remove();
+            if (resource != null && manualInvocation) {
+                resource = null;
+            }
+            if (resource != null && changeEventPipeline == null && unchangedResources.contains(resource)) {
+                // no application update to wait for
+                log.debug("Not running tests since the changed resource " + resource + " is unchanged");
+                return;
+            }
+            if (changeEventPipeline == null || manualInvocation) {
+                waitForApplicationUpdate = requestApplicationUpdate(waitForApplicationUpdate);
+            }
+            if (phaseTrace != null && waitForApplicationUpdate && (hotTests || manualInvocation)
+                    && applicationUpdateRequested == 0) {
+                applicationUpdateRequested = System.nanoTime();
+            }
+            if (changeEventPipeline == null || manualInvocation) {
+                super.runTestThread(waitForApplicationUpdate, executor, messageOccurrences, skipUTs, manualInvocation,
+                        buildFiles);
+                return;
+            }
+            changeEventPipeline.submit(ChangeEventPipeline.Stage.TESTS, getProjectName(), new TestBatch(),
+                    new TestRun(waitForApplicationUpdate, executor, messageOccurrences, skipUTs, buildFiles, resource));
+        }
+
         @Override
         public boolean recompileBuildFile(File buildFile, Set<String> compileArtifactPaths,
                 Set<String> testArtifactPaths, boolean generateFeatures, ThreadPoolExecutor executor) throws PluginExecutionException {
+            synchronized (getBuildLock()) {
+                if (changeEventPipeline == null) {
+                    return reloadBuildFile(buildFile, compileArtifactPaths, testArtifactPaths, generateFeatures, executor);
+                }
+                long received = System.nanoTime();
+                // apply pending resource changes before the project model changes
+                changeEventPipeline.flush();
+                String digest = null;
+                try {
+                    // a burst of saves to the build file is handled once its contents settle
+                    digest = changeEventPipeline.awaitStable(buildFile);
+                    if (digest.equals(buildFileDigests.get(buildFile))) {
+                        changeEventPipeline.coalesced(ChangeEventPipeline.Stage.BUILD_FILE, buildFile);
+                        return false;
+                    }
+                } catch (IOException e) {
+                    log.debug(e);
+                }
+                boolean result = reloadBuildFile(buildFile, compileArtifactPaths, testArtifactPaths, generateFeatures,
+                        executor);
+                if (result && digest != null) {
+                    buildFileDigests.put(buildFile, digest);
+                } else {
+                    buildFileDigests.remove(buildFile);
+                }
+                changeEventPipeline.dispatched(ChangeEventPipeline.Stage.BUILD_FILE, buildFile, received);
+                return result;
+            }
+        }
+
+        private boolean reloadBuildFile(File buildFile, Set<String> compileArtifactPaths,
+                Set<String> testArtifactPaths, boolean generateFeatures, ThreadPoolExecutor executor) throws PluginExecutionException {
             // monitoring project pom.xml file changes in dev mode:
             // - liberty.* properties in project properties section
             // - changes in liberty plugin configuration in the build plugin section
@@ -850,7 +1330,7 @@ public class DevMojo extends LooseAppSupport {
             boolean optimizeGenerateFeatures = false;
 
             ProjectBuildingResult build;
-            try {
+            try (PhaseTrace.Span span = startPhase("model rebuild " + buildFile.getParentFile().getName())) {
                 build = mavenProjectBuilder.build(buildFile,
                         session.getProjectBuildingRequest().setResolveDependencies(true));
             } catch (ProjectBuildingException e) {
@@ -863,6 +1343,9 @@ public class DevMojo extends LooseAppSupport {
             Plugin backupLibertyPlugin = getLibertyPlugin();
             MavenProject backupProject = project;
             project = build.getProject();
+            // cached models are shared, so point the upstream artifacts to their output directories before caching
+            updateUpstreamProjectsArtifactPathToOutputDirectory(project, upstreamMavenProjects);
+            projectModelCache.put(buildFile, project);
             session.setCurrentProject(project);
             Plugin libertyPlugin = getLibertyPlugin();
 
@@ -870,80 +1353,52 @@ public class DevMojo extends LooseAppSupport {
                 // TODO rebuild the corresponding module if the compiler options have changed
                 JavaCompilerOptions oldCompilerOptions = getMavenCompilerOptions(backupProject);
                 JavaCompilerOptions compilerOptions = getMavenCompilerOptions(project);
-                if (!oldCompilerOptions.getOptions().equals(compilerOptions.getOptions())) {
+                BuildFileDiff diff = BuildFileDiff.compute(backupProject, project, backupLibertyPlugin, libertyPlugin,
+                        oldCompilerOptions.getOptions(), compilerOptions.getOptions(), log);
+                log.debug("Changes in " + buildFile + ": " + diff);
+                if (diff.contains(BuildFileDiff.Change.COMPILER_OPTIONS)) {
                     log.debug("Maven compiler options have been modified: " + compilerOptions.getOptions());
                     util.updateJavaCompilerOptions(compilerOptions);
                 }
 
-                // Monitoring liberty properties in the pom.xml
-                if (hasServerPropertyChanged(project, backupProject)) {
+                // Monitoring liberty properties and Liberty plugin configuration in the pom.xml
+                for (Map.Entry<String, ServerPropertyClassifier.Category> e : diff.getServerPropertyChanges().entrySet()) {
+                    log.info("The server property " + e.getKey() + " changed and is " + e.getValue().getDescription() + ".");
+                }
+                if (diff.contains(BuildFileDiff.Change.SERVER_PROPERTY)
+                        || diff.contains(BuildFileDiff.Change.SERVER_STARTUP_CONFIG)) {
                     restartServer = true;
                 }
-                if (!restartServer && hasServerVariableChanged(project, backupProject)) {
+                if (diff.contains(BuildFileDiff.Change.SERVER_VARIABLE)
+                        || diff.contains(BuildFileDiff.Change.DYNAMIC_SERVER_PROPERTY)
+                        || diff.contains(BuildFileDiff.Change.CREATE_CONFIG)) {
                     createServer = true;
                 }
-
-                // monitoring Liberty plugin configuration changes in dev mode
-                Xpp3Dom config;
-                Xpp3Dom oldConfig;
-                if (!restartServer) {
-                    config = ExecuteMojoUtil.getPluginGoalConfig(libertyPlugin, "create", log);
-                    oldConfig = ExecuteMojoUtil.getPluginGoalConfig(backupLibertyPlugin, "create", log);
-                    if (!Objects.equals(config, oldConfig)) {
-                        createServer = true;
-                        if (restartForLibertyMojoConfigChanged(config, oldConfig)) {
-                            restartServer = true;
-                        }
-                    }
-                }
-                config = ExecuteMojoUtil.getPluginGoalConfig(libertyPlugin, "install-feature", log);
-                oldConfig = ExecuteMojoUtil.getPluginGoalConfig(backupLibertyPlugin, "install-feature", log);
-                if (!Objects.equals(config, oldConfig)) {
+                if (diff.contains(BuildFileDiff.Change.FEATURE_CONFIG)
+                        || diff.contains(BuildFileDiff.Change.ESA_DEPENDENCY)) {
                     installFeature = true;
                 }
-                config = ExecuteMojoUtil.getPluginGoalConfig(libertyPlugin, "deploy", log);
-                oldConfig = ExecuteMojoUtil.getPluginGoalConfig(backupLibertyPlugin, "deploy", log);
-                if (!Objects.equals(config, oldConfig)) {
+                // adding or removing compile dependencies (including version changes) will need
+                // to deploy loose app again to remove or add or update embedded libraries in
+                // the loose app
+                if (diff.contains(BuildFileDiff.Change.DEPLOY_CONFIG)
+                        || diff.contains(BuildFileDiff.Change.COMPILE_DEPENDENCY)) {
                     redeployApp = true;
                 }
-                config = ExecuteMojoUtil.getPluginGoalConfig(libertyPlugin, "generate-features", log);
-                oldConfig = ExecuteMojoUtil.getPluginGoalConfig(backupLibertyPlugin, "generate-features", log);
-                if (!Objects.equals(config, oldConfig)) {
+                if (diff.contains(BuildFileDiff.Change.GENERATE_FEATURES_CONFIG)
+                        || diff.contains(BuildFileDiff.Change.COMPILE_DEPENDENCY)) {
                     optimizeGenerateFeatures = true;
                 }
-
-                List<Dependency> deps = project.getDependencies();
-                List<Dependency> oldDeps = backupProject.getDependencies();
-                if (!dependencyListsEquals(oldDeps, deps)) {
+                if (diff.contains(BuildFileDiff.Change.DEPENDENCY)) {
                     runBoostPackage = true;
-                    // detect esa dependency changes
-                    if (!dependencyListsEquals(getEsaDependency(deps), getEsaDependency(oldDeps))) {
-                        installFeature = true;
-                    }
-
-                    // detect compile dependency changes
-                    if (!dependencyListsEquals(getCompileDependency(deps), getCompileDependency(oldDeps))) {
-                        // adding or removing compile dependencies (including version changes) will need
-                        // to deploy loose app again to remove or add or update embedded libraries in
-                        // the loose app
-                        redeployApp = true;
-                        optimizeGenerateFeatures = true;
-                    }
-                }
-                // update classpath for dependencies changes
-                if (this.parentBuildFiles.isEmpty()) {
-                    compileArtifactPaths.clear();
-                    testArtifactPaths.clear();
-                } else {
-                    // remove past artifacts and add the newest calculated (covers the case where a
-                    // dependency was deleted)
-                    // do not clear list as it may contain dependencies from parent projects
-                    testArtifactPaths.removeAll(backupProject.getTestClasspathElements());
-                    compileArtifactPaths.removeAll(backupProject.getCompileClasspathElements());
                 }
-
-                compileArtifactPaths.addAll(project.getCompileClasspathElements());
-                testArtifactPaths.addAll(project.getTestClasspathElements());
+                // update classpath for dependencies changes, the contributions of parent
+                // projects are kept
+                String contributor = buildFile.getCanonicalPath();
+                getClasspathIndex(compileArtifactPaths, contributor).setContribution(contributor,
+                        project.getCompileClasspathElements());
+                getClasspathIndex(testArtifactPaths, contributor).setContribution(contributor,
+                        project.getTestClasspathElements());
 
                 boolean generateFeaturesSuccess = false;
                 if (optimizeGenerateFeatures && generateFeatures) {
@@ -979,6 +1434,9 @@ public class DevMojo extends LooseAppSupport {
                     if (installFeature) {
                         runLibertyMojoInstallFeature(null, null, super.getContainerName());
                     }
+                    if (diff.contains(BuildFileDiff.Change.DYNAMIC_SERVER_PROPERTY)) {
+                        writeLoggingConfig(libertyPlugin);
+                    }
                 }
                 if (!(restartServer || createServer || redeployApp || installFeature || runBoostPackage)) {
                     // pom.xml is changed but not affecting liberty:dev mode. return true with the
@@ -1010,38 +1468,58 @@ public class DevMojo extends LooseAppSupport {
 
         @Override
         public void installFeatures(File configFile, File serverDir, boolean generateFeatures) {
-            try {
-                ServerFeatureUtil servUtil = getServerFeatureUtil(true);
-                Set<String> features = servUtil.getServerFeatures(serverDir, libertyDirPropertyFiles);
-                if (features != null) {
-                    Set<String> featuresCopy = new HashSet<String>(features);
-
-                    if (existingFeatures != null) {
-                        features.removeAll(existingFeatures);
-                        // check if features have been removed
-                        Set<String> existingFeaturesCopy = new HashSet<String>(existingFeatures);
-                        existingFeaturesCopy.removeAll(featuresCopy);
-                        if (!existingFeaturesCopy.isEmpty()) {
-                            log.info("Configuration features have been removed: " + existingFeaturesCopy);
+            synchronized (getBuildLock()) {
+                try {
+                    ServerFeatureUtil servUtil = getServerFeatureUtil(true);
+                    Set<String> features = servUtil.getServerFeatures(serverDir, libertyDirPropertyFiles);
+                    if (features != null) {
+                        Set<String> featuresCopy = new HashSet<String>(features);
+
+                        if (existingFeatures != null) {
+                            features.removeAll(existingFeatures);
+                            // check if features have been removed
+                            Set<String> existingFeaturesCopy = new HashSet<String>(existingFeatures);
+                            existingFeaturesCopy.removeAll(featuresCopy);
+                            if (!existingFeaturesCopy.isEmpty()) {
+                                log.info("Configuration features have been removed: " + existingFeaturesCopy);
+                            }
                         }
-                    }
 
-                    // check if features have been added and install new features
-                    if (!features.isEmpty()) {
-                        log.info("Configuration features have been added: " + features);
-                        // pass all new features to install-feature as backup in case the serverDir cannot be accessed
-                        Element[] featureElems = new Element[features.size() + 1];
-                        featureElems[0] = element(name("acceptLicense"), "true");
-                        String[] values = features.toArray(new String[features.size()]);
-                        for (int i = 0; i < features.size(); i++) {
-                            featureElems[i + 1] = element(name("feature"), values[i]);
+                        // check if features have been added and install new features
+                        if (!features.isEmpty()) {
+                            log.info("Configuration features have been added: " + features);
+                            if (useFeatureIndex && !container && isInstalled(featuresCopy)) {
+                                log.debug("The added features are already installed in the runtime");
+                            } else {
+                                // pass all new features to install-feature as backup in case the serverDir cannot be accessed
+                                Element[] featureElems = new Element[features.size() + 1];
+                                featureElems[0] = element(name("acceptLicense"), "true");
+                                String[] values = features.toArray(new String[features.size()]);
+                                for (int i = 0; i < features.size(); i++) {
+                                    featureElems[i + 1] = element(name("feature"), values[i]);
+                                }
+                                runLibertyMojoInstallFeature(element(name("features"), featureElems), serverDir, super.getContainerName());
+                            }
                         }
-                        runLibertyMojoInstallFeature(element(name("features"), featureElems), serverDir, super.getContainerName());
                     }
+                } catch (MojoExecutionException e) {
+                    log.error("Failed to install features from configuration file", e);
+                    libertyDependencyWarning(generateFeatures, e);
                 }
-            } catch (MojoExecutionException e) {
-                log.error("Failed to install features from configuration file", e);
-                libertyDependencyWarning(generateFeatures, e);
+            }
+        }
+
+        /**
+         * Check the configured features against the feature index of the runtime.
+         * 
+         * @return true if the configured features are installed in the runtime
+         */
+        private boolean isInstalled(Set<String> features) {
+            try {
+                return checkInstalledFeatures(features);
+            } catch (PluginExecutionException e) {
+                log.debug("Could not load the feature index", e);
+                return false;
             }
         }
 
@@ -1063,50 +1541,159 @@ public class DevMojo extends LooseAppSupport {
             existingFeatures = features;
         }
 
+        @Override
+        protected boolean recompileJava(Collection<File> javaFilesChanged, Set<String> artifactPaths,
+                ThreadPoolExecutor executor, boolean tests, File outputDirectory, File testOutputDirectory,
+                String projectName, File projectBuildFile, JavaCompilerOptions projectCompilerOptions,
+                boolean forceSkipUTs, boolean skipRunningTests) throws PluginExecutionException {
+            synchronized (getBuildLock()) {
+                SourceTreeIndex.getInstance().filesChanged(javaFilesChanged);
+                // compile against a copy, the artifact set is updated when a build file changes
+                Set<String> classpath = new LinkedHashSet<String>(getClasspathSnapshot(artifactPaths));
+                return super.recompileJava(javaFilesChanged, classpath, executor, tests, outputDirectory,
+                        testOutputDirectory, projectName, projectBuildFile, projectCompilerOptions, forceSkipUTs,
+                        skipRunningTests);
+            }
+        }
+
+        @Override
+        protected void deleteJavaFile(File fileChanged, File classesDir, File compileSourceRoot) throws IOException {
+            SourceTreeIndex.getInstance().fileChanged(fileChanged);
+            super.deleteJavaFile(fileChanged, classesDir, compileSourceRoot);
+        }
+
         @Override
         public boolean compile(File dir) {
-            try {
-                if (dir.equals(sourceDirectory)) {
-                    runCompileMojoLogWarning();
-                    runMojo("org.apache.maven.plugins", "maven-resources-plugin", "resources");
-                }
-                if (dir.equals(testSourceDirectory)) {
-                    runTestCompileMojoLogWarning();
-                    runMojo("org.apache.maven.plugins", "maven-resources-plugin", "testResources");
+            synchronized (getBuildLock()) {
+                try {
+                    boolean result = true;
+                    if (dir.equals(sourceDirectory)) {
+                        result = runCompile("compile", project, sourceDirectory, outputDirectory, getCompileArtifacts(),
+                                getMavenCompilerOptions(project));
+                        runMojo("org.apache.maven.plugins", "maven-resources-plugin", "resources");
+                    }
+                    if (dir.equals(testSourceDirectory)) {
+                        result = runCompile("testCompile", project, testSourceDirectory, testOutputDirectory,
+                                getTestArtifacts(), getMavenCompilerOptions(project));
+                        runMojo("org.apache.maven.plugins", "maven-resources-plugin", "testResources");
+                    }
+                    return result;
+                } catch (MojoExecutionException e) {
+                    log.error("Unable to compile", e);
+                    return false;
                 }
-                return true;
-            } catch (MojoExecutionException e) {
-                log.error("Unable to compile", e);
-                return false;
             }
         }
 
         @Override
         public boolean compile(File dir, ProjectModule project) {
-            MavenProject mavenProject = resolveMavenProject(project.getBuildFile());
-            try {
-                if (dir.equals(project.getSourceDirectory())) {
-                    runCompileMojoLogWarning(mavenProject);
-                    runMojoForProject("org.apache.maven.plugins", "maven-resources-plugin", "resources", mavenProject);
+            synchronized (getBuildLock()) {
+                MavenProject mavenProject = resolveMavenProject(project.getBuildFile());
+                try {
+                    boolean result = true;
+                    if (dir.equals(project.getSourceDirectory())) {
+                        result = runCompile("compile", mavenProject, project.getSourceDirectory(),
+                                project.getOutputDirectory(), project.getCompileArtifacts(), project.getCompilerOptions());
+                        runMojoForProject("org.apache.maven.plugins", "maven-resources-plugin", "resources", mavenProject);
+                    }
+                    if (dir.equals(project.getTestSourceDirectory())) {
+                        result = runCompile("testCompile", mavenProject, project.getTestSourceDirectory(),
+                                project.getTestOutputDirectory(), project.getTestArtifacts(), project.getCompilerOptions());
+                        runMojoForProject("org.apache.maven.plugins", "maven-resources-plugin", "testResources", mavenProject);
+                    }
+                    return result;
+                } catch (MojoExecutionException e) {
+                    log.error("Unable to compile", e);
+                    return false;
                 }
-                if (dir.equals(project.getTestSourceDirectory())) {
-                    runTestCompileMojoLogWarning(mavenProject);
-                    runMojoForProject("org.apache.maven.plugins", "maven-resources-plugin", "testResources", mavenProject);
+            }
+        }
+
+        @Override
+        public void runTests(final boolean waitForApplicationUpdate, final int messageOccurrences,
+                final ThreadPoolExecutor executor, final boolean forceSkipTests, final boolean forceSkipUTs,
+                final boolean forceSkipITs, final File buildFile, final String projectName) {
+            if (moduleTestExecutor == null) {
+                super.runTests(waitForApplicationUpdate, messageOccurrences, executor, forceSkipTests, forceSkipUTs,
+                        forceSkipITs, buildFile, projectName);
+                return;
+            }
+            // the test job runs the modules one after another, so only submit
+            // the tests of each module and wait for them when the job ends
+            Future<?> moduleTest = moduleTestExecutor.submit(new Runnable() {
+                @Override
+                public void run() {
+                    DevMojoUtil.super.runTests(waitForApplicationUpdate, messageOccurrences, executor, forceSkipTests,
+                            forceSkipUTs, forceSkipITs, buildFile, projectName);
+                }
+            });
+            synchronized (moduleTests) {
+                moduleTests.add(moduleTest);
+            }
+        }
+
+        @Override
+        public void runHotkeyReaderThread(ThreadPoolExecutor executor) {
+            // called when a test job ends, so that the next job starts after
+            // the tests of all modules of this one
+            List<Future<?>> pending;
+            synchronized (moduleTests) {
+                pending = new ArrayList<Future<?>>(moduleTests);
+                moduleTests.clear();
+            }
+            for (Future<?> moduleTest : pending) {
+                try {
+                    moduleTest.get();
+                } catch (ExecutionException e) {
+                    log.error("An unexpected error occurred while running tests: " + e.getCause().getMessage());
+                    log.debug(e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
                 }
-                return true;
-            } catch (MojoExecutionException e) {
-                log.error("Unable to compile", e);
-                return false;
             }
+            super.runHotkeyReaderThread(executor);
         }
 
         @Override
         public void runUnitTests(File buildFile) throws PluginExecutionException, PluginScenarioException {
+            recordApplicationUpdateWait();
             MavenProject currentProject = resolveMavenProject(buildFile);
+            Set<String> tests = null;
+            long modificationCount = 0;
+            if (testImpactAnalysis) {
+                List<MavenProject> projects = new ArrayList<MavenProject>(upstreamMavenProjects);
+                projects.add(project);
+                // pick up classes compiled by dev mode without the compile goals
+                try {
+                    updateClassDependencyGraph(getClassDependencyGraph(currentProject,
+                            new File(currentProject.getBuild().getTestOutputDirectory())));
+                    for (MavenProject p : projects) {
+                        updateClassDependencyGraph(
+                                getClassDependencyGraph(p, new File(p.getBuild().getOutputDirectory())));
+                    }
+                } catch (IOException e) {
+                    log.debug("Could not update the class dependency graphs", e);
+                }
+                modificationCount = classModifications.getEnd();
+                tests = getAffectedTests(currentProject, projects, modificationCount);
+                if (tests != null && tests.isEmpty()) {
+                    log.info("No unit tests are affected by the changes since the last test run.");
+                    updateTestedClassModifications(currentProject, modificationCount);
+                    return;
+                }
+            }
+            boolean passed = true;
             try {
-                runTestMojo("org.apache.maven.plugins", "maven-surefire-plugin", "test", currentProject);
+                WarmTestJvm.Result result = warmTestJvm ? runWarmUnitTests(currentProject, tests) : null;
+                if (result == null) {
+                    runTestMojo("org.apache.maven.plugins", "maven-surefire-plugin", "test", currentProject, tests);
+                } else {
+                    passed = result.getFailures() == 0 && result.getErrors() == 0;
+                }
                 runTestMojo("org.apache.maven.plugins", "maven-surefire-report-plugin", "report-only", currentProject);
             } catch (MojoExecutionException e) {
+                updateTestedClassModifications(currentProject, -1);
                 Throwable cause = e.getCause();
                 if (cause != null && cause instanceof MojoFailureException) {
                     throw new PluginScenarioException("Unit tests failed: " + cause.getLocalizedMessage(), e);
@@ -1114,11 +1701,25 @@ public class DevMojo extends LooseAppSupport {
                     throw new PluginExecutionException("Failed to run unit tests", e);
                 }
             }
+            if (!passed) {
+                updateTestedClassModifications(currentProject, -1);
+                throw new PluginScenarioException("Unit tests failed: There are test failures.");
+            }
+            updateTestedClassModifications(currentProject, modificationCount);
         }
 
         @Override
         public void runIntegrationTests(File buildFile) throws PluginExecutionException, PluginScenarioException {
+            recordApplicationUpdateWait();
             MavenProject currentProject = resolveMavenProject(buildFile);
+            if (integrationTestSemaphore != null) {
+                try {
+                    integrationTestSemaphore.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new PluginExecutionException("Interrupted while waiting to run integration tests");
+                }
+            }
             try {
                 runTestMojo("org.apache.maven.plugins", "maven-failsafe-plugin", "integration-test", currentProject);
                 runTestMojo("org.apache.maven.plugins", "maven-surefire-report-plugin", "failsafe-report-only", currentProject);
@@ -1130,15 +1731,33 @@ public class DevMojo extends LooseAppSupport {
                 } else {
                     throw new PluginExecutionException("Failed to run integration tests", e);
                 }
+            } finally {
+                if (integrationTestSemaphore != null) {
+                    integrationTestSemaphore.release();
+                }
+            }
+        }
+
+        /**
+         * Record the time from requesting tests until they start, which is mostly
+         * spent waiting for the server to update the application.
+         */
+        private void recordApplicationUpdateWait() {
+            long requested = applicationUpdateRequested;
+            if (phaseTrace != null && requested != 0) {
+                applicationUpdateRequested = 0;
+                phaseTrace.record("application update wait", requested);
             }
         }
 
         @Override
         public void redeployApp() throws PluginExecutionException {
-            try {
-                runLibertyMojoDeploy();
-            } catch (MojoExecutionException e) {
-                throw new PluginExecutionException("liberty:deploy goal failed:" + e.getMessage());
+            synchronized (getBuildLock()) {
+                try {
+                    runLibertyMojoDeploy();
+                } catch (MojoExecutionException e) {
+                    throw new PluginExecutionException("liberty:deploy goal failed:" + e.getMessage());
+                }
             }
         }
 
@@ -1235,6 +1854,48 @@ public class DevMojo extends LooseAppSupport {
             }
         }
         boolean recompileDeps = Boolean.parseBoolean(recompileDependencies);
+        if (incrementalCompile && !IncrementalJavaCompiler.isAvailable()) {
+            log.warn("The incrementalCompile parameter is set to \"true\" but a Java compiler is not available in the running JVM. "
+                    + "Java changes will be compiled with the maven-compiler-plugin.");
+        }
+        if (recompileDeps && incrementalCompile && IncrementalJavaCompiler.isAvailable()
+                && !upstreamMavenProjects.isEmpty()) {
+            int threads = Runtime.getRuntime().availableProcessors();
+            log.debug("Compiling independent dependent modules on " + threads + " threads");
+            final ModuleCompileScheduler scheduler = new ModuleCompileScheduler(log, threads);
+            Runtime.getRuntime().addShutdownHook(new Thread() {
+                @Override
+                public void run() {
+                    scheduler.shutdown();
+                }
+            });
+            moduleCompileScheduler = scheduler;
+        }
+        if (timingTrace) {
+            phaseTrace = new PhaseTrace(new File(project.getBuild().getDirectory(), "liberty-dev/dev-trace.json"), log);
+        }
+        if (skipUnchangedResources) {
+            resourceContentCache = new ResourceContentCache();
+        }
+        if (coalesceChanges) {
+            final ChangeEventPipeline pipeline = new ChangeEventPipeline(log, (long) (compileWait * 1000L));
+            Runtime.getRuntime().addShutdownHook(new Thread() {
+                @Override
+                public void run() {
+                    pipeline.shutdown();
+                }
+            });
+            changeEventPipeline = pipeline;
+            List<MavenProject> buildFileProjects = new ArrayList<MavenProject>(upstreamMavenProjects);
+            buildFileProjects.add(project);
+            for (MavenProject p : buildFileProjects) {
+                try {
+                    buildFileDigests.put(p.getFile(), DigestUtil.digest(p.getFile()));
+                } catch (IOException e) {
+                    log.debug(e);
+                }
+            }
+        }
         if (recompileDeps) {
             if (!upstreamMavenProjects.isEmpty()) {
                 log.info("The recompileDependencies parameter is set to \"true\". On a file change all dependent modules will be recompiled.");
@@ -1280,22 +1941,43 @@ public class DevMojo extends LooseAppSupport {
         sourceDirectory = new File(sourceDirectoryString.trim());
         testSourceDirectory = new File(testSourceDirectoryString.trim());
 
-        ArrayList<File> javaFiles = new ArrayList<File>();
-        listFiles(sourceDirectory, javaFiles, ".java");
+        // index the source directories that dev mode watches, which the file
+        // watcher then keeps up to date for the goals dev mode runs. A previous
+        // dev mode session in the same JVM may have indexed other directories.
+        List<File> sourceDirectories = new ArrayList<File>();
+        sourceDirectories.add(sourceDirectory);
+        sourceDirectories.add(testSourceDirectory);
+        for (MavenProject p : upstreamMavenProjects) {
+            sourceDirectories.add(new File(p.getBuild().getSourceDirectory()));
+            sourceDirectories.add(new File(p.getBuild().getTestSourceDirectory()));
+        }
+        SourceTreeIndex.getInstance().reindex(sourceDirectories);
 
-        ArrayList<File> javaTestFiles = new ArrayList<File>();
-        listFiles(testSourceDirectory, javaTestFiles, ".java");
+        // keep the upstream API changes until every module has applied them
+        upstreamChanges.register(outputDirectory);
+        upstreamChanges.register(testOutputDirectory);
+        for (MavenProject p : upstreamMavenProjects) {
+            upstreamChanges.register(new File(p.getBuild().getOutputDirectory()));
+            upstreamChanges.register(new File(p.getBuild().getTestOutputDirectory()));
+        }
 
         log.debug("Source directory: " + sourceDirectory);
         log.debug("Output directory: " + outputDirectory);
         log.debug("Test Source directory: " + testSourceDirectory);
         log.debug("Test Output directory: " + testOutputDirectory);
 
+        final List<MavenProject> warmStartProjects = new ArrayList<MavenProject>(upstreamMavenProjects);
+        warmStartProjects.add(project);
+        if (warmStart && !container && !isUsingBoost()) {
+            warmStartManifest = new WarmStartManifest(
+                    new File(project.getBuild().getDirectory(), "liberty-dev/warm-start.properties"), log);
+        }
+
         if (isUsingBoost()) {
             log.info("Running boost:package");
             runBoostMojo("package");
         } else {
-            if (generateFeatures) {
+            if (generateFeatures && !skipWarmStartStep("generate-features", warmStartProjects)) {
                 // generate features on startup - provide all classes and only user specified
                 // features to binary scanner
                 try {
@@ -1323,14 +2005,18 @@ public class DevMojo extends LooseAppSupport {
                     }
                 }
             }
-            runLibertyMojoCreate();
+            if (!skipWarmStartStep("create", warmStartProjects)) {
+                runLibertyMojoCreate();
+            }
             // If non-container, install features before starting server. Otherwise, user
             // should have "RUN features.sh" in their Dockerfile if they want features to be
             // installed.
-            if (!container) {
+            if (!container && !skipWarmStartStep("install-feature", warmStartProjects)) {
                 runLibertyMojoInstallFeature(null, null, null);
             }
-            runLibertyMojoDeploy();
+            if (!skipWarmStartStep("deploy", warmStartProjects)) {
+                runLibertyMojoDeploy();
+            }
         }
         
         if (project.getPackaging().equals("war")) {
@@ -1353,57 +2039,31 @@ public class DevMojo extends LooseAppSupport {
 
         JavaCompilerOptions compilerOptions = getMavenCompilerOptions(project);
 
-        // collect upstream projects
+        // collect upstream projects, assembling the modules concurrently in reactor order
         List<ProjectModule> upstreamProjects = new ArrayList<ProjectModule>();
+        ExecutorService startupExecutor = null;
         if (!upstreamMavenProjects.isEmpty()) {
-            for (MavenProject p : upstreamMavenProjects) {
-                // get compiler options for upstream project
-                JavaCompilerOptions upstreamCompilerOptions = getMavenCompilerOptions(p);
-
-                Set<String> compileArtifacts = new HashSet<String>();
-                Set<String> testArtifacts = new HashSet<String>();
-                Build build = p.getBuild();
-                File upstreamSourceDir = new File(build.getSourceDirectory());
-                File upstreamOutputDir = new File(build.getOutputDirectory());
-                File upstreamTestSourceDir = new File(build.getTestSourceDirectory());
-                File upstreamTestOutputDir = new File(build.getTestOutputDirectory());
-                // resource directories
-                List<File> upstreamResourceDirs = getResourceDirectories(p, upstreamOutputDir);
-
-                // properties that are set in the pom file
-                Properties props = p.getProperties();
-
-                // properties that are set by user via CLI parameters
-                Properties userProps = session.getUserProperties();
-
-                Plugin libertyPlugin = getLibertyPluginForProject(p);
-                // use "dev" goal, although we don't expect the skip tests flags to be bound to any goal
-                Xpp3Dom config = ExecuteMojoUtil.getPluginGoalConfig(libertyPlugin, "dev", log);
-                
-                boolean upstreamSkipTests = getBooleanFlag(config, userProps, props, "skipTests");
-                boolean upstreamSkipITs = getBooleanFlag(config, userProps, props, "skipITs");
-                boolean upstreamSkipUTs = getBooleanFlag(config, userProps, props, "skipUTs");
-
-                // only force skipping unit test for ear modules otherwise honour existing skip
-                // test params
-                if (p.getPackaging().equals("ear")) {
-                    upstreamSkipUTs = true;
-                }
-
-                // build list of dependent modules
-                List<MavenProject> dependentProjects = graph.getDownstreamProjects(p, true);
-                List<File> dependentModules = new ArrayList<File>();
-                for (MavenProject depProj : dependentProjects) {
-                    dependentModules.add(depProj.getFile());
+            long start = System.nanoTime();
+            startupExecutor = newStartupExecutor(upstreamMavenProjects.size());
+            List<Future<ProjectModule>> modules = new ArrayList<Future<ProjectModule>>();
+            for (final MavenProject p : upstreamMavenProjects) {
+                final ProjectDependencyGraph projectGraph = graph;
+                modules.add(startupExecutor.submit(new Callable<ProjectModule>() {
+                    @Override
+                    public ProjectModule call() {
+                        return getUpstreamProjectModule(p, projectGraph);
+                    }
+                }));
+            }
+            for (Future<ProjectModule> module : modules) {
+                try {
+                    upstreamProjects.add(module.get());
+                } catch (ExecutionException e) {
+                    throw new MojoExecutionException("Could not collect the upstream modules", e.getCause());
                 }
-
-                ProjectModule upstreamProject = new ProjectModule(p.getFile(), p.getArtifactId(), p.getPackaging(),
-                        compileArtifacts, testArtifacts, upstreamSourceDir, upstreamOutputDir, upstreamTestSourceDir,
-                        upstreamTestOutputDir, upstreamResourceDirs, upstreamSkipTests, upstreamSkipUTs,
-                        upstreamSkipITs, upstreamCompilerOptions, dependentModules);
-
-                upstreamProjects.add(upstreamProject);
             }
+            log.debug("Collected " + upstreamProjects.size() + " upstream modules in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
         }
 
         // skip unit tests for ear applications
@@ -1414,16 +2074,69 @@ public class DevMojo extends LooseAppSupport {
         // pom.xml
         File pom = project.getFile();
 
+        final List<MavenProject> reactorProjects = upstreamMavenProjects;
+        projectModelCache = new ProjectModelCache(log) {
+            @Override
+            protected MavenProject build(File buildFile) throws ProjectBuildingException {
+                // models are built concurrently, so each build gets a copy of the session request
+                ProjectBuildingRequest request = new DefaultProjectBuildingRequest(session.getProjectBuildingRequest());
+                ProjectBuildingResult build = mavenProjectBuilder.build(buildFile, request.setResolveDependencies(true));
+                MavenProject builtProject = build.getProject();
+                updateUpstreamProjectsArtifactPathToOutputDirectory(builtProject, reactorProjects);
+                return builtProject;
+            }
+        };
+        if (startupExecutor != null) {
+            // the file watcher rebuilds the model of each upstream module when it starts
+            List<File> upstreamBuildFiles = new ArrayList<File>();
+            for (MavenProject p : upstreamMavenProjects) {
+                upstreamBuildFiles.add(p.getFile());
+            }
+            projectModelCache.prefetch(upstreamBuildFiles, startupExecutor);
+            startupExecutor.shutdown();
+        }
+
         // collect artifacts canonical paths in order to build classpath
-        Set<String> compileArtifactPaths = new HashSet<String>(project.getCompileClasspathElements());
-        Set<String> testArtifactPaths = new HashSet<String>(project.getTestClasspathElements());
+        Set<String> compileArtifactPaths = new LinkedHashSet<String>(project.getCompileClasspathElements());
+        Set<String> testArtifactPaths = new LinkedHashSet<String>(project.getTestClasspathElements());
 
         util = new DevMojoUtil(installDirectory, userDirectory, serverDirectory, sourceDirectory, testSourceDirectory,
                 configDirectory, project.getBasedir(), multiModuleProjectDirectory, resourceDirs, compilerOptions,
                 settings.getLocalRepository(), upstreamProjects, upstreamMavenProjects, recompileDeps, pom, parentPoms, 
                 generateFeatures, compileArtifactPaths, testArtifactPaths, webResourceDirs);
         util.addShutdownHook(executor);
+        if (parallelTests && util.isMultiModuleProject()) {
+            moduleTestExecutor = newModuleTestExecutor(upstreamMavenProjects.size() + 1);
+            integrationTestSemaphore = new Semaphore(Math.max(1, integrationTestPermits), true);
+        }
+        // an earlier session that did not exit cleanly may have left these configDropins
+        new File(serverDirectory, HotSwapAgent.CONFIG_OVERRIDE).delete();
+        new File(serverDirectory, ServerPropertyClassifier.LOGGING_CONFIG_DEFAULTS_XML).delete();
         util.startServer();
+        if (hotSwap) {
+            startHotSwap();
+        }
+        if (warmStartManifest != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread() {
+                @Override
+                public void run() {
+                    saveWarmStartManifest(warmStartProjects);
+                }
+            });
+        }
+
+        if (log.isDebugEnabled()) {
+            startHeapUsageLog();
+        }
+
+        if (phaseTrace != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread() {
+                @Override
+                public void run() {
+                    phaseTrace.close();
+                }
+            });
+        }
 
         // start watching for keypresses immediately
         util.runHotkeyReaderThread(executor);
@@ -1442,6 +2155,9 @@ public class DevMojo extends LooseAppSupport {
                 log.info(e.getMessage());
             }
             return; // enter shutdown hook
+        } finally {
+            // nothing keeps the index up to date once the file watcher stops
+            SourceTreeIndex.getInstance().clear();
         }
     }
 
@@ -1617,17 +2333,35 @@ public class DevMojo extends LooseAppSupport {
         }
     }
 
+    /**
+     * From the project we're running dev mode from, get the artifact representing each of the upstream modules
+     * and make sure the artifact File is associated to the build output (target/classes, not the .m2 repo).
+     * 
+     * Because of the way we dynamically build new model objects we need to do this from a given model's perspective.
+     * 
+     * @param startingProject 
+     * @param upstreamProjects the upstream modules in the reactor
+     */
+    private void updateUpstreamProjectsArtifactPathToOutputDirectory(MavenProject startingProject,
+            List<MavenProject> upstreamProjects) {
+        Map<String,Artifact> artifactMap = startingProject.getArtifactMap();
+        for (MavenProject p : upstreamProjects) {
+            Artifact projArtifact = artifactMap.get(p.getGroupId() + ":" + p.getArtifactId());
+            if (projArtifact != null) {
+            	updateArtifactPathToOutputDirectory(p, projArtifact);
+            }
+        }
+    }
+
     private MavenProject resolveMavenProject(File buildFile) {
-        ProjectBuildingResult build;
         MavenProject currentProject = project; // default to main project
         try {
             if (buildFile != null && !project.getFile().getCanonicalPath().equals(buildFile.getCanonicalPath())) {
-                build = mavenProjectBuilder.build(buildFile,
-                        session.getProjectBuildingRequest().setResolveDependencies(true));
+                MavenProject builtProject = projectModelCache.get(buildFile);
                 // if we can resolve the project associated with build file, run tests on
                 // corresponding project
-                if (build.getProject() != null) {
-                    currentProject = build.getProject();
+                if (builtProject != null) {
+                    currentProject = builtProject;
                 }
             }
         } catch (ProjectBuildingException | IOException e) {
@@ -1640,6 +2374,22 @@ public class DevMojo extends LooseAppSupport {
 
     private void runTestMojo(String groupId, String artifactId, String goal, MavenProject project)
             throws MojoExecutionException {
+        runTestMojo(groupId, artifactId, goal, project, null);
+    }
+
+    /**
+     * Executes a test goal
+     * 
+     * @param groupId    plugin groupId
+     * @param artifactId plugin artifactId
+     * @param goal       goal to execute
+     * @param project    the project to test
+     * @param tests      fully qualified names of the test classes to run, or null
+     *                   to run the configured tests
+     * @throws MojoExecutionException
+     */
+    private void runTestMojo(String groupId, String artifactId, String goal, MavenProject project,
+            Collection<String> tests) throws MojoExecutionException {
         Plugin plugin = getPluginForProject(groupId, artifactId, project);
         Xpp3Dom config = ExecuteMojoUtil.getPluginGoalConfig(plugin, goal, log);
 
@@ -1666,6 +2416,9 @@ public class DevMojo extends LooseAppSupport {
 
         if (goal.equals("test")) {
             injectTestId(config);
+            if (tests != null) {
+                injectTests(config, tests);
+            }
         } else if (goal.equals("integration-test")) {
             injectTestId(config);
             injectLibertyProperties(config);
@@ -1731,7 +2484,9 @@ public class DevMojo extends LooseAppSupport {
                 + " configuration:\n" + config);
         MavenSession tempSession = session.clone();
         tempSession.setCurrentProject(project);
-        executeMojo(plugin, goal(goal), config, executionEnvironment(project, tempSession, pluginManager));
+        try (PhaseTrace.Span span = startPhase(artifactId + ":" + goal + " " + project.getArtifactId())) {
+            executeMojo(plugin, goal(goal), config, executionEnvironment(project, tempSession, pluginManager));
+        }
     }
 
     /**
@@ -1780,18 +2535,46 @@ public class DevMojo extends LooseAppSupport {
     }
 
     /**
-     * Add Liberty system properties for tests to consume.
+     * Only run the given test classes.
      *
      * @param config The configuration element
-     * @throws MojoExecutionException if the userDirectory canonical path cannot be
-     *                                resolved
+     * @param tests  fully qualified names of the test classes
      */
-    private void injectLibertyProperties(Xpp3Dom config) throws MojoExecutionException {
-        Xpp3Dom sysProps = config.getChild("systemPropertyVariables");
-        if (sysProps == null) {
-            Element e = element(name("systemPropertyVariables"));
-            sysProps = e.toDom();
-            config.addChild(sysProps);
+    private void injectTests(Xpp3Dom config, Collection<String> tests) {
+        StringBuilder value = new StringBuilder();
+        for (String test : tests) {
+            if (value.length() > 0) {
+                value.append(',');
+            }
+            value.append(test);
+        }
+        Xpp3Dom test = config.getChild("test");
+        if (test == null) {
+            test = new Xpp3Dom("test");
+            config.addChild(test);
+        }
+        test.setValue(value.toString());
+        Xpp3Dom failIfNoSpecifiedTests = config.getChild("failIfNoSpecifiedTests");
+        if (failIfNoSpecifiedTests == null) {
+            failIfNoSpecifiedTests = new Xpp3Dom("failIfNoSpecifiedTests");
+            config.addChild(failIfNoSpecifiedTests);
+        }
+        failIfNoSpecifiedTests.setValue("false");
+    }
+
+    /**
+     * Add Liberty system properties for tests to consume.
+     *
+     * @param config The configuration element
+     * @throws MojoExecutionException if the userDirectory canonical path cannot be
+     *                                resolved
+     */
+    private void injectLibertyProperties(Xpp3Dom config) throws MojoExecutionException {
+        Xpp3Dom sysProps = config.getChild("systemPropertyVariables");
+        if (sysProps == null) {
+            Element e = element(name("systemPropertyVariables"));
+            sysProps = e.toDom();
+            config.addChild(sysProps);
         }
         // don't overwrite existing properties if they are already defined
         addDomPropertyIfNotFound(sysProps, LIBERTY_HOSTNAME, util.getHostName());
@@ -1826,20 +2609,35 @@ public class DevMojo extends LooseAppSupport {
 
     }
 
-    private void listFiles(File directory, List<File> files, String suffix) {
-        if (directory != null) {
-            // Get all files from a directory.
-            File[] fList = directory.listFiles();
-            if (fList != null) {
-                for (File file : fList) {
-                    if (file.isFile() && ((suffix == null) || (file.getName().toLowerCase().endsWith("." + suffix)))) {
-                        files.add(file);
-                    } else if (file.isDirectory()) {
-                        listFiles(file, files, suffix);
-                    }
-                }
+    /**
+     * Get the index that maintains a compile or test artifact set. An index
+     * created for a set that already has elements attributes them to the owner.
+     * 
+     * @param artifacts the compile or test artifacts of a module
+     * @param owner     the canonical path of the module's build file
+     * @return the classpath index
+     */
+    private ClasspathIndex getClasspathIndex(Set<String> artifacts, String owner) {
+        synchronized (classpathIndexes) {
+            ClasspathIndex index = classpathIndexes.get(artifacts);
+            if (index == null) {
+                index = new ClasspathIndex(artifacts, owner);
+                classpathIndexes.put(artifacts, index);
             }
+            return index;
+        }
+    }
+
+    /**
+     * @param classpath the compile or test artifacts of a module
+     * @return a copy of the classpath that is not affected by later updates
+     */
+    private List<String> getClasspathSnapshot(Collection<String> classpath) {
+        ClasspathIndex index;
+        synchronized (classpathIndexes) {
+            index = classpathIndexes.get(classpath);
         }
+        return index != null ? index.snapshot() : new ArrayList<String>(classpath);
     }
 
     /**
@@ -1863,6 +2661,784 @@ public class DevMojo extends LooseAppSupport {
         executeMojo(plugin, goal(goal), config, executionEnvironment(tempProject, tempSession, pluginManager));
     }
 
+    /**
+     * Compiles the source directory with the in-process incremental compiler if
+     * incrementalCompile is enabled, otherwise executes the maven-compiler-plugin
+     * goal but logs errors as warning messages.
+     * 
+     * If the source directory was already compiled in the background because an
+     * upstream module changed, the result of that compilation is used. After an
+     * upstream module is compiled, the source directories of its dependent
+     * modules are scheduled for compilation in the background.
+     * 
+     * @param goal            Maven compile goal, compile or testCompile
+     * @param mavenProject    Maven project to compile
+     * @param sourceDir       the source directory to compile
+     * @param outputDir       the classes output directory
+     * @param classpath       the classpath elements to compile against
+     * @param compilerOptions the compiler options of the Maven project
+     * @return false if the in-process compiler reported compilation errors
+     * @throws MojoExecutionException
+     */
+    private boolean runCompile(String goal, MavenProject mavenProject, File sourceDir, File outputDir,
+            Collection<String> classpath, JavaCompilerOptions compilerOptions) throws MojoExecutionException {
+        boolean result;
+        classpath = getClasspathSnapshot(classpath);
+        try (PhaseTrace.Span span = startPhase(goal + " " + mavenProject.getArtifactId())) {
+            Boolean scheduledResult = moduleCompileScheduler == null ? null : moduleCompileScheduler.await(sourceDir);
+            if (scheduledResult != null) {
+                // pick up changes that were made while the module was compiled in the background
+                result = scheduledResult
+                        && compileSources(goal, mavenProject, sourceDir, outputDir, classpath, compilerOptions, log, false);
+            } else {
+                result = compileSources(goal, mavenProject, sourceDir, outputDir, classpath, compilerOptions, log, false);
+                if (result && goal.equals("compile") && moduleCompileScheduler != null) {
+                    scheduleDependentCompiles(mavenProject);
+                }
+            }
+        }
+        if (goal.equals("compile")) {
+            updateArtifactPathToOutputDirectory(mavenProject);
+        }
+        return result;
+    }
+
+    /**
+     * Compiles the stale sources of the source directory.
+     * 
+     * Classes that reference a type of an upstream module whose API changed since
+     * the last compilation are found with the class dependency graph of the output
+     * directory. The in-process compiler only recompiles those classes, and the
+     * maven-compiler-plugin goal is skipped if there are none and the sources are
+     * up to date.
+     * 
+     * @param goal            Maven compile goal, compile or testCompile
+     * @param mavenProject    Maven project to compile
+     * @param sourceDir       the source directory to compile
+     * @param outputDir       the classes output directory
+     * @param classpath       the classpath elements to compile against
+     * @param compilerOptions the compiler options of the Maven project
+     * @param compileLog      log for the output of the compilation
+     * @param background      whether the compilation runs on a background thread,
+     *                        in which case the maven-compiler-plugin is not used
+     * @return false if the in-process compiler reported compilation errors
+     * @throws MojoExecutionException if the maven-compiler-plugin failed, or the
+     *                                in-process compiler cannot be used in the
+     *                                background
+     */
+    private boolean compileSources(String goal, MavenProject mavenProject, File sourceDir, File outputDir,
+            Collection<String> classpath, JavaCompilerOptions compilerOptions, Log compileLog, boolean background)
+            throws MojoExecutionException {
+        ClassDependencyGraph graph = getClassDependencyGraph(mavenProject, outputDir);
+        ClassDependencyGraph.Changes changes = new ClassDependencyGraph.Changes();
+        long applied;
+        boolean changesUnknown = false;
+        synchronized (upstreamChanges) {
+            Long previous = upstreamChanges.getPosition(outputDir);
+            applied = upstreamChanges.getEnd();
+            List<ClassDependencyGraph.Changes> pending = upstreamChanges.get(previous == null ? 0 : previous, applied);
+            if (pending == null) {
+                changesUnknown = true;
+            } else {
+                for (ClassDependencyGraph.Changes upstream : pending) {
+                    changes.add(upstream);
+                }
+            }
+        }
+        Set<String> dependentSources = graph.getDependentSources(changes.getTypes());
+        if (changesUnknown) {
+            compileLog.debug("The upstream API changes that " + sourceDir
+                    + " has not applied were dropped, compiling all of its sources");
+        } else if (!changes.isEmpty()) {
+            compileLog.debug(dependentSources.size() + " source file(s) in " + sourceDir
+                    + " reference upstream types whose API changed: " + changes.getTypes());
+        }
+
+        boolean result = true;
+        boolean compiled = false;
+        IncrementalJavaCompiler compiler = null;
+        List<File> sourceRoots = null;
+        List<String> options = null;
+        if (incrementalCompile && IncrementalJavaCompiler.isAvailable()) {
+            try {
+                synchronized (incrementalCompilers) {
+                    compiler = incrementalCompilers.get(sourceDir);
+                    if (compiler == null) {
+                        compiler = new IncrementalJavaCompiler(sourceDir, outputDir, graph);
+                        incrementalCompilers.put(sourceDir, compiler);
+                    }
+                }
+                if (changes.isConstantsChanged() || changesUnknown) {
+                    // inlined constants are not visible in the constant pool of dependent classes
+                    compiler.markAllStale();
+                } else {
+                    compiler.markStale(dependentSources);
+                }
+                sourceRoots = getCompileSourceRoots(goal, mavenProject);
+                options = getIncrementalCompilerOptions(goal, mavenProject, compilerOptions);
+                result = compiler.compile(classpath, sourceRoots, options, compileLog);
+                compiled = true;
+            } catch (IOException e) {
+                if (background) {
+                    throw new MojoExecutionException("Unable to compile " + sourceDir + " with the in-process compiler", e);
+                }
+                compileLog.warn("Unable to compile " + sourceDir + " with the in-process compiler. Running maven-compiler-plugin:"
+                        + goal + " instead. " + e.getMessage());
+                compileLog.debug(e);
+            }
+        }
+        if (!compiled) {
+            if (!changes.isConstantsChanged() && !changesUnknown && dependentSources.isEmpty()
+                    && isUpToDate(graph, sourceDir)) {
+                compileLog.debug("Skipping maven-compiler-plugin:" + goal + " for " + sourceDir
+                        + " since the sources are up to date and no class references a changed upstream type");
+            } else {
+                runCompileMojo(goal, mavenProject);
+            }
+        }
+
+        try {
+            ClassDependencyGraph.Changes produced = updateClassDependencyGraph(graph);
+            if (compiled && result && produced.isConstantsChanged()) {
+                // the classes of the module that inline a changed constant do not reference its class
+                compileLog.debug("Compiling all sources in " + sourceDir + " since a compile time constant changed");
+                compiler.markAllStale();
+                result = compiler.compile(classpath, sourceRoots, options, compileLog);
+                produced.add(updateClassDependencyGraph(graph));
+            }
+            synchronized (upstreamChanges) {
+                if (goal.equals("compile") && !produced.isEmpty()) {
+                    // this module's own dependents are found by the compiler
+                    applied = upstreamChanges.append(produced);
+                }
+                upstreamChanges.setPosition(outputDir, applied);
+            }
+            if (goal.equals("compile") && hotSwapAgent != null) {
+                hotSwap(outputDir, produced);
+            }
+        } catch (IOException e) {
+            compileLog.debug("Could not update the class dependency graph of " + outputDir, e);
+            if (goal.equals("compile") && hotSwapAgent != null) {
+                restartApplication("the changed classes of " + outputDir + " are unknown");
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Connect to the server to hot swap class changes. Dev mode continues with
+     * application restarts if that is not possible.
+     */
+    private void startHotSwap() {
+        if (!libertyDebug || container) {
+            log.warn("Hot swap requires debug mode and is not supported in a container. Class changes will restart the application.");
+            return;
+        }
+        try {
+            final HotSwapAgent agent = new HotSwapAgent(installDirectory, serverDirectory, serverName, serverDebugPort,
+                    log);
+            agent.start();
+            Runtime.getRuntime().addShutdownHook(new Thread() {
+                @Override
+                public void run() {
+                    agent.stop();
+                }
+            });
+            hotSwapAgent = agent;
+            log.info("Hot swap is enabled. Class changes that only change method bodies are applied without restarting the application.");
+        } catch (IOException e) {
+            log.warn("Unable to enable hot swap, class changes will restart the application: " + e.getMessage());
+            log.debug(e);
+        } catch (LinkageError e) {
+            log.warn("Hot swap requires running Maven with a JDK. Class changes will restart the application.");
+            log.debug(e);
+        }
+    }
+
+    /**
+     * Redefine the changed classes of an output directory in the running server,
+     * or restart the application if the changes cannot be applied to the loaded
+     * classes.
+     * 
+     * @param outputDir the classes output directory
+     * @param changes   the changes of the output directory
+     */
+    private void hotSwap(File outputDir, ClassDependencyGraph.Changes changes) {
+        HotSwapAgent agent = hotSwapAgent;
+        Set<String> types = new TreeSet<String>(changes.getModifiedTypes());
+        types.removeAll(changes.getAddedTypes());
+        if (!changes.getSchemaChangedTypes().isEmpty()) {
+            restartApplication("the fields, methods, supertypes or modifiers of "
+                    + new TreeSet<String>(changes.getSchemaChangedTypes()) + " changed");
+            return;
+        }
+        if (!types.isEmpty()) {
+            try {
+                int redefined = agent.redefine(outputDir, types);
+                log.info("Hot swapped " + types.size() + " changed class(es) of " + outputDir
+                        + " into the running server, " + redefined + " of them were loaded: " + types);
+            } catch (IOException e) {
+                restartApplication(e.getMessage());
+                return;
+            }
+        }
+        synchronized (agent) {
+            classesHotSwapped = true;
+        }
+    }
+
+    /**
+     * Have the application monitor apply the application changes, since with
+     * hot swap it only checks for changes when asked to.
+     * 
+     * @param reason why the changes are not hot swapped, or null if they are not
+     *               class changes
+     */
+    private void restartApplication(String reason) {
+        HotSwapAgent agent = hotSwapAgent;
+        if (agent == null) {
+            return;
+        }
+        if (reason != null) {
+            log.info("Restarting the application since the class changes cannot be hot swapped: " + reason);
+        }
+        synchronized (agent) {
+            applicationRestarted = true;
+        }
+        try {
+            agent.processApplicationChanges();
+        } catch (IOException e) {
+            log.warn("Unable to notify the server of application changes, disabling hot swap: " + e.getMessage());
+            log.debug(e);
+            hotSwapAgent = null;
+            agent.stop();
+        }
+    }
+
+    /**
+     * Apply the changes that a test run is requested for. If the changes were
+     * all hot swapped there is no application update to wait for.
+     * 
+     * @param waitForApplicationUpdate whether the test run waits for an
+     *                                 application update
+     * @return whether the test run should wait for an application update
+     */
+    private boolean requestApplicationUpdate(boolean waitForApplicationUpdate) {
+        HotSwapAgent agent = hotSwapAgent;
+        if (agent == null) {
+            return waitForApplicationUpdate;
+        }
+        boolean hotSwapped;
+        boolean restarted;
+        synchronized (agent) {
+            hotSwapped = classesHotSwapped;
+            restarted = applicationRestarted;
+            classesHotSwapped = false;
+            applicationRestarted = false;
+        }
+        if (hotSwapped && !restarted) {
+            log.debug("Not waiting for an application update since the class changes were hot swapped");
+            return false;
+        }
+        if (!restarted) {
+            // resource, web resource or other application changes
+            restartApplication(null);
+        }
+        return waitForApplicationUpdate;
+    }
+
+    /**
+     * Schedule the compilation of the modules that depend on the given module.
+     * Dependent modules that do not depend on each other compile concurrently.
+     * 
+     * @param upstreamProject the Maven project that was compiled
+     */
+    private void scheduleDependentCompiles(MavenProject upstreamProject) {
+        try {
+            ProjectModule upstreamModule = util.getProjectModule(upstreamProject.getFile());
+            if (upstreamModule == null || upstreamModule.getDependentModules().isEmpty()) {
+                return;
+            }
+            moduleCompileScheduler.discardPending();
+            // dependent modules are in reactor build order, so the modules that a
+            // module depends on are scheduled before it
+            List<ProjectModule> scheduledModules = new ArrayList<ProjectModule>();
+            for (File buildFile : upstreamModule.getDependentModules()) {
+                List<File> prerequisites = new ArrayList<File>();
+                for (ProjectModule scheduled : scheduledModules) {
+                    if (scheduled.getDependentModules().contains(buildFile)) {
+                        prerequisites.add(scheduled.getSourceDirectory());
+                    }
+                }
+                if (buildFile.getCanonicalFile().equals(project.getFile().getCanonicalFile())) {
+                    scheduleCompile("compile", project, sourceDirectory, outputDirectory, util.getCompileArtifacts(),
+                            getMavenCompilerOptions(project), prerequisites);
+                    if (!skipTests) {
+                        prerequisites.add(sourceDirectory);
+                        scheduleCompile("testCompile", project, testSourceDirectory, testOutputDirectory,
+                                util.getTestArtifacts(), getMavenCompilerOptions(project), prerequisites);
+                    }
+                } else {
+                    ProjectModule module = util.getProjectModule(buildFile);
+                    if (module == null) {
+                        continue;
+                    }
+                    MavenProject mavenProject = resolveMavenProject(buildFile);
+                    scheduleCompile("compile", mavenProject, module.getSourceDirectory(), module.getOutputDirectory(),
+                            module.getCompileArtifacts(), module.getCompilerOptions(), prerequisites);
+                    if (!module.skipTests()) {
+                        prerequisites.add(module.getSourceDirectory());
+                        scheduleCompile("testCompile", mavenProject, module.getTestSourceDirectory(),
+                                module.getTestOutputDirectory(), module.getTestArtifacts(), module.getCompilerOptions(),
+                                prerequisites);
+                    }
+                    scheduledModules.add(module);
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Unable to schedule the compilation of the modules that depend on " + upstreamProject.getFile(), e);
+        }
+    }
+
+    private void scheduleCompile(final String goal, final MavenProject mavenProject, final File sourceDir,
+            final File outputDir, Collection<String> classpath, final JavaCompilerOptions compilerOptions,
+            Collection<File> prerequisites) {
+        // the classpath is updated by dev mode while the compilation runs
+        final List<String> classpathSnapshot = getClasspathSnapshot(classpath);
+        moduleCompileScheduler.schedule(sourceDir, prerequisites, new ModuleCompileScheduler.CompileTask() {
+            @Override
+            public boolean compile(Log compileLog) throws Exception {
+                return compileSources(goal, mavenProject, sourceDir, outputDir, classpathSnapshot, compilerOptions,
+                        compileLog, true);
+            }
+        });
+    }
+
+    /**
+     * Get the compile source roots of the project for the compile goal,
+     * including the directory that annotation processors generate sources to.
+     */
+    private List<File> getCompileSourceRoots(String goal, MavenProject mavenProject) {
+        List<File> sourceRoots = new ArrayList<File>();
+        for (String root : goal.equals("testCompile") ? mavenProject.getTestCompileSourceRoots()
+                : mavenProject.getCompileSourceRoots()) {
+            sourceRoots.add(new File(root));
+        }
+        sourceRoots.add(getGeneratedSourcesDirectory(goal, mavenProject));
+        return sourceRoots;
+    }
+
+    private File getGeneratedSourcesDirectory(String goal, MavenProject mavenProject) {
+        Plugin plugin = getPluginForProject("org.apache.maven.plugins", "maven-compiler-plugin", mavenProject);
+        Xpp3Dom config = ExecuteMojoUtil.getPluginGoalConfig(plugin, goal, log);
+        boolean test = goal.equals("testCompile");
+        Xpp3Dom directory = config.getChild(test ? "generatedTestSourcesDirectory" : "generatedSourcesDirectory");
+        if (directory != null && directory.getValue() != null) {
+            return new File(directory.getValue());
+        }
+        return new File(mavenProject.getBuild().getDirectory(),
+                test ? "generated-test-sources/test-annotations" : "generated-sources/annotations");
+    }
+
+    /**
+     * Get the options of the in-process compiler from the configuration of the
+     * maven-compiler-plugin goal, like the maven-compiler-plugin passes them to
+     * javac.
+     * 
+     * @param goal            Maven compile goal, compile or testCompile
+     * @param mavenProject    Maven project to compile
+     * @param compilerOptions the source, target, release and warning options
+     * @return the javac options
+     * @throws MojoExecutionException if the annotation processor paths cannot
+     *                                be resolved
+     */
+    private List<String> getIncrementalCompilerOptions(String goal, MavenProject mavenProject,
+            JavaCompilerOptions compilerOptions) throws MojoExecutionException {
+        Plugin plugin = getPluginForProject("org.apache.maven.plugins", "maven-compiler-plugin", mavenProject);
+        Xpp3Dom config = ExecuteMojoUtil.getPluginGoalConfig(plugin, goal, log);
+        List<String> options = new ArrayList<String>(compilerOptions.getOptions());
+
+        String debug = getCompilerOption(config, "debug", "maven.compiler.debug", mavenProject);
+        if (debug == null || Boolean.parseBoolean(debug)) {
+            String debugLevel = getCompilerOption(config, "debuglevel", "maven.compiler.debuglevel", mavenProject);
+            options.add(debugLevel == null ? "-g" : "-g:" + debugLevel);
+        }
+        if (Boolean.parseBoolean(getCompilerOption(config, "parameters", "maven.compiler.parameters", mavenProject))) {
+            options.add("-parameters");
+        }
+        String encoding = getCompilerOption(config, "encoding", "project.build.sourceEncoding", mavenProject);
+        if (encoding != null) {
+            options.add("-encoding");
+            options.add(encoding);
+        }
+
+        String proc = getCompilerOption(config, "proc", "maven.compiler.proc", mavenProject);
+        if (proc != null) {
+            options.add("-proc:" + proc);
+        }
+        List<String> processors = getChildValues(config, "annotationProcessors");
+        if (!processors.isEmpty()) {
+            options.add("-processor");
+            options.add(StringUtils.join(processors.iterator(), ","));
+        }
+        Xpp3Dom processorPaths = config.getChild("annotationProcessorPaths");
+        if (processorPaths != null && processorPaths.getChildCount() > 0) {
+            options.add("-processorpath");
+            options.add(getAnnotationProcessorPath(processorPaths));
+        }
+        File generatedSourcesDirectory = getGeneratedSourcesDirectory(goal, mavenProject);
+        generatedSourcesDirectory.mkdirs();
+        options.add("-s");
+        options.add(generatedSourcesDirectory.getAbsolutePath());
+
+        options.addAll(getChildValues(config, "compilerArgs"));
+        Xpp3Dom compilerArgument = config.getChild("compilerArgument");
+        if (compilerArgument != null && compilerArgument.getValue() != null) {
+            options.addAll(Arrays.asList(compilerArgument.getValue().trim().split("\\s+")));
+        }
+        return options;
+    }
+
+    /**
+     * Resolve the annotationProcessorPaths of the maven-compiler-plugin
+     * configuration. The resolved path is cached, since the configuration only
+     * changes when the build file is reloaded.
+     */
+    private String getAnnotationProcessorPath(Xpp3Dom processorPaths) throws MojoExecutionException {
+        String key = processorPaths.toString();
+        synchronized (annotationProcessorPaths) {
+            String cached = annotationProcessorPaths.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        Set<String> elements = new LinkedHashSet<String>();
+        for (Xpp3Dom path : processorPaths.getChildren()) {
+            String groupId = getChildValue(path, "groupId");
+            String artifactId = getChildValue(path, "artifactId");
+            String version = getChildValue(path, "version");
+            String type = getChildValue(path, "type");
+            for (Artifact artifact : getResolvedDependencyWithTransitiveDependencies(groupId, artifactId, version,
+                    type == null ? "jar" : type)) {
+                if (artifact.getFile() != null) {
+                    elements.add(artifact.getFile().getAbsolutePath());
+                }
+            }
+        }
+        String processorPath = StringUtils.join(elements.iterator(), File.pathSeparator);
+        synchronized (annotationProcessorPaths) {
+            annotationProcessorPaths.put(key, processorPath);
+        }
+        return processorPath;
+    }
+
+    private static String getChildValue(Xpp3Dom parent, String name) {
+        Xpp3Dom child = parent.getChild(name);
+        return child == null ? null : child.getValue();
+    }
+
+    private boolean isUpToDate(ClassDependencyGraph graph, File sourceDir) {
+        try {
+            return graph.isUpToDate(sourceDir);
+        } catch (IOException e) {
+            log.debug(e);
+            return false;
+        }
+    }
+
+    /**
+     * Get the class dependency graph of the output directory, which is stored in
+     * the build directory of the project so that it is reused across dev mode
+     * sessions.
+     * 
+     * @param mavenProject Maven project that owns the output directory
+     * @param outputDir    the classes output directory
+     * @return the class dependency graph
+     */
+    private ClassDependencyGraph getClassDependencyGraph(MavenProject mavenProject, File outputDir) {
+        synchronized (classDependencyGraphs) {
+            ClassDependencyGraph graph = classDependencyGraphs.get(outputDir);
+            if (graph == null) {
+                File graphFile = new File(mavenProject.getBuild().getDirectory(),
+                        "liberty-dev/class-dependencies-" + outputDir.getName() + ".txt");
+                graph = new ClassDependencyGraph(outputDir, graphFile, log);
+                try {
+                    // pick up classes compiled outside of this dev mode session
+                    updateClassDependencyGraph(graph);
+                } catch (IOException e) {
+                    log.debug("Could not update the class dependency graph of " + outputDir, e);
+                }
+                classDependencyGraphs.put(outputDir, graph);
+            }
+            return graph;
+        }
+    }
+
+    /**
+     * Update the class dependency graph from its classes directory, save it and
+     * record the modified classes for test impact analysis.
+     * 
+     * @param graph the class dependency graph
+     * @return the changes since the last update
+     * @throws IOException if the classes directory cannot be read
+     */
+    private ClassDependencyGraph.Changes updateClassDependencyGraph(ClassDependencyGraph graph) throws IOException {
+        ClassDependencyGraph.Changes changes = graph.update();
+        graph.save();
+        if (testImpactAnalysis && !changes.getModifiedTypes().isEmpty()) {
+            classModifications.append(changes.getModifiedTypes());
+        }
+        return changes;
+    }
+
+    /**
+     * Record the class modifications covered by a unit test run of the project.
+     * 
+     * @param testProject       the project the unit tests ran for
+     * @param modificationCount the number of classModifications covered by the
+     *                          run, or -1 if the run failed and all unit tests
+     *                          should run next time
+     */
+    private void updateTestedClassModifications(MavenProject testProject, long modificationCount) {
+        if (!testImpactAnalysis) {
+            return;
+        }
+        if (modificationCount < 0) {
+            classModifications.remove(testProject.getFile());
+        } else {
+            classModifications.setPosition(testProject.getFile(), modificationCount);
+        }
+    }
+
+    /**
+     * Run unit tests in the long-lived test JVM of the project.
+     * 
+     * @param testProject the project to run unit tests for
+     * @param tests       fully qualified names of the test classes to run, or null
+     *                    to run all test classes
+     * @return the result of the run, or null if the unit tests must be run with
+     *         the maven-surefire-plugin
+     */
+    private WarmTestJvm.Result runWarmUnitTests(MavenProject testProject, Collection<String> tests) {
+        File buildFile = testProject.getFile();
+        if (warmTestJvmUnsupported.contains(buildFile)) {
+            return null;
+        }
+        Plugin surefirePlugin = getPluginForProject("org.apache.maven.plugins", "maven-surefire-plugin", testProject);
+        Xpp3Dom config = ExecuteMojoUtil.getPluginGoalConfig(surefirePlugin, "test", log);
+        if (tests == null) {
+            if ((config.getChild("test") != null && config.getChild("test").getValue() != null)
+                    || session.getUserProperties().getProperty("test") != null) {
+                return null;
+            }
+            ClassDependencyGraph testGraph = getClassDependencyGraph(testProject,
+                    new File(testProject.getBuild().getTestOutputDirectory()));
+            try {
+                updateClassDependencyGraph(testGraph);
+            } catch (IOException e) {
+                log.debug(e);
+            }
+            tests = TestImpactAnalyzer.getTestClasses(testGraph.getClassNames(), getChildValues(config, "includes"),
+                    getChildValues(config, "excludes"));
+            if (tests == null) {
+                log.info("Running the unit tests of " + testProject.getArtifactId()
+                        + " with the maven-surefire-plugin since its includes or excludes use a regular expression.");
+                warmTestJvmUnsupported.add(buildFile);
+                return null;
+            }
+        }
+
+        Set<String> classpath = new LinkedHashSet<String>();
+        try {
+            classpath.addAll(testProject.getTestClasspathElements());
+            if (util.isMultiModuleProject()) {
+                ProjectModule projectModule = util.getProjectModule(buildFile);
+                classpath.addAll(getClasspathSnapshot(
+                        projectModule != null ? projectModule.getTestArtifacts() : util.getTestArtifacts()));
+            }
+        } catch (IOException | DependencyResolutionRequiredException e) {
+            log.debug(e);
+            return null;
+        }
+
+        List<String> jvmArguments = getWarmTestJvmArguments(config, testProject);
+        Map<String, String> environment = new HashMap<String, String>();
+        Xpp3Dom environmentVariables = config.getChild("environmentVariables");
+        if (environmentVariables != null) {
+            for (Xpp3Dom variable : environmentVariables.getChildren()) {
+                environment.put(variable.getName(), variable.getValue() == null ? "" : variable.getValue());
+            }
+        }
+        File workingDirectory = testProject.getBasedir();
+        Xpp3Dom workingDirectoryElement = config.getChild("workingDirectory");
+        if (workingDirectoryElement != null && workingDirectoryElement.getValue() != null) {
+            workingDirectory = new File(workingDirectoryElement.getValue());
+            if (!workingDirectory.isAbsolute()) {
+                workingDirectory = new File(testProject.getBasedir(), workingDirectoryElement.getValue());
+            }
+            workingDirectory.mkdirs();
+        }
+        WarmTestJvm jvm = warmTestJvms.get(buildFile);
+        if (jvm != null && (!jvm.getJvmArguments().equals(jvmArguments) || !jvm.getEnvironment().equals(environment)
+                || !jvm.getWorkingDirectory().equals(workingDirectory))) {
+            log.debug("The unit test JVM configuration changed, restarting the unit test JVM of " + buildFile);
+            jvm.stop();
+            jvm = null;
+        }
+        if (jvm == null) {
+            jvm = new WarmTestJvm(workingDirectory, jvmArguments, environment, log);
+            warmTestJvms.put(buildFile, jvm);
+        }
+
+        int timeoutSeconds = 0;
+        Xpp3Dom timeoutElement = config.getChild("forkedProcessTimeoutInSeconds");
+        String timeout = timeoutElement != null && timeoutElement.getValue() != null ? timeoutElement.getValue()
+                : session.getUserProperties().getProperty("surefire.timeout");
+        if (timeout != null) {
+            try {
+                timeoutSeconds = Math.max(Integer.parseInt(timeout.trim()), 0);
+            } catch (NumberFormatException e) {
+                log.debug("Ignoring the forkedProcessTimeoutInSeconds value " + timeout);
+            }
+        }
+
+        File reportsDirectory;
+        Xpp3Dom reportsDirectoryElement = config.getChild("reportsDirectory");
+        if (reportsDirectoryElement != null && reportsDirectoryElement.getValue() != null) {
+            reportsDirectory = new File(reportsDirectoryElement.getValue());
+        } else {
+            reportsDirectory = new File(testProject.getBuild().getDirectory(), "surefire-reports");
+        }
+
+        WarmTestJvm.Result result;
+        try (PhaseTrace.Span span = startPhase("warm unit tests " + testProject.getArtifactId())) {
+            result = jvm.run(classpath, tests, reportsDirectory, timeoutSeconds);
+        } catch (IOException e) {
+            log.warn("Unable to run the unit tests in the unit test JVM. Running them with the maven-surefire-plugin instead. "
+                    + e.getMessage());
+            log.debug(e);
+            return null;
+        }
+        if (!result.isSupported()) {
+            log.info("Running the unit tests of " + testProject.getArtifactId()
+                    + " with the maven-surefire-plugin since they cannot be run in the unit test JVM: "
+                    + result.getMessages());
+            warmTestJvmUnsupported.add(buildFile);
+            jvm.stop();
+            return null;
+        }
+        for (String message : result.getMessages()) {
+            log.error(message);
+        }
+        log.info("Tests run: " + result.getTests() + ", Failures: " + result.getFailures() + ", Errors: "
+                + result.getErrors() + ", Skipped: " + result.getSkipped());
+        return result;
+    }
+
+    /**
+     * Get the arguments of the unit test JVM from the argLine and
+     * systemPropertyVariables of the maven-surefire-plugin.
+     */
+    private List<String> getWarmTestJvmArguments(Xpp3Dom config, MavenProject testProject) {
+        List<String> arguments = new ArrayList<String>();
+        Xpp3Dom argLine = config.getChild("argLine");
+        if (argLine != null && argLine.getValue() != null) {
+            // resolve late replacement properties such as @{argLine}
+            Matcher lateReplacement = Pattern.compile("@\\{([^}]+)\\}").matcher(argLine.getValue());
+            StringBuffer resolved = new StringBuffer();
+            while (lateReplacement.find()) {
+                lateReplacement.appendReplacement(resolved,
+                        Matcher.quoteReplacement(testProject.getProperties().getProperty(lateReplacement.group(1), "")));
+            }
+            lateReplacement.appendTail(resolved);
+            Matcher token = Pattern.compile("\"([^\"]*)\"|(\\S+)").matcher(resolved);
+            while (token.find()) {
+                arguments.add(token.group(1) != null ? token.group(1) : token.group(2));
+            }
+        }
+        arguments.add("-Dbasedir=" + testProject.getBasedir().getAbsolutePath());
+        Xpp3Dom systemProperties = config.getChild("systemPropertyVariables");
+        if (systemProperties != null) {
+            for (Xpp3Dom property : systemProperties.getChildren()) {
+                if (property.getValue() != null) {
+                    arguments.add("-D" + property.getName() + "=" + property.getValue());
+                }
+            }
+        }
+        return arguments;
+    }
+
+    /**
+     * Get the unit tests of the project that are affected by the classes modified
+     * since its last successful unit test run.
+     * 
+     * @param testProject       the project to run unit tests for
+     * @param projects          all projects of the dev mode session
+     * @param modificationCount the number of classModifications to consider
+     * @return fully qualified names of the affected test classes, or null if all
+     *         unit tests should run
+     */
+    private Set<String> getAffectedTests(MavenProject testProject, List<MavenProject> projects,
+            long modificationCount) {
+        Set<String> modifiedTypes = new HashSet<String>();
+        synchronized (classModifications) {
+            Long tested = classModifications.getPosition(testProject.getFile());
+            if (tested == null) {
+                log.debug("Running all unit tests since there is no previous successful run of " + testProject.getFile());
+                return null;
+            }
+            List<Set<String>> modifications = classModifications.get(tested, modificationCount);
+            if (modifications == null) {
+                log.debug("Running all unit tests since the class modifications since the last run of "
+                        + testProject.getFile() + " were dropped");
+                return null;
+            }
+            for (Set<String> modification : modifications) {
+                modifiedTypes.addAll(modification);
+            }
+        }
+        if (modifiedTypes.isEmpty()) {
+            // the tests were triggered by a change other than a Java change
+            log.debug("Running all unit tests since no classes were modified");
+            return null;
+        }
+
+        Plugin surefirePlugin = getPluginForProject("org.apache.maven.plugins", "maven-surefire-plugin", testProject);
+        Xpp3Dom surefireConfig = ExecuteMojoUtil.getPluginGoalConfig(surefirePlugin, "test", log);
+        if ((surefireConfig.getChild("test") != null && surefireConfig.getChild("test").getValue() != null)
+                || session.getUserProperties().getProperty("test") != null) {
+            log.debug("Running the configured unit tests since the test parameter is set");
+            return null;
+        }
+
+        ClassDependencyGraph testGraph = getClassDependencyGraph(testProject,
+                new File(testProject.getBuild().getTestOutputDirectory()));
+        List<ClassDependencyGraph> graphs = new ArrayList<ClassDependencyGraph>();
+        graphs.add(testGraph);
+        for (MavenProject p : projects) {
+            graphs.add(getClassDependencyGraph(p, new File(p.getBuild().getOutputDirectory())));
+        }
+        Set<String> tests = TestImpactAnalyzer.getAffectedTests(testGraph, graphs, modifiedTypes,
+                getChildValues(surefireConfig, "includes"), getChildValues(surefireConfig, "excludes"));
+        if (tests != null) {
+            log.debug("Unit tests affected by the modified classes " + modifiedTypes + ": " + tests);
+        }
+        return tests;
+    }
+
+    private List<String> getChildValues(Xpp3Dom config, String name) {
+        List<String> values = new ArrayList<String>();
+        Xpp3Dom parent = config.getChild(name);
+        if (parent != null) {
+            for (Xpp3Dom child : parent.getChildren()) {
+                if (child.getValue() != null) {
+                    values.add(child.getValue());
+                }
+            }
+        }
+        return values;
+    }
+
     /**
      * Executes maven:compile but logs errors as warning messages
      * 
@@ -1901,6 +3477,300 @@ public class DevMojo extends LooseAppSupport {
         runCompileMojo("testCompile", mavenProject);
     }
 
+    /**
+     * Check whether a startup step can be skipped because its inputs have not
+     * changed since dev mode last shut down cleanly.
+     * 
+     * @param step     the liberty goal run by the step
+     * @param projects the projects of the application
+     * @return true if the step should be skipped
+     */
+    private boolean skipWarmStartStep(String step, List<MavenProject> projects) {
+        if (warmStartManifest == null) {
+            return false;
+        }
+        try {
+            if (warmStartManifest.isUnchanged(step, getWarmStartFingerprint(step, projects))) {
+                log.info("Skipping liberty:" + step + " since its inputs have not changed since dev mode last ran.");
+                return true;
+            }
+        } catch (IOException e) {
+            log.debug(e);
+        }
+        return false;
+    }
+
+    private void saveWarmStartManifest(List<MavenProject> projects) {
+        Map<String, String> fingerprints = new HashMap<String, String>();
+        try {
+            for (String step : WARM_START_STEPS) {
+                fingerprints.put(step, getWarmStartFingerprint(step, projects));
+            }
+        } catch (IOException e) {
+            log.debug(e);
+            return;
+        }
+        warmStartManifest.save(fingerprints);
+    }
+
+    /**
+     * Compute the fingerprint of the inputs of a startup step, including the
+     * parts of the server that the step produces, so that a step also runs again
+     * if its output was removed.
+     * 
+     * @param step     the liberty goal run by the step
+     * @param projects the projects of the application
+     * @return the fingerprint
+     * @throws IOException if an input cannot be read
+     */
+    private String getWarmStartFingerprint(String step, List<MavenProject> projects) throws IOException {
+        MessageDigest digest = DigestUtil.newDigest();
+        Plugin libertyPlugin = getLibertyPlugin();
+        DigestUtil.update(digest, libertyPlugin.getVersion());
+        DigestUtil.update(digest, String.valueOf(ExecuteMojoUtil.getPluginGoalConfig(libertyPlugin, step, log)));
+        DigestUtil.update(digest, installDirectory.getAbsolutePath());
+        DigestUtil.update(digest, serverDirectory.getAbsolutePath());
+        DigestUtil.updateDirectory(digest, configDirectory, null);
+
+        // liberty.* properties, with user properties taking precedence
+        Map<String, String> libertyProperties = new TreeMap<String, String>();
+        for (Properties properties : Arrays.asList(project.getProperties(), session.getUserProperties())) {
+            for (String name : properties.stringPropertyNames()) {
+                if (name.startsWith("liberty.")) {
+                    libertyProperties.put(name, properties.getProperty(name));
+                }
+            }
+        }
+        DigestUtil.update(digest, libertyProperties.toString());
+
+        if (step.equals("generate-features")) {
+            for (MavenProject p : projects) {
+                DigestUtil.updateDirectory(digest, new File(p.getBuild().getOutputDirectory()), ".class");
+            }
+        } else if (step.equals("create")) {
+            DigestUtil.update(digest, serverXmlFile);
+            DigestUtil.update(digest, bootstrapPropertiesFile);
+            DigestUtil.update(digest, jvmOptionsFile);
+            DigestUtil.update(digest, serverEnvFile);
+            DigestUtil.update(digest, new File(serverDirectory, "server.xml"));
+        } else {
+            // the resolved artifacts rather than the declared dependencies, so that
+            // a changed range, transitive dependency or rebuilt snapshot is seen;
+            // the size and time stand in for the contents of the files, which
+            // would take too long to read at every startup
+            for (MavenProject p : projects) {
+                for (Artifact artifact : p.getArtifacts()) {
+                    File file = artifact.getFile();
+                    DigestUtil.update(digest, artifact.getId() + ":" + artifact.getScope());
+                    DigestUtil.update(digest, file == null ? "<unresolved>"
+                            : file.getAbsolutePath() + ":" + file.length() + ":" + file.lastModified());
+                }
+            }
+            if (step.equals("install-feature")) {
+                DigestUtil.updateDirectory(digest, new File(installDirectory, "lib/features"), ".mf");
+            } else {
+                DigestUtil.update(digest, project.getPackaging());
+                DigestUtil.update(digest, project.getBuild().getFinalName());
+                DigestUtil.updateDirectory(digest, new File(serverDirectory, "apps"), null);
+                DigestUtil.updateDirectory(digest, new File(serverDirectory, "dropins"), null);
+            }
+        }
+        return DigestUtil.toHex(digest.digest());
+    }
+
+    /**
+     * Update the webapp directory of the exploded WAR. If incrementalExplodedWar
+     * is enabled and the configuration of the exploded WAR has not changed since
+     * the last update, only the changed source files are copied and the changed
+     * files that need filtering are filtered one by one. Otherwise the
+     * maven-war-plugin's exploded goal is run.
+     * 
+     * @throws MojoExecutionException if the exploded goal fails
+     */
+    private synchronized void syncExplodedWar() throws MojoExecutionException {
+        if (!incrementalExplodedWar) {
+            runExplodedMojo();
+            return;
+        }
+        try (PhaseTrace.Span span = startPhase("exploded WAR sync")) {
+            String fingerprint = getExplodedWarFingerprint();
+            if (explodedWarSync != null && explodedWarSync.isCurrent(fingerprint)) {
+                Map<ExplodedWarSync.Root, List<String>> filtered = explodedWarSync.sync();
+                if (filtered != null) {
+                    Plugin warPlugin = getPlugin("org.apache.maven.plugins", "maven-war-plugin");
+                    Xpp3Dom warConfig = ExecuteMojoUtil.getPluginGoalConfig(warPlugin, "war", log);
+                    Path webAppDirectory = LooseWarApplication.getWebAppDirectory(project);
+                    for (Map.Entry<ExplodedWarSync.Root, List<String>> e : filtered.entrySet()) {
+                        runFilteredCopy(e.getKey().getSource(), e.getValue(),
+                                webAppDirectory.resolve(e.getKey().getTargetPath()), warConfig);
+                    }
+                    return;
+                }
+            }
+            List<ExplodedWarSync.Root> roots = getExplodedWarRoots();
+            if (roots != null) {
+                explodedWarSync = new ExplodedWarSync(LooseWarApplication.getWebAppDirectory(project), log);
+                explodedWarSync.reset(fingerprint, roots, LooseWarApplication.isUsingOverlays(project));
+            } else {
+                log.debug("The exploded WAR configuration cannot be synced incrementally");
+                explodedWarSync = null;
+            }
+        } catch (IOException | MojoExecutionException e) {
+            log.debug("Could not sync the exploded WAR incrementally", e);
+            explodedWarSync = null;
+        }
+        runExplodedMojo();
+    }
+
+    /**
+     * @return the source directories that the exploded goal copies into the
+     *         webapp directory, in order of precedence, or null if the
+     *         configuration selects files in a way that is not synced
+     *         incrementally
+     */
+    private List<ExplodedWarSync.Root> getExplodedWarRoots() {
+        Plugin warPlugin = getPlugin("org.apache.maven.plugins", "maven-war-plugin");
+        Xpp3Dom warConfig = ExecuteMojoUtil.getPluginGoalConfig(warPlugin, "war", log);
+        for (String parameter : new String[] { "warSourceIncludes", "warSourceExcludes", "webXml",
+                "containerConfigXML" }) {
+            if (warConfig.getChild(parameter) != null) {
+                return null;
+            }
+        }
+        // the sync always skips the default excludes
+        Xpp3Dom useDefaultExcludes = warConfig.getChild("useDefaultExcludes");
+        if (useDefaultExcludes != null && "false".equalsIgnoreCase(useDefaultExcludes.getValue())) {
+            return null;
+        }
+        List<ExplodedWarSync.Root> roots = new ArrayList<ExplodedWarSync.Root>();
+        Path baseDir = project.getBasedir().toPath();
+        for (Xpp3Dom resource : LooseWarApplication.getWebResourcesConfigurations(project)) {
+            if (resource.getChild("includes") != null || resource.getChild("excludes") != null) {
+                return null;
+            }
+            Xpp3Dom targetPath = resource.getChild("targetPath");
+            Xpp3Dom filtering = resource.getChild("filtering");
+            roots.add(new ExplodedWarSync.Root(baseDir.resolve(resource.getChild("directory").getValue()),
+                    targetPath == null ? null : targetPath.getValue(),
+                    filtering != null && Boolean.parseBoolean(filtering.getValue())));
+        }
+        if (LooseWarApplication.isFilteringDeploymentDescriptors(project)) {
+            roots.add(new ExplodedWarSync.Root(LooseWarApplication.getWarSourceDirectory(project), null, false,
+                    "WEB-INF/web.xml"));
+        } else {
+            roots.add(new ExplodedWarSync.Root(LooseWarApplication.getWarSourceDirectory(project), null, false));
+        }
+        roots.add(new ExplodedWarSync.Root(Paths.get(project.getBuild().getOutputDirectory()), "WEB-INF/classes",
+                false));
+        return roots;
+    }
+
+    /**
+     * @return a fingerprint of the configuration of the exploded WAR that cannot
+     *         be synced file by file, including the values used for filtering
+     * @throws IOException if a filter file cannot be read
+     */
+    private String getExplodedWarFingerprint() throws IOException {
+        MessageDigest digest = DigestUtil.newDigest();
+        Plugin warPlugin = getPlugin("org.apache.maven.plugins", "maven-war-plugin");
+        Xpp3Dom warConfig = ExecuteMojoUtil.getPluginGoalConfig(warPlugin, "war", log);
+        DigestUtil.update(digest, warPlugin.getVersion());
+        DigestUtil.update(digest, String.valueOf(warConfig));
+        DigestUtil.update(digest, String.valueOf(LooseWarApplication.getWebAppDirectory(project)));
+        DigestUtil.update(digest, new TreeMap<Object, Object>(project.getProperties()).toString());
+        DigestUtil.update(digest, new TreeMap<Object, Object>(session.getUserProperties()).toString());
+        for (Dependency dependency : project.getDependencies()) {
+            DigestUtil.update(digest, dependency.getManagementKey() + ":" + dependency.getVersion() + ":"
+                    + dependency.getScope());
+        }
+        List<String> filters = new ArrayList<String>(project.getBuild().getFilters());
+        Xpp3Dom warFilters = warConfig.getChild("filters");
+        if (warFilters != null) {
+            for (Xpp3Dom filter : warFilters.getChildren()) {
+                filters.add(filter.getValue());
+            }
+        }
+        for (String filter : filters) {
+            DigestUtil.update(digest, project.getBasedir().toPath().resolve(filter).toFile());
+        }
+        return DigestUtil.toHex(digest.digest());
+    }
+
+    /**
+     * Copy a changed resource of an exploded WAR to the output directory,
+     * filtering only that file if its resource directory is filtered. The
+     * maven-resources-plugin's resources goal is run if the resource directory
+     * selects files with includes or excludes.
+     * 
+     * @param fileChanged     the changed resource
+     * @param resourceParent  the resource directory
+     * @param outputDirectory the classes output directory
+     */
+    private void copyExplodedResource(File fileChanged, File resourceParent, File outputDirectory)
+            throws IOException, MojoExecutionException {
+        Resource resource = null;
+        for (Resource r : project.getResources()) {
+            if (new File(r.getDirectory()).getCanonicalFile().equals(resourceParent.getCanonicalFile())) {
+                resource = r;
+            }
+        }
+        if (resource == null || !resource.getIncludes().isEmpty() || !resource.getExcludes().isEmpty()) {
+            runMojo("org.apache.maven.plugins", "maven-resources-plugin", "resources");
+        } else if (resource.isFiltering()) {
+            Plugin resourcesPlugin = getPlugin("org.apache.maven.plugins", "maven-resources-plugin");
+            Path outputPath = outputDirectory.toPath();
+            if (resource.getTargetPath() != null) {
+                outputPath = outputPath.resolve(resource.getTargetPath());
+            }
+            String file = resourceParent.getCanonicalFile().toPath().relativize(fileChanged.getCanonicalFile().toPath())
+                    .toString().replace('\\', '/');
+            runFilteredCopy(resourceParent.toPath(), Arrays.asList(file), outputPath,
+                    ExecuteMojoUtil.getPluginGoalConfig(resourcesPlugin, "resources", log));
+        } else {
+            try (PhaseTrace.Span span = startPhase("resources")) {
+                util.copyFile(fileChanged, resourceParent, outputDirectory, null);
+            }
+        }
+    }
+
+    /**
+     * Filter files with the maven-resources-plugin's copy-resources goal.
+     * 
+     * @param sourceDirectory the directory containing the files
+     * @param files           the paths of the files relative to the directory
+     * @param outputDirectory the directory to copy the files to
+     * @param filterConfig    a goal configuration with the filtering parameters
+     * @throws MojoExecutionException if the goal fails
+     */
+    private void runFilteredCopy(Path sourceDirectory, List<String> files, Path outputDirectory, Xpp3Dom filterConfig)
+            throws MojoExecutionException {
+        Plugin resourcesPlugin = getPlugin("org.apache.maven.plugins", "maven-resources-plugin");
+        List<Element> includes = new ArrayList<Element>();
+        for (String file : files) {
+            includes.add(element(name("include"), file));
+        }
+        Xpp3Dom config = configuration(element(name("outputDirectory"), outputDirectory.toString()),
+                element(name("overwrite"), "true"),
+                element(name("resources"), element(name("resource"),
+                        element(name("directory"), sourceDirectory.toString()), element(name("filtering"), "true"),
+                        element(name("includes"), includes.toArray(new Element[includes.size()])))));
+        for (String parameter : new String[] { "delimiters", "encoding", "escapeString", "filters",
+                "nonFilteredFileExtensions", "supportMultiLineFiltering", "useDefaultDelimiters" }) {
+            if (filterConfig.getChild(parameter) != null) {
+                config.addChild(filterConfig.getChild(parameter));
+            }
+        }
+        if (filterConfig.getChild("resourceEncoding") != null) {
+            config.addChild(element(name("encoding"), filterConfig.getChild("resourceEncoding").getValue()).toDom());
+        }
+        log.debug("Filtering " + files + " of " + sourceDirectory + " to " + outputDirectory);
+        log.debug("configuration:\n" + config);
+        try (PhaseTrace.Span span = startPhase("maven-resources-plugin:copy-resources")) {
+            executeMojo(resourcesPlugin, goal("copy-resources"), config,
+                    executionEnvironment(project, session, pluginManager));
+        }
+    }
+
     /**
      * Executes liberty:install-feature unless using Liberty in a container
      * 
@@ -1908,7 +3778,78 @@ public class DevMojo extends LooseAppSupport {
      */
     @Override
     protected void runLibertyMojoInstallFeature(Element features, File serverDir, String containerName) throws MojoExecutionException {
-        super.runLibertyMojoInstallFeature(features, serverDir, containerName);
+        try {
+            super.runLibertyMojoInstallFeature(features, serverDir, containerName);
+        } catch (MojoExecutionException e) {
+            invalidateWarmStart();
+            throw e;
+        }
+    }
+
+    /**
+     * Executes liberty:deploy
+     * 
+     * @throws MojoExecutionException
+     */
+    @Override
+    protected void runLibertyMojoDeploy(boolean forceLooseApp) throws MojoExecutionException {
+        try {
+            super.runLibertyMojoDeploy(forceLooseApp);
+            restartApplication(null);
+        } catch (MojoExecutionException e) {
+            invalidateWarmStart();
+            throw e;
+        }
+    }
+
+    /**
+     * Apply the logging properties of the project to the running server through
+     * its logging configuration. The file is deleted when dev mode exits, since
+     * the bootstrap.properties and server.env written by liberty:create have the
+     * same values for the next start.
+     * 
+     * @param libertyPlugin the Liberty plugin of the project
+     */
+    private void writeLoggingConfig(Plugin libertyPlugin) {
+        Map<String, String> bootstrapProperties = null;
+        Xpp3Dom createConfig = ExecuteMojoUtil.getPluginGoalConfig(libertyPlugin, "create", log);
+        Xpp3Dom bootstrapConfig = createConfig == null ? null : createConfig.getChild("bootstrapProperties");
+        if (bootstrapConfig != null) {
+            bootstrapProperties = new HashMap<String, String>();
+            for (Xpp3Dom property : bootstrapConfig.getChildren()) {
+                bootstrapProperties.put(property.getName(), property.getValue());
+            }
+        }
+        Map<String, String> loggingConfig = ServerPropertyClassifier.getLoggingConfig(
+                new Properties[] { project.getProperties(), System.getProperties() }, bootstrapProperties);
+        try {
+            ServerPropertyClassifier.writeLoggingConfig(serverDirectory, loggingConfig);
+            log.debug("Updated the logging configuration of the server: " + loggingConfig);
+        } catch (IOException | TransformerException | ParserConfigurationException e) {
+            log.error("Unable to update the logging configuration of the server, restart dev mode to apply the logging properties. "
+                    + e.getMessage());
+            log.debug(e);
+            return;
+        }
+        if (!loggingConfigWritten) {
+            loggingConfigWritten = true;
+            Runtime.getRuntime().addShutdownHook(new Thread() {
+                @Override
+                public void run() {
+                    new File(serverDirectory, ServerPropertyClassifier.LOGGING_CONFIG_DEFAULTS_XML).delete();
+                }
+            });
+        }
+    }
+
+    /**
+     * The server may not reflect the inputs of a step that failed, so do not
+     * skip any step on the next start.
+     */
+    private void invalidateWarmStart() {
+        if (warmStartManifest != null) {
+            warmStartManifest.invalidate();
+        }
     }
 
     /**
@@ -1928,7 +3869,12 @@ public class DevMojo extends LooseAppSupport {
                 serverDirectory.mkdirs();
             }
         } else {
-            super.runLibertyMojoCreate();
+            try {
+                super.runLibertyMojoCreate();
+            } catch (MojoExecutionException e) {
+                invalidateWarmStart();
+                throw e;
+            }
         }
     }
 
@@ -1939,6 +3885,11 @@ public class DevMojo extends LooseAppSupport {
      */
     @Override
     protected void runLibertyMojoGenerateFeatures(Element classFiles, boolean optimize) throws MojoExecutionException {
-        super.runLibertyMojoGenerateFeatures(classFiles, optimize);
+        try {
+            super.runLibertyMojoGenerateFeatures(classFiles, optimize);
+        } catch (MojoExecutionException e) {
+            invalidateWarmStart();
+            throw e;
+        }
     }
 }
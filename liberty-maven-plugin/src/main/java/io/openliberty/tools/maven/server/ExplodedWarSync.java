@@ -0,0 +1,298 @@
+/**
+ * (C) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openliberty.tools.maven.server;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.plugin.logging.Log;
+import org.codehaus.plexus.util.DirectoryScanner;
+import org.codehaus.plexus.util.SelectorUtils;
+
+/**
+ * Keeps the webapp directory of an exploded WAR up to date by copying only the
+ * source files that changed since the last sync, instead of running the
+ * maven-war-plugin's exploded goal again.
+ * <p>
+ * The source directories are scanned for files whose modification time or
+ * size changed, which only reads file attributes. Changed files that need to be
+ * filtered are returned to the caller. Changes that cannot be synced file by
+ * file, such as a changed overlay or filter configuration, are detected with a
+ * fingerprint of that configuration and require the exploded goal. Like the
+ * maven-war-plugin, the scan skips the Plexus default excludes.
+ */
+public class ExplodedWarSync {
+
+    /**
+     * A source directory that is copied into the webapp directory. Earlier roots
+     * take precedence over later roots for the same target file.
+     */
+    public static class Root {
+        private final Path source;
+        private final String targetPath;
+        private final boolean filtered;
+        private final Set<String> filteredFiles;
+
+        /**
+         * @param source        the source directory
+         * @param targetPath    the directory relative to the webapp directory that
+         *                      the source directory is copied to
+         * @param filtered      whether all files of the source directory are
+         *                      filtered
+         * @param filteredFiles the relative paths of files that are filtered even
+         *                      if the directory is not
+         */
+        public Root(Path source, String targetPath, boolean filtered, String... filteredFiles) {
+            this.source = source;
+            this.targetPath = targetPath == null ? "" : targetPath;
+            this.filtered = filtered;
+            this.filteredFiles = new HashSet<String>(Arrays.asList(filteredFiles));
+        }
+
+        public Path getSource() {
+            return source;
+        }
+
+        public String getTargetPath() {
+            return targetPath;
+        }
+
+        boolean isFiltered(String relativePath) {
+            return filtered || filteredFiles.contains(relativePath);
+        }
+
+        @Override
+        public String toString() {
+            return source + " -> /" + targetPath;
+        }
+    }
+
+    private final Path webAppDirectory;
+    private final Log log;
+
+    private String fingerprint;
+    private List<Root> roots = new ArrayList<Root>();
+    private boolean overlays;
+    private final Map<Root, Map<String, String>> snapshots = new HashMap<Root, Map<String, String>>();
+
+    /**
+     * @param webAppDirectory the webapp directory of the exploded WAR
+     * @param log             the log
+     */
+    public ExplodedWarSync(Path webAppDirectory, Log log) {
+        this.webAppDirectory = webAppDirectory;
+        this.log = log;
+    }
+
+    /**
+     * @param fingerprint the fingerprint of the configuration of the exploded WAR
+     * @return true if the webapp directory was synced with the same configuration
+     *         before, so that it can be synced incrementally
+     */
+    public synchronized boolean isCurrent(String fingerprint) {
+        return fingerprint != null && fingerprint.equals(this.fingerprint);
+    }
+
+    /**
+     * Record the current state of the source directories. Call this before the
+     * exploded goal builds the whole webapp directory, so that files that change
+     * while it runs are synced the next time.
+     *
+     * @param fingerprint the fingerprint of the configuration of the exploded WAR
+     * @param roots       the source directories, in order of precedence
+     * @param overlays    whether the WAR uses overlays, which may provide files
+     *                    that are deleted from the source directories
+     * @throws IOException if a source directory cannot be read
+     */
+    public synchronized void reset(String fingerprint, List<Root> roots, boolean overlays) throws IOException {
+        this.fingerprint = null;
+        this.roots = new ArrayList<Root>(roots);
+        this.overlays = overlays;
+        snapshots.clear();
+        for (Root root : this.roots) {
+            snapshots.put(root, scan(root));
+        }
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * Forget the recorded state, so that the next sync needs the exploded goal.
+     */
+    public synchronized void invalidate() {
+        fingerprint = null;
+    }
+
+    /**
+     * Copy the source files that changed since the last sync into the webapp
+     * directory and delete the ones that were removed.
+     *
+     * @return the relative paths of changed files that need to be filtered, by
+     *         source directory, or null if the changes cannot be synced file by
+     *         file and the exploded goal is needed
+     * @throws IOException if a file cannot be copied or deleted
+     */
+    public synchronized Map<Root, List<String>> sync() throws IOException {
+        Map<Root, Map<String, String>> current = new HashMap<Root, Map<String, String>>();
+        Map<Root, List<String>> changed = new LinkedHashMap<Root, List<String>>();
+        Map<Root, List<String>> deleted = new LinkedHashMap<Root, List<String>>();
+        for (Root root : roots) {
+            current.put(root, scan(root));
+        }
+        for (Root root : roots) {
+            Map<String, String> previous = snapshots.get(root);
+            Map<String, String> files = current.get(root);
+            List<String> rootChanged = new ArrayList<String>();
+            for (Map.Entry<String, String> e : files.entrySet()) {
+                if (!e.getValue().equals(previous.get(e.getKey()))) {
+                    rootChanged.add(e.getKey());
+                }
+            }
+            List<String> rootDeleted = new ArrayList<String>();
+            for (String file : previous.keySet()) {
+                if (!files.containsKey(file)) {
+                    if (overlays || getProvider(target(root, file), current, root) != null) {
+                        // another source may provide the file, which the exploded goal sorts out
+                        log.debug("Deleted file " + file + " of " + root + " may be provided by another source");
+                        invalidate();
+                        return null;
+                    }
+                    rootDeleted.add(file);
+                }
+            }
+            changed.put(root, rootChanged);
+            deleted.put(root, rootDeleted);
+        }
+
+        Map<Root, List<String>> filtered = new LinkedHashMap<Root, List<String>>();
+        int copied = 0;
+        for (Root root : roots) {
+            for (String file : deleted.get(root)) {
+                Files.deleteIfExists(target(root, file));
+            }
+            for (String file : changed.get(root)) {
+                Path target = target(root, file);
+                Root provider = getProvider(target, current, null);
+                if (provider != root) {
+                    // an earlier source directory takes precedence for this file
+                    continue;
+                }
+                if (root.isFiltered(file)) {
+                    List<String> files = filtered.get(root);
+                    if (files == null) {
+                        files = new ArrayList<String>();
+                        filtered.put(root, files);
+                    }
+                    files.add(file);
+                } else {
+                    Files.createDirectories(target.getParent());
+                    Files.copy(root.source.resolve(file), target, StandardCopyOption.REPLACE_EXISTING);
+                    copied++;
+                }
+            }
+            snapshots.put(root, current.get(root));
+        }
+        if (copied > 0 || !filtered.isEmpty()) {
+            log.debug("Synced " + copied + " files to " + webAppDirectory + ", " + filtered + " to be filtered");
+        }
+        return filtered;
+    }
+
+    private Path target(Root root, String file) {
+        return webAppDirectory.resolve(root.targetPath).resolve(file).normalize();
+    }
+
+    /**
+     * @return the first root that has a source file for the target, other than
+     *         the excluded root
+     */
+    private Root getProvider(Path target, Map<Root, Map<String, String>> files, Root excluded) {
+        for (Root root : roots) {
+            if (root == excluded) {
+                continue;
+            }
+            Path rootTarget = webAppDirectory.resolve(root.targetPath).normalize();
+            if (target.startsWith(rootTarget)) {
+                String file = rootTarget.relativize(target).toString().replace('\\', '/');
+                Map<String, String> rootFiles = files.get(root);
+                if (rootFiles != null && rootFiles.containsKey(file)) {
+                    return root;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the modification time and size of the files of the root, keyed by
+     *         relative path
+     */
+    private static Map<String, String> scan(final Root root) throws IOException {
+        final Map<String, String> files = new HashMap<String, String>();
+        if (!Files.isDirectory(root.source)) {
+            return files;
+        }
+        Files.walkFileTree(root.source, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) {
+                if (!dir.equals(root.source) && isDefaultExcluded(getRelativePath(dir))) {
+                    return FileVisitResult.SKIP_SUBTREE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                String path = getRelativePath(file);
+                if (attrs.isRegularFile() && !isDefaultExcluded(path)) {
+                    files.put(path, attrs.lastModifiedTime().toMillis() + ":" + attrs.size());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            private String getRelativePath(Path path) {
+                return root.source.relativize(path).toString().replace('\\', '/');
+            }
+        });
+        return files;
+    }
+
+    /**
+     * @param path a relative path with forward slashes
+     * @return true if the maven-war-plugin does not copy the path by default,
+     *         such as version control and editor backup files
+     */
+    private static boolean isDefaultExcluded(String path) {
+        for (String pattern : DirectoryScanner.DEFAULTEXCLUDES) {
+            if (SelectorUtils.matchPath(pattern, path, "/", true)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
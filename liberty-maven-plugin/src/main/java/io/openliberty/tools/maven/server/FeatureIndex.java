@@ -0,0 +1,626 @@
+/**
+ * (C) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openliberty.tools.maven.server;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.Attributes;
+import java.util.jar.Manifest;
+
+import org.apache.maven.plugin.logging.Log;
+
+import io.openliberty.tools.maven.utils.DigestUtil;
+
+/**
+ * The features of a Liberty runtime and their dependencies, read from the
+ * feature manifests in {@code lib/features} and
+ * {@code usr/extension/lib/features}.
+ * <p>
+ * The index is written to a file named after the runtime version, together with
+ * a fingerprint of the manifests, so that the manifests are only parsed again
+ * when the runtime changes. Loaded indexes are also kept in memory for the
+ * goals that run in the same build, such as the goals that dev mode runs.
+ */
+public class FeatureIndex {
+
+    private static final String FORMAT = "liberty-feature-index-2";
+    private static final String USR_PREFIX = "usr:";
+    private static final String FEATURE_TYPE = "osgi.subsystem.feature";
+    private static final String BUNDLE_TYPE = "osgi.bundle";
+
+    private static final Map<String, FeatureIndex> LOADED = new ConcurrentHashMap<String, FeatureIndex>();
+
+    /** A feature, the features it depends on and the bundles it contains */
+    public static class Feature {
+        private final String symbolicName;
+        private final String shortName;
+        private final boolean isPublic;
+        private final boolean singleton;
+        private final Set<String> platforms;
+        /** each dependency is the preferred feature followed by the tolerated features */
+        private final List<List<String>> dependencies;
+        private final List<String> bundles;
+
+        Feature(String symbolicName, String shortName, boolean isPublic, boolean singleton, Set<String> platforms,
+                List<List<String>> dependencies, List<String> bundles) {
+            this.symbolicName = symbolicName;
+            this.shortName = shortName;
+            this.isPublic = isPublic;
+            this.singleton = singleton;
+            this.platforms = platforms;
+            this.dependencies = dependencies;
+            this.bundles = bundles;
+        }
+
+        public String getSymbolicName() {
+            return symbolicName;
+        }
+
+        /**
+         * @return the short name, or null if the feature does not have one
+         */
+        public String getShortName() {
+            return shortName;
+        }
+
+        public boolean isPublic() {
+            return isPublic;
+        }
+
+        public boolean isSingleton() {
+            return singleton;
+        }
+
+        /**
+         * @return the Jakarta EE, Java EE and MicroProfile platforms that the feature
+         *         belongs to, if the runtime declares them
+         */
+        public Set<String> getPlatforms() {
+            return platforms;
+        }
+
+        public List<List<String>> getDependencies() {
+            return dependencies;
+        }
+
+        /**
+         * @return the symbolic names of the bundles in the feature
+         */
+        public List<String> getBundles() {
+            return bundles;
+        }
+    }
+
+    private final String fingerprint;
+    /** features by lower case symbolic name */
+    private final Map<String, Feature> features;
+    /** features by lower case short name, with the usr: prefix for user features */
+    private final Map<String, Feature> shortNames;
+
+    private FeatureIndex(String fingerprint, Collection<Feature> features) {
+        this.fingerprint = fingerprint;
+        this.features = new HashMap<String, Feature>();
+        this.shortNames = new HashMap<String, Feature>();
+        for (Feature feature : features) {
+            this.features.put(feature.getSymbolicName().toLowerCase(), feature);
+        }
+        for (Feature feature : features) {
+            if (feature.getShortName() != null) {
+                this.shortNames.put(feature.getShortName().toLowerCase(), feature);
+            }
+        }
+    }
+
+    /**
+     * Get the index of a runtime, reading it from the index file if it is up to
+     * date and otherwise parsing the feature manifests and writing the index file.
+     *
+     * @param installDirectory the wlp directory of the runtime
+     * @param userDirectory    the usr directory of the runtime
+     * @param indexFile        the index file for the runtime version
+     * @param log              the log
+     * @return the index
+     */
+    public static FeatureIndex load(File installDirectory, File userDirectory, File indexFile, Log log) {
+        List<File> manifests = listManifests(installDirectory, userDirectory);
+        String fingerprint = fingerprint(manifests);
+        String key = indexFile.getAbsolutePath();
+
+        FeatureIndex index = LOADED.get(key);
+        if (index != null && index.fingerprint.equals(fingerprint)) {
+            return index;
+        }
+        index = read(indexFile, fingerprint, log);
+        if (index == null) {
+            long start = System.currentTimeMillis();
+            index = build(manifests, userDirectory, fingerprint, log);
+            write(index, indexFile, log);
+            log.debug("Indexed " + index.features.size() + " features in " + (System.currentTimeMillis() - start)
+                    + " ms");
+        }
+        LOADED.put(key, index);
+        return index;
+    }
+
+    /**
+     * @return the number of features in the index
+     */
+    public int size() {
+        return features.size();
+    }
+
+    /**
+     * @return the public features, sorted by short name
+     */
+    public Collection<Feature> getPublicFeatures() {
+        Map<String, Feature> result = new TreeMap<String, Feature>();
+        for (Map.Entry<String, Feature> entry : shortNames.entrySet()) {
+            if (entry.getValue().isPublic()) {
+                result.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return result.values();
+    }
+
+    /**
+     * Find a feature as it is named in the featureManager configuration or in the
+     * install-feature configuration.
+     *
+     * @param name the short name or symbolic name of the feature, with the usr:
+     *             prefix for user features
+     * @return the feature, or null if it is not installed
+     */
+    public Feature getFeature(String name) {
+        String key = name.trim().toLowerCase();
+        Feature feature = shortNames.get(key);
+        if (feature == null && !key.startsWith(USR_PREFIX)) {
+            feature = features.get(key);
+        }
+        return feature;
+    }
+
+    /**
+     * @param names the features as they are named in the server configuration
+     * @return the features that are not installed in the runtime
+     */
+    public Set<String> getMissingFeatures(Collection<String> names) {
+        Set<String> missing = new TreeSet<String>();
+        for (String name : names) {
+            if (getFeature(name) == null) {
+                missing.add(name);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Get the features that the given features enable, including the given
+     * features, preferring the features that the dependencies tolerate when they
+     * are selected by another dependency.
+     *
+     * @param names the features as they are named in the server configuration
+     * @return the symbolic names of the enabled features that are installed
+     */
+    public Set<String> getEnabledFeatures(Collection<String> names) {
+        return resolve(names, new HashMap<String, Set<String>>());
+    }
+
+    /**
+     * @param names the features as they are named in the server configuration
+     * @return the symbolic names of the bundles of the features that the given
+     *         features enable
+     */
+    public Set<String> getBundles(Collection<String> names) {
+        Set<String> bundles = new TreeSet<String>();
+        for (String symbolicName : getEnabledFeatures(names)) {
+            bundles.addAll(features.get(symbolicName.toLowerCase()).getBundles());
+        }
+        return bundles;
+    }
+
+    /**
+     * Check whether the given features require different versions of a singleton
+     * feature that none of the dependencies tolerate. The check does not consider
+     * every combination of tolerated versions the way the runtime does, so a
+     * reported conflict should be treated as a warning.
+     *
+     * @param names the features as they are named in the server configuration
+     * @return the conflicting versions of each singleton feature, by the symbolic
+     *         name of the feature without its version
+     */
+    public Map<String, Set<String>> getConflicts(Collection<String> names) {
+        Map<String, Set<String>> allowed = null;
+        Map<String, Set<String>> candidates = new TreeMap<String, Set<String>>();
+        // narrow down the versions that all dependencies accept, until the
+        // selected versions no longer change
+        for (int i = 0; i < 5; i++) {
+            Map<String, Set<String>> constraints = new HashMap<String, Set<String>>();
+            resolve(names, allowed == null ? new HashMap<String, Set<String>>() : allowed, constraints, candidates);
+            if (constraints.equals(allowed)) {
+                break;
+            }
+            allowed = constraints;
+        }
+        Map<String, Set<String>> conflicts = new TreeMap<String, Set<String>>();
+        for (Map.Entry<String, Set<String>> entry : allowed.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                conflicts.put(entry.getKey(), candidates.get(entry.getKey()));
+            }
+        }
+        return conflicts;
+    }
+
+    private Set<String> resolve(Collection<String> names, Map<String, Set<String>> allowed) {
+        return resolve(names, allowed, new HashMap<String, Set<String>>(), new HashMap<String, Set<String>>());
+    }
+
+    private Set<String> resolve(Collection<String> names, Map<String, Set<String>> allowed,
+            Map<String, Set<String>> constraints, Map<String, Set<String>> candidates) {
+        Set<String> visited = new LinkedHashSet<String>();
+        List<Feature> pending = new ArrayList<Feature>();
+        for (String name : names) {
+            Feature feature = getFeature(name);
+            if (feature != null) {
+                constrain(feature, Collections.singletonList(feature), constraints, candidates);
+                pending.add(feature);
+            }
+        }
+        while (!pending.isEmpty()) {
+            Feature feature = pending.remove(pending.size() - 1);
+            if (!visited.add(feature.getSymbolicName())) {
+                continue;
+            }
+            for (List<String> dependency : feature.getDependencies()) {
+                List<Feature> options = new ArrayList<Feature>();
+                for (String option : dependency) {
+                    Feature f = features.get(option.toLowerCase());
+                    if (f != null) {
+                        options.add(f);
+                    }
+                }
+                if (options.isEmpty()) {
+                    continue;
+                }
+                Feature selected = options.get(0);
+                Set<String> accepted = allowed.get(getBaseName(selected.getSymbolicName()));
+                if (accepted != null) {
+                    for (Feature option : options) {
+                        if (accepted.contains(option.getSymbolicName().toLowerCase())) {
+                            selected = option;
+                            break;
+                        }
+                    }
+                }
+                constrain(selected, options, constraints, candidates);
+                pending.add(selected);
+            }
+        }
+        return visited;
+    }
+
+    private static void constrain(Feature selected, List<Feature> options, Map<String, Set<String>> constraints,
+            Map<String, Set<String>> candidates) {
+        if (!selected.isSingleton()) {
+            return;
+        }
+        String baseName = getBaseName(selected.getSymbolicName());
+        Set<String> accepted = new TreeSet<String>();
+        for (Feature option : options) {
+            if (baseName.equals(getBaseName(option.getSymbolicName()))) {
+                accepted.add(option.getSymbolicName().toLowerCase());
+            }
+        }
+        Set<String> current = constraints.get(baseName);
+        if (current == null) {
+            constraints.put(baseName, accepted);
+        } else {
+            current.retainAll(accepted);
+        }
+        Set<String> names = candidates.get(baseName);
+        if (names == null) {
+            names = new TreeSet<String>();
+            candidates.put(baseName, names);
+        }
+        names.add(selected.getShortName() != null ? selected.getShortName() : selected.getSymbolicName());
+    }
+
+    /**
+     * @param symbolicName the symbolic name of a feature, such as
+     *                     com.ibm.websphere.appserver.servlet-4.0, or its short
+     *                     name, such as servlet-4.0
+     * @return the lower case name without the version, such as
+     *         com.ibm.websphere.appserver.servlet or servlet
+     */
+    static String getBaseName(String symbolicName) {
+        String name = symbolicName.toLowerCase();
+        int dash = name.lastIndexOf('-');
+        if (dash > 0 && dash < name.length() - 1 && Character.isDigit(name.charAt(dash + 1))) {
+            return name.substring(0, dash);
+        }
+        return name;
+    }
+
+    private static List<File> listManifests(File installDirectory, File userDirectory) {
+        List<File> manifests = new ArrayList<File>();
+        addManifests(new File(installDirectory, "lib/features"), manifests);
+        if (userDirectory != null) {
+            addManifests(new File(userDirectory, "extension/lib/features"), manifests);
+        }
+        return manifests;
+    }
+
+    private static void addManifests(File directory, List<File> manifests) {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            if (file.isFile() && file.getName().endsWith(".mf")) {
+                manifests.add(file);
+            }
+        }
+    }
+
+    private static String fingerprint(List<File> manifests) {
+        MessageDigest digest = DigestUtil.newDigest();
+        DigestUtil.update(digest, FORMAT);
+        for (File manifest : manifests) {
+            DigestUtil.update(digest, manifest.getAbsolutePath() + " " + manifest.lastModified() + " "
+                    + manifest.length());
+        }
+        return DigestUtil.toHex(digest.digest());
+    }
+
+    private static FeatureIndex build(List<File> manifests, File userDirectory, String fingerprint, Log log) {
+        String userFeatures = userDirectory == null ? null
+                : new File(userDirectory, "extension/lib/features").getAbsolutePath();
+        List<Feature> features = new ArrayList<Feature>();
+        for (File file : manifests) {
+            Manifest manifest;
+            try (InputStream in = Files.newInputStream(file.toPath())) {
+                manifest = new Manifest(in);
+            } catch (IOException e) {
+                log.debug("Could not read the feature manifest " + file, e);
+                continue;
+            }
+            boolean isUserFeature = file.getParentFile().getAbsolutePath().equals(userFeatures);
+            Feature feature = parse(manifest.getMainAttributes(), isUserFeature);
+            if (feature != null) {
+                features.add(feature);
+            }
+        }
+        return new FeatureIndex(fingerprint, features);
+    }
+
+    private static Feature parse(Attributes attributes, boolean isUserFeature) {
+        String symbolicNameHeader = attributes.getValue("Subsystem-SymbolicName");
+        if (symbolicNameHeader == null) {
+            return null;
+        }
+        List<String> clauses = split(symbolicNameHeader, ';');
+        String symbolicName = clauses.get(0).trim();
+        Map<String, String> directives = getParameters(clauses);
+        boolean isPublic = "public".equals(directives.get("visibility"));
+        boolean singleton = "true".equals(directives.get("singleton"));
+
+        String shortName = attributes.getValue("IBM-ShortName");
+        if (shortName != null) {
+            shortName = shortName.trim();
+        } else if (isPublic) {
+            shortName = symbolicName;
+        }
+        if (shortName != null && isUserFeature) {
+            shortName = USR_PREFIX + shortName;
+        }
+
+        Set<String> platforms = new TreeSet<String>();
+        String platformHeader = attributes.getValue("WLP-Platform");
+        if (platformHeader != null) {
+            for (String platform : split(platformHeader, ',')) {
+                if (!platform.trim().isEmpty()) {
+                    platforms.add(platform.trim());
+                }
+            }
+        }
+
+        List<List<String>> dependencies = new ArrayList<List<String>>();
+        List<String> bundles = new ArrayList<String>();
+        String content = attributes.getValue("Subsystem-Content");
+        if (content != null) {
+            for (String entry : split(content, ',')) {
+                List<String> entryClauses = split(entry, ';');
+                Map<String, String> parameters = getParameters(entryClauses);
+                String type = parameters.get("type");
+                if (type == null || BUNDLE_TYPE.equals(type)) {
+                    bundles.add(entryClauses.get(0).trim());
+                }
+                if (!FEATURE_TYPE.equals(type)) {
+                    continue;
+                }
+                String dependency = entryClauses.get(0).trim();
+                List<String> options = new ArrayList<String>();
+                options.add(dependency);
+                String tolerates = parameters.get("ibm.tolerates");
+                if (tolerates != null) {
+                    String baseName = dependency;
+                    int dash = dependency.lastIndexOf('-');
+                    if (dash > 0) {
+                        baseName = dependency.substring(0, dash);
+                    }
+                    for (String version : split(tolerates, ',')) {
+                        if (!version.trim().isEmpty()) {
+                            options.add(baseName + "-" + version.trim());
+                        }
+                    }
+                }
+                dependencies.add(options);
+            }
+        }
+        return new Feature(symbolicName, shortName, isPublic, singleton, platforms, dependencies, bundles);
+    }
+
+    /**
+     * @param clauses the clauses of a manifest header entry, where the first
+     *                clause is the name
+     * @return the attributes and directives of the entry, without quotes
+     */
+    private static Map<String, String> getParameters(List<String> clauses) {
+        Map<String, String> parameters = new HashMap<String, String>();
+        for (int i = 1; i < clauses.size(); i++) {
+            String clause = clauses.get(i);
+            int equals = clause.indexOf('=');
+            if (equals < 0) {
+                continue;
+            }
+            String name = clause.substring(0, equals).trim();
+            if (name.endsWith(":")) {
+                name = name.substring(0, name.length() - 1).trim();
+            }
+            String value = clause.substring(equals + 1).trim();
+            if (value.length() >= 2 && value.startsWith("\"") && value.endsWith("\"")) {
+                value = value.substring(1, value.length() - 1);
+            }
+            parameters.put(name, value.trim());
+        }
+        return parameters;
+    }
+
+    /**
+     * Split a manifest header value on a separator that is not quoted.
+     */
+    private static List<String> split(String value, char separator) {
+        List<String> parts = new ArrayList<String>();
+        StringBuilder part = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            }
+            if (c == separator && !quoted) {
+                parts.add(part.toString());
+                part.setLength(0);
+            } else {
+                part.append(c);
+            }
+        }
+        parts.add(part.toString());
+        return parts;
+    }
+
+    /*
+     * The index file is a header line with the format and the fingerprint of the
+     * manifests, followed by a tab separated line for each feature: symbolic
+     * name, short name, flags, platforms, dependencies and bundles, where the
+     * options of each dependency are separated by '|'.
+     */
+
+    private static FeatureIndex read(File indexFile, String fingerprint, Log log) {
+        if (!indexFile.isFile()) {
+            return null;
+        }
+        List<Feature> features = new ArrayList<Feature>();
+        try (BufferedReader reader = Files.newBufferedReader(indexFile.toPath(), StandardCharsets.UTF_8)) {
+            if (!(FORMAT + "\t" + fingerprint).equals(reader.readLine())) {
+                log.debug("The feature index " + indexFile + " is out of date");
+                return null;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                if (fields.length != 6) {
+                    log.debug("The feature index " + indexFile + " is not valid");
+                    return null;
+                }
+                Set<String> platforms = new TreeSet<String>();
+                if (!fields[3].isEmpty()) {
+                    platforms.addAll(Arrays.asList(fields[3].split(",")));
+                }
+                List<List<String>> dependencies = new ArrayList<List<String>>();
+                if (!fields[4].isEmpty()) {
+                    for (String dependency : fields[4].split(",")) {
+                        dependencies.add(Arrays.asList(dependency.split("\\|")));
+                    }
+                }
+                List<String> bundles = new ArrayList<String>();
+                if (!fields[5].isEmpty()) {
+                    bundles.addAll(Arrays.asList(fields[5].split(",")));
+                }
+                features.add(new Feature(fields[0], fields[1].isEmpty() ? null : fields[1], fields[2].contains("p"),
+                        fields[2].contains("s"), platforms, dependencies, bundles));
+            }
+        } catch (IOException e) {
+            log.debug("Could not read the feature index " + indexFile, e);
+            return null;
+        }
+        return new FeatureIndex(fingerprint, features);
+    }
+
+    private static void write(FeatureIndex index, File indexFile, Log log) {
+        indexFile.getParentFile().mkdirs();
+        try (BufferedWriter writer = Files.newBufferedWriter(indexFile.toPath(), StandardCharsets.UTF_8)) {
+            writer.write(FORMAT + "\t" + index.fingerprint);
+            writer.newLine();
+            for (Feature feature : new TreeMap<String, Feature>(index.features).values()) {
+                StringBuilder line = new StringBuilder();
+                line.append(feature.getSymbolicName()).append('\t');
+                line.append(feature.getShortName() == null ? "" : feature.getShortName()).append('\t');
+                line.append(feature.isPublic() ? "p" : "").append(feature.isSingleton() ? "s" : "").append('\t');
+                line.append(join(feature.getPlatforms(), ",")).append('\t');
+                List<String> dependencies = new ArrayList<String>();
+                for (List<String> dependency : feature.getDependencies()) {
+                    dependencies.add(join(dependency, "|"));
+                }
+                line.append(join(dependencies, ",")).append('\t');
+                line.append(join(feature.getBundles(), ","));
+                writer.write(line.toString());
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            log.debug("Could not write the feature index " + indexFile, e);
+        }
+    }
+
+    private static String join(Collection<String> values, String separator) {
+        StringBuilder result = new StringBuilder();
+        for (String value : values) {
+            if (result.length() > 0) {
+                result.append(separator);
+            }
+            result.append(value);
+        }
+        return result.toString();
+    }
+}
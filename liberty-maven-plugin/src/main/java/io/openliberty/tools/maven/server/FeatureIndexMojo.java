@@ -0,0 +1,64 @@
+/**
+ * (C) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openliberty.tools.maven.server;
+
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.plugins.annotations.Mojo;
+
+import io.openliberty.tools.maven.ServerFeatureSupport;
+
+/**
+ * Build the index of the features that are installed in the runtime, and check
+ * the features in the server configuration against it.
+ */
+@Mojo(name = "feature-index")
+public class FeatureIndexMojo extends ServerFeatureSupport {
+
+    @Override
+    protected void doExecute() throws Exception {
+        if (skip) {
+            getLog().info("\nSkipping feature-index goal.\n");
+            return;
+        }
+        checkServerHomeExists();
+
+        FeatureIndex index = getFeatureIndex();
+        log.info("Indexed " + index.size() + " features of the runtime in " + installDirectory);
+
+        if (!serverDirectory.exists()) {
+            return;
+        }
+        Set<String> features = getServerFeatureUtil(true).getServerFeatures(serverDirectory,
+                getLibertyDirectoryPropertyFiles());
+        if (features == null || features.isEmpty()) {
+            return;
+        }
+        Set<String> missing = index.getMissingFeatures(features);
+        if (!missing.isEmpty()) {
+            log.info("Features in the server configuration that are not installed: " + missing);
+        }
+        Map<String, Set<String>> conflicts = index.getConflicts(features);
+        for (Map.Entry<String, Set<String>> conflict : conflicts.entrySet()) {
+            log.warn("The features in the server configuration may require conflicting versions of "
+                    + conflict.getKey() + ": " + conflict.getValue());
+        }
+        if (missing.isEmpty() && conflicts.isEmpty()) {
+            log.info("All " + features.size() + " features in the server configuration are installed.");
+        }
+    }
+}
@@ -17,11 +17,25 @@ package io.openliberty.tools.maven.server;
 
 import java.io.File;
 import java.io.IOException;
+import java.lang.reflect.Field;
+import java.net.URLClassLoader;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.transform.TransformerException;
@@ -30,6 +44,7 @@ import org.apache.maven.execution.ProjectDependencyGraph;
 import org.apache.maven.model.Dependency;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugin.logging.Log;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
@@ -45,6 +60,8 @@ import static io.openliberty.tools.common.plugins.util.BinaryScannerUtil.*;
 import io.openliberty.tools.common.plugins.util.PluginExecutionException;
 import io.openliberty.tools.common.plugins.util.ServerFeatureUtil;
 import io.openliberty.tools.maven.ServerFeatureSupport;
+import io.openliberty.tools.maven.utils.DaemonThreadFactory;
+import io.openliberty.tools.maven.utils.DigestUtil;
 
 /**
  * This mojo generates the features required in the featureManager element in
@@ -78,6 +95,49 @@ public class GenerateFeaturesMojo extends ServerFeatureSupport {
     @Parameter(property = "optimize", defaultValue = "true")
     private boolean optimize;
 
+    /**
+     * If true and optimize is true, cache the features the binary scanner reports
+     * for the classes directory of each module in the target directory, and only
+     * scan the modules whose class files changed since they were cached.
+     */
+    @Parameter(property = "featureScanCache", defaultValue = "false")
+    private boolean featureScanCache;
+
+    /**
+     * If true and optimize is true, run the binary scanner on the classes
+     * directory of each module of a multi-module project concurrently, then
+     * resolve the features of all modules together.
+     */
+    @Parameter(property = "parallelFeatureScan", defaultValue = "false")
+    private boolean parallelFeatureScan;
+
+    /**
+     * If true and optimize is true, report the features in the server
+     * configuration that the binary scanner does not detect any API usage for,
+     * with an estimate of the bundles and startup time that removing each of them
+     * saves.
+     */
+    @Parameter(property = "featurePruningReport", defaultValue = "false")
+    private boolean featurePruningReport;
+
+    /**
+     * If set, the feature pruning report also writes a server configuration file
+     * with a featureManager element that contains the proposed minimal features.
+     */
+    @Parameter(property = "minimalFeaturesFile")
+    private File minimalFeaturesFile;
+
+    /** Rough cost of resolving and starting a bundle, for the feature pruning report */
+    private static final int ESTIMATED_STARTUP_MILLIS_PER_BUNDLE = 10;
+
+    private static final String MINIMAL_FEATURES_COMMENT = "The following features were proposed by the feature pruning report of the liberty:generate-features goal."
+            + "\n Features that the application uses without API usage, such as features that are only used through configuration, must be added back.";
+
+    private static final String SCAN_CACHE_FILE = "generate-features/binary-scanner-cache.properties";
+
+    /** Binary scanner handlers that are not in use, by scanner jar */
+    private static final Map<String, Queue<BinaryScannerHandler>> idleBinaryScanners = new HashMap<String, Queue<BinaryScannerHandler>>();
+
     /*
      * (non-Javadoc)
      * @see org.codehaus.mojo.pluginsupport.MojoSupport#doExecute()
@@ -121,19 +181,7 @@ public class GenerateFeaturesMojo extends ServerFeatureSupport {
                 return;
             } else {
                 // get all upstream projects
-                for (MavenProject upstreamProj : graph.getUpstreamProjects(project, true)) {
-                    try {
-                        // when GenerateFeaturesMojo is called from dev mode on a multi module project,
-                        // the upstream project umbrella dependencies may not be up to date. Call
-                        // getMavenProject to rebuild the project with the current Maven session,
-                        // ensuring that the latest umbrella dependencies are loaded
-                        upstreamProjects.add(getMavenProject(upstreamProj.getFile()));
-                    } catch (ProjectBuildingException e) {
-                        log.debug("Could not resolve the upstream project: " + upstreamProj.getFile()
-                                + " using the current Maven session. Falling back to last resolved upstream project.");
-                        upstreamProjects.add(upstreamProj); // fail gracefully, use last resolved project
-                    }
-                }
+                upstreamProjects = getMavenProjects(graph.getUpstreamProjects(project, true));
             }
 
             if (containsPreviousLibertyModule(graph)) {
@@ -143,7 +191,6 @@ public class GenerateFeaturesMojo extends ServerFeatureSupport {
         }
 
         binaryScanner = getBinaryScannerJarFromRepository();
-        BinaryScannerHandler binaryScannerHandler = new BinaryScannerHandler(binaryScanner);
 
         log.debug("--- Generate Features values ---");
         log.debug("Binary scanner jar: " + binaryScanner.getName());
@@ -184,6 +231,7 @@ public class GenerateFeaturesMojo extends ServerFeatureSupport {
         Set<String> scannedFeatureList = null;
         String eeVersion = null;
         String mpVersion = null;
+        BinaryScannerHandler binaryScannerHandler = acquireBinaryScanner(binaryScanner);
         try {
             List<MavenProject> mavenProjects = new ArrayList<MavenProject>();
             mavenProjects.addAll(upstreamProjects);
@@ -200,7 +248,16 @@ public class GenerateFeaturesMojo extends ServerFeatureSupport {
             String logLocation = project.getBuild().getDirectory();
             String eeVersionArg = composeEEVersion(eeVersion);
             String mpVersionArg = composeMPVersion(mpVersion);
-            scannedFeatureList = binaryScannerHandler.runBinaryScanner(nonCustomFeatures, classFiles, directories, logLocation, eeVersionArg, mpVersionArg, optimize);
+            if ((featureScanCache || (parallelFeatureScan && directories.size() > 1)) && optimize
+                    && (classFiles == null || classFiles.isEmpty()) && !directories.isEmpty()) {
+                scannedFeatureList = runModuleBinaryScans(binaryScannerHandler, nonCustomFeatures, directories, logLocation, eeVersionArg, mpVersionArg);
+            }
+            if (scannedFeatureList == null) {
+                scannedFeatureList = binaryScannerHandler.runBinaryScanner(nonCustomFeatures, classFiles, directories, logLocation, eeVersionArg, mpVersionArg, optimize);
+            }
+            if (featurePruningReport && optimize && (classFiles == null || classFiles.isEmpty()) && !directories.isEmpty()) {
+                reportUnusedFeatures(binaryScannerHandler, getServerFeatures(servUtil, generatedFiles, true), directories, logLocation, eeVersionArg, mpVersionArg);
+            }
         } catch (BinaryScannerUtil.NoRecommendationException noRecommendation) {
             throw new MojoExecutionException(String.format(BinaryScannerUtil.BINARY_SCANNER_CONFLICT_MESSAGE3, noRecommendation.getConflicts()));
         } catch (BinaryScannerUtil.FeatureModifiedException featuresModified) {
@@ -243,6 +300,8 @@ public class GenerateFeaturesMojo extends ServerFeatureSupport {
                 log.debug("Caused by exception message:" + x.getCause().getMessage());
             }
             throw new MojoExecutionException("Failed to generate a working set of features. " + x.getMessage(), x);
+        } finally {
+            releaseBinaryScanner(binaryScannerHandler);
         }
 
         Set<String> missingLibertyFeatures = new HashSet<String>();
@@ -312,6 +371,260 @@ public class GenerateFeaturesMojo extends ServerFeatureSupport {
         }
     }
 
+    /**
+     * Report the user defined features that the binary scanner does not detect
+     * any API usage for. A user defined feature is used if the scanner detects a
+     * version of it, and the scanner detected features that are not user defined
+     * are the features that generate-features adds. Features that are not
+     * Liberty features, such as usr:feature-1.0, are never reported.
+     * 
+     * @param userFeatures the features in the server configuration, excluding
+     *                     the generated features
+     */
+    private void reportUnusedFeatures(BinaryScannerHandler binaryScannerHandler, Set<String> userFeatures,
+            Set<String> directories, String logLocation, String eeVersionArg, String mpVersionArg) {
+        Set<String> detectedFeatures;
+        try {
+            // scan without the user defined features so that only the API usage is reported
+            detectedFeatures = binaryScannerHandler.runBinaryScanner(new HashSet<String>(), null, directories,
+                    logLocation, eeVersionArg, mpVersionArg, true);
+        } catch (Exception e) {
+            log.warn("Could not create the feature pruning report. " + e.getMessage());
+            log.debug(e);
+            return;
+        }
+        Set<String> detectedNames = new HashSet<String>();
+        for (String feature : detectedFeatures) {
+            detectedNames.add(FeatureIndex.getBaseName(feature));
+        }
+
+        Set<String> usedFeatures = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+        Set<String> unusedFeatures = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+        Set<String> usedNames = new HashSet<String>();
+        for (String feature : userFeatures) {
+            if (feature.contains(":") || detectedNames.contains(FeatureIndex.getBaseName(feature))) {
+                usedFeatures.add(feature);
+                usedNames.add(FeatureIndex.getBaseName(feature));
+            } else {
+                unusedFeatures.add(feature);
+            }
+        }
+        // the detected features that generate-features adds
+        Set<String> minimalFeatures = new TreeSet<String>(String.CASE_INSENSITIVE_ORDER);
+        minimalFeatures.addAll(usedFeatures);
+        for (String feature : detectedFeatures) {
+            if (!usedNames.contains(FeatureIndex.getBaseName(feature))) {
+                minimalFeatures.add(feature);
+            }
+        }
+        log.debug("Features detected by the binary scanner without the user defined features: " + detectedFeatures);
+
+        if (unusedFeatures.isEmpty()) {
+            log.info("Feature pruning report: the application uses all the features in the server configuration.");
+        } else {
+            FeatureIndex index = getRuntimeFeatureIndex();
+            Set<String> currentFeatures = new HashSet<String>(minimalFeatures);
+            currentFeatures.addAll(unusedFeatures);
+            StringBuilder report = new StringBuilder(
+                    "Feature pruning report: no API usage was detected for the following features in the server configuration. Review whether they are needed, for example for configuration only, before removing them:");
+            for (String feature : unusedFeatures) {
+                report.append("\n    ").append(feature);
+                if (index != null && index.getFeature(feature) != null) {
+                    Set<String> remaining = new HashSet<String>(currentFeatures);
+                    remaining.remove(feature);
+                    int bundles = index.getBundles(currentFeatures).size() - index.getBundles(remaining).size();
+                    report.append(": ").append(bundles).append(" bundles, about ")
+                            .append(bundles * ESTIMATED_STARTUP_MILLIS_PER_BUNDLE).append(" ms of startup time");
+                }
+            }
+            if (index != null) {
+                int current = index.getBundles(currentFeatures).size();
+                int minimal = index.getBundles(minimalFeatures).size();
+                report.append("\nRemoving all of them reduces the bundles from ").append(current).append(" to ")
+                        .append(minimal).append(", about ")
+                        .append((current - minimal) * ESTIMATED_STARTUP_MILLIS_PER_BUNDLE)
+                        .append(" ms of startup time.");
+            }
+            report.append("\nProposed minimal features: ").append(minimalFeatures);
+            log.info(report.toString());
+        }
+
+        if (minimalFeaturesFile != null) {
+            try {
+                ServerConfigXmlDocument configDocument = ServerConfigXmlDocument.newInstance();
+                configDocument.createComment(MINIMAL_FEATURES_COMMENT);
+                configDocument.createFeatureManager();
+                for (String feature : minimalFeatures) {
+                    configDocument.createFeature(feature);
+                }
+                minimalFeaturesFile.getAbsoluteFile().getParentFile().mkdirs();
+                configDocument.writeXMLDocument(minimalFeaturesFile);
+                log.info("Wrote the proposed minimal features to " + minimalFeaturesFile);
+            } catch (ParserConfigurationException | TransformerException | IOException e) {
+                log.warn("Could not write the proposed minimal features to " + minimalFeaturesFile + ". " + e.getMessage());
+                log.debug(e);
+            }
+        }
+    }
+
+    /**
+     * @return the feature index of the runtime, or null if the runtime is not
+     *         installed
+     */
+    private FeatureIndex getRuntimeFeatureIndex() {
+        // the server configuration is not set up for this goal, so use the
+        // default install location unless an installDirectory is configured
+        File installDir = installDirectory != null ? installDirectory : new File(assemblyInstallDirectory, "wlp");
+        if (!new File(installDir, "lib/features").isDirectory()) {
+            log.debug("The Liberty runtime is not installed in " + installDir
+                    + ". The feature pruning report does not include bundle estimates.");
+            return null;
+        }
+        try {
+            return getFeatureIndex(installDir);
+        } catch (PluginExecutionException e) {
+            log.debug("Could not load the feature index of " + installDir, e);
+            return null;
+        }
+    }
+
+    /**
+     * Run the binary scanner on the classes directory of each module whose
+     * features are not cached, then resolve the features of all modules together.
+     * 
+     * @return the features, or null if a scan failed and the classes directories
+     *         should be scanned together to report the failure
+     */
+    private Set<String> runModuleBinaryScans(BinaryScannerHandler binaryScannerHandler, Set<String> currentFeatures,
+            Set<String> directories, String logLocation, String eeVersionArg, String mpVersionArg) {
+        BinaryScanCache cache = null;
+        String inputsKey = null;
+        if (featureScanCache) {
+            cache = new BinaryScanCache(new File(project.getBuild().getDirectory(), SCAN_CACHE_FILE), log);
+            // the scanner jar file name includes its version
+            MessageDigest inputs = DigestUtil.newDigest();
+            DigestUtil.update(inputs, binaryScanner.getName());
+            DigestUtil.update(inputs, Long.toString(binaryScanner.length()));
+            DigestUtil.update(inputs, eeVersionArg);
+            DigestUtil.update(inputs, mpVersionArg);
+            for (String feature : new TreeSet<String>(currentFeatures)) {
+                DigestUtil.update(inputs, feature);
+            }
+            inputsKey = DigestUtil.toHex(inputs.digest());
+        }
+        try {
+            // modules are merged in a deterministic order
+            Map<String, Set<String>> moduleFeatures = new TreeMap<String, Set<String>>();
+            Map<String, String> moduleKeys = new HashMap<String, String>();
+            List<String> unscanned = new ArrayList<String>();
+            MessageDigest modules = DigestUtil.newDigest();
+            for (String directory : new TreeSet<String>(directories)) {
+                if (cache != null) {
+                    MessageDigest module = DigestUtil.newDigest();
+                    DigestUtil.update(module, inputsKey);
+                    DigestUtil.update(module, cache.fingerprint(new File(directory)));
+                    String moduleKey = DigestUtil.toHex(module.digest());
+                    moduleKeys.put(directory, moduleKey);
+                    DigestUtil.update(modules, moduleKey);
+                    Set<String> cached = cache.getFeatures(moduleKey);
+                    if (cached != null) {
+                        log.debug("Reusing the cached features of " + directory + ": " + cached);
+                        moduleFeatures.put(directory, cached);
+                        continue;
+                    }
+                }
+                unscanned.add(directory);
+            }
+            Map<String, Set<String>> scanned = scanModules(binaryScannerHandler, currentFeatures, unscanned,
+                    logLocation, eeVersionArg, mpVersionArg);
+            moduleFeatures.putAll(scanned);
+            if (cache != null) {
+                for (Map.Entry<String, Set<String>> entry : scanned.entrySet()) {
+                    cache.putFeatures(moduleKeys.get(entry.getKey()), entry.getValue());
+                }
+            }
+
+            Set<String> features = new HashSet<String>(currentFeatures);
+            for (Set<String> f : moduleFeatures.values()) {
+                features.addAll(f);
+            }
+            if (directories.size() > 1) {
+                // resolve the features of the modules together, without scanning classes
+                String modulesKey = cache != null ? DigestUtil.toHex(modules.digest()) : null;
+                Set<String> resolvedFeatures = cache != null ? cache.getFeatures(modulesKey) : null;
+                if (resolvedFeatures == null) {
+                    resolvedFeatures = binaryScannerHandler.runBinaryScanner(features, null, null, logLocation,
+                            eeVersionArg, mpVersionArg, false);
+                    if (cache != null) {
+                        cache.putFeatures(modulesKey, resolvedFeatures);
+                    }
+                }
+                features = resolvedFeatures;
+            }
+            return features;
+        } catch (Exception e) {
+            // conflicts and scanner errors are reported by scanning all classes directories together
+            log.debug("Could not generate features from the features of each module", e);
+            return null;
+        } finally {
+            if (cache != null) {
+                cache.save();
+            }
+        }
+    }
+
+    /**
+     * Run the binary scanner on each classes directory separately, concurrently if
+     * parallelFeatureScan is true. Concurrent scans use a handler and a log
+     * location of their own.
+     * 
+     * @return the features reported for each classes directory
+     */
+    private Map<String, Set<String>> scanModules(BinaryScannerHandler binaryScannerHandler,
+            final Set<String> currentFeatures, List<String> directories, String logLocation,
+            final String eeVersionArg, final String mpVersionArg) throws Exception {
+        Map<String, Set<String>> result = new HashMap<String, Set<String>>();
+        if (!parallelFeatureScan || directories.size() < 2) {
+            for (String directory : directories) {
+                log.debug("Running the binary scanner on " + directory);
+                result.put(directory, binaryScannerHandler.runBinaryScanner(new HashSet<String>(currentFeatures),
+                        null, Collections.singleton(directory), logLocation, eeVersionArg, mpVersionArg, true));
+            }
+            return result;
+        }
+        int threads = Math.min(directories.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(threads,
+                new DaemonThreadFactory("liberty-generate-features-scan"));
+        try {
+            List<Future<Set<String>>> scans = new ArrayList<Future<Set<String>>>();
+            for (int i = 0; i < directories.size(); i++) {
+                final String directory = directories.get(i);
+                final File moduleLogLocation = new File(logLocation, "generate-features/scan-" + (i + 1));
+                scans.add(executor.submit(new Callable<Set<String>>() {
+                    @Override
+                    public Set<String> call() throws Exception {
+                        log.debug("Running the binary scanner on " + directory + " with log location " + moduleLogLocation);
+                        moduleLogLocation.mkdirs();
+                        BinaryScannerHandler handler = acquireBinaryScanner(binaryScanner);
+                        try {
+                            return handler.runBinaryScanner(new HashSet<String>(currentFeatures), null,
+                                    Collections.singleton(directory), moduleLogLocation.getPath(), eeVersionArg,
+                                    mpVersionArg, true);
+                        } finally {
+                            releaseBinaryScanner(handler);
+                        }
+                    }
+                }));
+            }
+            for (int i = 0; i < directories.size(); i++) {
+                result.put(directories.get(i), scans.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return result;
+    }
+
     // Get the features from the server config and optionally exclude the specified config files from the search.
     private Set<String> getServerFeatures(ServerFeatureUtil servUtil, Set<String> generatedFiles, boolean excludeGenerated) {
         servUtil.setLowerCaseFeatures(false);
@@ -583,10 +896,92 @@ public class GenerateFeaturesMojo extends ServerFeatureSupport {
         throw new NoUmbrellaDependencyException();
     }
 
+    /**
+     * Get a binary scanner handler for the scanner jar that is not in use. A
+     * handler keeps the scanner jar loaded after its first call, so handlers are
+     * reused by the later executions of this goal in the same Maven session, such
+     * as the executions of dev mode.
+     * 
+     * @param scannerFile the binary scanner jar
+     * @return the handler, which must be released after use
+     */
+    private BinaryScannerHandler acquireBinaryScanner(File scannerFile) {
+        String key = scannerFile.getAbsolutePath() + ":" + scannerFile.lastModified();
+        BinaryScannerHandler handler = null;
+        List<BinaryScannerHandler> unused = new ArrayList<BinaryScannerHandler>();
+        synchronized (idleBinaryScanners) {
+            // handlers for another scanner jar are not needed anymore
+            for (Map.Entry<String, Queue<BinaryScannerHandler>> e : idleBinaryScanners.entrySet()) {
+                if (!e.getKey().equals(key)) {
+                    unused.addAll(e.getValue());
+                }
+            }
+            idleBinaryScanners.keySet().retainAll(Collections.singleton(key));
+            Queue<BinaryScannerHandler> idle = idleBinaryScanners.get(key);
+            if (idle != null) {
+                handler = idle.poll();
+            }
+        }
+        for (BinaryScannerHandler h : unused) {
+            h.close(log);
+        }
+        if (handler == null) {
+            log.debug("Creating a binary scanner handler for " + scannerFile);
+            handler = new BinaryScannerHandler(scannerFile, key);
+        }
+        handler.log = log;
+        return handler;
+    }
+
+    /**
+     * Make the handler available to later executions of this goal.
+     * 
+     * @param handler a handler from {@link #acquireBinaryScanner(File)}
+     */
+    private static void releaseBinaryScanner(BinaryScannerHandler handler) {
+        // the pool outlives the execution, so it must not keep its log
+        handler.log = null;
+        synchronized (idleBinaryScanners) {
+            Queue<BinaryScannerHandler> idle = idleBinaryScanners.get(handler.key);
+            if (idle == null) {
+                idle = new ArrayDeque<BinaryScannerHandler>();
+                idleBinaryScanners.put(handler.key, idle);
+            }
+            idle.add(handler);
+        }
+    }
+
     // Define the logging functions of the binary scanner handler and make it available in this plugin
-    private class BinaryScannerHandler extends BinaryScannerUtil {
-        BinaryScannerHandler(File scannerFile) {
+    private static class BinaryScannerHandler extends BinaryScannerUtil {
+        /** the scanner jar and its modification time */
+        final String key;
+        /** the log of the goal execution that uses the handler, or null while it is idle */
+        volatile Log log;
+
+        BinaryScannerHandler(File scannerFile, String key) {
             super(scannerFile);
+            this.key = key;
+        }
+
+        /**
+         * Close the class loader of the scanner jar, if it has been loaded, so that
+         * the jar is not kept open. BinaryScannerUtil does not expose the loader,
+         * so its field is read reflectively.
+         * 
+         * @param log the log of the current execution
+         */
+        void close(Log log) {
+            try {
+                Field field = BinaryScannerUtil.class.getDeclaredField("binaryScannerClassLoader");
+                field.setAccessible(true);
+                URLClassLoader loader = (URLClassLoader) field.get(this);
+                if (loader != null) {
+                    field.set(this, null);
+                    loader.close();
+                }
+            } catch (NoSuchFieldException | IllegalAccessException | ClassCastException | IOException e) {
+                log.debug("Could not close the binary scanner class loader", e);
+            }
         }
         @Override
         public void debug(String msg) {
@@ -614,6 +1009,54 @@ public class GenerateFeaturesMojo extends ServerFeatureSupport {
         }
     }
 
+    /**
+     * Rebuild the upstream projects concurrently on a bounded pool of threads.
+     * When GenerateFeaturesMojo is called from dev mode on a multi module project,
+     * the upstream project umbrella dependencies may not be up to date. Rebuilding
+     * the projects with the current Maven session ensures that the latest
+     * umbrella dependencies are loaded.
+     * 
+     * @param upstreamProjects the upstream projects in reactor order
+     * @return the rebuilt projects in reactor order, or the given project for any
+     *         project that could not be rebuilt
+     */
+    private List<MavenProject> getMavenProjects(List<MavenProject> upstreamProjects) throws MojoExecutionException {
+        List<MavenProject> result = new ArrayList<MavenProject>();
+        if (upstreamProjects.isEmpty()) {
+            return result;
+        }
+        int threads = Math.min(upstreamProjects.size(), Runtime.getRuntime().availableProcessors());
+        ExecutorService executor = Executors.newFixedThreadPool(threads,
+                new DaemonThreadFactory("liberty-generate-features"));
+        try {
+            List<Future<MavenProject>> builds = new ArrayList<Future<MavenProject>>();
+            for (final MavenProject upstreamProj : upstreamProjects) {
+                builds.add(executor.submit(new Callable<MavenProject>() {
+                    @Override
+                    public MavenProject call() throws ProjectBuildingException {
+                        return getMavenProject(upstreamProj.getFile());
+                    }
+                }));
+            }
+            for (int i = 0; i < upstreamProjects.size(); i++) {
+                MavenProject upstreamProj = upstreamProjects.get(i);
+                try {
+                    result.add(builds.get(i).get());
+                } catch (ExecutionException e) {
+                    log.debug("Could not resolve the upstream project: " + upstreamProj.getFile()
+                            + " using the current Maven session. Falling back to last resolved upstream project.");
+                    result.add(upstreamProj); // fail gracefully, use last resolved project
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new MojoExecutionException("Interrupted while resolving the upstream projects", e);
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return result;
+    }
+
     // using the current MavenSession build the project (resolves dependencies)
     private MavenProject getMavenProject(File buildFile) throws ProjectBuildingException {
         ProjectBuildingResult build = mavenProjectBuilder.build(buildFile,
@@ -0,0 +1,325 @@
+/**
+ * (C) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openliberty.tools.maven.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+import org.apache.maven.plugin.logging.Log;
+
+import com.sun.jdi.Bootstrap;
+import com.sun.jdi.ClassLoaderReference;
+import com.sun.jdi.ClassType;
+import com.sun.jdi.ObjectReference;
+import com.sun.jdi.ReferenceType;
+import com.sun.jdi.VMDisconnectedException;
+import com.sun.jdi.VirtualMachine;
+import com.sun.jdi.connect.AttachingConnector;
+import com.sun.jdi.connect.Connector;
+import com.sun.jdi.connect.IllegalConnectorArgumentsException;
+import com.sun.tools.attach.AttachNotSupportedException;
+import com.sun.tools.attach.VirtualMachineDescriptor;
+
+/**
+ * Applies class changes to a running server without restarting the
+ * application. Changed classes are redefined through the JDWP agent of a server
+ * that was started in debug mode. The connection is only open while classes are
+ * redefined, so that a debugger can still attach to the server in between.
+ * <p>
+ * The application monitor of the server would restart the application for any
+ * class file change, so it is switched to the mbean update trigger with a
+ * configuration override. Changes that cannot be redefined are then applied by
+ * asking the application monitor to process them through the
+ * FileNotificationMBean, which is reached through the local management agent
+ * of the server JVM.
+ * <p>
+ * This class uses the JDI and attach APIs of the JDK, so it cannot be loaded
+ * in a JRE.
+ */
+public class HotSwapAgent {
+
+    /** The configuration override, relative to the server directory */
+    public static final String CONFIG_OVERRIDE = "configDropins/overrides/liberty-dev-hotswap.xml";
+
+    private static final String FILE_NOTIFICATION_MBEAN = "WebSphere:service=com.ibm.ws.kernel.filemonitor.FileNotificationMBean";
+    private static final String SERVER_LAUNCHER = "ws-server.jar";
+    private static final String APP_CLASS_LOADER = "com.ibm.ws.classloading.internal.AppClassLoader";
+
+    private final File installDirectory;
+    private final File serverDirectory;
+    private final String serverName;
+    private final int debugPort;
+    private final Log log;
+
+    private JMXConnector jmxConnector;
+
+    /**
+     * @param installDirectory the Liberty installation directory
+     * @param serverDirectory  the server directory
+     * @param serverName       the server name
+     * @param debugPort        the port of the JDWP agent of the server
+     * @param log              the log
+     */
+    public HotSwapAgent(File installDirectory, File serverDirectory, String serverName, int debugPort, Log log) {
+        this.installDirectory = installDirectory;
+        this.serverDirectory = serverDirectory;
+        this.serverName = serverName;
+        this.debugPort = debugPort;
+        this.log = log;
+    }
+
+    /**
+     * Connect to the running server and switch its application monitor to the
+     * mbean update trigger.
+     *
+     * @throws IOException if the server JVM cannot be attached to or does not
+     *                     have the FileNotificationMBean
+     */
+    public synchronized void start() throws IOException {
+        try {
+            if (!connect().isRegistered(new ObjectName(FILE_NOTIFICATION_MBEAN))) {
+                throw new IOException("The server does not have the " + FILE_NOTIFICATION_MBEAN + " MBean");
+            }
+        } catch (JMException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+        File override = new File(serverDirectory, CONFIG_OVERRIDE);
+        Files.createDirectories(override.getParentFile().toPath());
+        Files.write(override.toPath(), Arrays.asList("<?xml version=\"1.0\" encoding=\"UTF-8\"?>",
+                "<!-- Generated by liberty:dev with hot swap enabled. Deleted when dev mode exits. -->",
+                "<server>", "    <applicationMonitor updateTrigger=\"mbean\"/>", "</server>"),
+                StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Switch the application monitor back to polling and disconnect.
+     */
+    public synchronized void stop() {
+        new File(serverDirectory, CONFIG_OVERRIDE).delete();
+        closeJmxConnector();
+    }
+
+    /**
+     * Redefine the loaded classes of the given types in the server JVM. Types
+     * that are not loaded yet are loaded from the new class files when they are
+     * first used.
+     * <p>
+     * Only classes that an application class loader defined are redefined, so
+     * that a class of the server runtime with the same name is left alone. The
+     * class loaders of applications that were restarted are skipped once they
+     * are unreachable. If a type is still defined by more than one application
+     * class loader, e.g. because another application has a class with the same
+     * name, it is not known which one belongs to this application and no class is
+     * redefined.
+     *
+     * @param classesDirectory the classes directory with the new class files
+     * @param types            internal names of the changed types
+     * @return the number of loaded classes that were redefined
+     * @throws IOException if the server JVM cannot be attached to, a type is
+     *                     defined by more than one application class loader, or
+     *                     the server JVM rejected the new class definitions
+     */
+    public synchronized int redefine(File classesDirectory, Collection<String> types) throws IOException {
+        AttachingConnector connector = null;
+        for (AttachingConnector c : Bootstrap.virtualMachineManager().attachingConnectors()) {
+            if ("com.sun.jdi.SocketAttach".equals(c.name())) {
+                connector = c;
+            }
+        }
+        if (connector == null) {
+            throw new IOException("The JDK does not have a socket attaching connector");
+        }
+        Map<String, Connector.Argument> arguments = connector.defaultArguments();
+        arguments.get("hostname").setValue("localhost");
+        arguments.get("port").setValue(Integer.toString(debugPort));
+
+        VirtualMachine vm;
+        try {
+            vm = connector.attach(arguments);
+        } catch (IllegalConnectorArgumentsException e) {
+            throw new IOException(e.getMessage(), e);
+        } catch (IOException e) {
+            throw new IOException("Unable to attach to debug port " + debugPort
+                    + ", a debugger may be attached to the server: " + e.getMessage(), e);
+        }
+        try {
+            if (!vm.canRedefineClasses()) {
+                throw new IOException("The server JVM cannot redefine classes");
+            }
+            Map<ReferenceType, byte[]> definitions = new HashMap<ReferenceType, byte[]>();
+            Map<ReferenceType, List<ObjectReference>> reachableLoaders = new HashMap<ReferenceType, List<ObjectReference>>();
+            for (String type : types) {
+                ReferenceType applicationClass = null;
+                for (ReferenceType referenceType : vm.classesByName(type.replace('/', '.'))) {
+                    ClassLoaderReference loader = referenceType.classLoader();
+                    if (loader == null || !isApplicationClassLoader(loader)
+                            || !isReachable(vm, loader, reachableLoaders)) {
+                        continue;
+                    }
+                    if (applicationClass != null) {
+                        throw new IOException(type.replace('/', '.')
+                                + " is defined by more than one application class loader in the server JVM");
+                    }
+                    applicationClass = referenceType;
+                }
+                if (applicationClass != null) {
+                    definitions.put(applicationClass,
+                            Files.readAllBytes(new File(classesDirectory, type + ".class").toPath()));
+                }
+            }
+            if (!definitions.isEmpty()) {
+                vm.redefineClasses(definitions);
+            }
+            log.debug("Redefined " + definitions.keySet() + " through debug port " + debugPort);
+            return definitions.size();
+        } catch (UnsupportedOperationException | LinkageError e) {
+            throw new IOException("The server JVM rejected the new class definitions: " + e, e);
+        } catch (VMDisconnectedException e) {
+            throw new IOException("The server JVM disconnected from debug port " + debugPort, e);
+        } finally {
+            try {
+                vm.dispose();
+            } catch (VMDisconnectedException e) {
+                // already disconnected
+            }
+        }
+    }
+
+    private static boolean isApplicationClassLoader(ClassLoaderReference loader) {
+        ReferenceType loaderType = loader.referenceType();
+        if (!(loaderType instanceof ClassType)) {
+            return false;
+        }
+        ClassType c = (ClassType) loaderType;
+        while (c != null) {
+            if (APP_CLASS_LOADER.equals(c.name())) {
+                return true;
+            }
+            c = c.superclass();
+        }
+        return false;
+    }
+
+    /**
+     * Check whether the class loader is still reachable, i.e. it does not belong
+     * to an application that was restarted and is waiting to be garbage
+     * collected. Loaders are assumed reachable if the JVM cannot list instances.
+     */
+    private static boolean isReachable(VirtualMachine vm, ClassLoaderReference loader,
+            Map<ReferenceType, List<ObjectReference>> reachableLoaders) {
+        if (!vm.canGetInstanceInfo()) {
+            return true;
+        }
+        List<ObjectReference> reachable = reachableLoaders.get(loader.referenceType());
+        if (reachable == null) {
+            reachable = loader.referenceType().instances(0);
+            reachableLoaders.put(loader.referenceType(), reachable);
+        }
+        return reachable.contains(loader);
+    }
+
+    /**
+     * Have the application monitor apply the application changes since it last
+     * processed changes, restarting the application if needed.
+     *
+     * @throws IOException if the server JVM cannot be reached
+     */
+    public synchronized void processApplicationChanges() throws IOException {
+        try {
+            invokeFileNotification("processApplicationChanges");
+        } catch (IOException e) {
+            // the server may have been restarted since the last connection
+            log.debug("Reconnecting to the server after " + e.getMessage());
+            closeJmxConnector();
+            invokeFileNotification("processApplicationChanges");
+        }
+    }
+
+    private void invokeFileNotification(String operation) throws IOException {
+        try {
+            connect().invoke(new ObjectName(FILE_NOTIFICATION_MBEAN), operation, null, null);
+        } catch (JMException e) {
+            throw new IOException("Unable to invoke " + operation + " of " + FILE_NOTIFICATION_MBEAN + ": "
+                    + e.getMessage(), e);
+        }
+    }
+
+    private MBeanServerConnection connect() throws IOException {
+        if (jmxConnector == null) {
+            jmxConnector = JMXConnectorFactory.connect(new JMXServiceURL(getLocalConnectorAddress()));
+        }
+        return jmxConnector.getMBeanServerConnection();
+    }
+
+    private void closeJmxConnector() {
+        if (jmxConnector != null) {
+            try {
+                jmxConnector.close();
+            } catch (IOException e) {
+                log.debug(e);
+            }
+            jmxConnector = null;
+        }
+    }
+
+    /**
+     * Find the JVM of the server by its command line and start its local
+     * management agent.
+     *
+     * @return the JMX service URL of the local management agent
+     */
+    private String getLocalConnectorAddress() throws IOException {
+        String launcher = new File(installDirectory, "bin/tools/" + SERVER_LAUNCHER).getCanonicalPath();
+        for (VirtualMachineDescriptor descriptor : com.sun.tools.attach.VirtualMachine.list()) {
+            String command = descriptor.displayName();
+            int launcherEnd = command.indexOf(SERVER_LAUNCHER + " ");
+            if (launcherEnd < 0) {
+                continue;
+            }
+            launcherEnd += SERVER_LAUNCHER.length();
+            List<String> arguments = Arrays.asList(command.substring(launcherEnd).trim().split("\\s+"));
+            if (!arguments.contains(serverName)
+                    || !new File(command.substring(0, launcherEnd)).getCanonicalPath().equals(launcher)) {
+                continue;
+            }
+            try {
+                com.sun.tools.attach.VirtualMachine vm = com.sun.tools.attach.VirtualMachine.attach(descriptor);
+                try {
+                    return vm.startLocalManagementAgent();
+                } finally {
+                    vm.detach();
+                }
+            } catch (AttachNotSupportedException e) {
+                throw new IOException("Unable to attach to the JVM of server " + serverName + ": " + e.getMessage(), e);
+            }
+        }
+        throw new IOException("Unable to find the JVM of server " + serverName);
+    }
+}
@@ -0,0 +1,304 @@
+/**
+ * (C) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openliberty.tools.maven.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+import javax.tools.ToolProvider;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * In-process Java compiler for a single source directory of a module. The
+ * compiler keeps its file manager and classpath open between compilations and
+ * only compiles the source files that changed since the last compilation, the
+ * source files that previously failed to compile and the source files whose
+ * classes reference a class of a changed source file, directly or through
+ * other classes, according to the class dependency graph of the output
+ * directory.
+ *
+ * The compiler options, such as the encoding, debug information and
+ * annotation processing options, are passed by the caller from the
+ * configuration of the maven-compiler-plugin.
+ */
+public class IncrementalJavaCompiler {
+
+    private final File sourceDirectory;
+    private final File outputDirectory;
+    private final ClassDependencyGraph graph;
+    private final JavaCompiler compiler;
+    private final StandardJavaFileManager fileManager;
+
+    private List<File> classpath = null;
+    private List<File> sourcepath = null;
+    private final Map<File, Long> sources = new HashMap<File, Long>();
+    private final Set<File> failedSources = new HashSet<File>();
+    private final Set<File> pendingSources = new HashSet<File>();
+    private boolean pendingAll = false;
+    private boolean initialized = false;
+
+    /**
+     * Returns whether an in-process compiler is available in the running JVM.
+     *
+     * @return true if the system Java compiler can be used
+     */
+    public static boolean isAvailable() {
+        return ToolProvider.getSystemJavaCompiler() != null;
+    }
+
+    /**
+     * @param sourceDirectory the source directory to compile
+     * @param outputDirectory the classes output directory
+     * @param graph           the class dependency graph of the output directory,
+     *                        which the caller updates after each compilation
+     */
+    public IncrementalJavaCompiler(File sourceDirectory, File outputDirectory, ClassDependencyGraph graph) {
+        this.sourceDirectory = sourceDirectory;
+        this.outputDirectory = outputDirectory;
+        this.graph = graph;
+        this.compiler = ToolProvider.getSystemJavaCompiler();
+        // the encoding is set by the -encoding option
+        this.fileManager = compiler.getStandardFileManager(null, null, null);
+    }
+
+    /**
+     * Compile the given source files on the next compilation even if they did not
+     * change, e.g. because they reference a type of an upstream module that
+     * changed.
+     *
+     * @param relativePaths source file paths relative to the source directory
+     */
+    public synchronized void markStale(Collection<String> relativePaths) {
+        for (String relativePath : relativePaths) {
+            pendingSources.add(new File(sourceDirectory, relativePath));
+        }
+    }
+
+    /**
+     * Compile all source files on the next compilation.
+     */
+    public synchronized void markAllStale() {
+        pendingAll = true;
+    }
+
+    /**
+     * Compile the stale source files of the source directory.
+     *
+     * @param classpathElements the classpath to compile against
+     * @param sourceRoots       all compile source roots of the module, which are
+     *                          put on the source path
+     * @param options           compiler options from the configuration of the
+     *                          maven-compiler-plugin
+     * @param log               log for the compiler diagnostics
+     * @return true if compilation succeeded or there was nothing to compile
+     * @throws IOException if the source or output directories cannot be accessed
+     */
+    public synchronized boolean compile(Collection<String> classpathElements, Collection<File> sourceRoots,
+            List<String> options, Log log) throws IOException {
+        long start = System.currentTimeMillis();
+        if (!outputDirectory.exists() && !outputDirectory.mkdirs()) {
+            throw new IOException("The classes output directory " + outputDirectory.getAbsolutePath()
+                    + " does not exist and cannot be created.");
+        }
+        updateLocations(classpathElements, sourceRoots, log);
+
+        Set<File> currentSources = listSources();
+        Set<File> stale = new LinkedHashSet<File>();
+        Set<String> changedSources = new HashSet<String>();
+
+        // deleted sources
+        for (File removed : new ArrayList<File>(sources.keySet())) {
+            if (!currentSources.contains(removed)) {
+                sources.remove(removed);
+                failedSources.remove(removed);
+                deleteClassFiles(removed, log);
+                changedSources.add(getRelativePath(removed));
+            }
+        }
+
+        // new and modified sources
+        for (File source : currentSources) {
+            Long previous = sources.get(source);
+            long lastModified = source.lastModified();
+            boolean changed;
+            if (previous == null) {
+                // on the first compilation use the class files as the reference
+                changed = !initialized ? isClassFileOutdated(source, lastModified) : true;
+            } else {
+                changed = previous != lastModified;
+            }
+            sources.put(source, lastModified);
+            if (changed) {
+                stale.add(source);
+                changedSources.add(getRelativePath(source));
+            }
+        }
+        initialized = true;
+
+        // sources whose classes reference a class of a changed source
+        if (!changedSources.isEmpty()) {
+            for (String dependent : graph.getTransitiveDependentSources(changedSources)) {
+                stale.add(new File(sourceDirectory, dependent));
+            }
+        }
+        stale.addAll(failedSources);
+        stale.addAll(pendingAll ? currentSources : pendingSources);
+        stale.retainAll(currentSources);
+        pendingSources.clear();
+        pendingAll = false;
+
+        if (stale.isEmpty()) {
+            log.debug("No stale sources in " + sourceDirectory);
+            return true;
+        }
+
+        List<String> compilerOptions = new ArrayList<String>();
+        if (options != null) {
+            compilerOptions.addAll(options);
+        }
+        log.debug("Compiling " + stale.size() + " source file(s) in " + sourceDirectory + " with options "
+                + compilerOptions);
+
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<JavaFileObject>();
+        Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromFiles(stale);
+        boolean success = compiler.getTask(null, fileManager, diagnostics, compilerOptions, null, units).call();
+
+        for (Diagnostic<? extends JavaFileObject> d : diagnostics.getDiagnostics()) {
+            String location = d.getSource() == null ? "" : d.getSource().getName() + ":[" + d.getLineNumber() + "] ";
+            if (d.getKind() == Diagnostic.Kind.ERROR) {
+                log.error(location + d.getMessage(null));
+            } else if (d.getKind() == Diagnostic.Kind.WARNING || d.getKind() == Diagnostic.Kind.MANDATORY_WARNING) {
+                log.warn(location + d.getMessage(null));
+            } else {
+                log.debug(location + d.getMessage(null));
+            }
+        }
+
+        failedSources.clear();
+        if (!success) {
+            failedSources.addAll(stale);
+        }
+        log.debug("Compiled " + stale.size() + " source file(s) in " + sourceDirectory + " in "
+                + (System.currentTimeMillis() - start) + " ms");
+        return success;
+    }
+
+    private void updateLocations(Collection<String> classpathElements, Collection<File> sourceRoots, Log log)
+            throws IOException {
+        List<File> newClasspath = new ArrayList<File>();
+        if (classpathElements != null) {
+            for (String element : classpathElements) {
+                File file = new File(element);
+                if (file.exists() && !file.equals(outputDirectory)) {
+                    newClasspath.add(file);
+                }
+            }
+        }
+        newClasspath.add(outputDirectory);
+        // resetting the locations reopens every archive, only do it when the classpath changed
+        if (!newClasspath.equals(classpath)) {
+            log.debug("Updating classpath of the compiler for " + sourceDirectory);
+            fileManager.setLocation(StandardLocation.CLASS_PATH, newClasspath);
+            fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Collections.singleton(outputDirectory));
+            classpath = newClasspath;
+        }
+        List<File> newSourcepath = new ArrayList<File>();
+        newSourcepath.add(sourceDirectory);
+        if (sourceRoots != null) {
+            for (File root : sourceRoots) {
+                if (root.isDirectory() && !newSourcepath.contains(root)) {
+                    newSourcepath.add(root);
+                }
+            }
+        }
+        if (!newSourcepath.equals(sourcepath)) {
+            fileManager.setLocation(StandardLocation.SOURCE_PATH, newSourcepath);
+            sourcepath = newSourcepath;
+        }
+    }
+
+    private Set<File> listSources() throws IOException {
+        final Set<File> files = new HashSet<File>();
+        if (sourceDirectory.isDirectory()) {
+            Files.walkFileTree(sourceDirectory.toPath(), new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                    if (attrs.isRegularFile() && file.getFileName().toString().endsWith(".java")) {
+                        files.add(file.toFile());
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        }
+        return files;
+    }
+
+    private boolean isClassFileOutdated(File source, long lastModified) {
+        File classFile = getClassFile(source);
+        return !classFile.exists() || classFile.lastModified() < lastModified;
+    }
+
+    private void deleteClassFiles(File source, Log log) {
+        File classFile = getClassFile(source);
+        final String typeName = getTypeName(source);
+        File[] siblings = classFile.getParentFile().listFiles();
+        if (siblings != null) {
+            for (File sibling : siblings) {
+                String name = sibling.getName();
+                if (name.equals(typeName + ".class") || (name.startsWith(typeName + "$") && name.endsWith(".class"))) {
+                    log.debug("Deleting class file " + sibling);
+                    sibling.delete();
+                }
+            }
+        }
+    }
+
+    private String getRelativePath(File source) {
+        return sourceDirectory.toPath().relativize(source.toPath()).toString().replace(File.separatorChar, '/');
+    }
+
+    private File getClassFile(File source) {
+        String relative = sourceDirectory.toPath().relativize(source.toPath()).toString();
+        relative = relative.substring(0, relative.length() - ".java".length()) + ".class";
+        return new File(outputDirectory, relative);
+    }
+
+    private static String getTypeName(File source) {
+        String name = source.getName();
+        return name.substring(0, name.length() - ".java".length());
+    }
+}
@@ -89,6 +89,10 @@ public class InstallFeatureMojo extends InstallFeatureSupport {
 
         Set<String> pluginListedEsas = getPluginListedFeatures(true);
         List<String> additionalJsons = getAdditionalJsonList();
+        if (useFeatureIndex && containerName == null && pluginListedEsas.isEmpty()
+                && (additionalJsons == null || additionalJsons.isEmpty()) && isInstalled()) {
+            return;
+        }
         InstallFeatureUtil util = getInstallFeatureUtil(pluginListedEsas, propertiesList, openLibertyVersion, containerName, additionalJsons);
         Set<String> featuresToInstall = getSpecifiedFeatures(containerName);
         
@@ -101,6 +105,25 @@ public class InstallFeatureMojo extends InstallFeatureSupport {
        
     }
 
+    /**
+     * Check the specified features against the index of the features in the
+     * runtime, without resolving the features from a repository.
+     * 
+     * @return true if all the specified features are already installed
+     */
+    private boolean isInstalled() throws PluginExecutionException {
+        Set<String> serverFeatures = serverDirectory.exists()
+                ? getServerFeatureUtil(true).getServerFeatures(serverDirectory, getLibertyDirectoryPropertyFiles())
+                : null;
+        Set<String> featuresToCheck = InstallFeatureUtil.combineToSet(getPluginListedFeatures(false),
+                getDependencyFeatures(), serverFeatures);
+        if (!checkInstalledFeatures(featuresToCheck)) {
+            return false;
+        }
+        log.info("The specified features are already installed: " + featuresToCheck);
+        return true;
+    }
+
     @SuppressWarnings("deprecation")
     private void installFeaturesFromAnt(List<Feature> installFeatures) {
         // Set default outputDirectory to liberty-alt-output-dir for install-feature goal.
@@ -0,0 +1,159 @@
+/**
+ * (C) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openliberty.tools.maven.server;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.maven.plugin.logging.Log;
+
+import io.openliberty.tools.maven.utils.BufferedLog;
+import io.openliberty.tools.maven.utils.DaemonThreadFactory;
+
+/**
+ * Compiles the source directories of modules on a bounded thread pool. A
+ * source directory is compiled once the source directories it depends on have
+ * been compiled, so independent modules compile concurrently. The output of
+ * each compilation is held until its result is collected, so that the output
+ * appears in the order in which the results are collected and next to the
+ * module it belongs to.
+ */
+public class ModuleCompileScheduler {
+
+    /**
+     * Compilation of a single source directory.
+     */
+    public interface CompileTask {
+        /**
+         * @param log log for the output of the compilation
+         * @return true if the compilation succeeded
+         * @throws Exception if the source directory could not be compiled in the
+         *                   background, in which case it is compiled again when
+         *                   the result is collected
+         */
+        boolean compile(Log log) throws Exception;
+    }
+
+    private static class ScheduledCompile {
+        final Future<Boolean> future;
+        final BufferedLog log;
+
+        ScheduledCompile(Future<Boolean> future, BufferedLog log) {
+            this.future = future;
+            this.log = log;
+        }
+    }
+
+    private final Log log;
+    private final ExecutorService executor;
+    private final Map<File, ScheduledCompile> scheduled = new HashMap<File, ScheduledCompile>();
+
+    public ModuleCompileScheduler(Log log, int threads) {
+        this.log = log;
+        this.executor = Executors.newFixedThreadPool(threads, new DaemonThreadFactory("liberty-dev-compile"));
+    }
+
+    /**
+     * Schedule the compilation of a source directory. Prerequisites must be
+     * scheduled before the source directories that depend on them.
+     *
+     * @param sourceDirectory the source directory to compile
+     * @param prerequisites   source directories that must be compiled first
+     * @param task            the compilation
+     */
+    public synchronized void schedule(File sourceDirectory, Collection<File> prerequisites, final CompileTask task) {
+        final List<Future<Boolean>> waitFor = new ArrayList<Future<Boolean>>();
+        for (File prerequisite : prerequisites) {
+            ScheduledCompile compile = scheduled.get(prerequisite);
+            if (compile != null) {
+                waitFor.add(compile.future);
+            }
+        }
+        final BufferedLog buffer = new BufferedLog(log);
+        // the pool runs tasks in submission order, so a task only waits on tasks
+        // that are already running or done
+        Future<Boolean> future = executor.submit(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                for (Future<Boolean> prerequisite : waitFor) {
+                    try {
+                        prerequisite.get();
+                    } catch (ExecutionException e) {
+                        // reported when the result of the prerequisite is collected
+                    }
+                }
+                return task.compile(buffer);
+            }
+        });
+        scheduled.put(sourceDirectory, new ScheduledCompile(future, buffer));
+    }
+
+    /**
+     * Wait for the scheduled compilation of the source directory and write its
+     * output to the log.
+     *
+     * @param sourceDirectory the source directory
+     * @return the result of the compilation, or null if the source directory was
+     *         not scheduled or could not be compiled in the background
+     */
+    public Boolean await(File sourceDirectory) {
+        ScheduledCompile compile;
+        synchronized (this) {
+            compile = scheduled.remove(sourceDirectory);
+        }
+        if (compile == null) {
+            return null;
+        }
+        try {
+            return compile.future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            log.debug("Background compilation of " + sourceDirectory + " failed", e.getCause());
+            return null;
+        } finally {
+            compile.log.flush();
+        }
+    }
+
+    /**
+     * Discard scheduled compilations whose results were not collected.
+     */
+    public synchronized void discardPending() {
+        for (Map.Entry<File, ScheduledCompile> e : scheduled.entrySet()) {
+            log.debug("Discarding background compilation of " + e.getKey());
+            e.getValue().future.cancel(false);
+        }
+        scheduled.clear();
+    }
+
+    /**
+     * Stop the compilations that are running and discard the scheduled ones.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
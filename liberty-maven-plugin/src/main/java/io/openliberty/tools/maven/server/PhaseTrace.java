@@ -0,0 +1,257 @@
+/**
+ * (C) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openliberty.tools.maven.server;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.plugin.logging.Log;
+
+import io.openliberty.tools.maven.utils.DaemonThreadFactory;
+
+/**
+ * Records the time spent in each dev mode phase, such as compiling or
+ * deploying, and writes the spans to a file in the Chrome trace event format,
+ * which can be loaded in chrome://tracing or Perfetto. Spans that start after
+ * dev mode has been idle for a while begin a new iteration, so that the phases
+ * handling one change can be summarized together. The summary of an iteration
+ * is logged once dev mode has been idle for the same while after it.
+ */
+public class PhaseTrace {
+
+    private static final long IDLE_GAP = TimeUnit.SECONDS.toNanos(1);
+
+    /**
+     * A phase in progress. Closing the span records it.
+     */
+    public static class Span implements Closeable {
+        static final Span NONE = new Span(null, null, 0);
+
+        private final PhaseTrace trace;
+        private final String name;
+        private final long start;
+        private boolean closed;
+
+        Span(PhaseTrace trace, String name, long start) {
+            this.trace = trace;
+            this.name = name;
+            this.start = start;
+        }
+
+        @Override
+        public void close() {
+            if (trace != null && !closed) {
+                closed = true;
+                trace.end(this);
+            }
+        }
+    }
+
+    private static class Record {
+        final String name;
+        final long start;
+        final long end;
+
+        Record(String name, long start, long end) {
+            this.name = name;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    private final File traceFile;
+    private final Log log;
+    private final long origin = System.nanoTime();
+
+    private BufferedWriter writer;
+    private int iteration;
+    private int openSpans;
+    private long lastEnd;
+    private List<Record> iterationRecords = new ArrayList<Record>();
+    private int summarizedIteration;
+
+    private final ScheduledExecutorService summaryScheduler = Executors
+            .newSingleThreadScheduledExecutor(new DaemonThreadFactory("liberty-dev-trace"));
+
+    /**
+     * @param traceFile the file to write the spans to, which is replaced
+     * @param log       the log
+     */
+    public PhaseTrace(File traceFile, Log log) {
+        this.traceFile = traceFile;
+        this.log = log;
+    }
+
+    /**
+     * Start a phase.
+     *
+     * @param name the name of the phase
+     * @return the span to close when the phase ends
+     */
+    public synchronized Span start(String name) {
+        long now = System.nanoTime();
+        beginIteration(now);
+        openSpans++;
+        return new Span(this, name, now);
+    }
+
+    /**
+     * Record a phase that has already ended, such as a wait that is only known
+     * to have ended when the next phase starts.
+     *
+     * @param name  the name of the phase
+     * @param start the {@link System#nanoTime()} when the phase started
+     */
+    public synchronized void record(String name, long start) {
+        long now = System.nanoTime();
+        beginIteration(start);
+        write(new Record(name, start, now), Thread.currentThread().getId());
+        lastEnd = Math.max(lastEnd, now);
+        scheduleSummary();
+    }
+
+    /**
+     * Log the time spent in each phase of the last iteration, unless it has
+     * already been logged or is still in progress.
+     */
+    private synchronized void printSummary() {
+        if (openSpans > 0 || System.nanoTime() - lastEnd < IDLE_GAP || summarizedIteration == iteration
+                || iterationRecords.isEmpty()) {
+            return;
+        }
+        summarizedIteration = iteration;
+        long first = Long.MAX_VALUE;
+        long last = Long.MIN_VALUE;
+        Map<String, long[]> totals = new LinkedHashMap<String, long[]>();
+        for (Record record : iterationRecords) {
+            first = Math.min(first, record.start);
+            last = Math.max(last, record.end);
+            long[] total = totals.get(record.name);
+            if (total == null) {
+                total = new long[2];
+                totals.put(record.name, total);
+            }
+            total[0] += record.end - record.start;
+            total[1]++;
+        }
+        StringBuilder summary = new StringBuilder();
+        summary.append("Dev mode phases of iteration ").append(iteration).append(", ")
+                .append(TimeUnit.NANOSECONDS.toMillis(last - first)).append(" ms in total:");
+        for (Map.Entry<String, long[]> e : totals.entrySet()) {
+            summary.append(System.lineSeparator()).append("    ").append(e.getKey()).append(": ")
+                    .append(TimeUnit.NANOSECONDS.toMillis(e.getValue()[0])).append(" ms");
+            if (e.getValue()[1] > 1) {
+                summary.append(" (").append(e.getValue()[1]).append(" times)");
+            }
+        }
+        summary.append(System.lineSeparator()).append("The full trace is in ").append(traceFile);
+        log.info(summary.toString());
+    }
+
+    /**
+     * Finish the trace file.
+     */
+    public synchronized void close() {
+        summaryScheduler.shutdownNow();
+        if (writer != null) {
+            try {
+                writer.write("\n]\n");
+                writer.close();
+            } catch (IOException e) {
+                log.debug(e);
+            }
+            writer = null;
+        }
+    }
+
+    private synchronized void end(Span span) {
+        long now = System.nanoTime();
+        openSpans--;
+        lastEnd = Math.max(lastEnd, now);
+        write(new Record(span.name, span.start, now), Thread.currentThread().getId());
+        scheduleSummary();
+    }
+
+    private void scheduleSummary() {
+        if (openSpans == 0 && !summaryScheduler.isShutdown()) {
+            // a span that starts before the check runs makes it do nothing, and
+            // the span schedules its own check when it ends
+            summaryScheduler.schedule(new Runnable() {
+                @Override
+                public void run() {
+                    printSummary();
+                }
+            }, IDLE_GAP, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void beginIteration(long now) {
+        if (openSpans == 0 && (iteration == 0 || now - lastEnd > IDLE_GAP)) {
+            iteration++;
+            iterationRecords = new ArrayList<Record>();
+        }
+    }
+
+    private void write(Record record, long threadId) {
+        iterationRecords.add(record);
+        try {
+            if (writer == null) {
+                traceFile.getParentFile().mkdirs();
+                writer = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(traceFile.toPath()),
+                        StandardCharsets.UTF_8));
+                writer.write("[\n");
+            } else {
+                writer.write(",\n");
+            }
+            // complete events; the closing bracket is optional in the format, so
+            // the file can be loaded while dev mode is still running
+            writer.write("{\"name\":\"" + escape(record.name) + "\",\"ph\":\"X\",\"pid\":1,\"tid\":" + threadId
+                    + ",\"ts\":" + TimeUnit.NANOSECONDS.toMicros(record.start - origin) + ",\"dur\":"
+                    + TimeUnit.NANOSECONDS.toMicros(record.end - record.start) + ",\"args\":{\"iteration\":"
+                    + iteration + "}}");
+            writer.flush();
+        } catch (IOException e) {
+            log.debug("Could not write the dev mode trace file " + traceFile, e);
+        }
+    }
+
+    private static String escape(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < 0x20) {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+}
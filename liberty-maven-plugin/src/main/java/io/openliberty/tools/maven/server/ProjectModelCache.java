@@ -0,0 +1,277 @@
+/**
+ * (C) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openliberty.tools.maven.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.ref.SoftReference;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import org.apache.maven.artifact.Artifact;
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuildingException;
+
+import io.openliberty.tools.maven.utils.DigestUtil;
+
+/**
+ * Cache of Maven project models built by dev mode. Each entry is keyed by the
+ * canonical path of its pom.xml and is reused for as long as the fingerprint of
+ * the pom.xml, its parent poms and its resolved dependencies is unchanged.
+ * Models that are going to be needed can be built ahead of time, concurrently.
+ * <p>
+ * The cached models are shared by their callers, so they must not be modified
+ * after they are built. Any changes that dev mode makes to a model, such as
+ * pointing the reactor artifacts to their output directories, belong in
+ * {@link #build(File)}.
+ * <p>
+ * A model with resolved dependencies is a large object graph, so the cached
+ * models are only softly referenced and are released when the heap runs low.
+ * A released model is built again the next time it is needed.
+ */
+public abstract class ProjectModelCache {
+
+    private final Log log;
+    private final Map<String, CachedProject> cache = new ConcurrentHashMap<String, CachedProject>();
+    private final Map<String, Future<MavenProject>> prefetched = new ConcurrentHashMap<String, Future<MavenProject>>();
+    /** groupId:artifactId of each project that was cached, by build file */
+    private final Map<String, String> projectIds = new ConcurrentHashMap<String, String>();
+
+    private static class CachedProject {
+        final SoftReference<MavenProject> project;
+        final String fingerprint;
+        /** groupId:artifactId of each resolved dependency */
+        final Set<String> dependencies;
+
+        CachedProject(MavenProject project, String fingerprint) {
+            this.project = new SoftReference<MavenProject>(project);
+            this.fingerprint = fingerprint;
+            this.dependencies = new HashSet<String>();
+            for (Artifact artifact : project.getArtifacts()) {
+                dependencies.add(artifact.getGroupId() + ":" + artifact.getArtifactId());
+            }
+        }
+    }
+
+    public ProjectModelCache(Log log) {
+        this.log = log;
+    }
+
+    /**
+     * Build the Maven project for the given build file, resolving its
+     * dependencies. The returned project is cached and shared, so it must be
+     * complete when it is returned.
+     *
+     * @param buildFile the pom.xml file
+     * @return the built project
+     * @throws ProjectBuildingException if the project could not be built
+     */
+    protected abstract MavenProject build(File buildFile) throws ProjectBuildingException;
+
+    /**
+     * Returns the cached project for the build file if its fingerprint is
+     * unchanged, otherwise builds and caches the project.
+     *
+     * @param buildFile the pom.xml file
+     * @return the Maven project
+     * @throws ProjectBuildingException if the project could not be built
+     */
+    public MavenProject get(File buildFile) throws ProjectBuildingException {
+        String key = getKey(buildFile);
+        Future<MavenProject> future = prefetched.remove(key);
+        if (future != null) {
+            try {
+                MavenProject project = future.get();
+                if (project != null) {
+                    return project;
+                }
+            } catch (ExecutionException e) {
+                log.debug("Could not build the Maven project model for " + buildFile + " ahead of time", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        CachedProject cached = cache.get(key);
+        MavenProject cachedProject = cached == null ? null : cached.project.get();
+        if (cachedProject != null) {
+            String fingerprint = fingerprint(cachedProject);
+            if (fingerprint != null && fingerprint.equals(cached.fingerprint)) {
+                log.debug("Reusing cached Maven project model for " + buildFile);
+                return cachedProject;
+            }
+        } else if (cached != null) {
+            log.debug("The cached Maven project model for " + buildFile + " was released to free memory");
+        }
+        log.debug("Building Maven project model for " + buildFile);
+        MavenProject project = build(buildFile);
+        put(buildFile, project);
+        return project;
+    }
+
+    /**
+     * Build the projects that are not cached yet on the executor, so that a later
+     * {@link #get(File)} only waits for its own project to finish building.
+     *
+     * @param buildFiles the pom.xml files
+     * @param executor   the executor to build the projects on
+     */
+    public void prefetch(List<File> buildFiles, ExecutorService executor) {
+        for (final File buildFile : buildFiles) {
+            String key = getKey(buildFile);
+            if (cache.containsKey(key) || prefetched.containsKey(key)) {
+                continue;
+            }
+            prefetched.put(key, executor.submit(new Callable<MavenProject>() {
+                @Override
+                public MavenProject call() throws ProjectBuildingException {
+                    log.debug("Building Maven project model for " + buildFile + " ahead of time");
+                    MavenProject project = build(buildFile);
+                    put(buildFile, project);
+                    return project;
+                }
+            }));
+        }
+    }
+
+    /**
+     * Cache a project that was built outside of this cache.
+     *
+     * @param buildFile the pom.xml file
+     * @param project   the Maven project built from the build file
+     */
+    public void put(File buildFile, MavenProject project) {
+        if (project == null) {
+            return;
+        }
+        String fingerprint = fingerprint(project);
+        if (fingerprint != null) {
+            String key = getKey(buildFile);
+            cache.put(key, new CachedProject(project, fingerprint));
+            projectIds.put(key, project.getGroupId() + ":" + project.getArtifactId());
+        }
+    }
+
+    /**
+     * Remove the build file, all of its child modules and all of the reactor
+     * modules that depend on them from the cache. The dependencies of a module
+     * are resolved from the models of the reactor modules it depends on, so their
+     * cached models are stale even though their own pom.xml did not change.
+     *
+     * @param buildFile        the pom.xml file that changed
+     * @param parentBuildFiles map of parent pom canonical paths to the canonical
+     *                         paths of their child poms
+     */
+    public void invalidate(File buildFile, Map<String, List<String>> parentBuildFiles) {
+        List<String> pending = new ArrayList<String>();
+        Set<String> visited = new HashSet<String>();
+        pending.add(getKey(buildFile));
+        while (!pending.isEmpty()) {
+            String key = pending.remove(pending.size() - 1);
+            if (!visited.add(key)) {
+                continue;
+            }
+            Future<MavenProject> future = prefetched.remove(key);
+            if (future != null) {
+                future.cancel(false);
+            }
+            if (cache.remove(key) != null) {
+                log.debug("Invalidated cached Maven project model for " + key);
+            }
+            if (parentBuildFiles != null && parentBuildFiles.containsKey(key)) {
+                pending.addAll(parentBuildFiles.get(key));
+            }
+            String projectId = projectIds.get(key);
+            if (projectId != null) {
+                for (Map.Entry<String, CachedProject> entry : cache.entrySet()) {
+                    if (entry.getValue().dependencies.contains(projectId)) {
+                        pending.add(entry.getKey());
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Fingerprint of the inputs that determine the effective model of the
+     * project: the pom.xml, each parent pom in the parent chain and the resolved
+     * dependencies. Dependencies are identified by their id, which includes the
+     * version, and not by their file path, since dev mode points the reactor
+     * artifacts to their output directories after the model is built.
+     *
+     * @param project the Maven project
+     * @return the fingerprint, or null if it could not be computed
+     */
+    private String fingerprint(MavenProject project) {
+        try {
+            MessageDigest digest = DigestUtil.newDigest();
+            DigestUtil.update(digest, project.getFile());
+            for (MavenProject parent = project.getParent(); parent != null; parent = parent.getParent()) {
+                if (parent.getFile() != null) {
+                    DigestUtil.update(digest, parent.getFile());
+                } else {
+                    // parent resolved from a repository, its id includes the version
+                    DigestUtil.update(digest, parent.getId());
+                }
+            }
+            for (Artifact artifact : project.getArtifacts()) {
+                DigestUtil.update(digest, artifact.getId());
+                File file = artifact.getFile();
+                // reactor modules resolve to their output directory, whose timestamp
+                // changes on every compile and does not affect the model, while a
+                // SNAPSHOT jar can be replaced without changing its id
+                if (file != null && file.isFile()) {
+                    DigestUtil.update(digest, Long.toString(file.lastModified()));
+                    DigestUtil.update(digest, Long.toString(file.length()));
+                }
+            }
+            return DigestUtil.toHex(digest.digest());
+        } catch (IOException e) {
+            log.debug("Could not compute the fingerprint of " + project.getFile(), e);
+            return null;
+        }
+    }
+
+    /**
+     * @return the number of cached models that have not been released
+     */
+    public int size() {
+        int size = 0;
+        for (CachedProject cached : cache.values()) {
+            if (cached.project.get() != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    private static String getKey(File buildFile) {
+        try {
+            return buildFile.getCanonicalPath();
+        } catch (IOException e) {
+            return buildFile.getAbsolutePath();
+        }
+    }
+}
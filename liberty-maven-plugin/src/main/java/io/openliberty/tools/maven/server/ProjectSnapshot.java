@@ -0,0 +1,68 @@
+/**
+ * (C) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openliberty.tools.maven.server;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.model.Dependency;
+import org.apache.maven.project.MavenProject;
+
+/**
+ * The parts of a Maven project model that dev mode compares when the build file
+ * of an upstream module changes. A snapshot is kept instead of the model
+ * itself, since a model with resolved dependencies holds a large object graph.
+ */
+public class ProjectSnapshot {
+
+    private final List<Dependency> dependencies;
+    private final List<String> compilerOptions;
+
+    /**
+     * @param project         the Maven project
+     * @param compilerOptions the compiler options of the project
+     */
+    public ProjectSnapshot(MavenProject project, List<String> compilerOptions) {
+        List<Dependency> dependencies = new ArrayList<Dependency>();
+        if (project.getDependencies() != null) {
+            for (Dependency dependency : project.getDependencies()) {
+                // only the coordinates, without exclusions and input locations
+                Dependency copy = new Dependency();
+                copy.setGroupId(dependency.getGroupId());
+                copy.setArtifactId(dependency.getArtifactId());
+                copy.setVersion(dependency.getVersion());
+                copy.setType(dependency.getType());
+                copy.setClassifier(dependency.getClassifier());
+                copy.setScope(dependency.getScope());
+                dependencies.add(copy);
+            }
+        }
+        this.dependencies = Collections.unmodifiableList(dependencies);
+        this.compilerOptions = Collections.unmodifiableList(new ArrayList<String>(compilerOptions));
+    }
+
+    /**
+     * @return the dependencies of the project, with their coordinates and scope
+     */
+    public List<Dependency> getDependencies() {
+        return dependencies;
+    }
+
+    public List<String> getCompilerOptions() {
+        return compilerOptions;
+    }
+}
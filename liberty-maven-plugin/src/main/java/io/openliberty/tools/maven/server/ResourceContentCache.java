@@ -0,0 +1,105 @@
+/**
+ * (C) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openliberty.tools.maven.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import io.openliberty.tools.maven.utils.DigestUtil;
+
+/**
+ * Content hashes of the resources that dev mode copies to an output directory,
+ * used to skip copying a resource whose content did not change, for example
+ * because an editor saved it without modifying it. Copying it anyway would make
+ * the server restart the application.
+ * <p>
+ * The hash of each target file is cached together with its modification time
+ * and size, so that only the changed source file is read for each change.
+ */
+public class ResourceContentCache {
+
+    private static class Entry {
+        final String hash;
+        final long lastModified;
+        final long length;
+
+        Entry(String hash, File file) {
+            this.hash = hash;
+            this.lastModified = file.lastModified();
+            this.length = file.length();
+        }
+
+        boolean isCurrent(File file) {
+            return file.lastModified() == lastModified && file.length() == length;
+        }
+    }
+
+    private final Map<File, Entry> targets = new HashMap<File, Entry>();
+    private final Map<File, String> pendingHashes = new HashMap<File, String>();
+
+    /**
+     * @param source the changed resource
+     * @param target the copy of the resource in the output directory
+     * @return true if the target already has the same content as the source
+     * @throws IOException if a file cannot be read
+     */
+    public synchronized boolean isUnchanged(File source, File target) throws IOException {
+        pendingHashes.remove(target);
+        if (!source.isFile() || !target.isFile() || source.length() != target.length()) {
+            targets.remove(target);
+            return false;
+        }
+        String sourceHash = DigestUtil.digest(source);
+        Entry entry = targets.get(target);
+        if (entry == null || !entry.isCurrent(target)) {
+            entry = new Entry(DigestUtil.digest(target), target);
+            targets.put(target, entry);
+        }
+        if (sourceHash.equals(entry.hash)) {
+            return true;
+        }
+        pendingHashes.put(target, sourceHash);
+        return false;
+    }
+
+    /**
+     * Record that the source was copied to the target, so that the hash of the
+     * source that was computed by {@link #isUnchanged(File, File)} is reused for
+     * the next change.
+     *
+     * @param target the copy of the resource in the output directory
+     */
+    public synchronized void copied(File target) {
+        String hash = pendingHashes.remove(target);
+        if (hash != null && target.isFile()) {
+            targets.put(target, new Entry(hash, target));
+        } else {
+            targets.remove(target);
+        }
+    }
+
+    /**
+     * Forget the target, for example because it was deleted.
+     *
+     * @param target the copy of the resource in the output directory
+     */
+    public synchronized void remove(File target) {
+        pendingHashes.remove(target);
+        targets.remove(target);
+    }
+}
@@ -0,0 +1,218 @@
+/**
+ * (C) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openliberty.tools.maven.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.TransformerException;
+
+import org.w3c.dom.Element;
+
+import io.openliberty.tools.common.plugins.config.ServerConfigXmlDocument;
+
+/**
+ * Classifies changes of the Liberty server properties of a project by whether
+ * the running server can apply them.
+ * <p>
+ * Bootstrap properties, server.env variables and JVM options are read when the
+ * server JVM starts. The exception are the logging properties, which only
+ * configure the logging until the server configuration is processed and can be
+ * set as attributes of the logging element instead. Those are written to a
+ * configDropins defaults file, so that the logging element of server.xml still
+ * takes precedence over them, as it does over the bootstrap properties.
+ */
+public class ServerPropertyClassifier {
+
+    /** The logging configuration, relative to the server directory */
+    public static final String LOGGING_CONFIG_DEFAULTS_XML = "configDropins/defaults/liberty-dev-logging-config.xml";
+
+    /**
+     * How a changed server property is applied.
+     */
+    public enum Category {
+        /** read when the server JVM starts; requires a server restart */
+        JVM_RESTART("requires a server restart"),
+        /** a logging property; applied to the running server as logging configuration */
+        DYNAMIC_CONFIG("applied to the running server through " + LOGGING_CONFIG_DEFAULTS_XML),
+        /** a configuration variable; applied to the running server by liberty:create */
+        CONFIG_VARIABLE("applied to the running server as a configuration variable");
+
+        private final String description;
+
+        private Category(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    public static final String BOOTSTRAP_PREFIX = "liberty.bootstrap.";
+    public static final String ENV_PREFIX = "liberty.env.";
+
+    private static final String[] VARIABLE_PREFIXES = { "liberty.var.", "liberty.defaultVar." };
+
+    /** Logging element attributes by bootstrap property */
+    private static final Map<String, String> BOOTSTRAP_LOGGING_ATTRIBUTES = new HashMap<String, String>();
+    /** Logging element attributes by server.env variable */
+    private static final Map<String, String> ENV_LOGGING_ATTRIBUTES = new HashMap<String, String>();
+    /** Logging element attributes whose values are file paths */
+    private static final Set<String> PATH_LOGGING_ATTRIBUTES = new HashSet<String>(
+            Arrays.asList("traceFileName", "messageFileName", "logDirectory"));
+
+    static {
+        // the log directory, message file name and message format are not dynamic
+        // since dev mode reads the messages log
+        String[][] bootstrap = { { "com.ibm.ws.logging.trace.specification", "traceSpecification" },
+                { "com.ibm.ws.logging.trace.format", "traceFormat" },
+                { "com.ibm.ws.logging.trace.file.name", "traceFileName" },
+                { "com.ibm.ws.logging.max.file.size", "maxFileSize" }, { "com.ibm.ws.logging.max.files", "maxFiles" },
+                { "com.ibm.ws.logging.console.log.level", "consoleLogLevel" },
+                { "com.ibm.ws.logging.console.format", "consoleFormat" },
+                { "com.ibm.ws.logging.console.source", "consoleSource" },
+                { "com.ibm.ws.logging.message.source", "messageSource" },
+                { "com.ibm.ws.logging.copy.system.streams", "copySystemStreams" },
+                { "com.ibm.ws.logging.hide.message", "hideMessage" },
+                { "com.ibm.ws.logging.json.field.mappings", "jsonFieldMappings" },
+                { "com.ibm.ws.logging.json.access.log.fields", "jsonAccessLogFields" },
+                { "com.ibm.ws.logging.apps.write.json", "appsWriteJson" } };
+        for (String[] mapping : bootstrap) {
+            BOOTSTRAP_LOGGING_ATTRIBUTES.put(mapping[0], mapping[1]);
+        }
+        String[][] env = { { "WLP_LOGGING_CONSOLE_FORMAT", "consoleFormat" },
+                { "WLP_LOGGING_CONSOLE_LOGLEVEL", "consoleLogLevel" },
+                { "WLP_LOGGING_CONSOLE_SOURCE", "consoleSource" },
+                { "WLP_LOGGING_MESSAGE_SOURCE", "messageSource" },
+                { "WLP_LOGGING_JSON_FIELD_MAPPINGS", "jsonFieldMappings" },
+                { "WLP_LOGGING_JSON_ACCESS_LOG_FIELDS", "jsonAccessLogFields" },
+                { "WLP_LOGGING_APPS_WRITE_JSON", "appsWriteJson" } };
+        for (String[] mapping : env) {
+            ENV_LOGGING_ATTRIBUTES.put(mapping[0], mapping[1]);
+        }
+    }
+
+    private ServerPropertyClassifier() {
+    }
+
+    /**
+     * @param property a liberty.bootstrap.*, liberty.env.*, liberty.jvm.*,
+     *                 liberty.var.* or liberty.defaultVar.* property
+     * @return how a change of the property is applied
+     */
+    public static Category classify(String property) {
+        for (String prefix : VARIABLE_PREFIXES) {
+            if (property.startsWith(prefix)) {
+                return Category.CONFIG_VARIABLE;
+            }
+        }
+        return getLoggingAttribute(property) != null ? Category.DYNAMIC_CONFIG : Category.JVM_RESTART;
+    }
+
+    /**
+     * @param property a liberty.bootstrap.* or liberty.env.* property
+     * @return the logging element attribute that corresponds to the property,
+     *         or null if there is none
+     */
+    public static String getLoggingAttribute(String property) {
+        if (property.startsWith(BOOTSTRAP_PREFIX)) {
+            return BOOTSTRAP_LOGGING_ATTRIBUTES.get(property.substring(BOOTSTRAP_PREFIX.length()));
+        }
+        if (property.startsWith(ENV_PREFIX)) {
+            return ENV_LOGGING_ATTRIBUTES.get(property.substring(ENV_PREFIX.length()));
+        }
+        return null;
+    }
+
+    /**
+     * Get the logging configuration that corresponds to the logging properties
+     * of a project. Bootstrap properties take precedence over server.env
+     * variables, as they do in the server.
+     *
+     * @param properties          the liberty.* properties of the project, with
+     *                            later properties taking precedence
+     * @param bootstrapProperties the bootstrapProperties parameter of
+     *                            liberty:create, which takes precedence over
+     *                            the properties, or null
+     * @return the logging element attributes
+     */
+    public static Map<String, String> getLoggingConfig(Properties[] properties, Map<String, String> bootstrapProperties) {
+        Map<String, String> env = new TreeMap<String, String>();
+        Map<String, String> bootstrap = new TreeMap<String, String>();
+        for (Properties p : properties) {
+            for (String name : p.stringPropertyNames()) {
+                String attribute = getLoggingAttribute(name);
+                if (attribute != null) {
+                    if (name.startsWith(ENV_PREFIX)) {
+                        env.put(attribute, p.getProperty(name));
+                    } else {
+                        bootstrap.put(attribute, p.getProperty(name));
+                    }
+                }
+            }
+        }
+        if (bootstrapProperties != null) {
+            for (Map.Entry<String, String> e : bootstrapProperties.entrySet()) {
+                String attribute = getLoggingAttribute(BOOTSTRAP_PREFIX + e.getKey());
+                if (attribute != null) {
+                    bootstrap.put(attribute, e.getValue());
+                }
+            }
+        }
+        env.putAll(bootstrap);
+        return env;
+    }
+
+    /**
+     * Write the logging configuration to the configDropins defaults of the
+     * server, or delete it if there is none.
+     *
+     * @param serverDirectory the server directory
+     * @param loggingConfig   the logging element attributes
+     */
+    public static void writeLoggingConfig(File serverDirectory, Map<String, String> loggingConfig)
+            throws IOException, TransformerException, ParserConfigurationException {
+        File file = new File(serverDirectory, LOGGING_CONFIG_DEFAULTS_XML);
+        if (loggingConfig.isEmpty()) {
+            file.delete();
+            return;
+        }
+        ServerConfigXmlDocument configDocument = ServerConfigXmlDocument.newInstance();
+        configDocument.createComment("Generated by liberty:dev from the logging properties of the project. Deleted when dev mode exits.");
+        Element server = configDocument.findServerElement();
+        Element logging = server.getOwnerDocument().createElement("logging");
+        for (Map.Entry<String, String> e : loggingConfig.entrySet()) {
+            String value = e.getValue() == null ? "" : e.getValue();
+            if (PATH_LOGGING_ATTRIBUTES.contains(e.getKey())) {
+                // use forward slashes in file paths, as in the rest of the server configuration
+                value = value.replace("\\", "/");
+            }
+            logging.setAttribute(e.getKey(), value);
+        }
+        server.appendChild(logging);
+        file.getParentFile().mkdirs();
+        configDocument.writeXMLDocument(file);
+    }
+}
@@ -97,6 +97,11 @@ public class StartDebugMojoSupport extends ServerFeatureSupport {
 
     protected Map<String,String> combinedBootstrapProperties = null;
     protected List<String> combinedJvmOptions = null;
+
+    /**
+     * Records the time spent running goals, or null if it is not recorded.
+     */
+    protected PhaseTrace phaseTrace = null;
     
     @Component
     protected BuildPluginManager pluginManager;
@@ -188,8 +193,20 @@ public class StartDebugMojoSupport extends ServerFeatureSupport {
         Xpp3Dom config = ExecuteMojoUtil.getPluginGoalConfig(plugin, goal, log);
         log.info("Running " + artifactId + ":" + goal);
         log.debug("configuration:\n" + config);
-        executeMojo(plugin, goal(goal), config,
-                executionEnvironment(project, session, pluginManager));
+        try (PhaseTrace.Span span = startPhase(artifactId + ":" + goal)) {
+            executeMojo(plugin, goal(goal), config,
+                    executionEnvironment(project, session, pluginManager));
+        }
+    }
+
+    /**
+     * Start recording the time spent in a phase.
+     * 
+     * @param name the name of the phase
+     * @return the span to close when the phase ends
+     */
+    protected PhaseTrace.Span startPhase(String name) {
+        return phaseTrace == null ? PhaseTrace.Span.NONE : phaseTrace.start(name);
     }
     
     /**
@@ -208,7 +225,9 @@ public class StartDebugMojoSupport extends ServerFeatureSupport {
         log.info("Running maven-war-plugin:exploded");
         log.debug("configuration:\n" + explodedConfig);
         session.getRequest().setStartTime(new Date());
-        executeMojo(warPlugin, goal("exploded"), explodedConfig, executionEnvironment(project, session, pluginManager));
+        try (PhaseTrace.Span span = startPhase("maven-war-plugin:exploded")) {
+            executeMojo(warPlugin, goal("exploded"), explodedConfig, executionEnvironment(project, session, pluginManager));
+        }
     }
 
     protected void runMojoForProject(String groupId, String artifactId, String goal, MavenProject project)
@@ -219,7 +238,9 @@ public class StartDebugMojoSupport extends ServerFeatureSupport {
         log.debug("configuration:\n" + config);
         MavenSession tempSession = session.clone();
         tempSession.setCurrentProject(project);
-        executeMojo(plugin, goal(goal), config, executionEnvironment(project, tempSession, pluginManager));
+        try (PhaseTrace.Span span = startPhase(artifactId + ":" + goal + " " + project.getArtifactId())) {
+            executeMojo(plugin, goal(goal), config, executionEnvironment(project, tempSession, pluginManager));
+        }
     }
     
     protected boolean validatePluginVersion(String version, String minVersion) {
@@ -360,8 +381,10 @@ public class StartDebugMojoSupport extends ServerFeatureSupport {
     private void runLibertyMojo(String goal, Xpp3Dom config) throws MojoExecutionException {
         log.info("Running liberty:" + goal);
         log.debug("configuration:\n" + config);
-        executeMojo(getLibertyPlugin(), goal(goal), config,
-                executionEnvironment(project, session, pluginManager));
+        try (PhaseTrace.Span span = startPhase("liberty:" + goal)) {
+            executeMojo(getLibertyPlugin(), goal(goal), config,
+                    executionEnvironment(project, session, pluginManager));
+        }
     }
 
     private void copyDependencies() throws Exception {
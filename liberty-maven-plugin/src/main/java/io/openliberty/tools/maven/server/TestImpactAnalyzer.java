@@ -0,0 +1,179 @@
+/**
+ * (C) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openliberty.tools.maven.server;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Selects the test classes affected by a set of modified classes. A test class
+ * is affected if it references a modified class, a project supertype of a
+ * modified class, or a class that transitively references one of them.
+ */
+public class TestImpactAnalyzer {
+
+    // default includes and excludes of the maven-surefire-plugin
+    private static final List<String> DEFAULT_INCLUDES = Arrays.asList("**/Test*.java", "**/*Test.java",
+            "**/*Tests.java", "**/*TestCase.java");
+    private static final List<String> DEFAULT_EXCLUDES = Arrays.asList("**/*$*");
+
+    /**
+     * Get the test classes affected by the modified classes.
+     *
+     * @param testGraph     dependency graph of the test classes directory
+     * @param graphs        dependency graphs of all project classes directories the
+     *                      tests can load classes from, including the test graph
+     * @param modifiedTypes internal names of the modified classes
+     * @param includes      surefire include patterns, or empty for the defaults
+     * @param excludes      surefire exclude patterns, or empty for the defaults
+     * @return fully qualified names of the affected test classes, or null if the
+     *         include or exclude patterns are not supported and all tests should
+     *         run
+     */
+    public static Set<String> getAffectedTests(ClassDependencyGraph testGraph,
+            Collection<ClassDependencyGraph> graphs, Set<String> modifiedTypes, List<String> includes,
+            List<String> excludes) {
+        Map<String, Set<String>> referencedBy = new HashMap<String, Set<String>>();
+        Set<String> projectClasses = new HashSet<String>();
+        for (ClassDependencyGraph graph : graphs) {
+            for (String className : graph.getClassNames()) {
+                projectClasses.add(className);
+                for (String reference : graph.getReferences(className)) {
+                    Set<String> classes = referencedBy.get(reference);
+                    if (classes == null) {
+                        classes = new HashSet<String>();
+                        referencedBy.put(reference, classes);
+                    }
+                    classes.add(className);
+                }
+            }
+        }
+
+        // a test that only references the interface of a modified class can
+        // still run the modified class
+        Deque<String> pending = new ArrayDeque<String>(modifiedTypes);
+        for (String modified : modifiedTypes) {
+            for (ClassDependencyGraph graph : graphs) {
+                for (String supertype : graph.getSupertypes(modified)) {
+                    if (projectClasses.contains(supertype)) {
+                        pending.add(supertype);
+                    }
+                }
+            }
+        }
+        Set<String> affected = new HashSet<String>();
+        while (!pending.isEmpty()) {
+            String className = pending.poll();
+            if (affected.add(className)) {
+                Set<String> classes = referencedBy.get(className);
+                if (classes != null) {
+                    pending.addAll(classes);
+                }
+            }
+        }
+
+        Set<String> affectedTests = testGraph.getClassNames();
+        affectedTests.retainAll(affected);
+        return getTestClasses(affectedTests, includes, excludes);
+    }
+
+    /**
+     * Get the test classes that surefire would run out of the given classes.
+     * Nested classes are reported as their top level class.
+     *
+     * @param classNames internal names of classes in the test classes directory
+     * @param includes   surefire include patterns, or empty for the defaults
+     * @param excludes   surefire exclude patterns, or empty for the defaults
+     * @return fully qualified names of the test classes, or null if the include
+     *         or exclude patterns are not supported
+     */
+    public static Set<String> getTestClasses(Collection<String> classNames, List<String> includes,
+            List<String> excludes) {
+        List<Pattern> includePatterns = toPatterns(includes.isEmpty() ? DEFAULT_INCLUDES : includes);
+        List<Pattern> excludePatterns = toPatterns(excludes.isEmpty() ? DEFAULT_EXCLUDES : excludes);
+        if (includePatterns == null || excludePatterns == null) {
+            return null;
+        }
+        Set<String> tests = new TreeSet<String>();
+        for (String className : classNames) {
+            int nested = className.indexOf('$');
+            String topLevel = nested > 0 ? className.substring(0, nested) : className;
+            String path = topLevel + ".java";
+            if (matches(includePatterns, path) && !matches(excludePatterns, path)) {
+                tests.add(topLevel.replace('/', '.'));
+            }
+        }
+        return tests;
+    }
+
+    private static boolean matches(List<Pattern> patterns, String path) {
+        for (Pattern pattern : patterns) {
+            if (pattern.matcher(path).matches()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Convert surefire Ant style patterns to regular expressions.
+     *
+     * @return the patterns, or null if a pattern uses the %regex or %ant syntax
+     */
+    private static List<Pattern> toPatterns(List<String> globs) {
+        List<Pattern> patterns = new ArrayList<Pattern>();
+        for (String glob : globs) {
+            String value = glob.trim().replace('\\', '/');
+            if (value.startsWith("%")) {
+                return null;
+            }
+            if (value.endsWith(".class")) {
+                value = value.substring(0, value.length() - ".class".length()) + ".java";
+            } else if (!value.endsWith(".java") && !value.endsWith("*")) {
+                value = value + ".java";
+            }
+            StringBuilder regex = new StringBuilder();
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (value.startsWith("**/", i)) {
+                    regex.append("(.*/)?");
+                    i += 2;
+                } else if (value.startsWith("**", i)) {
+                    regex.append(".*");
+                    i++;
+                } else if (c == '*') {
+                    regex.append("[^/]*");
+                } else if (c == '?') {
+                    regex.append("[^/]");
+                } else {
+                    regex.append(Pattern.quote(String.valueOf(c)));
+                }
+            }
+            patterns.add(Pattern.compile(regex.toString()));
+        }
+        return patterns;
+    }
+}
@@ -0,0 +1,107 @@
+/**
+ * (C) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openliberty.tools.maven.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Properties;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Fingerprints of the inputs of the dev mode startup steps, as they were when
+ * dev mode last shut down cleanly. A step whose inputs have the same
+ * fingerprint on the next start does not need to run again.
+ * <p>
+ * The manifest is removed when it is loaded, so that it only exists while dev
+ * mode is not running. If dev mode is killed or a step fails, no manifest is
+ * written and the next start runs every step.
+ */
+public class WarmStartManifest {
+
+    private static final String HEADER = "liberty dev warm start manifest";
+
+    private final File file;
+    private final Log log;
+    private final Properties previous = new Properties();
+    private boolean valid = true;
+
+    /**
+     * Load and remove the manifest.
+     *
+     * @param file the manifest file
+     * @param log  the log
+     */
+    public WarmStartManifest(File file, Log log) {
+        this.file = file;
+        this.log = log;
+        if (file.isFile()) {
+            try (InputStream in = Files.newInputStream(file.toPath())) {
+                previous.load(in);
+            } catch (IOException e) {
+                log.debug("Could not read the warm start manifest " + file, e);
+                previous.clear();
+            }
+            if (!file.delete()) {
+                log.debug("Could not delete the warm start manifest " + file);
+                previous.clear();
+            }
+        }
+    }
+
+    /**
+     * @param step        the startup step
+     * @param fingerprint the fingerprint of the current inputs of the step
+     * @return true if the step ran with the same inputs before dev mode last shut
+     *         down cleanly
+     */
+    public boolean isUnchanged(String step, String fingerprint) {
+        return fingerprint != null && fingerprint.equals(previous.getProperty(step));
+    }
+
+    /**
+     * Prevent the manifest from being written, for example because a step
+     * failed and the server may not reflect its inputs.
+     */
+    public synchronized void invalidate() {
+        valid = false;
+    }
+
+    /**
+     * Write the manifest, unless it was invalidated.
+     *
+     * @param fingerprints the fingerprints of the inputs of each step
+     */
+    public synchronized void save(Map<String, String> fingerprints) {
+        if (!valid) {
+            log.debug("Not writing the warm start manifest since a startup step failed");
+            return;
+        }
+        Properties current = new Properties();
+        current.putAll(fingerprints);
+        file.getParentFile().mkdirs();
+        try (OutputStream out = Files.newOutputStream(file.toPath())) {
+            current.store(out, HEADER);
+        } catch (IOException e) {
+            log.debug("Could not write the warm start manifest " + file, e);
+            file.delete();
+        }
+    }
+}
@@ -0,0 +1,295 @@
+/**
+ * (C) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openliberty.tools.maven.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * A long-lived JVM that runs the unit tests of a module with
+ * {@link WarmTestRunner}, so that repeated test runs do not pay for JVM startup
+ * and warm-up.
+ */
+public class WarmTestJvm {
+
+    private final File workingDirectory;
+    private final List<String> jvmArguments;
+    private final Map<String, String> environment;
+    private final Log log;
+
+    private Process process;
+    private Socket socket;
+    private DataInputStream in;
+    private DataOutputStream out;
+    private Thread shutdownHook;
+
+    /**
+     * Result of a test run.
+     */
+    public static class Result {
+        private int tests;
+        private int failures;
+        private int errors;
+        private int skipped;
+        private boolean supported;
+        private final List<String> messages = new ArrayList<String>();
+
+        public int getTests() {
+            return tests;
+        }
+
+        public int getFailures() {
+            return failures;
+        }
+
+        public int getErrors() {
+            return errors;
+        }
+
+        public int getSkipped() {
+            return skipped;
+        }
+
+        /**
+         * @return false if the tests could not be run by the test JVM and should
+         *         be run with the maven-surefire-plugin
+         */
+        public boolean isSupported() {
+            return supported;
+        }
+
+        /**
+         * @return the failed tests, or the reason the run is not supported
+         */
+        public List<String> getMessages() {
+            return messages;
+        }
+    }
+
+    /**
+     * @param workingDirectory the working directory of the test JVM
+     * @param jvmArguments     the arguments of the test JVM
+     * @param environment      the environment variables to add to the environment
+     *                         of the test JVM
+     * @param log              the log to write the output of the tests to
+     */
+    public WarmTestJvm(File workingDirectory, List<String> jvmArguments, Map<String, String> environment, Log log) {
+        this.workingDirectory = workingDirectory;
+        this.jvmArguments = jvmArguments;
+        this.environment = environment;
+        this.log = log;
+    }
+
+    public File getWorkingDirectory() {
+        return workingDirectory;
+    }
+
+    public List<String> getJvmArguments() {
+        return jvmArguments;
+    }
+
+    public Map<String, String> getEnvironment() {
+        return environment;
+    }
+
+    /**
+     * Run test classes in the test JVM, starting it if it is not running.
+     *
+     * @param classpath        the test classpath
+     * @param tests            fully qualified names of the test classes
+     * @param reportsDirectory directory to write the surefire XML reports to
+     * @param timeoutSeconds   the time the tests may run before the test JVM is
+     *                         restarted and the run fails, or 0 to wait forever
+     * @return the result of the run
+     * @throws IOException if the test JVM could not be started or stopped
+     *                     responding, in which case it is stopped
+     */
+    public synchronized Result run(Collection<String> classpath, Collection<String> tests, File reportsDirectory,
+            int timeoutSeconds) throws IOException {
+        List<String> dependencies = new ArrayList<String>();
+        List<String> directories = new ArrayList<String>();
+        for (String element : classpath) {
+            File file = new File(element);
+            if (file.isDirectory()) {
+                directories.add(element);
+            } else if (file.isFile()) {
+                dependencies.add(element);
+            }
+        }
+        try {
+            if (process == null) {
+                start();
+            }
+            out.writeUTF("run");
+            writeStrings(dependencies);
+            writeStrings(directories);
+            writeStrings(tests);
+            out.writeUTF(reportsDirectory.getAbsolutePath());
+            out.flush();
+
+            Result result = new Result();
+            socket.setSoTimeout(timeoutSeconds * 1000);
+            int testCount;
+            try {
+                testCount = in.readInt();
+            } catch (SocketTimeoutException e) {
+                log.error("The unit tests did not finish within " + timeoutSeconds
+                        + " seconds. Restarting the unit test JVM.");
+                stop();
+                try {
+                    start();
+                } catch (IOException startException) {
+                    // started again by the next run
+                    log.debug(startException);
+                }
+                result.supported = true;
+                result.errors = 1;
+                result.messages.add("The unit tests timed out after " + timeoutSeconds + " seconds");
+                return result;
+            }
+            result.supported = testCount != WarmTestRunner.UNSUPPORTED;
+            result.tests = Math.max(testCount, 0);
+            result.failures = in.readInt();
+            result.errors = in.readInt();
+            result.skipped = in.readInt();
+            int messages = in.readInt();
+            for (int i = 0; i < messages; i++) {
+                result.messages.add(in.readUTF());
+            }
+            return result;
+        } catch (IOException e) {
+            stop();
+            throw e;
+        }
+    }
+
+    /**
+     * Stop the test JVM.
+     */
+    public synchronized void stop() {
+        if (process == null) {
+            return;
+        }
+        try {
+            socket.close();
+        } catch (IOException e) {
+            log.debug(e);
+        }
+        process.destroy();
+        process = null;
+        try {
+            Runtime.getRuntime().removeShutdownHook(shutdownHook);
+        } catch (IllegalStateException e) {
+            // already shutting down
+        }
+    }
+
+    private void start() throws IOException {
+        String runnerClasspath;
+        try {
+            runnerClasspath = new File(WarmTestRunner.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                    .getAbsolutePath();
+        } catch (URISyntaxException e) {
+            throw new IOException(e);
+        }
+        List<String> command = new ArrayList<String>();
+        command.add(new File(System.getProperty("java.home"), "bin" + File.separator + "java").getAbsolutePath());
+        command.addAll(jvmArguments);
+        command.add("-cp");
+        command.add(runnerClasspath);
+        command.add(WarmTestRunner.class.getName());
+        log.debug("Starting the unit test JVM: " + command);
+
+        ProcessBuilder builder = new ProcessBuilder(command);
+        builder.directory(workingDirectory);
+        builder.environment().putAll(environment);
+        builder.redirectErrorStream(true);
+        final Process started = builder.start();
+        final BufferedReader output = new BufferedReader(
+                new InputStreamReader(started.getInputStream(), Charset.defaultCharset()));
+        int port = -1;
+        String line;
+        while ((line = output.readLine()) != null) {
+            if (line.startsWith(WarmTestRunner.PORT_PREFIX)) {
+                port = Integer.parseInt(line.substring(WarmTestRunner.PORT_PREFIX.length()).trim());
+                break;
+            }
+            log.info(line);
+        }
+        if (port < 0) {
+            started.destroy();
+            throw new IOException("The unit test JVM exited before it was ready");
+        }
+
+        // forward the output of the tests to the log like the maven-surefire-plugin
+        Thread pump = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    String line;
+                    while ((line = output.readLine()) != null) {
+                        log.info(line);
+                    }
+                } catch (IOException e) {
+                    // the test JVM was stopped
+                }
+            }
+        }, "liberty-dev-test-output");
+        pump.setDaemon(true);
+        pump.start();
+
+        try {
+            socket = new Socket(InetAddress.getLoopbackAddress(), port);
+            in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+            out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+        } catch (IOException e) {
+            started.destroy();
+            throw e;
+        }
+        process = started;
+        shutdownHook = new Thread() {
+            @Override
+            public void run() {
+                started.destroy();
+            }
+        };
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    private void writeStrings(Collection<String> values) throws IOException {
+        out.writeInt(values.size());
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+}
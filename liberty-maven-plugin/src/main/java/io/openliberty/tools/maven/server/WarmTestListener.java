@@ -0,0 +1,73 @@
+/**
+ * (C) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openliberty.tools.maven.server;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.runner.Description;
+import org.junit.runner.notification.Failure;
+import org.junit.runner.notification.RunListener;
+
+/**
+ * Records the time of each test and the tests that are skipped for
+ * {@link WarmTestRunner}.
+ *
+ * The runner loads this class in a class loader whose parent is the class
+ * loader of the tests, so that it is linked against the JUnit of the test
+ * classpath. It must not be loaded by the dev mode JVM.
+ */
+public class WarmTestListener extends RunListener {
+
+    private final Map<String, Long> started = new HashMap<String, Long>();
+    private final Map<String, Long> times;
+    private final Set<String> skipped;
+
+    /**
+     * @param times   receives the time in nanoseconds of each finished test, by
+     *                display name
+     * @param skipped receives the display names of the tests that are ignored or
+     *                whose assumptions failed
+     */
+    public WarmTestListener(Map<String, Long> times, Set<String> skipped) {
+        this.times = times;
+        this.skipped = skipped;
+    }
+
+    @Override
+    public void testStarted(Description description) {
+        started.put(description.getDisplayName(), System.nanoTime());
+    }
+
+    @Override
+    public void testFinished(Description description) {
+        Long start = started.remove(description.getDisplayName());
+        if (start != null) {
+            times.put(description.getDisplayName(), System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public void testAssumptionFailure(Failure failure) {
+        skipped.add(failure.getDescription().getDisplayName());
+    }
+
+    @Override
+    public void testIgnored(Description description) {
+        skipped.add(description.getDisplayName());
+    }
+}
@@ -0,0 +1,419 @@
+/**
+ * (C) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openliberty.tools.maven.server;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Main class of the long-lived JVM that runs JUnit 4 unit tests for dev mode.
+ * The dev mode JVM sends test runs over a loopback socket. Dependency jars are
+ * loaded by a class loader that is kept while the jars are unchanged, and the
+ * project classes directories are loaded by a new child class loader on every
+ * run so that changed classes are picked up.
+ *
+ * This class runs outside of Maven and must only use the Java class library.
+ * JUnit is loaded reflectively from the test classpath.
+ */
+public class WarmTestRunner {
+
+    /** Prefix of the line that reports the port the runner listens on */
+    public static final String PORT_PREFIX = "LIBERTY_DEV_TEST_RUNNER_PORT=";
+
+    /** Result of a run that could not be handled by this runner */
+    public static final int UNSUPPORTED = -1;
+
+    private static final int MAX_MESSAGE_LENGTH = 2000;
+
+    /** Linked against the JUnit of the test classpath, so it is only loaded by name */
+    private static final String LISTENER_CLASS = "io.openliberty.tools.maven.server.WarmTestListener";
+
+    private List<String> dependencyPaths = new ArrayList<String>();
+    private URLClassLoader dependencyLoader;
+
+    public static void main(String[] args) throws IOException {
+        try (ServerSocket serverSocket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            System.out.println(PORT_PREFIX + serverSocket.getLocalPort());
+            System.out.flush();
+            try (Socket socket = serverSocket.accept()) {
+                DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+                DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+                new WarmTestRunner().serve(in, out);
+            }
+        }
+        // the test classes may have started non-daemon threads
+        System.exit(0);
+    }
+
+    private void serve(DataInputStream in, DataOutputStream out) throws IOException {
+        while (true) {
+            String command;
+            try {
+                command = in.readUTF();
+            } catch (EOFException e) {
+                // dev mode exited
+                return;
+            }
+            if (!"run".equals(command)) {
+                throw new IOException("Unknown command " + command);
+            }
+            List<String> dependencies = readStrings(in);
+            List<String> directories = readStrings(in);
+            List<String> tests = readStrings(in);
+            File reportsDirectory = new File(in.readUTF());
+            Summary summary;
+            try {
+                summary = run(dependencies, directories, tests, reportsDirectory);
+            } catch (Exception e) {
+                summary = new Summary();
+                summary.unsupported = true;
+                summary.messages.add("Unable to run the tests: " + e);
+            }
+            out.writeInt(summary.unsupported ? UNSUPPORTED : summary.tests);
+            out.writeInt(summary.failures);
+            out.writeInt(summary.errors);
+            out.writeInt(summary.skipped);
+            out.writeInt(summary.messages.size());
+            for (String message : summary.messages) {
+                out.writeUTF(truncate(message));
+            }
+            out.flush();
+        }
+    }
+
+    private static class Summary {
+        int tests;
+        int failures;
+        int errors;
+        int skipped;
+        boolean unsupported;
+        List<String> messages = new ArrayList<String>();
+    }
+
+    private Summary run(List<String> dependencies, List<String> directories, List<String> tests,
+            File reportsDirectory) throws Exception {
+        if (dependencyLoader == null || !dependencyPaths.equals(dependencies)) {
+            if (dependencyLoader != null) {
+                dependencyLoader.close();
+            }
+            dependencyLoader = new URLClassLoader(toURLs(dependencies), ClassLoader.getSystemClassLoader().getParent());
+            dependencyPaths = dependencies;
+        }
+        Summary summary = new Summary();
+        Thread thread = Thread.currentThread();
+        ClassLoader previous = thread.getContextClassLoader();
+        try (URLClassLoader loader = new URLClassLoader(toURLs(directories), dependencyLoader);
+                URLClassLoader listenerLoader = new URLClassLoader(
+                        new URL[] { WarmTestRunner.class.getProtectionDomain().getCodeSource().getLocation() },
+                        loader)) {
+            thread.setContextClassLoader(loader);
+            JUnit junit;
+            try {
+                junit = new JUnit(loader, listenerLoader);
+            } catch (ClassNotFoundException e) {
+                summary.unsupported = true;
+                summary.messages.add("JUnit 4 was not found on the test classpath");
+                return summary;
+            }
+
+            List<Class<?>> testClasses = new ArrayList<Class<?>>();
+            for (String test : tests) {
+                Class<?> testClass = Class.forName(test, false, loader);
+                if (testClass.isInterface() || Modifier.isAbstract(testClass.getModifiers())) {
+                    continue;
+                }
+                if (junit.isJUnit4(testClass)) {
+                    testClasses.add(testClass);
+                } else if (isOtherFramework(testClass)) {
+                    summary.unsupported = true;
+                    summary.messages.add(test + " does not use JUnit 4");
+                    return summary;
+                }
+            }
+            Files.createDirectories(reportsDirectory.toPath());
+            for (Class<?> testClass : testClasses) {
+                junit.run(testClass, reportsDirectory, summary);
+            }
+        } finally {
+            thread.setContextClassLoader(previous);
+        }
+        return summary;
+    }
+
+    private static boolean isOtherFramework(Class<?> testClass) {
+        for (Class<?> c = testClass; c != null && c != Object.class; c = c.getSuperclass()) {
+            for (Method method : c.getDeclaredMethods()) {
+                for (Annotation annotation : method.getAnnotations()) {
+                    String name = annotation.annotationType().getName();
+                    if (name.startsWith("org.junit.jupiter.") || name.startsWith("org.testng.")) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reflective access to the JUnit 4 API of the test classpath.
+     */
+    private static class JUnit {
+        final Class<? extends Annotation> testAnnotation;
+        final Class<? extends Annotation> runWithAnnotation;
+        final Class<? extends Annotation> ignoreAnnotation;
+        final Object core;
+        final Method aClass;
+        final Method getRunner;
+        final Method getDescription;
+        final Method run;
+        final Method getChildren;
+        final Method isTest;
+        final Method getMethodName;
+        final Method getClassName;
+        final Method getDisplayName;
+        final Method getAnnotation;
+        final Method getRunCount;
+        final Method getFailures;
+        final Method getFailureDescription;
+        final Method getException;
+        final Method getTrace;
+        final Method addListener;
+        final Method removeListener;
+        final Class<?> listenerClass;
+
+        @SuppressWarnings("unchecked")
+        JUnit(ClassLoader loader, ClassLoader listenerLoader) throws ReflectiveOperationException {
+            testAnnotation = (Class<? extends Annotation>) loader.loadClass("org.junit.Test");
+            runWithAnnotation = (Class<? extends Annotation>) loader.loadClass("org.junit.runner.RunWith");
+            ignoreAnnotation = (Class<? extends Annotation>) loader.loadClass("org.junit.Ignore");
+            Class<?> coreClass = loader.loadClass("org.junit.runner.JUnitCore");
+            Class<?> requestClass = loader.loadClass("org.junit.runner.Request");
+            Class<?> runnerClass = loader.loadClass("org.junit.runner.Runner");
+            Class<?> descriptionClass = loader.loadClass("org.junit.runner.Description");
+            Class<?> resultClass = loader.loadClass("org.junit.runner.Result");
+            Class<?> failureClass = loader.loadClass("org.junit.runner.notification.Failure");
+            Class<?> runListenerClass = loader.loadClass("org.junit.runner.notification.RunListener");
+            core = coreClass.getDeclaredConstructor().newInstance();
+            aClass = requestClass.getMethod("aClass", Class.class);
+            getRunner = requestClass.getMethod("getRunner");
+            getDescription = runnerClass.getMethod("getDescription");
+            run = coreClass.getMethod("run", requestClass);
+            getChildren = descriptionClass.getMethod("getChildren");
+            isTest = descriptionClass.getMethod("isTest");
+            getMethodName = descriptionClass.getMethod("getMethodName");
+            getClassName = descriptionClass.getMethod("getClassName");
+            getDisplayName = descriptionClass.getMethod("getDisplayName");
+            getAnnotation = descriptionClass.getMethod("getAnnotation", Class.class);
+            getRunCount = resultClass.getMethod("getRunCount");
+            getFailures = resultClass.getMethod("getFailures");
+            getFailureDescription = failureClass.getMethod("getDescription");
+            getException = failureClass.getMethod("getException");
+            getTrace = failureClass.getMethod("getTrace");
+            addListener = coreClass.getMethod("addListener", runListenerClass);
+            removeListener = coreClass.getMethod("removeListener", runListenerClass);
+            listenerClass = Class.forName(LISTENER_CLASS, true, listenerLoader);
+        }
+
+        boolean isJUnit4(Class<?> testClass) {
+            if (testClass.isAnnotationPresent(runWithAnnotation)) {
+                return true;
+            }
+            for (Method method : testClass.getMethods()) {
+                if (method.isAnnotationPresent(testAnnotation)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void run(Class<?> testClass, File reportsDirectory, Summary summary) throws Exception {
+            List<Object> testCases = new ArrayList<Object>();
+            collectTests(getDescription.invoke(getRunner.invoke(aClass.invoke(null, testClass))), testCases);
+
+            Map<String, Long> times = new HashMap<String, Long>();
+            Set<String> skippedTests = new HashSet<String>();
+            Object listener = listenerClass.getConstructor(Map.class, Set.class).newInstance(times, skippedTests);
+            addListener.invoke(core, listener);
+            long start = System.nanoTime();
+            Object result;
+            try {
+                result = run.invoke(core, aClass.invoke(null, testClass));
+            } finally {
+                removeListener.invoke(core, listener);
+            }
+            double time = (System.nanoTime() - start) / 1e9;
+
+            Map<String, Object> failures = new HashMap<String, Object>();
+            for (Object failure : (List<?>) getFailures.invoke(result)) {
+                failures.put((String) getDisplayName.invoke(getFailureDescription.invoke(failure)), failure);
+            }
+            boolean classIgnored = testClass.isAnnotationPresent(ignoreAnnotation);
+
+            int tests = 0;
+            int testFailures = 0;
+            int testErrors = 0;
+            int skipped = 0;
+            StringBuilder cases = new StringBuilder();
+            List<Object> reported = new ArrayList<Object>(testCases);
+            // failures of the class itself, e.g. in a @BeforeClass method
+            for (Object failure : failures.values()) {
+                Object description = getFailureDescription.invoke(failure);
+                if (!testCases.contains(description)) {
+                    reported.add(description);
+                }
+            }
+            for (Object description : reported) {
+                String displayName = (String) getDisplayName.invoke(description);
+                String methodName = (String) getMethodName.invoke(description);
+                String className = (String) getClassName.invoke(description);
+                Long testTime = times.get(displayName);
+                tests++;
+                cases.append("  <testcase name=\"").append(escape(methodName == null ? displayName : methodName))
+                        .append("\" classname=\"").append(escape(className)).append("\" time=\"")
+                        .append(String.format(Locale.ROOT, "%.3f", testTime == null ? 0 : testTime / 1e9))
+                        .append("\"");
+                Object failure = failures.get(displayName);
+                if (failure != null) {
+                    Throwable exception = (Throwable) getException.invoke(failure);
+                    boolean assertion = exception instanceof AssertionError;
+                    String element = assertion ? "failure" : "error";
+                    if (assertion) {
+                        testFailures++;
+                    } else {
+                        testErrors++;
+                    }
+                    summary.messages.add(className + "." + methodName + " " + exception);
+                    cases.append(">\n    <").append(element).append(" message=\"")
+                            .append(escape(String.valueOf(exception.getMessage()))).append("\" type=\"")
+                            .append(escape(exception.getClass().getName())).append("\">")
+                            .append(escape((String) getTrace.invoke(failure))).append("</").append(element)
+                            .append(">\n  </testcase>\n");
+                } else if (classIgnored || getAnnotation.invoke(description, ignoreAnnotation) != null
+                        || skippedTests.contains(displayName) || testTime == null) {
+                    // ignored, failed an assumption, or never started, e.g. because an
+                    // assumption of the class failed
+                    skipped++;
+                    cases.append(">\n    <skipped/>\n  </testcase>\n");
+                } else {
+                    cases.append("/>\n");
+                }
+            }
+            if ((Integer) getRunCount.invoke(result) == 0 && tests == 0) {
+                return;
+            }
+            summary.tests += tests;
+            summary.failures += testFailures;
+            summary.errors += testErrors;
+            summary.skipped += skipped;
+
+            // same format as the maven-surefire-plugin so that surefire-report:report-only can read it
+            StringBuilder xml = new StringBuilder();
+            xml.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+            xml.append("<testsuite name=\"").append(escape(testClass.getName())).append("\" time=\"")
+                    .append(String.format(Locale.ROOT, "%.3f", time)).append("\" tests=\"").append(tests)
+                    .append("\" errors=\"").append(testErrors).append("\" skipped=\"").append(skipped)
+                    .append("\" failures=\"").append(testFailures).append("\">\n");
+            xml.append(cases);
+            xml.append("</testsuite>\n");
+            Files.write(new File(reportsDirectory, "TEST-" + testClass.getName() + ".xml").toPath(),
+                    xml.toString().getBytes(StandardCharsets.UTF_8));
+        }
+
+        private void collectTests(Object description, List<Object> tests) throws Exception {
+            if ((Boolean) isTest.invoke(description)) {
+                tests.add(description);
+            }
+            for (Object child : (List<?>) getChildren.invoke(description)) {
+                collectTests(child, tests);
+            }
+        }
+    }
+
+    private static List<String> readStrings(DataInputStream in) throws IOException {
+        int count = in.readInt();
+        List<String> values = new ArrayList<String>(count);
+        for (int i = 0; i < count; i++) {
+            values.add(in.readUTF());
+        }
+        return values;
+    }
+
+    private static URL[] toURLs(List<String> paths) throws IOException {
+        URL[] urls = new URL[paths.size()];
+        for (int i = 0; i < urls.length; i++) {
+            urls[i] = new File(paths.get(i)).toURI().toURL();
+        }
+        return urls;
+    }
+
+    private static String truncate(String message) {
+        return message.length() > MAX_MESSAGE_LENGTH ? message.substring(0, MAX_MESSAGE_LENGTH) + "..." : message;
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+            case '<':
+                escaped.append("&lt;");
+                break;
+            case '>':
+                escaped.append("&gt;");
+                break;
+            case '&':
+                escaped.append("&amp;");
+                break;
+            case '"':
+                escaped.append("&quot;");
+                break;
+            default:
+                if (c < 0x20 && c != '\t' && c != '\n' && c != '\r') {
+                    // not allowed in XML 1.0
+                    escaped.append('?');
+                } else {
+                    escaped.append(c);
+                }
+            }
+        }
+        return escaped.toString();
+    }
+}
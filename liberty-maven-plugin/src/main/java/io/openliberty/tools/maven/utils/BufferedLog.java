@@ -0,0 +1,189 @@
+/**
+ * (C) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openliberty.tools.maven.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.plugin.logging.Log;
+
+/**
+ * Log that holds its messages until they are flushed to the target log, so
+ * that work running on a background thread can report its output in a
+ * deterministic order.
+ */
+public class BufferedLog implements Log {
+
+    private enum Level {
+        DEBUG, INFO, WARN, ERROR
+    }
+
+    private static class Message {
+        final Level level;
+        final CharSequence content;
+        final Throwable error;
+
+        Message(Level level, CharSequence content, Throwable error) {
+            this.level = level;
+            this.content = content;
+            this.error = error;
+        }
+    }
+
+    private final Log target;
+    private final List<Message> messages = new ArrayList<Message>();
+
+    public BufferedLog(Log target) {
+        this.target = target;
+    }
+
+    /**
+     * Write the buffered messages to the target log and clear the buffer.
+     */
+    public synchronized void flush() {
+        for (Message message : messages) {
+            switch (message.level) {
+            case DEBUG:
+                if (message.error == null) {
+                    target.debug(message.content);
+                } else if (message.content == null) {
+                    target.debug(message.error);
+                } else {
+                    target.debug(message.content, message.error);
+                }
+                break;
+            case INFO:
+                if (message.error == null) {
+                    target.info(message.content);
+                } else if (message.content == null) {
+                    target.info(message.error);
+                } else {
+                    target.info(message.content, message.error);
+                }
+                break;
+            case WARN:
+                if (message.error == null) {
+                    target.warn(message.content);
+                } else if (message.content == null) {
+                    target.warn(message.error);
+                } else {
+                    target.warn(message.content, message.error);
+                }
+                break;
+            default:
+                if (message.error == null) {
+                    target.error(message.content);
+                } else if (message.content == null) {
+                    target.error(message.error);
+                } else {
+                    target.error(message.content, message.error);
+                }
+                break;
+            }
+        }
+        messages.clear();
+    }
+
+    private synchronized void add(Level level, CharSequence content, Throwable error) {
+        messages.add(new Message(level, content, error));
+    }
+
+    @Override
+    public boolean isDebugEnabled() {
+        return target.isDebugEnabled();
+    }
+
+    @Override
+    public void debug(CharSequence content) {
+        if (isDebugEnabled()) {
+            add(Level.DEBUG, content, null);
+        }
+    }
+
+    @Override
+    public void debug(CharSequence content, Throwable error) {
+        if (isDebugEnabled()) {
+            add(Level.DEBUG, content, error);
+        }
+    }
+
+    @Override
+    public void debug(Throwable error) {
+        if (isDebugEnabled()) {
+            add(Level.DEBUG, null, error);
+        }
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return target.isInfoEnabled();
+    }
+
+    @Override
+    public void info(CharSequence content) {
+        add(Level.INFO, content, null);
+    }
+
+    @Override
+    public void info(CharSequence content, Throwable error) {
+        add(Level.INFO, content, error);
+    }
+
+    @Override
+    public void info(Throwable error) {
+        add(Level.INFO, null, error);
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return target.isWarnEnabled();
+    }
+
+    @Override
+    public void warn(CharSequence content) {
+        add(Level.WARN, content, null);
+    }
+
+    @Override
+    public void warn(CharSequence content, Throwable error) {
+        add(Level.WARN, content, error);
+    }
+
+    @Override
+    public void warn(Throwable error) {
+        add(Level.WARN, null, error);
+    }
+
+    @Override
+    public boolean isErrorEnabled() {
+        return target.isErrorEnabled();
+    }
+
+    @Override
+    public void error(CharSequence content) {
+        add(Level.ERROR, content, null);
+    }
+
+    @Override
+    public void error(CharSequence content, Throwable error) {
+        add(Level.ERROR, content, error);
+    }
+
+    @Override
+    public void error(Throwable error) {
+        add(Level.ERROR, null, error);
+    }
+}
@@ -0,0 +1,152 @@
+/**
+ * (C) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openliberty.tools.maven.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * Helpers for computing content fingerprints of files and strings.
+ */
+public class DigestUtil {
+
+    private static final String ALGORITHM = "SHA-256";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /** Size of the buffer that file contents are streamed through */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Create a new message digest instance.
+     *
+     * @return a SHA-256 message digest
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Add the contents of the file to the digest. A missing file contributes a
+     * marker so that it is distinguished from an empty file.
+     *
+     * @param digest the digest to update
+     * @param file   the file to read
+     * @throws IOException if the file cannot be read
+     */
+    public static void update(MessageDigest digest, File file) throws IOException {
+        if (file == null || !file.isFile()) {
+            update(digest, "<missing>");
+            return;
+        }
+        // the file is streamed rather than memory mapped, since a mapping stays
+        // open until it is garbage collected and prevents the file from being
+        // overwritten on Windows
+        byte[] buffer = new byte[BUFFER_SIZE];
+        try (InputStream in = Files.newInputStream(file.toPath())) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+    }
+
+    /**
+     * Add the relative paths and contents of the files in a directory tree to
+     * the digest, in a stable order. A missing directory contributes a marker so
+     * that it is distinguished from an empty directory.
+     *
+     * @param digest    the digest to update
+     * @param directory the directory to read
+     * @param suffix    only include files whose names end with the suffix, or
+     *                  null for all files
+     * @throws IOException if a file cannot be read
+     */
+    public static void updateDirectory(MessageDigest digest, File directory, String suffix) throws IOException {
+        if (directory == null || !directory.isDirectory()) {
+            update(digest, "<missing>");
+            return;
+        }
+        updateDirectory(digest, directory, "", suffix);
+    }
+
+    private static void updateDirectory(MessageDigest digest, File directory, String path, String suffix)
+            throws IOException {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files);
+        for (File file : files) {
+            String relativePath = path + file.getName();
+            if (file.isDirectory()) {
+                updateDirectory(digest, file, relativePath + "/", suffix);
+            } else if (suffix == null || file.getName().endsWith(suffix)) {
+                update(digest, relativePath);
+                update(digest, file);
+            }
+        }
+    }
+
+    /**
+     * Add the string to the digest, followed by a separator.
+     *
+     * @param digest the digest to update
+     * @param value  the value to add, may be null
+     */
+    public static void update(MessageDigest digest, String value) {
+        digest.update(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    /**
+     * Compute the digest of a single file.
+     *
+     * @param file the file to read
+     * @return the hex encoded digest
+     * @throws IOException if the file cannot be read
+     */
+    public static String digest(File file) throws IOException {
+        MessageDigest digest = newDigest();
+        update(digest, file);
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Hex encode the given bytes.
+     *
+     * @param bytes the bytes to encode
+     * @return lower case hex string
+     */
+    public static String toHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[i * 2] = HEX[(bytes[i] >> 4) & 0xf];
+            chars[i * 2 + 1] = HEX[bytes[i] & 0xf];
+        }
+        return new String(chars);
+    }
+}
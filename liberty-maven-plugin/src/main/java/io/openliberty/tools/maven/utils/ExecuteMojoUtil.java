@@ -26,8 +26,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.maven.model.Plugin;
 import org.apache.maven.model.PluginExecution;
@@ -38,7 +41,7 @@ import org.twdata.maven.mojoexecutor.MojoExecutor.Element;
 public class ExecuteMojoUtil {
 
     // https://maven.apache.org/plugins/maven-compiler-plugin/compile-mojo.html
-    private static final ArrayList<String> COMPILE_PARAMS = new ArrayList<>(Arrays.asList(
+    private static final Set<String> COMPILE_PARAMS = new HashSet<>(Arrays.asList(
             "annotationProcessorPaths", "annotationProcessors", "compilerArgs", "compilerArgument",
             "compilerArguments", "compilerId", "compilerReuseStrategy", "compilerVersion", "debug",
             "debuglevel", "encoding", "excludes", "executable", "failOnError", "failOnWarning",
@@ -50,7 +53,7 @@ public class ExecuteMojoUtil {
     ));
 
     // https://maven.apache.org/plugins/maven-compiler-plugin/testCompile-mojo.html
-    private static final ArrayList<String> TEST_COMPILE_PARAMS = new ArrayList<>(Arrays.asList(
+    private static final Set<String> TEST_COMPILE_PARAMS = new HashSet<>(Arrays.asList(
             "annotationProcessorPaths", "annotationProcessors", "compilerArgs", "compilerArgument",
             "compilerArguments", "compilerId", "compilerReuseStrategy", "compilerVersion", "debug",
             "debuglevel", "encoding", "executable", "failOnError", "failOnWarning", 
@@ -63,7 +66,7 @@ public class ExecuteMojoUtil {
     ));
 
     // https://maven.apache.org/plugins/maven-resources-plugin/resources-mojo.html
-    private static final ArrayList<String> RESOURCES_PARAMS = new ArrayList<>(Arrays.asList(
+    private static final Set<String> RESOURCES_PARAMS = new HashSet<>(Arrays.asList(
             "outputDirectory", "resources", "addDefaultExcludes", "delimiters", "encoding", "escapeString",
             "escapeWindowsPaths", "fileNameFiltering", "filters", "includeEmptyDirs", 
             "mavenFilteringHints", "nonFilteredFileExtensions", "overwrite", "skip",
@@ -71,7 +74,7 @@ public class ExecuteMojoUtil {
     ));
 
     // https://maven.apache.org/plugins/maven-resources-plugin/testResources-mojo.html
-    private static final ArrayList<String> TEST_RESOURCES_PARAMS = new ArrayList<>(Arrays.asList(
+    private static final Set<String> TEST_RESOURCES_PARAMS = new HashSet<>(Arrays.asList(
             "outputDirectory", "resources", "addDefaultExcludes", "delimiters", "encoding",
             "escapeString", "escapeWindowsPaths", "fileNameFiltering", "filters",
             "includeEmptyDirs", "mavenFilteringHints", "nonFilteredFileExtensions",
@@ -80,7 +83,7 @@ public class ExecuteMojoUtil {
     ));
 
     // https://maven.apache.org/surefire/maven-surefire-plugin/test-mojo.html
-    private static final ArrayList<String> TEST_PARAMS = new ArrayList<>(Arrays.asList(
+    private static final Set<String> TEST_PARAMS = new HashSet<>(Arrays.asList(
             "testSourceDirectory", "additionalClasspathElements", "argLine", "basedir",
             "childDelegation", "classesDirectory", "classpathDependencyExcludes", 
             "classpathDependencyScopeExclude", "debugForkedProcess", "dependenciesToScan",
@@ -103,7 +106,7 @@ public class ExecuteMojoUtil {
     ));
 
     // https://maven.apache.org/surefire/maven-failsafe-plugin/integration-test-mojo.html
-    private static final ArrayList<String> INTEGRATION_TEST_PARAMS = new ArrayList<>(Arrays.asList(
+    private static final Set<String> INTEGRATION_TEST_PARAMS = new HashSet<>(Arrays.asList(
             "summaryFile", "testSourceDirectory", "additionalClasspathElements", "argLine",
             "basedir", "childDelegation", "classesDirectory", "classpathDependencyExcludes",
             "classpathDependencyScopeExclude", "debugForkedProcess", "dependenciesToScan",
@@ -125,30 +128,30 @@ public class ExecuteMojoUtil {
     ));
 
     // https://maven.apache.org/surefire/maven-failsafe-plugin/verify-mojo.html
-    private static final ArrayList<String> VERIFY_PARAMS = new ArrayList<>(Arrays.asList(
+    private static final Set<String> VERIFY_PARAMS = new HashSet<>(Arrays.asList(
             "summaryFile", "basedir", "encoding", "failIfNoTests", "reportsDirectory",
             "skip", "skipExec", "skipITs", "skipTests", "summaryFiles", 
             "testClassesDirectory", "testFailureIgnore"
     ));
 
     // https://maven.apache.org/surefire/maven-surefire-report-plugin/report-only-mojo.html
-    private static final ArrayList<String> REPORT_ONLY_PARAMS = new ArrayList<>(Arrays.asList(
+    private static final Set<String> REPORT_ONLY_PARAMS = new HashSet<>(Arrays.asList(
             "outputName", "showSuccess", "aggregate", "alwaysGenerateSurefireReport",
             "description", "linkXRef", "reportsDirectories", "reportsDirectory",
             "skipSurefireReport", "title", "xrefLocation"
     ));
 
     // https://maven.apache.org/surefire/maven-surefire-report-plugin/failsafe-report-only-mojo.html
-    private static final ArrayList<String> FAILSAFE_REPORT_ONLY_PARAMS = REPORT_ONLY_PARAMS;
+    private static final Set<String> FAILSAFE_REPORT_ONLY_PARAMS = REPORT_ONLY_PARAMS;
     
     // https://maven.apache.org/plugins/maven-war-plugin/exploded-mojo.html
-    private static final ArrayList<String> EXPLODED_PARAMS = new ArrayList<>(Arrays.asList(
+    private static final Set<String> EXPLODED_PARAMS = new HashSet<>(Arrays.asList(
             "filteringDeploymentDescriptors", "warSourceDirectory", "webappDirectory", "workDirectory", "filters",
             "overlays", "webResources"
             ));
 
     // https://maven.apache.org/plugins/maven-ear-plugin/ear-mojo.html
-    private static final ArrayList<String> EAR_PARAMS = new ArrayList<>(
+    private static final Set<String> EAR_PARAMS = new HashSet<>(
             Arrays.asList("earSourceDirectory", "outputDirectory", "outputFileNameMapping", "tempFolder", "workDirectory",
                     "applicationXml", "archive", "artifactTypeMappings", "classifier", "defaultLibBundleDir", "earSourceExcludes",
                     "earSourceIncludes", "encoding", "escapeString", "escapedBackslashesInFilePath",
@@ -158,18 +161,18 @@ public class ExecuteMojoUtil {
                     "useBaseVersion", "useJvmChmod", "version"));
 
     // https://maven.apache.org/plugins/maven-jar-plugin/jar-mojo.html
-    private static final ArrayList<String> JAR_PARAMS = new ArrayList<>(
+    private static final Set<String> JAR_PARAMS = new HashSet<>(
             Arrays.asList("classesDirectory", "outputDirectory", "archive", "classifier", "excludes", "forceCreation",
                     "includes", "outputTimestamp", "skipIfEmpty", "useDefaultManifestFile"));
     
     // https://maven.apache.org/plugins/maven-ejb-plugin/ejb-mojo.html
-    private static final ArrayList<String> EJB_PARAMS = new ArrayList<>(
+    private static final Set<String> EJB_PARAMS = new HashSet<>(
             Arrays.asList("sourceDirectory", "archive", "classifier", "clientClassifier", "clientExcludes",
                     "clientIncludes", "ejbJar", "ejbVersion", "escapeBackslashesInFilePath", "escapeString", "excludes",
                     "filterDeploymentDescriptor", "filters", "generateClient", "outputTimestamp"));
 
     // https://maven.apache.org/plugins/maven-war-plugin/war-mojo.html
-    private static final ArrayList<String> WAR_PARAMS = new ArrayList<>(Arrays.asList("outputDirectory",
+    private static final Set<String> WAR_PARAMS = new HashSet<>(Arrays.asList("outputDirectory",
             "warSourceDirectory", "webappDirectory", "workDirectory", "archive", "archiveClasses", "attachClasses",
             "classesClassifier", "classifier", "containerConfigXML", "delimiters", "dependentWarExcludes",
             "dependentWarIncludes", "escapeString", "escapedBackslashesInFilePath", "failOnMissingWebXml",
@@ -180,7 +183,7 @@ public class ExecuteMojoUtil {
             "warSourceIncludes", "webResources", "webXml"));
 
     // https://maven.apache.org/plugins/maven-ear-plugin/generate-application-xml-mojo.html
-    private static final ArrayList<String> EAR_GENERATE_APPLICATION_XML_PARAMS = new ArrayList<>(
+    private static final Set<String> EAR_GENERATE_APPLICATION_XML_PARAMS = new HashSet<>(
             Arrays.asList("outputFileNameMapping", "tempFolder", "workDirectory", "applicationId", "applicationName",
                     "artifactTypeMappings", "defaultLibBundleDir", "description", "displayName", "ejbRefs", "encoding",
                     "envEntries", "fileNameMapping", "generateApplicationXml", "generateModuleId",
@@ -188,7 +191,7 @@ public class ExecuteMojoUtil {
                     "libraryDirectoryMode", "mainArtifactId", "modules", "resourceRefs", "security", "useBaseVersion",
                     "version"));
 
-    private static final ArrayList<String> LIBERTY_COMMON_PARAMS = new ArrayList<>(Arrays.asList(
+    private static final Set<String> LIBERTY_COMMON_PARAMS = new HashSet<>(Arrays.asList(
             "installDirectory", "assemblyArchive", "assemblyArtifact", "libertyRuntimeVersion",
             "install", "licenseArtifact", "serverName", "userDirectory", "outputDirectory",
             "assemblyInstallDirectory", "refresh", "skip", "serverXmlFile", "configDirectory", 
@@ -197,22 +200,22 @@ public class ExecuteMojoUtil {
     // "runtimeArchive", "runtimeArtifact", "runtimeInstallDirectory" "configFile" "serverEnv"
     ));
 
-    private static final ArrayList<String> LIBERTY_COMMON_SERVER_PARAMS = new ArrayList<>(
+    private static final Set<String> LIBERTY_COMMON_SERVER_PARAMS = new HashSet<>(
             Arrays.asList("copyDependencies", "bootstrapProperties", "bootstrapPropertiesFile", "jvmOptions", "jvmOptionsFile"
             ));
     
-    private static final ArrayList<String> CREATE_PARAMS;
+    private static final Set<String> CREATE_PARAMS;
     static {
-        CREATE_PARAMS = new ArrayList<>(Arrays.asList(
+        CREATE_PARAMS = new HashSet<>(Arrays.asList(
                 "template", "libertySettingsFolder", "noPassword"
                 ));
         CREATE_PARAMS.addAll(LIBERTY_COMMON_PARAMS);
         CREATE_PARAMS.addAll(LIBERTY_COMMON_SERVER_PARAMS);
     }
     
-    private static final ArrayList<String> DEPLOY_PARAMS;
+    private static final Set<String> DEPLOY_PARAMS;
     static {
-        DEPLOY_PARAMS = new ArrayList<>(Arrays.asList(
+        DEPLOY_PARAMS = new HashSet<>(Arrays.asList(
                 "appsDirectory", "stripVersion", "deployPackages", "timeout", "looseApplication",
                 "copyLibsDirectory"
                 // executeMojo can not use alias parameters:
@@ -222,13 +225,13 @@ public class ExecuteMojoUtil {
         DEPLOY_PARAMS.addAll(LIBERTY_COMMON_SERVER_PARAMS);
     }
     
-    private static final ArrayList<String> INSTALL_FEATURE_PARAMS;
+    private static final Set<String> INSTALL_FEATURE_PARAMS;
     static {
-        INSTALL_FEATURE_PARAMS = new ArrayList<>(Arrays.asList("features"));
+        INSTALL_FEATURE_PARAMS = new HashSet<>(Arrays.asList("features", "useFeatureIndex"));
         INSTALL_FEATURE_PARAMS.addAll(LIBERTY_COMMON_PARAMS);
     }
 
-    private static final ArrayList<String> GENERATE_FEATURES_PARAMS;
+    private static final Set<String> GENERATE_FEATURES_PARAMS;
     static {
         GENERATE_FEATURES_PARAMS = LIBERTY_COMMON_PARAMS;
     }
@@ -245,14 +248,92 @@ public class ExecuteMojoUtil {
         LIBERTY_ALIAS_MAP = Collections.unmodifiableMap(tempMap);
     }
 
+    private static final int GOAL_CONFIG_CACHE_SIZE = 256;
+
     /**
-     * Given the Plugin get the goal execution configuration.
+     * Validated goal configurations, most recently used last. A rebuilt project
+     * model has new configuration objects, so its goal configurations are
+     * computed again.
+     */
+    private static final Map<GoalConfigKey, Xpp3Dom> GOAL_CONFIGS = Collections.synchronizedMap(
+            new LinkedHashMap<GoalConfigKey, Xpp3Dom>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<GoalConfigKey, Xpp3Dom> eldest) {
+                    return size() > GOAL_CONFIG_CACHE_SIZE;
+                }
+            });
+
+    /**
+     * Identifies a goal configuration by the plugin key, version and goal, and by
+     * the identity of the configuration objects it is computed from.
+     */
+    private static class GoalConfigKey {
+        private final String plugin;
+        private final String goal;
+        private final List<Object> sources = new ArrayList<Object>();
+
+        GoalConfigKey(Plugin plugin, String goal) {
+            this.plugin = plugin.getKey() + ":" + plugin.getVersion();
+            this.goal = goal;
+            sources.add(plugin.getConfiguration());
+            if (plugin.getExecutions() != null) {
+                for (PluginExecution e : plugin.getExecutions()) {
+                    sources.add(e);
+                    sources.add(e.getGoals());
+                    sources.add(e.getConfiguration());
+                }
+            }
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof GoalConfigKey)) {
+                return false;
+            }
+            GoalConfigKey other = (GoalConfigKey) obj;
+            if (!plugin.equals(other.plugin) || !goal.equals(other.goal) || sources.size() != other.sources.size()) {
+                return false;
+            }
+            for (int i = 0; i < sources.size(); i++) {
+                if (sources.get(i) != other.sources.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            int hash = plugin.hashCode() * 31 + goal.hashCode();
+            for (Object source : sources) {
+                hash = hash * 31 + System.identityHashCode(source);
+            }
+            return hash;
+        }
+    }
+
+    /**
+     * Given the Plugin get the goal execution configuration. The configuration
+     * is computed once for each plugin configuration and goal, and each caller
+     * gets its own copy, which it may modify.
      *
      * @param plugin
      * @param goal
      * @return configuration for the plugin execution goal
      */
     public static Xpp3Dom getPluginGoalConfig(Plugin plugin, String goal, Log log) {
+        GoalConfigKey key = new GoalConfigKey(plugin, goal);
+        Xpp3Dom config = GOAL_CONFIGS.get(key);
+        if (config == null) {
+            config = computePluginGoalConfig(plugin, goal, log);
+            GOAL_CONFIGS.put(key, config);
+        }
+        return new Xpp3Dom(config);
+    }
+
+    private static Xpp3Dom computePluginGoalConfig(Plugin plugin, String goal, Log log) {
         Xpp3Dom config = null;
         String execId = "default";
         int numExec = 0;
@@ -392,7 +473,7 @@ public class ExecuteMojoUtil {
      * @param goalParams the config elements to keep
      * @return config with non applicable elements removed
      */
-    private static Xpp3Dom stripConfigElements(Xpp3Dom config, ArrayList<String> goalParams) {
+    private static Xpp3Dom stripConfigElements(Xpp3Dom config, Set<String> goalParams) {
         // strip non applicable parameters
         List<Integer> removeChildren = new ArrayList<Integer>();
         for (int i=0; i<config.getChildCount(); i++) {
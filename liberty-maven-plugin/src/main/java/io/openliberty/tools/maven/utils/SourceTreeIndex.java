@@ -0,0 +1,204 @@
+/**
+ * (C) Copyright IBM Corporation 2022.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.openliberty.tools.maven.utils;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileVisitOption;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An index of the Java source files in the source directories of the modules.
+ * Each directory is walked once when dev mode starts, and is then kept up to
+ * date by reporting the Java file changes that dev mode watches for with
+ * {@link #fileChanged(File)}. Other files are not indexed, since dev mode does
+ * not report their changes here.
+ * <p>
+ * The index is shared by the goals that run in the same build, so that the
+ * directories that dev mode indexed are not walked again when dev mode runs
+ * other goals. Directories that were not indexed are walked on each query,
+ * since nothing keeps them up to date. The index is cleared when dev mode
+ * exits.
+ */
+public class SourceTreeIndex {
+
+    private static final SourceTreeIndex INSTANCE = new SourceTreeIndex();
+
+    private static final Set<FileVisitOption> FOLLOW_LINKS = EnumSet.of(FileVisitOption.FOLLOW_LINKS);
+
+    private static final String JAVA_EXTENSION = ".java";
+
+    /** The Java files of each indexed directory */
+    private final Map<Path, Set<File>> roots = new ConcurrentHashMap<Path, Set<File>>();
+
+    /**
+     * @return the index that is shared by the goals of the build
+     */
+    public static SourceTreeIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Replace the indexed directories with the given directories, and walk each
+     * of them to index their Java files. A directory that does not exist is
+     * indexed as empty, and its files are added when they are reported as
+     * changed.
+     *
+     * @param directories the directories to index
+     */
+    public void reindex(Collection<File> directories) {
+        roots.clear();
+        for (File directory : directories) {
+            if (directory != null) {
+                roots.put(getPath(directory), scan(getPath(directory)));
+            }
+        }
+    }
+
+    /**
+     * Remove all indexed directories, for example because dev mode stopped
+     * reporting file changes.
+     */
+    public void clear() {
+        roots.clear();
+    }
+
+    /**
+     * Check whether a directory or its subdirectories have a Java source file.
+     *
+     * @param directory the directory
+     * @return true if there is such a file
+     */
+    public boolean containsJavaFiles(File directory) {
+        Set<File> files = roots.get(getPath(directory));
+        if (files != null) {
+            synchronized (files) {
+                return !files.isEmpty();
+            }
+        }
+        final boolean[] found = new boolean[1];
+        walk(getPath(directory), new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile() && isJavaFile(file.toFile())) {
+                    found[0] = true;
+                    return FileVisitResult.TERMINATE;
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return found[0];
+    }
+
+    /**
+     * Update the indexed directories that contain the file. A file that no longer
+     * exists is removed, together with any indexed files under it in case it was
+     * a directory.
+     *
+     * @param file the created, modified or deleted file
+     */
+    public void fileChanged(File file) {
+        Path path = getPath(file);
+        boolean exists = file.isFile();
+        if (exists && !isJavaFile(file)) {
+            return;
+        }
+        for (Map.Entry<Path, Set<File>> entry : roots.entrySet()) {
+            if (!path.startsWith(entry.getKey())) {
+                continue;
+            }
+            Set<File> files = entry.getValue();
+            synchronized (files) {
+                if (exists) {
+                    files.add(path.toFile());
+                } else if (!file.isDirectory()) {
+                    Iterator<File> i = files.iterator();
+                    while (i.hasNext()) {
+                        if (i.next().toPath().startsWith(path)) {
+                            i.remove();
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Update the indexed directories for each of the files.
+     *
+     * @param files the created, modified or deleted files
+     */
+    public void filesChanged(Collection<File> files) {
+        for (File file : files) {
+            fileChanged(file);
+        }
+    }
+
+    private static Set<File> scan(Path root) {
+        final Set<File> files = new HashSet<File>();
+        walk(root, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
+                if (attrs.isRegularFile() && isJavaFile(file.toFile())) {
+                    files.add(file.toFile());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return files;
+    }
+
+    private static boolean isJavaFile(File file) {
+        return file.getName().toLowerCase().endsWith(JAVA_EXTENSION);
+    }
+
+    private static Path getPath(File file) {
+        return file.toPath().toAbsolutePath().normalize();
+    }
+
+    private static void walk(Path root, final SimpleFileVisitor<Path> visitor) {
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        try {
+            Files.walkFileTree(root, FOLLOW_LINKS, Integer.MAX_VALUE, new SimpleFileVisitor<Path>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                    return visitor.visitFile(file, attrs);
+                }
+
+                @Override
+                public FileVisitResult visitFileFailed(Path file, IOException e) {
+                    // an unreadable file or a symbolic link loop
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            // not thrown since failures are skipped
+        }
+    }
+}